@@ -78,6 +78,7 @@ public class TripRequestMapperTest implements PlanTestConstants {
           new DefaultVehicleRentalService(),
           RouterConfig.DEFAULT.flexConfig(),
           List.of(),
+          null,
           null
         ),
         null,
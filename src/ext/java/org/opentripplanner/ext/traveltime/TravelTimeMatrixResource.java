@@ -0,0 +1,281 @@
+package org.opentripplanner.ext.traveltime;
+
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.api.common.LocationStringParser;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.framework.time.ServiceDateUtils;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.DefaultAccessEgress;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.AccessEgressMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRoutingRequestTransitData;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RouteRequestTransitDataProviderFilter;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.transit.model.site.RegularStop;
+import org.opentripplanner.transit.service.TransitService;
+
+/**
+ * Calculate the travel time from many origins to many destinations, or to all stops if no
+ * destinations are given. The transit data is prepared once and shared by all origins, and one
+ * Raptor search is done for each origin. The searches run in parallel if the Raptor thread pool is
+ * enabled. The result is streamed as CSV, one origin at the time.
+ */
+@Path("/traveltime/matrix")
+public class TravelTimeMatrixResource {
+
+  private static final String CSV_HEADER = "origin,destination,duration\n";
+
+  private final RouteRequest routingRequest;
+  private final Graph graph;
+  private final TransitService transitService;
+  private final RaptorService<TripSchedule> raptorService;
+  private final List<GenericLocation> origins;
+  private final List<GenericLocation> destinations;
+  private final Duration cutoff;
+  private final Instant startTime;
+  private final ZonedDateTime startOfTime;
+  private final RaptorRoutingRequestTransitData requestTransitDataProvider;
+
+  public TravelTimeMatrixResource(
+    @Context OtpServerRequestContext serverContext,
+    @QueryParam("origin") List<String> origins,
+    @QueryParam("destination") List<String> destinations,
+    @QueryParam("time") String time,
+    @QueryParam("cutoff") @DefaultValue("60m") String cutoff,
+    @QueryParam("modes") String modes
+  ) {
+    if (origins == null || origins.isEmpty()) {
+      throw new BadRequestException("At least one origin is required.");
+    }
+    this.graph = serverContext.graph();
+    this.transitService = serverContext.transitService();
+    this.routingRequest = serverContext.defaultRouteRequest();
+    if (modes != null) {
+      TravelTimeResource.setModes(routingRequest, modes);
+    }
+    this.origins = origins.stream().map(LocationStringParser::fromOldStyleString).toList();
+    this.destinations =
+      destinations == null
+        ? List.of()
+        : destinations.stream().map(LocationStringParser::fromOldStyleString).toList();
+    this.cutoff = DurationUtils.duration(cutoff);
+
+    this.startTime = time != null ? Instant.parse(time) : Instant.now();
+    routingRequest.setDateTime(startTime);
+
+    ZoneId zoneId = transitService.getTimeZone();
+    LocalDate startDate = LocalDate.ofInstant(startTime, zoneId);
+    LocalDate endDate = LocalDate.ofInstant(startTime.plus(this.cutoff), zoneId);
+    this.startOfTime = ServiceDateUtils.asStartOfService(startDate, zoneId);
+
+    this.requestTransitDataProvider =
+      new RaptorRoutingRequestTransitData(
+        transitService.getRealtimeTransitLayer(),
+        startOfTime,
+        0,
+        (int) Period.between(startDate, endDate).get(ChronoUnit.DAYS),
+        new RouteRequestTransitDataProviderFilter(routingRequest),
+        routingRequest
+      );
+    this.raptorService = new RaptorService<>(serverContext.raptorConfig());
+  }
+
+  @GET
+  @Produces("text/csv")
+  public Response getMatrix() {
+    StreamingOutput out = outputStream -> {
+      var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+      writer.write(CSV_HEADER);
+      routeAll(writer);
+      writer.flush();
+    };
+    return Response.ok().entity(out).build();
+  }
+
+  private void routeAll(Writer writer) {
+    int departureTime = ServiceDateUtils.secondsSinceStartOfTime(startOfTime, startTime);
+    int maxDuration = (int) cutoff.toSeconds();
+    var egressByDestination = destinations.stream().map(this::egress).toList();
+
+    var requests = new ArrayList<RaptorRequest<TripSchedule>>();
+    for (GenericLocation origin : origins) {
+      requests.add(createRaptorRequest(access(origin), departureTime, maxDuration));
+    }
+
+    var origin = new int[] { 0 };
+    raptorService.routeBatch(
+      requests,
+      requestTransitDataProvider,
+      response -> {
+        try {
+          if (destinations.isEmpty()) {
+            writeStops(writer, origin[0], response.getArrivals(), departureTime, maxDuration);
+          } else {
+            writeDestinations(
+              writer,
+              origin[0],
+              response.getArrivals(),
+              egressByDestination,
+              departureTime,
+              maxDuration
+            );
+          }
+          writer.flush();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        ++origin[0];
+      }
+    );
+  }
+
+  private void writeStops(
+    Writer writer,
+    int origin,
+    StopArrivals arrivals,
+    int departureTime,
+    int maxDuration
+  ) throws IOException {
+    for (RegularStop stop : transitService.listRegularStops()) {
+      int index = stop.getIndex();
+      if (arrivals.reached(index)) {
+        int duration = arrivals.bestArrivalTime(index) - departureTime;
+        if (duration <= maxDuration) {
+          writer.write(origin + "," + stop.getId() + "," + duration + "\n");
+        }
+      }
+    }
+  }
+
+  private void writeDestinations(
+    Writer writer,
+    int origin,
+    StopArrivals arrivals,
+    List<Collection<DefaultAccessEgress>> egressByDestination,
+    int departureTime,
+    int maxDuration
+  ) throws IOException {
+    for (int destination = 0; destination < egressByDestination.size(); ++destination) {
+      int duration = Integer.MAX_VALUE;
+      for (DefaultAccessEgress egress : egressByDestination.get(destination)) {
+        if (arrivals.reached(egress.stop())) {
+          int arrivalTime = arrivals.bestArrivalTime(egress.stop()) + egress.durationInSeconds();
+          duration = Math.min(duration, arrivalTime - departureTime);
+        }
+      }
+      if (duration <= maxDuration) {
+        writer.write(origin + "," + destination + "," + duration + "\n");
+      }
+    }
+  }
+
+  private RaptorRequest<TripSchedule> createRaptorRequest(
+    Collection<DefaultAccessEgress> accessList,
+    int departureTime,
+    int maxDuration
+  ) {
+    RaptorRequestBuilder<TripSchedule> builder = new RaptorRequestBuilder<>();
+    builder
+      .profile(RaptorProfile.BEST_TIME)
+      .searchParams()
+      .earliestDepartureTime(departureTime)
+      .latestArrivalTime(departureTime + maxDuration)
+      .searchOneIterationOnly()
+      .timetable(false)
+      .allowEmptyAccessEgressPaths(true)
+      .constrainedTransfers(false)
+      .addAccessPaths(accessList);
+    return builder.build();
+  }
+
+  private Collection<DefaultAccessEgress> access(GenericLocation origin) {
+    var request = routingRequest.clone();
+    request.setFrom(origin);
+    var streetRequest = request.journey().access();
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        graph,
+        request,
+        streetRequest.mode(),
+        StreetMode.NOT_SET
+      )
+    ) {
+      var stops = AccessEgressRouter.streetSearch(
+        request,
+        temporaryVertices,
+        transitService,
+        streetRequest,
+        null,
+        false,
+        maxAccessEgressDuration(streetRequest.mode()),
+        0
+      );
+      return AccessEgressMapper.mapNearbyStops(stops, false);
+    }
+  }
+
+  private Collection<DefaultAccessEgress> egress(GenericLocation destination) {
+    var request = routingRequest.clone();
+    request.setTo(destination);
+    var streetRequest = request.journey().egress();
+    try (
+      var temporaryVertices = new TemporaryVerticesContainer(
+        graph,
+        request,
+        StreetMode.NOT_SET,
+        streetRequest.mode()
+      )
+    ) {
+      var stops = AccessEgressRouter.streetSearch(
+        request,
+        temporaryVertices,
+        transitService,
+        streetRequest,
+        null,
+        true,
+        maxAccessEgressDuration(streetRequest.mode()),
+        0
+      );
+      return AccessEgressMapper.mapNearbyStops(stops, true);
+    }
+  }
+
+  private Duration maxAccessEgressDuration(StreetMode mode) {
+    var duration = routingRequest.preferences().street().accessEgress().maxDuration().valueOf(mode);
+    return duration.compareTo(cutoff) < 0 ? duration : cutoff;
+  }
+}
@@ -87,12 +87,7 @@ public class TravelTimeResource {
     routingRequest.setArriveBy(arriveBy);
 
     if (modes != null) {
-      var modeSet = new QualifiedModeSet(modes);
-      routingRequest.journey().setModes(modeSet.getRequestModes());
-      var transitModes = modeSet.getTransitModes().stream().map(MainAndSubMode::new).toList();
-      var select = SelectRequest.of().withTransportModes(transitModes).build();
-      var request = TransitFilterRequest.of().addSelect(select).build();
-      routingRequest.journey().transit().setFilters(List.of(request));
+      setModes(routingRequest, modes);
     }
 
     var durationForMode = routingRequest.preferences().street().accessEgress().maxDuration();
@@ -302,4 +297,16 @@ public class TravelTimeResource {
       ? accessRequest.journey().access()
       : accessRequest.journey().egress();
   }
+
+  /**
+   * Set the street modes and the transit mode filter of the routing request.
+   */
+  static void setModes(RouteRequest routingRequest, String modes) {
+    var modeSet = new QualifiedModeSet(modes);
+    routingRequest.journey().setModes(modeSet.getRequestModes());
+    var transitModes = modeSet.getTransitModes().stream().map(MainAndSubMode::new).toList();
+    var select = SelectRequest.of().withTransportModes(transitModes).build();
+    var request = TransitFilterRequest.of().addSelect(select).build();
+    routingRequest.journey().transit().setFilters(List.of(request));
+  }
 }
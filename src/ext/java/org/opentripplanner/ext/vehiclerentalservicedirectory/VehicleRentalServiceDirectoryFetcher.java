@@ -6,9 +6,11 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalServiceDirectoryFetcherParameters;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.framework.io.OtpHttpClientException;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.linking.VertexLinker;
 import org.opentripplanner.service.vehiclerental.VehicleRentalRepository;
 import org.opentripplanner.updater.spi.GraphUpdater;
@@ -33,7 +35,8 @@ public class VehicleRentalServiceDirectoryFetcher {
   public static List<GraphUpdater> createUpdatersFromEndpoint(
     VehicleRentalServiceDirectoryFetcherParameters parameters,
     VertexLinker vertexLinker,
-    VehicleRentalRepository repository
+    VehicleRentalRepository repository,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     LOG.info("Fetching list of updaters from {}", parameters.getUrl());
 
@@ -91,7 +94,8 @@ public class VehicleRentalServiceDirectoryFetcher {
           vehicleRentalParameters,
           dataSource,
           vertexLinker,
-          repository
+          repository,
+          accessEgressCache
         );
         updaters.add(updater);
       }
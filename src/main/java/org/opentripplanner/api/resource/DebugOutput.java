@@ -44,6 +44,12 @@ public class DebugOutput {
    */
   public final TransitTimingOutput transitRouterTimes;
 
+  /**
+   * Statistics for each round of the main Raptor search. This is {@code null} unless the
+   * {@code RaptorSearchStatistics} feature is enabled.
+   */
+  public final RaptorStatisticsOutput raptorStatistics;
+
   public DebugOutput(
     long precalculationTime,
     long directStreetRouterTime,
@@ -51,7 +57,8 @@ public class DebugOutput {
     long filteringTime,
     long renderingTime,
     long totalTime,
-    TransitTimingOutput transitRouterTimes
+    TransitTimingOutput transitRouterTimes,
+    RaptorStatisticsOutput raptorStatistics
   ) {
     this.precalculationTime = precalculationTime;
     this.directStreetRouterTime = directStreetRouterTime;
@@ -60,5 +67,6 @@ public class DebugOutput {
     this.renderingTime = renderingTime;
     this.totalTime = totalTime;
     this.transitRouterTimes = transitRouterTimes;
+    this.raptorStatistics = raptorStatistics;
   }
 }
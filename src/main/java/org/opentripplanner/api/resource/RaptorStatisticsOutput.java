@@ -0,0 +1,36 @@
+package org.opentripplanner.api.resource;
+
+import java.util.List;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
+
+/**
+ * Holds the statistics for the main Raptor search, to be included in the REST Response for
+ * debugging and profiling purposes.
+ */
+public class RaptorStatisticsOutput {
+
+  /**
+   * The number of Range Raptor iterations(minutes) searched.
+   */
+  public final int iterations;
+
+  /**
+   * Time taken by all iterations in nanoseconds.
+   */
+  public final long iterationTime;
+
+  /**
+   * The work done in each round, summed over all iterations.
+   */
+  public final List<RaptorRoundStatistics> rounds;
+
+  public RaptorStatisticsOutput(
+    int iterations,
+    long iterationTime,
+    List<RaptorRoundStatistics> rounds
+  ) {
+    this.iterations = iterations;
+    this.iterationTime = iterationTime;
+    this.rounds = rounds;
+  }
+}
@@ -54,6 +54,7 @@ import org.opentripplanner.apis.gtfs.datafetchers.PlaceImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.PlaceInterfaceTypeResolver;
 import org.opentripplanner.apis.gtfs.datafetchers.PlanImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.QueryTypeImpl;
+import org.opentripplanner.apis.gtfs.datafetchers.RaptorRoundStatisticsImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.RentalVehicleImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.RentalVehicleTypeImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.RideHailingEstimateImpl;
@@ -125,6 +126,7 @@ class GtfsGraphQLIndex {
         .type(typeWiring.build(CarParkImpl.class))
         .type(typeWiring.build(CoordinatesImpl.class))
         .type(typeWiring.build(debugOutputImpl.class))
+        .type(typeWiring.build(RaptorRoundStatisticsImpl.class))
         .type(typeWiring.build(DepartureRowImpl.class))
         .type(typeWiring.build(elevationProfileComponentImpl.class))
         .type(typeWiring.build(fareComponentImpl.class))
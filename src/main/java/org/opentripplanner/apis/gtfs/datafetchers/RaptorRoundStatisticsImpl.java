@@ -0,0 +1,44 @@
+package org.opentripplanner.apis.gtfs.datafetchers;
+
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
+
+public class RaptorRoundStatisticsImpl
+  implements GraphQLDataFetchers.GraphQLRaptorRoundStatistics {
+
+  @Override
+  public DataFetcher<Integer> arrivalsRejected() {
+    return environment -> getSource(environment).arrivalsRejected();
+  }
+
+  @Override
+  public DataFetcher<Integer> round() {
+    return environment -> getSource(environment).round();
+  }
+
+  @Override
+  public DataFetcher<Integer> routesScanned() {
+    return environment -> getSource(environment).routesScanned();
+  }
+
+  @Override
+  public DataFetcher<Integer> stopsReachedByTransit() {
+    return environment -> getSource(environment).stopsReachedByTransit();
+  }
+
+  @Override
+  public DataFetcher<Integer> transfersRelaxed() {
+    return environment -> getSource(environment).transfersRelaxed();
+  }
+
+  @Override
+  public DataFetcher<Integer> tripsBoarded() {
+    return environment -> getSource(environment).tripsBoarded();
+  }
+
+  private RaptorRoundStatistics getSource(DataFetchingEnvironment environment) {
+    return environment.getSource();
+  }
+}
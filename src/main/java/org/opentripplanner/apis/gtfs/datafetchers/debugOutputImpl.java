@@ -4,6 +4,7 @@ import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import org.opentripplanner.api.resource.DebugOutput;
 import org.opentripplanner.apis.gtfs.generated.GraphQLDataFetchers;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
 
 public class debugOutputImpl implements GraphQLDataFetchers.GraphQLDebugOutput {
 
@@ -34,6 +35,22 @@ public class debugOutputImpl implements GraphQLDataFetchers.GraphQLDebugOutput {
     return environment -> getSource(environment).totalTime / nanosToMillis;
   }
 
+  @Override
+  public DataFetcher<Integer> transitIterations() {
+    return environment -> {
+      var statistics = getSource(environment).raptorStatistics;
+      return statistics == null ? null : statistics.iterations;
+    };
+  }
+
+  @Override
+  public DataFetcher<Iterable<RaptorRoundStatistics>> transitRounds() {
+    return environment -> {
+      var statistics = getSource(environment).raptorStatistics;
+      return statistics == null ? null : statistics.rounds;
+    };
+  }
+
   private DebugOutput getSource(DataFetchingEnvironment environment) {
     return environment.getSource();
   }
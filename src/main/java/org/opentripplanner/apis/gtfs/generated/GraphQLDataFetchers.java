@@ -35,6 +35,7 @@ import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.model.plan.Leg;
 import org.opentripplanner.model.plan.StopArrival;
 import org.opentripplanner.model.plan.WalkStep;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.core.FareComponent;
@@ -728,6 +729,21 @@ public class GraphQLDataFetchers {
     public DataFetcher<Object> viewer();
   }
 
+  /** The work done in one round of the transit router, summed over all iterations. */
+  public interface GraphQLRaptorRoundStatistics {
+    public DataFetcher<Integer> arrivalsRejected();
+
+    public DataFetcher<Integer> round();
+
+    public DataFetcher<Integer> routesScanned();
+
+    public DataFetcher<Integer> stopsReachedByTransit();
+
+    public DataFetcher<Integer> transfersRelaxed();
+
+    public DataFetcher<Integer> tripsBoarded();
+  }
+
   /** Rental vehicle represents a vehicle that belongs to a rental network. */
   public interface GraphQLRentalVehicle {
     public DataFetcher<Boolean> allowPickupNow();
@@ -1189,6 +1205,10 @@ public class GraphQLDataFetchers {
     public DataFetcher<Boolean> timedOut();
 
     public DataFetcher<Long> totalTime();
+
+    public DataFetcher<Integer> transitIterations();
+
+    public DataFetcher<Iterable<RaptorRoundStatistics>> transitRounds();
   }
 
   public interface GraphQLElevationProfileComponent {
@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opentripplanner.astar.model.BinHeap;
@@ -14,7 +15,6 @@ import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
 import org.opentripplanner.astar.spi.AStarVertex;
-import org.opentripplanner.astar.spi.DominanceFunction;
 import org.opentripplanner.astar.spi.RemainingWeightHeuristic;
 import org.opentripplanner.astar.spi.SearchTerminationStrategy;
 import org.opentripplanner.astar.spi.SkipEdgeStrategy;
@@ -51,7 +51,11 @@ public class AStar<
   private final BinHeap<State> pq;
   private final List<State> targetAcceptedStates;
 
+  /** Created once, to avoid allocating a lambda for each edge traversed. */
+  private final Consumer<State> relaxEdgeFunction = this::relaxEdge;
+
   private State u;
+  private Edge currentEdge;
   private int nVisited;
 
   AStar(
@@ -62,9 +66,10 @@ public class AStar<
     Set<Vertex> fromVertices,
     Set<Vertex> toVertices,
     SearchTerminationStrategy<State> terminationStrategy,
-    DominanceFunction<State> dominanceFunction,
     @Nonnull Duration timeout,
-    Collection<State> initialStates
+    Collection<State> initialStates,
+    ShortestPathTree<State, Edge, Vertex> spt,
+    BinHeap<State> pq
   ) {
     this.heuristic = heuristic;
     this.skipEdgeStrategy = skipEdgeStrategy;
@@ -75,10 +80,8 @@ public class AStar<
     this.terminationStrategy = terminationStrategy;
     this.timeout = Objects.requireNonNull(timeout);
 
-    this.spt = new ShortestPathTree<>(dominanceFunction);
-
-    // Initialized with a reasonable size, see #4445
-    this.pq = new BinHeap<>(1000);
+    this.spt = spt;
+    this.pq = pq;
     this.nVisited = 0;
     this.targetAcceptedStates = new ArrayList<>();
 
@@ -104,6 +107,10 @@ public class AStar<
       .collect(Collectors.toList());
   }
 
+  int numberOfVisitedStates() {
+    return nVisited;
+  }
+
   private boolean iterate() {
     // print debug info
     if (verbose) {
@@ -140,47 +147,46 @@ public class AStar<
         continue;
       }
 
-      // Iterate over traversal results. When an edge leads nowhere (as indicated by
-      // returning an empty array), the iteration is over.
-      var states = edge.traverse(u);
-      for (var v : states) {
-        // Could be: for (State v : traverseEdge...)
+      // Relax each traversal result. When an edge leads nowhere, there are no results.
+      currentEdge = edge;
+      edge.traverse(u, relaxEdgeFunction);
+    }
+
+    return true;
+  }
 
-        if (traverseVisitor != null) {
-          traverseVisitor.visitEdge(edge);
-        }
+  private void relaxEdge(State v) {
+    if (traverseVisitor != null) {
+      traverseVisitor.visitEdge(currentEdge);
+    }
 
-        double remaining_w = heuristic.estimateRemainingWeight(v);
+    double remaining_w = heuristic.estimateRemainingWeight(v);
 
-        if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
-          continue;
-        }
-        double estimate = v.getWeight() + remaining_w;
-
-        if (verbose) {
-          LOG.debug("      edge {}", edge);
-          LOG.debug(
-            "      {} -> {}(w) + {}(heur) = {} vert = {}",
-            u.getWeight(),
-            v.getWeight(),
-            remaining_w,
-            estimate,
-            v.getVertex()
-          );
-        }
+    if (remaining_w < 0 || Double.isInfinite(remaining_w)) {
+      return;
+    }
+    double estimate = v.getWeight() + remaining_w;
 
-        // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
-        if (spt.add(v)) {
-          // report to the visitor if there is one
-          if (traverseVisitor != null) {
-            traverseVisitor.visitEnqueue();
-          }
-          pq.insert(v, estimate);
-        }
-      }
+    if (verbose) {
+      LOG.debug("      edge {}", currentEdge);
+      LOG.debug(
+        "      {} -> {}(w) + {}(heur) = {} vert = {}",
+        u.getWeight(),
+        v.getWeight(),
+        remaining_w,
+        estimate,
+        v.getVertex()
+      );
     }
 
-    return true;
+    // spt.add returns true if the state is hopeful; enqueue state if it's hopeful
+    if (spt.add(v)) {
+      // report to the visitor if there is one
+      if (traverseVisitor != null) {
+        traverseVisitor.visitEnqueue();
+      }
+      pq.insert(v, estimate);
+    }
   }
 
   private void runSearch() {
@@ -7,7 +7,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.opentripplanner.astar.model.BinHeap;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.astar.model.SearchWorkspace;
 import org.opentripplanner.astar.model.ShortestPathTree;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -36,6 +38,8 @@ public abstract class AStarBuilder<
   private DominanceFunction<State> dominanceFunction;
   private Edge originBackEdge;
   private Collection<State> initialStates;
+  private boolean indexedShortestPathTree = false;
+  private int numberOfVisitedStates = 0;
 
   protected AStarBuilder() {}
 
@@ -111,15 +115,54 @@ public abstract class AStarBuilder<
     return builder;
   }
 
+  /**
+   * Keep the states of the search in arrays indexed by the vertex index, instead of in a map. This
+   * reduces the allocation for large searches, but requires that the vertices of the graph are
+   * indexed. See {@link ShortestPathTree}. This only applies to {@link #getShortestPathTree()},
+   * the tree used by {@link #getPathsToTarget()} is always vertex indexed and reused from a
+   * pooled {@link SearchWorkspace}.
+   */
+  public Builder setIndexedShortestPathTree(boolean indexedShortestPathTree) {
+    this.indexedShortestPathTree = indexedShortestPathTree;
+    return builder;
+  }
+
   public ShortestPathTree<State, Edge, Vertex> getShortestPathTree() {
-    return build().getShortestPathTree();
+    // The tree is returned, so only the queue can be reused
+    SearchWorkspace<State, Edge, Vertex> workspace = SearchWorkspace.borrow();
+    try {
+      var spt = new ShortestPathTree<>(dominanceFunction(), indexedShortestPathTree);
+      var search = build(spt, workspace.queue());
+      var result = search.getShortestPathTree();
+      numberOfVisitedStates = search.numberOfVisitedStates();
+      return result;
+    } finally {
+      workspace.release();
+    }
   }
 
   public List<GraphPath<State, Edge, Vertex>> getPathsToTarget() {
-    return build().getPathsToTarget();
+    SearchWorkspace<State, Edge, Vertex> workspace = SearchWorkspace.borrow();
+    try {
+      var spt = workspace.shortestPathTree(dominanceFunction());
+      var search = build(spt, workspace.queue());
+      var result = search.getPathsToTarget();
+      numberOfVisitedStates = search.numberOfVisitedStates();
+      return result;
+    } finally {
+      workspace.release();
+    }
   }
 
-  private AStar<State, Edge, Vertex> build() {
+  /** The number of states visited by the last search run by this builder. */
+  public int numberOfVisitedStates() {
+    return numberOfVisitedStates;
+  }
+
+  private AStar<State, Edge, Vertex> build(
+    ShortestPathTree<State, Edge, Vertex> spt,
+    BinHeap<State> queue
+  ) {
     final Set<Vertex> origin = arriveBy ? toVertices : fromVertices;
     final Set<Vertex> destination = arriveBy ? fromVertices : toVertices;
 
@@ -148,12 +191,17 @@ public abstract class AStarBuilder<
       origin,
       destination,
       terminationStrategy,
-      Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction),
       streetRoutingTimeout(),
-      initialStates
+      initialStates,
+      spt,
+      queue
     );
   }
 
+  private DominanceFunction<State> dominanceFunction() {
+    return Optional.ofNullable(dominanceFunction).orElseGet(this::createDefaultDominanceFunction);
+  }
+
   protected abstract Collection<State> createInitialStates(Set<Vertex> originVertices);
 
   protected abstract void prepareInitialStates(Collection<State> initialStates);
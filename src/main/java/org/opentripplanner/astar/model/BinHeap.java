@@ -11,6 +11,9 @@ public class BinHeap<T> {
   private int size;
   private int capacity;
 
+  /** The largest size since the heap was cleared, the elements above it are null. */
+  private int maxSize;
+
   public BinHeap() {
     this(1000);
   }
@@ -92,10 +95,22 @@ public class BinHeap<T> {
     size = 0;
   }
 
+  /**
+   * Empty the queue and release the references to all elements, so the heap can be reused without
+   * keeping the elements of the previous use alive. Only the elements used since the last clear
+   * are released, so this is cheap for a large heap used by a short search.
+   */
+  public void clear() {
+    Arrays.fill(elem, 1, maxSize + 1, null);
+    size = 0;
+    maxSize = 0;
+  }
+
   public void insert(T e, double p) {
     int i;
     size += 1;
     if (size > capacity) resize((int) (capacity * GROW_FACTOR));
+    if (size > maxSize) maxSize = size;
     for (i = size; prio[i / 2] > p; i /= 2) {
       elem[i] = elem[i / 2];
       prio[i] = prio[i / 2];
@@ -0,0 +1,173 @@
+package org.opentripplanner.astar.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+
+/**
+ * Keep the states in an array indexed by the dense vertex index, see
+ * {@link AStarVertex#getIndex()}. Most vertices only have one non-dominated state, so a single
+ * state is stored directly in the array. A list is only created when the dominance function keeps
+ * more than one state at a vertex - for example because of turn restrictions or vehicle rental.
+ * States at vertices without an index, like the temporary vertices of a request, are kept in a
+ * {@link MapVertexStates}.
+ */
+class IndexedVertexStates<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+>
+  implements VertexStates<State, Edge, Vertex> {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private DominanceFunction<State> dominanceFunction;
+
+  /** For each vertex index: {@code null}, a single State or a {@link StateList}. */
+  private Object[] states = new Object[INITIAL_CAPACITY];
+
+  /** The indexes of the reached vertices, in the order they are reached. */
+  private int[] reached = new int[INITIAL_CAPACITY];
+  private int nReached = 0;
+
+  private MapVertexStates<State, Edge, Vertex> notIndexed;
+
+  IndexedVertexStates(DominanceFunction<State> dominanceFunction) {
+    init(dominanceFunction);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public boolean add(State newState) {
+    int index = newState.getVertex().getIndex();
+    if (index < 0) {
+      return notIndexed.add(newState);
+    }
+    if (index >= states.length) {
+      states = Arrays.copyOf(states, Math.max(index + 1, 2 * states.length));
+    }
+    Object existing = states[index];
+
+    if (existing == null) {
+      states[index] = newState;
+      addReached(index);
+      return true;
+    }
+    if (existing instanceof StateList) {
+      return VertexStates.addNonDominated(
+        (StateList<State>) existing,
+        newState,
+        dominanceFunction
+      );
+    }
+
+    State oldState = (State) existing;
+    // order is important, because in the case of a tie we want to reject the new state
+    if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+      return false;
+    }
+    if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+      states[index] = newState;
+      return true;
+    }
+    var list = new StateList<State>();
+    list.add(oldState);
+    list.add(newState);
+    states[index] = list;
+    return true;
+  }
+
+  @Override
+  public boolean contains(State state) {
+    int index = state.getVertex().getIndex();
+    if (index < 0) {
+      return notIndexed.contains(state);
+    }
+    Object existing = states[index];
+    if (existing instanceof StateList<?> list) {
+      for (Object s : list) {
+        if (s == state) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return existing == state;
+  }
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      return notIndexed.get(vertex);
+    }
+    return index < states.length ? stateList(index) : null;
+  }
+
+  @Override
+  public Collection<List<State>> stateLists() {
+    var result = new ArrayList<List<State>>(vertexCount());
+    for (int i = 0; i < nReached; ++i) {
+      result.add(stateList(reached[i]));
+    }
+    result.addAll(notIndexed.stateLists());
+    return result;
+  }
+
+  @Override
+  public int vertexCount() {
+    return nReached + notIndexed.vertexCount();
+  }
+
+  /** Prepare for a new search with the given dominance function, after {@link #clear()}. */
+  void init(DominanceFunction<State> dominanceFunction) {
+    this.dominanceFunction = dominanceFunction;
+    this.notIndexed = new MapVertexStates<>(dominanceFunction, 32);
+  }
+
+  /**
+   * Remove all states. Only the reached vertices are cleared, so the time used is proportional to
+   * the size of the previous search, not to the size of the graph.
+   */
+  void clear() {
+    for (int i = 0; i < nReached; ++i) {
+      states[reached[i]] = null;
+    }
+    this.nReached = 0;
+    this.notIndexed = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<State> stateList(int index) {
+    Object existing = states[index];
+    if (existing == null) {
+      return null;
+    }
+    if (existing instanceof StateList) {
+      return (StateList<State>) existing;
+    }
+    var list = new StateList<State>();
+    list.add((State) existing);
+    return list;
+  }
+
+  private void addReached(int index) {
+    if (nReached == reached.length) {
+      reached = Arrays.copyOf(reached, 2 * reached.length);
+    }
+    reached[nReached++] = index;
+  }
+
+  /** A separate type, so it can not be confused with a state. */
+  private static class StateList<T> extends ArrayList<T> {
+
+    StateList() {
+      super(4);
+    }
+  }
+}
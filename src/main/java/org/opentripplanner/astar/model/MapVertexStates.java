@@ -0,0 +1,70 @@
+package org.opentripplanner.astar.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+
+/**
+ * Keep the states in an identity map with a list of states for each vertex.
+ */
+class MapVertexStates<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+>
+  implements VertexStates<State, Edge, Vertex> {
+
+  private final DominanceFunction<State> dominanceFunction;
+  private final Map<Vertex, List<State>> stateSets;
+
+  MapVertexStates(DominanceFunction<State> dominanceFunction, int initialCapacity) {
+    this.dominanceFunction = dominanceFunction;
+    this.stateSets = new IdentityHashMap<>(initialCapacity);
+  }
+
+  @Override
+  public boolean add(State newState) {
+    Vertex vertex = newState.getVertex();
+    List<State> states = stateSets.get(vertex);
+
+    // if the vertex has no states, add one and return
+    if (states == null) {
+      states = new ArrayList<>();
+      stateSets.put(vertex, states);
+      states.add(newState);
+      return true;
+    }
+    return VertexStates.addNonDominated(states, newState, dominanceFunction);
+  }
+
+  @Override
+  public boolean contains(State state) {
+    for (State s : stateSets.get(state.getVertex())) {
+      if (s == state) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public List<State> get(Vertex vertex) {
+    return stateSets.get(vertex);
+  }
+
+  @Override
+  public Collection<List<State>> stateLists() {
+    return stateSets.values();
+  }
+
+  @Override
+  public int vertexCount() {
+    return stateSets.size();
+  }
+}
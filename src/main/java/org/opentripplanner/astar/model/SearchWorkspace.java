@@ -0,0 +1,82 @@
+package org.opentripplanner.astar.model;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+
+/**
+ * The data structures of an A* search which can be reused between searches: the priority queue
+ * and the vertex indexed state storage of the shortest path tree. A workspace is borrowed from a
+ * shared pool for the duration of a search and then released. Releasing the workspace only
+ * clears the parts touched by the search, and releases the references to the states.
+ * <p>
+ * The shortest path tree from the workspace must not be used after the workspace is released, so
+ * it is only used when the tree is not returned to the caller. If the pool is empty, a new
+ * workspace is created.
+ * <p>
+ * Note! The workspace state storage grows to the largest vertex index reached, so each pooled
+ * workspace keeps an array with up to one slot per vertex in the graph. The pool keeps at most one
+ * workspace per available processor, workspaces released when the pool is full are thrown away.
+ * This bounds the retained memory, independent of the number of threads doing street searches.
+ */
+public final class SearchWorkspace<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+
+  private static final BlockingQueue<SearchWorkspace<?, ?, ?>> POOL = new ArrayBlockingQueue<>(
+    Runtime.getRuntime().availableProcessors()
+  );
+
+  private final BinHeap<State> queue = new BinHeap<>(1000);
+  private IndexedVertexStates<State, Edge, Vertex> stateSets = null;
+
+  private SearchWorkspace() {}
+
+  /**
+   * Borrow a workspace from the pool, or create a new one if the pool is empty. The caller must
+   * call {@link #release()} exactly once when the search is complete.
+   */
+  @SuppressWarnings("unchecked")
+  public static <
+    State extends AStarState<State, Edge, Vertex>,
+    Edge extends AStarEdge<State, Edge, Vertex>,
+    Vertex extends AStarVertex<State, Edge, Vertex>
+  > SearchWorkspace<State, Edge, Vertex> borrow() {
+    var workspace = (SearchWorkspace<State, Edge, Vertex>) POOL.poll();
+    return workspace == null ? new SearchWorkspace<>() : workspace;
+  }
+
+  /** An empty priority queue. */
+  public BinHeap<State> queue() {
+    return queue;
+  }
+
+  /**
+   * An empty, vertex indexed shortest path tree. The tree is only valid until the workspace is
+   * released.
+   */
+  public ShortestPathTree<State, Edge, Vertex> shortestPathTree(
+    DominanceFunction<State> dominanceFunction
+  ) {
+    if (stateSets == null) {
+      stateSets = new IndexedVertexStates<>(dominanceFunction);
+    } else {
+      stateSets.init(dominanceFunction);
+    }
+    return new ShortestPathTree<>(dominanceFunction, stateSets);
+  }
+
+  /** Clear the workspace and return it to the pool, unless the pool is full. */
+  public void release() {
+    queue.clear();
+    if (stateSets != null) {
+      stateSets.clear();
+    }
+    POOL.offer(this);
+  }
+}
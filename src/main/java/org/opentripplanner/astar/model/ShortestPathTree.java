@@ -6,10 +6,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import org.opentripplanner.astar.spi.AStarEdge;
 import org.opentripplanner.astar.spi.AStarState;
@@ -28,6 +26,10 @@ import org.slf4j.LoggerFactory;
  * basic Dijkstra (single-state) approach. It is much more straightforward to use the more general
  * SPT implementation in all cases.
  * <p>
+ * The states are kept in an identity map by default. If the vertices are indexed, the states can
+ * instead be kept in arrays indexed by the vertex index, see {@link IndexedVertexStates}. This
+ * avoids allocating a map entry and a list for each reached vertex.
+ * <p>
  * TODO: Is this still accurate?
  * Note that turn restrictions make all searches multi-state; however turn restrictions do not apply
  * when walking. The turn restriction handling is done in the base dominance function
@@ -44,15 +46,35 @@ public class ShortestPathTree<
 
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  private final VertexStates<State, Edge, Vertex> stateSets;
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
+    this(dominanceFunction, false);
+  }
+
+  /**
+   * @param vertexIndexed keep the states in arrays indexed by {@link AStarVertex#getIndex()},
+   *                      instead of in a map.
+   */
+  public ShortestPathTree(DominanceFunction<State> dominanceFunction, boolean vertexIndexed) {
     this.dominanceFunction = dominanceFunction;
-    // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
+    // The map is initialized with a reasonable size, see #4445
+    this.stateSets =
+      vertexIndexed
+        ? new IndexedVertexStates<>(dominanceFunction)
+        : new MapVertexStates<>(dominanceFunction, 10_000);
+  }
+
+  /** Create a tree using the given state storage, see {@link SearchWorkspace}. */
+  ShortestPathTree(
+    DominanceFunction<State> dominanceFunction,
+    VertexStates<State, Edge, Vertex> stateSets
+  ) {
+    this.dominanceFunction = dominanceFunction;
+    this.stateSets = stateSets;
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -85,8 +107,7 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    for (List<State> states : stateSets.stateLists()) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
@@ -96,13 +117,13 @@ public class ShortestPathTree<
     }
     LOG.info(
       "SPT: vertices: " +
-      stateSets.size() +
+      stateSets.vertexCount() +
       " states: total: " +
       statesCount +
       " per vertex max: " +
       maxSize +
       " avg: " +
-      (statesCount * 1.0 / stateSets.size())
+      (statesCount * 1.0 / stateSets.vertexCount())
     );
     List<Integer> nStates = new ArrayList<>(histogram.elementSet());
     Collections.sort(nStates);
@@ -112,7 +133,11 @@ public class ShortestPathTree<
   }
 
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    Set<Vertex> vertices = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (List<State> states : stateSets.stateLists()) {
+      vertices.add(states.get(0).getVertex());
+    }
+    return vertices;
   }
 
   /**
@@ -126,35 +151,7 @@ public class ShortestPathTree<
    * be enqueued
    */
   public boolean add(State newState) {
-    Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
-
-    // if the vertex has no states, add one and return
-    if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
-      states.add(newState);
-      return true;
-    }
-
-    // if the vertex has any states that dominate the new state, don't add the state
-    // if the new state dominates any old states, remove them
-    Iterator<State> it = states.iterator();
-    while (it.hasNext()) {
-      State oldState = it.next();
-      // order is important, because in the case of a tie
-      // we want to reject the new state
-      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
-        return false;
-      }
-      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
-        it.remove();
-      }
-    }
-
-    // any states remaining are co-dominant with the new state
-    states.add(newState);
-    return true;
+    return stateSets.add(newState);
   }
 
   /**
@@ -193,7 +190,7 @@ public class ShortestPathTree<
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return stateSets.vertexCount();
   }
 
   /**
@@ -221,20 +218,13 @@ public class ShortestPathTree<
    * @return - whether this state is still considered worth visiting.
    */
   public boolean visit(State state) {
-    boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
-      if (s == state) {
-        ret = true;
-        break;
-      }
-    }
-    return ret;
+    return stateSets.contains(state);
   }
 
   /** @return every state in this tree */
   public Collection<State> getAllStates() {
     ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
+    for (List<State> stateSet : stateSets.stateLists()) {
       allStates.addAll(stateSet);
     }
     return allStates;
@@ -249,6 +239,6 @@ public class ShortestPathTree<
   }
 
   public String toString() {
-    return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
+    return "ShortestPathTree(" + this.stateSets.vertexCount() + " vertices)";
   }
 }
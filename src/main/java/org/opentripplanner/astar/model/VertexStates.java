@@ -0,0 +1,67 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import org.opentripplanner.astar.spi.AStarEdge;
+import org.opentripplanner.astar.spi.AStarState;
+import org.opentripplanner.astar.spi.AStarVertex;
+import org.opentripplanner.astar.spi.DominanceFunction;
+
+/**
+ * The states of a {@link ShortestPathTree} grouped by vertex. Only non-dominated states are kept
+ * for each vertex.
+ */
+interface VertexStates<
+  State extends AStarState<State, Edge, Vertex>,
+  Edge extends AStarEdge<State, Edge, Vertex>,
+  Vertex extends AStarVertex<State, Edge, Vertex>
+> {
+  /**
+   * Add the state if it is not dominated by any of the states at the same vertex, and remove the
+   * states it dominates.
+   *
+   * @return {@code true} if the state is added.
+   */
+  boolean add(State newState);
+
+  /** Return {@code true} if the state is one of the non-dominated states at its vertex. */
+  boolean contains(State state);
+
+  /** The non-dominated states at the given vertex, or {@code null} if the vertex is not reached. */
+  List<State> get(Vertex vertex);
+
+  /** The states of each reached vertex. */
+  Collection<List<State>> stateLists();
+
+  /** The number of reached vertices. */
+  int vertexCount();
+
+  /**
+   * Add the new state to the list of states at a vertex, see {@link #add(AStarState)}.
+   */
+  static <State extends AStarState<State, ?, ?>> boolean addNonDominated(
+    List<State> states,
+    State newState,
+    DominanceFunction<State> dominanceFunction
+  ) {
+    // if the vertex has any states that dominate the new state, don't add the state
+    // if the new state dominates any old states, remove them
+    Iterator<State> it = states.iterator();
+    while (it.hasNext()) {
+      State oldState = it.next();
+      // order is important, because in the case of a tie
+      // we want to reject the new state
+      if (dominanceFunction.betterOrEqualAndComparable(oldState, newState)) {
+        return false;
+      }
+      if (dominanceFunction.betterOrEqualAndComparable(newState, oldState)) {
+        it.remove();
+      }
+    }
+
+    // any states remaining are co-dominant with the new state
+    states.add(newState);
+    return true;
+  }
+}
@@ -1,5 +1,6 @@
 package org.opentripplanner.astar.spi;
 
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 
 /**
@@ -45,4 +46,15 @@ public interface AStarEdge<
    */
   @Nonnull
   State[] traverse(State s0);
+
+  /**
+   * Traverse the edge and pass each resulting state to the given consumer. The result is the same
+   * as for {@link #traverse(AStarState)}. Edges where the traversal most often results in a single
+   * state may override this to avoid allocating an array for each traversal.
+   */
+  default void traverse(State s0, Consumer<State> result) {
+    for (State state : traverse(s0)) {
+      result.accept(state);
+    }
+  }
 }
@@ -16,4 +16,11 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A dense index of this vertex, in the range {@code [0, n)} where {@code n} is the number of
+   * indexed vertices in the graph. Vertices not part of the index, like temporary vertices, return
+   * {@code -1}. The index is used to store search state in arrays instead of maps.
+   */
+  int getIndex();
 }
@@ -22,6 +22,19 @@ public enum OTPFeature {
     "Enable the inspector  endpoint for graph information for inspection/debugging purpose."
   ),
   APIUpdaterStatus(true, false, "Enable endpoint for graph updaters status."),
+  AccessEgressCache(
+    false,
+    false,
+    "Cache the access and egress street searches, and reuse them for transit requests from the " +
+    "same place with the same street preferences."
+  ),
+  CarContractionHierarchy(
+    false,
+    false,
+    "Precompute a contraction hierarchy for driving when the graph is built, and use it to find " +
+    "direct car routes. The normal street search is used when the hierarchy can not be used for " +
+    "a request."
+  ),
   ConsiderPatternsForDirectTransfers(
     true,
     false,
@@ -30,6 +43,18 @@ public enum OTPFeature {
   DebugClient(true, false, "Enable the debug web client located at the root of the web server."),
   FloatingBike(true, false, "Enable floating bike routing."),
   GtfsGraphQlApi(true, false, "Enable GTFS GraphQL API."),
+  LandmarkHeuristic(
+    false,
+    false,
+    "Precompute street distances to and from a set of landmarks when the graph is built, and use " +
+    "them to estimate the remaining distance in direct car and bicycle searches."
+  ),
+  MappedStreetGeometry(
+    false,
+    false,
+    "Store the street geometries in a separate section of the graph file, which is memory-mapped " +
+    "when the graph is loaded. This reduces the graph load time and heap usage."
+  ),
   /**
    * If this feature flag is switched on, then the minimum transfer time is not the minimum transfer
    * time, but the definitive transfer time. Use this to override what we think the transfer will
@@ -53,6 +78,34 @@ public enum OTPFeature {
   ),
 
   ParallelRouting(false, false, "Enable performing parts of the trip planning in parallel."),
+  PrecomputedHeuristics(
+    false,
+    false,
+    "Precompute lower bounds for the transit travel time between groups of stops in the " +
+    "background when the transit data is loaded. They are used instead of the reverse heuristic " +
+    "search when paging. The bounds are computed from the planned timetables, and lowered when " +
+    "realtime updates add patterns or trips running faster than planned."
+  ),
+  RaptorPatternCache(
+    false,
+    false,
+    "Cache the trip patterns prepared for a transit search, and reuse them for searches on the " +
+    "same days with the same transit filters until the realtime data is updated."
+  ),
+  RaptorResultCache(
+    false,
+    false,
+    "Cache the transit search results, and reuse them for identical searches until the realtime " +
+    "data is updated. A search is identical if the origin, destination, departure time, access, " +
+    "egress and all transit parameters are the same."
+  ),
+  RaptorSearchStatistics(
+    false,
+    false,
+    "Count the routes scanned, trips boarded, stops reached, transfers relaxed and stop arrivals " +
+    "rejected in each round of the transit search, and time each iteration. The statistics are " +
+    "published as metrics and returned in the debug output of the plan query."
+  ),
   TransferConstraints(
     true,
     false,
@@ -0,0 +1,77 @@
+package org.opentripplanner.framework.collection;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of node indexes with integer keys. The same node may be inserted more than
+ * once, the caller is responsible for skipping outdated entries when they are removed.
+ */
+public class IntHeap {
+
+  private int[] nodes;
+  private int[] keys;
+  private int size = 0;
+
+  public IntHeap(int capacity) {
+    this.nodes = new int[capacity];
+    this.keys = new int[capacity];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int minKey() {
+    return keys[0];
+  }
+
+  public void insert(int node, int key) {
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, 2 * size);
+      keys = Arrays.copyOf(keys, 2 * size);
+    }
+    int i = size++;
+    while (i > 0) {
+      int parent = (i - 1) >>> 1;
+      if (keys[parent] <= key) {
+        break;
+      }
+      nodes[i] = nodes[parent];
+      keys[i] = keys[parent];
+      i = parent;
+    }
+    nodes[i] = node;
+    keys[i] = key;
+  }
+
+  /** Remove the entry with the smallest key, and return its node. */
+  public int removeMin() {
+    int min = nodes[0];
+    --size;
+    int node = nodes[size];
+    int key = keys[size];
+    int i = 0;
+    while (true) {
+      int child = 2 * i + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && keys[child + 1] < keys[child]) {
+        ++child;
+      }
+      if (key <= keys[child]) {
+        break;
+      }
+      nodes[i] = nodes[child];
+      keys[i] = keys[child];
+      i = child;
+    }
+    nodes[i] = node;
+    keys[i] = key;
+    return min;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+}
@@ -144,6 +144,18 @@ public class GraphBuilder implements Runnable {
       }
     }
 
+    // The street network must not change after the contraction hierarchy and the landmarks are
+    // built. The street graph is not used for routing, so they are only built for the full graph.
+    if (
+      OTPFeature.CarContractionHierarchy.isOn() && !saveStreetGraph && (loadStreetGraph || hasOsm)
+    ) {
+      graphBuilder.addModule(factory.contractionHierarchyModule());
+    }
+
+    if (OTPFeature.LandmarkHeuristic.isOn() && !saveStreetGraph && (loadStreetGraph || hasOsm)) {
+      graphBuilder.addModule(factory.streetLandmarkModule());
+    }
+
     if (loadStreetGraph || hasOsm) {
       graphBuilder.addModule(factory.graphCoherencyCheckerModule());
     }
@@ -0,0 +1,46 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import org.opentripplanner.framework.lang.OtpNumberFormat;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.ch.ContractionHierarchy;
+import org.opentripplanner.street.model.ch.ContractionHierarchyBuilder;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Precompute a {@link ContractionHierarchy} of the street network for driving, and store it in the
+ * graph. This must run after all modules which change the street network.
+ */
+public class ContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyModule.class);
+
+  private final Graph graph;
+
+  @Inject
+  public ContractionHierarchyModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    var builder = new ContractionHierarchyBuilder();
+    for (StreetEdge edge : graph.getStreetEdges()) {
+      if (ContractionHierarchy.includes(edge)) {
+        builder.addEdge(edge);
+      }
+    }
+    var ch = builder.build();
+    graph.setCarContractionHierarchy(ch);
+
+    var f = new OtpNumberFormat();
+    LOG.info(
+      "Car contraction hierarchy built. |Nodes|={} |Shortcuts|={}",
+      f.formatNumber(ch.numberOfNodes()),
+      f.formatNumber(ch.numberOfShortcuts())
+    );
+  }
+}
@@ -1,23 +1,23 @@
 package org.opentripplanner.graph_builder.module;
 
 import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
+import com.google.common.collect.Multimap;
 import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.StopNotLinkedForTransfers;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.model.PathTransfer;
+import org.opentripplanner.model.TransferPathTrie;
 import org.opentripplanner.routing.api.request.RouteRequest;
-import org.opentripplanner.routing.api.request.request.StreetRequest;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graphfinder.NearbyStop;
-import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.transit.model.site.RegularStop;
@@ -39,6 +39,9 @@ public class DirectTransferGenerator implements GraphBuilderModule {
 
   private static final Logger LOG = LoggerFactory.getLogger(DirectTransferGenerator.class);
 
+  /** The path index used in the transfer key for transfers without edges */
+  private static final int NO_PATH = Integer.MIN_VALUE;
+
   private final Duration radiusByDuration;
 
   private final List<RouteRequest> transferRequests;
@@ -91,120 +94,164 @@ public class DirectTransferGenerator implements GraphBuilderModule {
       stops.size()
     );
 
-    AtomicInteger nTransfersTotal = new AtomicInteger();
-    AtomicInteger nLinkedStops = new AtomicInteger();
-
-    // This is a synchronizedMultimap so that a parallel stream may be used to insert elements.
-    var transfersByStop = Multimaps.<StopLocation, PathTransfer>synchronizedMultimap(
-      HashMultimap.create()
-    );
+    long startTime = System.currentTimeMillis();
 
-    stops
+    // Each thread returns the transfers for one stop, and the transfers are merged into the
+    // multimap after all stops are processed. This avoids contention on a shared collection.
+    List<Collection<PathTransfer>> transfersForStops = stops
       .stream()
       .parallel()
-      .forEach(ts0 -> {
-        /* Make transfers to each nearby stop that has lowest weight on some trip pattern.
-         * Use map based on the list of edges, so that only distinct transfers are stored. */
-        Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
-        RegularStop stop = ts0.getStop();
-
-        if (stop.transfersNotAllowed()) {
-          return;
-        }
-
-        LOG.debug("Linking stop '{}' {}", stop, ts0);
-
-        for (RouteRequest transferProfile : transferRequests) {
-          for (NearbyStop sd : findNearbyStops(
-            nearbyStopFinder,
-            ts0,
-            transferProfile,
-            transferProfile.journey().transfer(),
-            false
-          )) {
-            // Skip the origin stop, loop transfers are not needed.
-            if (sd.stop == stop) {
-              continue;
-            }
-            if (sd.stop.transfersNotAllowed()) {
-              continue;
-            }
-            distinctTransfers.put(
-              new TransferKey(stop, sd.stop, sd.edges),
-              new PathTransfer(stop, sd.stop, sd.distance, sd.edges)
-            );
-          }
-          if (OTPFeature.FlexRouting.isOn()) {
-            // This code is for finding transfers from AreaStops to Stops, transfers
-            // from Stops to AreaStops and between Stops are already covered above.
-            for (NearbyStop sd : findNearbyStops(
-              nearbyStopFinder,
-              ts0,
-              transferProfile,
-              transferProfile.journey().transfer(),
-              true
-            )) {
-              // Skip the origin stop, loop transfers are not needed.
-              if (sd.stop == stop) {
-                continue;
-              }
-              if (sd.stop instanceof RegularStop) {
-                continue;
-              }
-              distinctTransfers.put(
-                new TransferKey(sd.stop, stop, sd.edges),
-                new PathTransfer(sd.stop, stop, sd.distance, sd.edges)
-              );
-            }
-          }
-        }
-
-        LOG.debug(
-          "Linked stop {} with {} transfers to stops with different patterns.",
-          stop,
-          distinctTransfers.size()
-        );
-        if (distinctTransfers.isEmpty()) {
-          issueStore.add(new StopNotLinkedForTransfers(ts0));
-        } else {
-          distinctTransfers
-            .values()
-            .forEach(transfer -> transfersByStop.put(transfer.from, transfer));
-          nLinkedStops.incrementAndGet();
-          nTransfersTotal.addAndGet(distinctTransfers.size());
-        }
-
+      .map(ts0 -> {
+        var transfers = createTransfersForStop(nearbyStopFinder, ts0);
         //Keep lambda! A method-ref would causes incorrect class and line number to be logged
         //noinspection Convert2MethodRef
         progress.step(m -> LOG.info(m));
-      });
+        return transfers;
+      })
+      .toList();
+
+    Multimap<StopLocation, PathTransfer> transfersByStop = HashMultimap.create();
+    int nTransfersTotal = 0;
+    int nLinkedStops = 0;
+
+    for (Collection<PathTransfer> transfers : transfersForStops) {
+      if (!transfers.isEmpty()) {
+        transfers.forEach(transfer -> transfersByStop.put(transfer.from, transfer));
+        ++nLinkedStops;
+        nTransfersTotal += transfers.size();
+      }
+    }
 
     transitModel.addAllTransfersByStops(transfersByStop);
 
+    Duration duration = Duration.ofMillis(System.currentTimeMillis() - startTime);
     LOG.info(progress.completeMessage());
     LOG.info(
       "Done connecting stops to one another. Created a total of {} transfers from {} stops.",
       nTransfersTotal,
       nLinkedStops
     );
+    issueStore.add(
+      "DirectTransfers",
+      "Created %d transfers from %d of %d stops in %s.",
+      nTransfersTotal,
+      nLinkedStops,
+      stops.size(),
+      DurationUtils.durationToStr(duration)
+    );
   }
 
-  private static Iterable<NearbyStop> findNearbyStops(
+  /**
+   * Make transfers to each nearby stop that has lowest weight on some trip pattern. Use a map
+   * based on the path, so that only distinct transfers are stored. The paths of all transfers
+   * from the stop are stored in one {@link TransferPathTrie}, sharing common prefixes.
+   */
+  private Collection<PathTransfer> createTransfersForStop(
+    NearbyStopFinder nearbyStopFinder,
+    TransitStopVertex ts0
+  ) {
+    Map<TransferKey, PathTransfer> distinctTransfers = new HashMap<>();
+    TransferPathTrie pathTrie = new TransferPathTrie();
+    RegularStop stop = ts0.getStop();
+
+    if (stop.transfersNotAllowed()) {
+      return List.of();
+    }
+
+    LOG.debug("Linking stop '{}' {}", stop, ts0);
+
+    for (Collection<NearbyStop> nearbyStops : findNearbyStops(nearbyStopFinder, ts0, false)) {
+      for (NearbyStop sd : nearbyStops) {
+        // Skip the origin stop, loop transfers are not needed.
+        if (sd.stop == stop) {
+          continue;
+        }
+        if (sd.stop.transfersNotAllowed()) {
+          continue;
+        }
+        addTransfer(distinctTransfers, pathTrie, stop, sd.stop, sd);
+      }
+    }
+    if (OTPFeature.FlexRouting.isOn()) {
+      // This code is for finding transfers from AreaStops to Stops, transfers
+      // from Stops to AreaStops and between Stops are already covered above.
+      for (Collection<NearbyStop> nearbyStops : findNearbyStops(nearbyStopFinder, ts0, true)) {
+        for (NearbyStop sd : nearbyStops) {
+          // Skip the origin stop, loop transfers are not needed.
+          if (sd.stop == stop) {
+            continue;
+          }
+          if (sd.stop instanceof RegularStop) {
+            continue;
+          }
+          addTransfer(distinctTransfers, pathTrie, sd.stop, stop, sd);
+        }
+      }
+    }
+
+    LOG.debug(
+      "Linked stop {} with {} transfers to stops with different patterns.",
+      stop,
+      distinctTransfers.size()
+    );
+    if (distinctTransfers.isEmpty()) {
+      issueStore.add(new StopNotLinkedForTransfers(ts0));
+    }
+    pathTrie.compact();
+    return distinctTransfers.values();
+  }
+
+  /**
+   * Add a transfer, unless an identical transfer already exists. The edges are {@code null} if
+   * the street network is not used, if not they are stored in the trie shared by all transfers
+   * from the stop. Identical paths get the same index in the trie.
+   */
+  private static void addTransfer(
+    Map<TransferKey, PathTransfer> distinctTransfers,
+    TransferPathTrie pathTrie,
+    StopLocation from,
+    StopLocation to,
+    NearbyStop sd
+  ) {
+    if (sd.edges == null) {
+      distinctTransfers.put(
+        new TransferKey(from, to, NO_PATH),
+        new PathTransfer(from, to, sd.distance, null)
+      );
+    } else {
+      int pathIndex = pathTrie.add(sd.edges);
+      distinctTransfers.put(
+        new TransferKey(from, to, pathIndex),
+        new PathTransfer(from, to, sd.distance, pathTrie, pathIndex)
+      );
+    }
+  }
+
+  /**
+   * Find the nearby stops for all transfer requests, with one street search for the requests
+   * that can be searched together.
+   *
+   * @return the nearby stops of each transfer request.
+   */
+  private List<Collection<NearbyStop>> findNearbyStops(
     NearbyStopFinder nearbyStopFinder,
     Vertex vertex,
-    RouteRequest request,
-    StreetRequest streetRequest,
     boolean reverseDirection
   ) {
-    return OTPFeature.ConsiderPatternsForDirectTransfers.isOn()
-      ? nearbyStopFinder.findNearbyStopsConsideringPatterns(
-        vertex,
-        request,
-        streetRequest,
-        reverseDirection
+    var nearbyStops = nearbyStopFinder.findNearbyStopsForTransfers(
+      vertex,
+      transferRequests,
+      reverseDirection
+    );
+    return nearbyStops
+      .stream()
+      .map(stops ->
+        OTPFeature.ConsiderPatternsForDirectTransfers.isOn()
+          ? nearbyStopFinder.closestStopsOnPatterns(stops, reverseDirection)
+          : stops
       )
-      : nearbyStopFinder.findNearbyStops(vertex, request, streetRequest, reverseDirection);
+      .toList();
   }
 
-  private record TransferKey(StopLocation source, StopLocation target, List<Edge> edges) {}
+  private record TransferKey(StopLocation source, StopLocation target, int pathIndex) {}
 }
@@ -8,7 +8,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.astar.model.ShortestPathTree;
@@ -106,6 +108,22 @@ public class NearbyStopFinder {
     RouteRequest routingRequest,
     StreetRequest streetRequest,
     boolean reverseDirection
+  ) {
+    // Iterate over nearby stops via the street network or using straight-line distance, depending
+    // on the graph.
+    return closestStopsOnPatterns(
+      findNearbyStops(vertex, routingRequest, streetRequest, reverseDirection),
+      reverseDirection
+    );
+  }
+
+  /**
+   * Filter the nearby stops, keeping only the stops that are the closest stop on some trip pattern
+   * or flex trip.
+   */
+  public Set<NearbyStop> closestStopsOnPatterns(
+    Iterable<NearbyStop> nearbyStops,
+    boolean reverseDirection
   ) {
     /* Track the closest stop on each pattern passing nearby. */
     MinMap<TripPattern, NearbyStop> closestStopForPattern = new MinMap<>();
@@ -113,13 +131,7 @@ public class NearbyStopFinder {
     /* Track the closest stop on each flex trip nearby. */
     MinMap<FlexTrip<?, ?>, NearbyStop> closestStopForFlexTrip = new MinMap<>();
 
-    /* Iterate over nearby stops via the street network or using straight-line distance, depending on the graph. */
-    for (NearbyStop nearbyStop : findNearbyStops(
-      vertex,
-      routingRequest,
-      streetRequest,
-      reverseDirection
-    )) {
+    for (NearbyStop nearbyStop : nearbyStops) {
       StopLocation ts1 = nearbyStop.stop;
 
       if (ts1 instanceof RegularStop) {
@@ -179,6 +191,101 @@ public class NearbyStopFinder {
     }
   }
 
+  /**
+   * Return all stops within a certain radius of the given vertex for each of the transfer
+   * requests, using the transfer street request of each request. This is the same as calling
+   * {@link #findNearbyStops} for each request, but the requests are searched together in one
+   * street search when possible.
+   * <p>
+   * The search starts with the initial states of all requests. Each state keeps the street search
+   * request it was created from, and a state only dominates states of the same request. So, each
+   * request is searched as if it was searched alone, while the requests share the queue, the
+   * shortest path tree and the setup of one search. Requests using other skip edge strategies than
+   * the duration limit are searched separately.
+   *
+   * @return the stops found for each request, in the same order as the requests.
+   */
+  public List<List<NearbyStop>> findNearbyStopsForTransfers(
+    Vertex vertex,
+    List<RouteRequest> requests,
+    boolean reverseDirection
+  ) {
+    if (!useStreets) {
+      // The straight-line distance does not depend on the request
+      var stops = findNearbyStopsViaDirectTransfers(vertex);
+      return requests.stream().map(it -> stops).toList();
+    }
+    OTPRequestTimeoutException.checkForTimeout();
+
+    Set<Vertex> originVertices = Set.of(vertex);
+    List<List<NearbyStop>> stopsFound = new ArrayList<>(requests.size());
+    Map<StreetSearchRequest, Integer> sharedSearchRequests = new IdentityHashMap<>();
+    List<State> initialStates = new ArrayList<>();
+    RouteRequest firstSharedRequest = null;
+
+    for (int i = 0; i < requests.size(); ++i) {
+      RouteRequest request = requests.get(i);
+      StreetRequest streetRequest = request.journey().transfer();
+
+      if (
+        streetRequest.mode() == StreetMode.NOT_SET ||
+        !(getSkipEdgeStrategy(reverseDirection, request) instanceof DurationSkipEdgeStrategy)
+      ) {
+        stopsFound.add(
+          findNearbyStopsViaStreets(originVertices, reverseDirection, request, streetRequest)
+        );
+        continue;
+      }
+      stopsFound.add(
+        createDirectlyConnectedStops(originVertices, reverseDirection, request, streetRequest)
+      );
+
+      StreetSearchRequest streetSearchRequest = StreetSearchRequestMapper
+        .map(request)
+        .withMode(streetRequest.mode())
+        .withArriveBy(reverseDirection)
+        .build();
+      sharedSearchRequests.put(streetSearchRequest, i);
+      initialStates.addAll(State.getInitialStates(originVertices, streetSearchRequest));
+      if (firstSharedRequest == null) {
+        firstSharedRequest = request;
+      }
+    }
+
+    if (firstSharedRequest == null) {
+      return stopsFound;
+    }
+
+    ShortestPathTree<State, Edge, Vertex> spt = StreetSearchBuilder
+      .of()
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy<>(durationLimit))
+      .setDominanceFunction(new DominanceFunctions.MinimumWeightPerRequest())
+      .setRequest(firstSharedRequest)
+      .setArriveBy(reverseDirection)
+      .setFrom(reverseDirection ? null : originVertices)
+      .setTo(reverseDirection ? originVertices : null)
+      .setInitialStates(initialStates)
+      .setDataOverlayContext(dataOverlayContext)
+      .getShortestPathTree();
+
+    if (spt != null) {
+      List<List<State>> statesByRequest = new ArrayList<>();
+      requests.forEach(it -> statesByRequest.add(new ArrayList<>()));
+      for (State state : spt.getAllStates()) {
+        statesByRequest.get(sharedSearchRequests.get(state.getRequest())).add(state);
+      }
+      for (int i : sharedSearchRequests.values()) {
+        addStopsForStates(
+          stopsFound.get(i),
+          statesByRequest.get(i),
+          originVertices,
+          reverseDirection
+        );
+      }
+    }
+    return stopsFound;
+  }
+
   /**
    * Return all stops within a certain radius of the given vertex, using network distance along
    * streets. If the origin vertex is a StopVertex, the result will include it.
@@ -219,31 +326,44 @@ public class NearbyStopFinder {
       .setDataOverlayContext(dataOverlayContext)
       .getShortestPathTree();
 
+    if (spt != null) {
+      addStopsForStates(stopsFound, spt.getAllStates(), originVertices, reverseDirection);
+    }
+    return stopsFound;
+  }
+
+  /**
+   * Add the stops reached by the states of a street search to the stops found.
+   */
+  private void addStopsForStates(
+    List<NearbyStop> stopsFound,
+    Collection<State> states,
+    Set<Vertex> originVertices,
+    boolean reverseDirection
+  ) {
     // Only used if OTPFeature.FlexRouting.isOn()
     Multimap<AreaStop, State> locationsMap = ArrayListMultimap.create();
 
-    if (spt != null) {
-      // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
-      for (State state : spt.getAllStates()) {
-        Vertex targetVertex = state.getVertex();
-        if (originVertices.contains(targetVertex)) continue;
-        if (targetVertex instanceof TransitStopVertex && state.isFinal()) {
-          stopsFound.add(
-            NearbyStop.nearbyStopForState(state, ((TransitStopVertex) targetVertex).getStop())
-          );
-        }
-        if (
-          OTPFeature.FlexRouting.isOn() &&
-          targetVertex instanceof StreetVertex &&
-          !((StreetVertex) targetVertex).areaStops().isEmpty()
-        ) {
-          for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
-            // This is for a simplification, so that we only return one vertex from each
-            // stop location. All vertices are added to the multimap, which is filtered
-            // below, so that only the closest vertex is added to stopsFound
-            if (canBoardFlex(state, reverseDirection)) {
-              locationsMap.put(areaStop, state);
-            }
+    // TODO use GenericAStar and a traverseVisitor? Add an earliestArrival switch to genericAStar?
+    for (State state : states) {
+      Vertex targetVertex = state.getVertex();
+      if (originVertices.contains(targetVertex)) continue;
+      if (targetVertex instanceof TransitStopVertex && state.isFinal()) {
+        stopsFound.add(
+          NearbyStop.nearbyStopForState(state, ((TransitStopVertex) targetVertex).getStop())
+        );
+      }
+      if (
+        OTPFeature.FlexRouting.isOn() &&
+        targetVertex instanceof StreetVertex &&
+        !((StreetVertex) targetVertex).areaStops().isEmpty()
+      ) {
+        for (AreaStop areaStop : ((StreetVertex) targetVertex).areaStops()) {
+          // This is for a simplification, so that we only return one vertex from each
+          // stop location. All vertices are added to the multimap, which is filtered
+          // below, so that only the closest vertex is added to stopsFound
+          if (canBoardFlex(state, reverseDirection)) {
+            locationsMap.put(areaStop, state);
           }
         }
       }
@@ -252,10 +372,10 @@ public class NearbyStopFinder {
     if (OTPFeature.FlexRouting.isOn()) {
       for (var locationStates : locationsMap.asMap().entrySet()) {
         AreaStop areaStop = locationStates.getKey();
-        Collection<State> states = locationStates.getValue();
+        Collection<State> areaStopStates = locationStates.getValue();
         // Select the vertex from all vertices that are reachable per AreaStop by taking
         // the minimum walking distance
-        State min = Collections.min(states, Comparator.comparing(State::getWeight));
+        State min = Collections.min(areaStopStates, Comparator.comparing(State::getWeight));
 
         // If the best state for this AreaStop is a SplitterVertex, we want to get the
         // TemporaryStreetLocation instead. This allows us to reach SplitterVertices in both
@@ -267,8 +387,6 @@ public class NearbyStopFinder {
         stopsFound.add(NearbyStop.nearbyStopForState(min, areaStop));
       }
     }
-
-    return stopsFound;
   }
 
   private List<NearbyStop> findNearbyStopsViaDirectTransfers(Vertex vertex) {
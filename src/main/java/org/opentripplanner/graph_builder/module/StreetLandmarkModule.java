@@ -0,0 +1,56 @@
+package org.opentripplanner.graph_builder.module;
+
+import jakarta.inject.Inject;
+import org.opentripplanner.framework.lang.OtpNumberFormat;
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.landmark.LandmarkTable;
+import org.opentripplanner.street.model.landmark.LandmarkTableBuilder;
+import org.opentripplanner.street.model.landmark.StreetLandmarks;
+import org.opentripplanner.street.search.TraverseMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Select landmarks in the street network, and store the distances to and from them for car and
+ * bicycle in the graph. See {@link LandmarkTable}. This must run after all modules which change
+ * the street network.
+ */
+public class StreetLandmarkModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(StreetLandmarkModule.class);
+
+  /**
+   * Each landmark costs four bytes per vertex and mode. More landmarks give better bounds, but the
+   * gain is small above eight to sixteen.
+   */
+  private static final int NUMBER_OF_LANDMARKS = 8;
+
+  private final Graph graph;
+
+  @Inject
+  public StreetLandmarkModule(Graph graph) {
+    this.graph = graph;
+  }
+
+  @Override
+  public void buildGraph() {
+    graph.setStreetLandmarks(
+      new StreetLandmarks(build(TraverseMode.CAR), build(TraverseMode.BICYCLE))
+    );
+  }
+
+  private LandmarkTable build(TraverseMode mode) {
+    LOG.info("Select street landmarks for {}", mode);
+    var table = new LandmarkTableBuilder(mode, graph.getVertices(), NUMBER_OF_LANDMARKS).build();
+
+    var f = new OtpNumberFormat();
+    LOG.info(
+      "Street landmarks for {} selected. |Landmarks|={} |Vertices|={}",
+      mode,
+      table.landmarks().size(),
+      f.formatNumber(table.numberOfVertices())
+    );
+    return table;
+  }
+}
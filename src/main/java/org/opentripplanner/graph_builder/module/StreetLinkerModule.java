@@ -3,6 +3,8 @@ package org.opentripplanner.graph_builder.module;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.logging.ProgressTracker;
@@ -13,13 +15,16 @@ import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.LinkingDirection;
 import org.opentripplanner.routing.vehicle_parking.VehicleParking;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingHelper;
+import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetTransitEntranceLink;
 import org.opentripplanner.street.model.edge.StreetTransitStopLink;
 import org.opentripplanner.street.model.edge.StreetVehicleParkingLink;
 import org.opentripplanner.street.model.edge.VehicleParkingEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
 import org.opentripplanner.street.model.vertex.TransitEntranceVertex;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.VehicleParkingEntranceVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
 import org.opentripplanner.transit.model.site.GroupStop;
@@ -35,6 +40,11 @@ import org.slf4j.LoggerFactory;
  * street network are loaded. It links four things: transit stops, transit entrances, bike rental
  * stations, and bike parks. Therefore it should be run even when there's no GTFS data present to
  * make bike rental services and bike parks usable.
+ * <p>
+ * The transit stops, entrances and vehicle parking entrances can be linked in parallel, see
+ * {@link org.opentripplanner.routing.linking.VertexLinker#linkVerticesPermanently}. The result is
+ * the same as when they are linked sequentially. Vehicle rental stations are not linked here, but
+ * by the vehicle rental updater when the service starts.
  */
 public class StreetLinkerModule implements GraphBuilderModule {
 
@@ -43,22 +53,25 @@ public class StreetLinkerModule implements GraphBuilderModule {
   private final TransitModel transitModel;
   private final DataImportIssueStore issueStore;
   private final Boolean addExtraEdgesToAreas;
+  private final boolean parallelLinking;
 
   public StreetLinkerModule(
     Graph graph,
     TransitModel transitModel,
     DataImportIssueStore issueStore,
-    boolean addExtraEdgesToAreas
+    boolean addExtraEdgesToAreas,
+    boolean parallelLinking
   ) {
     this.graph = graph;
     this.transitModel = transitModel;
     this.issueStore = issueStore;
     this.addExtraEdgesToAreas = addExtraEdgesToAreas;
+    this.parallelLinking = parallelLinking;
   }
 
   /** For test only */
   public static void linkStreetsForTestOnly(Graph graph, TransitModel model) {
-    new StreetLinkerModule(graph, model, DataImportIssueStore.NOOP, false).buildGraph();
+    new StreetLinkerModule(graph, model, DataImportIssueStore.NOOP, false, false).buildGraph();
   }
 
   @Override
@@ -102,6 +115,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       );
     }
 
+    List<TransitStopVertex> stopsToLink = new ArrayList<>();
     for (TransitStopVertex tStop : vertices) {
       // Stops with pathways do not need to be connected to the street network, since there are explicit entraces defined for that
       if (tStop.hasPathways()) {
@@ -111,109 +125,118 @@ public class StreetLinkerModule implements GraphBuilderModule {
       if (tStop.getDegreeOut() + tStop.getDegreeIn() > 0) {
         continue;
       }
-      TraverseModeSet modes = new TraverseModeSet(TraverseMode.WALK);
+      stopsToLink.add(tStop);
+    }
 
+    Set<StopLocation> flexStopLocations = stopLocationsUsedForFlexTrips;
+    Function<TransitStopVertex, TraverseModeSet> modes = tStop -> {
       if (OTPFeature.FlexRouting.isOn()) {
         // If regular stops are used for flex trips, they also need to be connected to car routable
         // street edges.
-        if (stopLocationsUsedForFlexTrips.contains(tStop.getStop())) {
-          modes = new TraverseModeSet(TraverseMode.WALK, TraverseMode.CAR);
+        if (flexStopLocations.contains(tStop.getStop())) {
+          return new TraverseModeSet(TraverseMode.WALK, TraverseMode.CAR);
         }
       }
+      return new TraverseModeSet(TraverseMode.WALK);
+    };
 
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tStop,
-          modes,
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetTransitStopLink.createStreetTransitStopLink(
-                (TransitStopVertex) vertex,
-                streetVertex
-              ),
-              StreetTransitStopLink.createStreetTransitStopLink(
-                streetVertex,
-                (TransitStopVertex) vertex
-              )
-            )
-        );
+    linkVertices(
+      stopsToLink,
+      modes,
+      (vertex, streetVertex) ->
+        List.of(
+          StreetTransitStopLink.createStreetTransitStopLink(
+            (TransitStopVertex) vertex,
+            streetVertex
+          ),
+          StreetTransitStopLink.createStreetTransitStopLink(
+            streetVertex,
+            (TransitStopVertex) vertex
+          )
+        ),
       //noinspection Convert2MethodRef
-      progress.step(m -> LOG.info(m));
-    }
+      () -> progress.step(m -> LOG.info(m))
+    );
     LOG.info(progress.completeMessage());
   }
 
-  private static void linkVehicleParkingWithLinker(
-    Graph graph,
-    VehicleParkingEntranceVertex vehicleParkingVertex
+  /**
+   * Link the vertices in both directions, in parallel if enabled. The vertices are always linked
+   * in the given order, so the result does not depend on the mode.
+   */
+  private <T extends Vertex> void linkVertices(
+    List<T> vertices,
+    Function<T, TraverseModeSet> traverseModes,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    Runnable linked
   ) {
-    if (vehicleParkingVertex.isWalkAccessible()) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          vehicleParkingVertex,
-          new TraverseModeSet(TraverseMode.WALK),
+    var linker = graph.getLinker();
+    if (parallelLinking) {
+      linker.linkVerticesPermanently(
+        vertices,
+        traverseModes,
+        LinkingDirection.BOTH_WAYS,
+        edgeFunction,
+        v -> linked.run()
+      );
+    } else {
+      for (T vertex : vertices) {
+        linker.linkVertexPermanently(
+          vertex,
+          traverseModes.apply(vertex),
           LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetVehicleParkingLink.createStreetVehicleParkingLink(
-                (VehicleParkingEntranceVertex) vertex,
-                streetVertex
-              ),
-              StreetVehicleParkingLink.createStreetVehicleParkingLink(
-                streetVertex,
-                (VehicleParkingEntranceVertex) vertex
-              )
-            )
+          edgeFunction
         );
+        linked.run();
+      }
     }
+  }
 
-    if (vehicleParkingVertex.isCarAccessible()) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          vehicleParkingVertex,
-          new TraverseModeSet(TraverseMode.CAR),
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetVehicleParkingLink.createStreetVehicleParkingLink(
-                (VehicleParkingEntranceVertex) vertex,
-                streetVertex
-              ),
-              StreetVehicleParkingLink.createStreetVehicleParkingLink(
-                streetVertex,
-                (VehicleParkingEntranceVertex) vertex
-              )
-            )
-        );
-    }
+  private void linkVehicleParkingWithLinker(List<VehicleParkingEntranceVertex> vertices) {
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction = (vertex, streetVertex) ->
+      List.of(
+        StreetVehicleParkingLink.createStreetVehicleParkingLink(
+          (VehicleParkingEntranceVertex) vertex,
+          streetVertex
+        ),
+        StreetVehicleParkingLink.createStreetVehicleParkingLink(
+          streetVertex,
+          (VehicleParkingEntranceVertex) vertex
+        )
+      );
+
+    linkVertices(
+      vertices.stream().filter(VehicleParkingEntranceVertex::isWalkAccessible).toList(),
+      v -> new TraverseModeSet(TraverseMode.WALK),
+      edgeFunction,
+      () -> {}
+    );
+    linkVertices(
+      vertices.stream().filter(VehicleParkingEntranceVertex::isCarAccessible).toList(),
+      v -> new TraverseModeSet(TraverseMode.CAR),
+      edgeFunction,
+      () -> {}
+    );
   }
 
   private void linkTransitEntrances(Graph graph) {
     LOG.info("Linking transit entrances to graph...");
-    for (TransitEntranceVertex tEntrance : graph.getVerticesOfType(TransitEntranceVertex.class)) {
-      graph
-        .getLinker()
-        .linkVertexPermanently(
-          tEntrance,
-          new TraverseModeSet(TraverseMode.WALK),
-          LinkingDirection.BOTH_WAYS,
-          (vertex, streetVertex) ->
-            List.of(
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                (TransitEntranceVertex) vertex,
-                streetVertex
-              ),
-              StreetTransitEntranceLink.createStreetTransitEntranceLink(
-                streetVertex,
-                (TransitEntranceVertex) vertex
-              )
-            )
-        );
-    }
+    linkVertices(
+      graph.getVerticesOfType(TransitEntranceVertex.class),
+      tEntrance -> new TraverseModeSet(TraverseMode.WALK),
+      (vertex, streetVertex) ->
+        List.of(
+          StreetTransitEntranceLink.createStreetTransitEntranceLink(
+            (TransitEntranceVertex) vertex,
+            streetVertex
+          ),
+          StreetTransitEntranceLink.createStreetTransitEntranceLink(
+            streetVertex,
+            (TransitEntranceVertex) vertex
+          )
+        ),
+      () -> {}
+    );
   }
 
   private void linkVehicleParks(Graph graph, DataImportIssueStore issueStore) {
@@ -223,6 +246,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
     }
     LOG.info("Linking vehicle parks to graph...");
     List<VehicleParking> vehicleParkingToRemove = new ArrayList<>();
+    List<VehicleParkingEntranceVertex> verticesToLink = new ArrayList<>();
     for (VehicleParkingEntranceVertex vehicleParkingEntranceVertex : graph.getVerticesOfType(
       VehicleParkingEntranceVertex.class
     )) {
@@ -231,7 +255,7 @@ public class StreetLinkerModule implements GraphBuilderModule {
       }
 
       if (vehicleParkingEntranceVertex.getParkingEntrance().getVertex() == null) {
-        linkVehicleParkingWithLinker(graph, vehicleParkingEntranceVertex);
+        verticesToLink.add(vehicleParkingEntranceVertex);
         continue;
       }
 
@@ -251,6 +275,9 @@ public class StreetLinkerModule implements GraphBuilderModule {
         vehicleParkingToRemove.add(vehicleParking);
       }
     }
+    // The entrances are first linked for walking, then for driving
+    linkVehicleParkingWithLinker(verticesToLink);
+
     if (!vehicleParkingToRemove.isEmpty()) {
       var vehicleParkingService = graph.getVehicleParkingService();
       vehicleParkingService.updateVehicleParking(List.of(), vehicleParkingToRemove);
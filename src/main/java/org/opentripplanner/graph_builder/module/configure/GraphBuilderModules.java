@@ -61,7 +61,8 @@ public class GraphBuilderModules {
           osmConfiguredDataSource.dataSource(),
           osmConfiguredDataSource.config().osmTagMapper(),
           osmConfiguredDataSource.config().timeZone(),
-          config.osmCacheDataInMem
+          config.osmCacheDataInMem,
+          config.osmSinglePass
         )
       );
     }
@@ -74,6 +75,7 @@ public class GraphBuilderModules {
       .withStaticParkAndRide(config.staticParkAndRide)
       .withStaticBikeParkAndRide(config.staticBikeParkAndRide)
       .withMaxAreaNodes(config.maxAreaNodes)
+      .withCompactNodeStore(config.osmCompactNodeStore)
       .withBoardingAreaRefTags(config.boardingLocationTags)
       .withIssueStore(issueStore)
       .build();
@@ -132,7 +134,13 @@ public class GraphBuilderModules {
     TransitModel transitModel,
     DataImportIssueStore issueStore
   ) {
-    return new StreetLinkerModule(graph, transitModel, issueStore, config.areaVisibility);
+    return new StreetLinkerModule(
+      graph,
+      transitModel,
+      issueStore,
+      config.areaVisibility,
+      config.parallelStopLinking
+    );
   }
 
   @Provides
@@ -147,7 +155,13 @@ public class GraphBuilderModules {
       graph,
       transitModel,
       issueStore,
-      new StreetLinkerModule(graph, transitModel, issueStore, config.areaVisibility)
+      new StreetLinkerModule(
+        graph,
+        transitModel,
+        issueStore,
+        config.areaVisibility,
+        config.parallelStopLinking
+      )
     );
     pruneIslands.setPruningThresholdIslandWithoutStops(
       config.islandPruning.pruningThresholdIslandWithoutStops
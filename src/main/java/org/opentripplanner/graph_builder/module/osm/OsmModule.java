@@ -66,7 +66,7 @@ public class OsmModule implements GraphBuilderModule {
     this.graph = graph;
     this.issueStore = issueStore;
     this.params = params;
-    this.osmdb = new OsmDatabase(issueStore);
+    this.osmdb = new OsmDatabase(issueStore, params.compactNodeStore());
     this.vertexGenerator = new VertexGenerator(osmdb, graph, params.boardingAreaRefTags());
     this.normalizer = new SafetyValueNormalizer(graph, issueStore);
   }
@@ -88,6 +88,9 @@ public class OsmModule implements GraphBuilderModule {
         provider.getOsmTagMapper().getClass().getSimpleName()
       );
       provider.readOSM(osmdb);
+      for (var phase : provider.phaseStatistics()) {
+        issueStore.add("OsmParsePhase", "Read OSM from %s, %s", provider, phase);
+      }
     }
     osmdb.postLoad();
 
@@ -24,6 +24,7 @@ public class OsmModuleBuilder {
   private boolean staticParkAndRide = false;
   private boolean staticBikeParkAndRide = false;
   private int maxAreaNodes;
+  private boolean compactNodeStore = false;
 
   OsmModuleBuilder(Collection<OsmProvider> providers, Graph graph) {
     this.providers = providers;
@@ -70,6 +71,11 @@ public class OsmModuleBuilder {
     return this;
   }
 
+  public OsmModuleBuilder withCompactNodeStore(boolean compactNodeStore) {
+    this.compactNodeStore = compactNodeStore;
+    return this;
+  }
+
   public OsmModule build() {
     return new OsmModule(
       providers,
@@ -82,7 +88,8 @@ public class OsmModuleBuilder {
         areaVisibility,
         platformEntriesLinking,
         staticParkAndRide,
-        staticBikeParkAndRide
+        staticBikeParkAndRide,
+        compactNodeStore
       )
     );
   }
@@ -0,0 +1,94 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+
+/**
+ * All nodes used in ways and areas, keyed by their OSM id.
+ * <p>
+ * By default all nodes are kept as {@link OSMNode} objects. If the compact store is enabled, only
+ * nodes with tags are kept as objects. For the plain nodes without tags, which is by far the
+ * majority of the nodes, the coordinates are stored off-heap, and a new {@link OSMNode} is created
+ * each time such a node is looked up. Hence, nodes must be compared using
+ * {@link OSMNode#equals(Object)}, not object identity.
+ */
+final class OsmNodeStore {
+
+  /** Store the coordinates in chunks of 2^16 nodes (1 MB) */
+  private static final int CHUNK_SIZE_BITS = 16;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SIZE_BITS;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final int NOT_FOUND = -1;
+
+  private final TLongObjectMap<OSMNode> nodes = new TLongObjectHashMap<>();
+
+  /** The index of the coordinates for each plain node, {@code null} if not compact. */
+  private final TLongIntMap coordinateIndex;
+
+  /** Latitude and longitude for each plain node, stored off-heap */
+  private final List<DoubleBuffer> chunks = new ArrayList<>();
+
+  OsmNodeStore(boolean compact) {
+    this.coordinateIndex =
+      compact ? new TLongIntHashMap(CHUNK_SIZE, 0.5f, 0L, NOT_FOUND) : null;
+  }
+
+  /**
+   * Add the node, if a node with the same id does not already exist.
+   */
+  void add(OSMNode node) {
+    long id = node.getId();
+    if (contains(id)) {
+      return;
+    }
+    if (coordinateIndex == null || !node.getTags().isEmpty()) {
+      nodes.put(id, node);
+      return;
+    }
+    int index = coordinateIndex.size();
+    if ((index & CHUNK_MASK) == 0) {
+      chunks.add(ByteBuffer.allocateDirect(CHUNK_SIZE * 2 * Double.BYTES).asDoubleBuffer());
+    }
+    DoubleBuffer chunk = chunks.get(index >>> CHUNK_SIZE_BITS);
+    int offset = (index & CHUNK_MASK) * 2;
+    chunk.put(offset, node.lat);
+    chunk.put(offset + 1, node.lon);
+    coordinateIndex.put(id, index);
+  }
+
+  boolean contains(long id) {
+    return nodes.containsKey(id) || (coordinateIndex != null && coordinateIndex.containsKey(id));
+  }
+
+  /**
+   * @return the node, or {@code null} if the node does not exist.
+   */
+  OSMNode get(long id) {
+    OSMNode node = nodes.get(id);
+    if (node != null || coordinateIndex == null) {
+      return node;
+    }
+    int index = coordinateIndex.get(id);
+    if (index == NOT_FOUND) {
+      return null;
+    }
+    DoubleBuffer chunk = chunks.get(index >>> CHUNK_SIZE_BITS);
+    int offset = (index & CHUNK_MASK) * 2;
+    node = new OSMNode();
+    node.setId(id);
+    node.lat = chunk.get(offset);
+    node.lon = chunk.get(offset + 1);
+    return node;
+  }
+
+  int size() {
+    return nodes.size() + (coordinateIndex == null ? 0 : coordinateIndex.size());
+  }
+}
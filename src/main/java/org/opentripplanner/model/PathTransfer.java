@@ -27,11 +27,37 @@ public class PathTransfer implements Serializable {
 
   private final List<Edge> edges;
 
+  /** The trie holding the edges, if the edges are not kept in a list. */
+  private final TransferPathTrie pathTrie;
+
+  private final int pathIndex;
+
   public PathTransfer(StopLocation from, StopLocation to, double distanceMeters, List<Edge> edges) {
     this.from = from;
     this.to = to;
     this.distanceMeters = distanceMeters;
     this.edges = edges;
+    this.pathTrie = null;
+    this.pathIndex = 0;
+  }
+
+  /**
+   * Create a transfer with the edges stored in the given trie, shared with the other transfers
+   * from the same stop.
+   */
+  public PathTransfer(
+    StopLocation from,
+    StopLocation to,
+    double distanceMeters,
+    TransferPathTrie pathTrie,
+    int pathIndex
+  ) {
+    this.from = from;
+    this.to = to;
+    this.distanceMeters = distanceMeters;
+    this.edges = null;
+    this.pathTrie = pathTrie;
+    this.pathIndex = pathIndex;
   }
 
   public String getName() {
@@ -42,8 +68,13 @@ public class PathTransfer implements Serializable {
     return distanceMeters;
   }
 
+  /**
+   * The street edges of the transfer, {@code null} if the transfer is not routed on the street
+   * network. If the edges are stored in a trie, the returned list is a view of the trie, and the
+   * edges are expanded only when the list is iterated over.
+   */
   public List<Edge> getEdges() {
-    return this.edges;
+    return pathTrie == null ? edges : pathTrie.path(pathIndex);
   }
 
   @Override
@@ -53,7 +84,7 @@ public class PathTransfer implements Serializable {
       .addObj("from", from)
       .addObj("to", to)
       .addNum("distance", distanceMeters)
-      .addColSize("edges", edges)
+      .addColSize("edges", getEdges())
       .toString();
   }
 }
@@ -0,0 +1,143 @@
+package org.opentripplanner.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import org.opentripplanner.street.model.edge.Edge;
+
+/**
+ * A compact representation of the street paths of many transfers, typically all transfers from
+ * one stop. The paths are found by the same street search, so they share a common prefix from the
+ * origin stop. Each edge is stored once for each distinct prefix, together with the index of the
+ * previous edge in the path. A path is identified by the index of its last edge, and is expanded
+ * by following the previous-edge indexes back to the start.
+ * <p>
+ * The trie is built by one thread, and must be {@link #compact() compacted} before it is shared.
+ * After that it is immutable, and the paths can be read by many threads.
+ */
+public final class TransferPathTrie implements Serializable {
+
+  /** The index of the empty path */
+  private static final int ROOT = -1;
+
+  private Edge[] edges = new Edge[16];
+  private int[] previous = new int[16];
+  private int size = 0;
+
+  /** Used to look up existing prefixes while the trie is built. */
+  private transient Map<Child, Integer> children = new HashMap<>();
+
+  /**
+   * Add the path to the trie.
+   *
+   * @return the index of the path, used to retrieve it with {@link #path(int)}.
+   */
+  public int add(List<Edge> path) {
+    if (children == null) {
+      throw new IllegalStateException("Paths can not be added after the trie is compacted.");
+    }
+    int index = ROOT;
+    for (Edge edge : path) {
+      int parent = index;
+      index = children.computeIfAbsent(new Child(parent, edge), c -> addEdge(c.parent, c.edge));
+    }
+    return index;
+  }
+
+  /**
+   * Trim the arrays to the number of edges, and drop the lookup table used to build the trie.
+   */
+  public void compact() {
+    edges = Arrays.copyOf(edges, size);
+    previous = Arrays.copyOf(previous, size);
+    children = null;
+  }
+
+  /**
+   * Return the path with the given index. The returned list is a view of the trie, the edges are
+   * not copied out of the trie until the list is iterated over.
+   */
+  public List<Edge> path(int index) {
+    int length = 0;
+    for (int i = index; i != ROOT; i = previous[i]) {
+      ++length;
+    }
+    return new Path(index, length);
+  }
+
+  /**
+   * The total number of edges stored in the trie.
+   */
+  public int size() {
+    return size;
+  }
+
+  private int addEdge(int parent, Edge edge) {
+    if (size == edges.length) {
+      edges = Arrays.copyOf(edges, size * 2);
+      previous = Arrays.copyOf(previous, size * 2);
+    }
+    edges[size] = edge;
+    previous[size] = parent;
+    return size++;
+  }
+
+  private Edge[] expand(int index, int length) {
+    Edge[] path = new Edge[length];
+    for (int i = length - 1; i >= 0; --i) {
+      path[i] = edges[index];
+      index = previous[index];
+    }
+    return path;
+  }
+
+  private record Child(int parent, Edge edge) {}
+
+  /**
+   * A path in the trie. Iterating over the path expands all edges into an array once, while
+   * random access walks the trie from the end of the path.
+   */
+  private final class Path extends AbstractList<Edge> {
+
+    private final int index;
+    private final int length;
+
+    private Path(int index, int length) {
+      this.index = index;
+      this.length = length;
+    }
+
+    @Override
+    public Edge get(int i) {
+      if (i < 0 || i >= length) {
+        throw new IndexOutOfBoundsException(i);
+      }
+      int node = index;
+      for (int n = length - 1; n > i; --n) {
+        node = previous[node];
+      }
+      return edges[node];
+    }
+
+    @Override
+    public int size() {
+      return length;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+      return listIterator(0);
+    }
+
+    @Override
+    public ListIterator<Edge> listIterator(int i) {
+      return Collections.unmodifiableList(Arrays.asList(expand(index, length))).listIterator(i);
+    }
+  }
+}
@@ -25,6 +25,7 @@ class OpenStreetMapParser extends BinaryParser {
   private final Map<String, String> stringTable = new HashMap<>();
   private final OsmProvider provider;
   private OsmParserPhase parsePhase;
+  private OsmSpillStore spillStore;
 
   public OpenStreetMapParser(OsmDatabase osmdb, OsmProvider provider) {
     this.osmdb = Objects.requireNonNull(osmdb);
@@ -56,9 +57,18 @@ class OpenStreetMapParser extends BinaryParser {
     this.parsePhase = phase;
   }
 
+  /**
+   * Parse everything in one pass, the ways and nodes are written to the given store, while the
+   * relations are added to the database.
+   */
+  public void setSinglePass(OsmSpillStore spillStore) {
+    this.parsePhase = OsmParserPhase.SinglePass;
+    this.spillStore = Objects.requireNonNull(spillStore);
+  }
+
   @Override
   protected void parseRelations(List<Osmformat.Relation> rels) {
-    if (parsePhase != OsmParserPhase.Relations) {
+    if (!isParsing(OsmParserPhase.Relations)) {
       return;
     }
 
@@ -108,7 +118,7 @@ class OpenStreetMapParser extends BinaryParser {
     long lastId = 0, lastLat = 0, lastLon = 0;
     int j = 0; // Index into the keysvals array.
 
-    if (parsePhase != OsmParserPhase.Nodes) {
+    if (!isParsing(OsmParserPhase.Nodes)) {
       return;
     }
 
@@ -144,13 +154,13 @@ class OpenStreetMapParser extends BinaryParser {
         j++; // Skip over the '0' delimiter.
       }
 
-      osmdb.addNode(tmp);
+      addNode(tmp);
     }
   }
 
   @Override
   protected void parseNodes(List<Osmformat.Node> nodes) {
-    if (parsePhase != OsmParserPhase.Nodes) {
+    if (!isParsing(OsmParserPhase.Nodes)) {
       return;
     }
 
@@ -171,13 +181,13 @@ class OpenStreetMapParser extends BinaryParser {
         tmp.addTag(tag);
       }
 
-      osmdb.addNode(tmp);
+      addNode(tmp);
     }
   }
 
   @Override
   protected void parseWays(List<Osmformat.Way> ways) {
-    if (parsePhase != OsmParserPhase.Ways) {
+    if (!isParsing(OsmParserPhase.Ways)) {
       return;
     }
 
@@ -201,7 +211,27 @@ class OpenStreetMapParser extends BinaryParser {
         lastId = j + lastId;
       }
 
-      osmdb.addWay(tmp);
+      addWay(tmp);
+    }
+  }
+
+  private boolean isParsing(OsmParserPhase phase) {
+    return parsePhase == phase || parsePhase == OsmParserPhase.SinglePass;
+  }
+
+  private void addNode(OSMNode node) {
+    if (parsePhase == OsmParserPhase.SinglePass) {
+      spillStore.writeNode(node);
+    } else {
+      osmdb.addNode(node);
+    }
+  }
+
+  private void addWay(OSMWay way) {
+    if (parsePhase == OsmParserPhase.SinglePass) {
+      spillStore.writeWay(way);
+    } else {
+      osmdb.addWay(way);
     }
   }
 
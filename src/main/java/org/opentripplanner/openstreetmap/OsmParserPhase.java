@@ -4,4 +4,9 @@ enum OsmParserPhase {
   Relations,
   Ways,
   Nodes,
+  /**
+   * Parse relations, ways and nodes in one pass over the input, the ways and nodes are written to
+   * a {@link OsmSpillStore}.
+   */
+  SinglePass,
 }
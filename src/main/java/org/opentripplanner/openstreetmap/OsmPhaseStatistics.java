@@ -0,0 +1,25 @@
+package org.opentripplanner.openstreetmap;
+
+import org.opentripplanner.framework.text.FileSizeToTextConverter;
+
+/**
+ * The resources used by one phase of reading an OSM file, reported in the build report.
+ *
+ * @param phase        The name of the phase
+ * @param bytesRead    The number of bytes read from the OSM file, or from the temporary files
+ * @param peakHeapUsed An upper bound of the peak heap used during the phase, in bytes. This is
+ *                     the sum of the peak usage of each heap memory pool, which may peak at
+ *                     different times.
+ */
+public record OsmPhaseStatistics(String phase, long bytesRead, long peakHeapUsed) {
+  @Override
+  public String toString() {
+    return (
+      phase +
+      " phase: " +
+      FileSizeToTextConverter.fileSizeToString(bytesRead) +
+      " read, peak heap used " +
+      FileSizeToTextConverter.fileSizeToString(peakHeapUsed)
+    );
+  }
+}
@@ -1,11 +1,19 @@
 package org.opentripplanner.openstreetmap;
 
+import com.google.common.io.CountingInputStream;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.time.ZoneId;
-import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
 import org.opentripplanner.datastore.file.FileDataSource;
@@ -22,13 +30,24 @@ import org.slf4j.LoggerFactory;
 /**
  * Parser for the OpenStreetMap PBF format. Parses files in three passes: First the relations, then
  * the ways, then the nodes are also loaded.
+ * <p>
+ * In single-pass mode the file is read only once. The relations are loaded, while the ways and
+ * nodes are written to temporary files, see {@link OsmSpillStore}. Then the ways and nodes are
+ * read back from the temporary files and loaded, in that order.
+ * <p>
+ * The data blocks of the file are decoded in parallel, see {@link ParallelBlockReader}, while the
+ * {@link OsmDatabase} is populated by the calling thread.
  */
 public class OsmProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(OsmProvider.class);
 
+  /** The number of blocks each decoder thread may decode ahead of the parser. */
+  private static final int BLOCKS_AHEAD_PER_THREAD = 4;
+
   private final DataSource source;
   private final boolean cacheDataInMem;
+  private final boolean singlePass;
 
   private final ZoneId zoneId;
 
@@ -39,16 +58,30 @@ public class OsmProvider {
   private final WayPropertySet wayPropertySet;
   private byte[] cachedBytes = null;
 
+  private final List<OsmPhaseStatistics> phaseStatistics = new ArrayList<>();
+
   /** For tests */
   public OsmProvider(File file, boolean cacheDataInMem) {
-    this(new FileDataSource(file, FileType.OSM), OsmTagMapperSource.DEFAULT, null, cacheDataInMem);
+    this(
+      new FileDataSource(file, FileType.OSM),
+      OsmTagMapperSource.DEFAULT,
+      null,
+      cacheDataInMem,
+      false
+    );
   }
 
+  /**
+   * @param cacheDataInMem Cache the file in memory, instead of reading it 3 times from the source.
+   *                       Not used in single-pass mode.
+   * @param singlePass     Read the file once, and use temporary files for the ways and nodes.
+   */
   public OsmProvider(
     DataSource dataSource,
     OsmTagMapperSource tagMapperSource,
     ZoneId zoneId,
-    boolean cacheDataInMem
+    boolean cacheDataInMem,
+    boolean singlePass
   ) {
     this.source = dataSource;
     this.zoneId = zoneId;
@@ -56,22 +89,28 @@ public class OsmProvider {
     this.wayPropertySet = new WayPropertySet();
     osmTagMapper.populateProperties(wayPropertySet);
     this.cacheDataInMem = cacheDataInMem;
+    this.singlePass = singlePass;
   }
 
   public void readOSM(OsmDatabase osmdb) {
+    int nThreads = Runtime.getRuntime().availableProcessors();
+    ExecutorService executor = Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("osm-decoder-%d").build()
+    );
     try {
       OpenStreetMapParser parser = new OpenStreetMapParser(osmdb, this);
+      var reader = new ParallelBlockReader(parser, executor, nThreads * BLOCKS_AHEAD_PER_THREAD);
 
-      parsePhase(parser, OsmParserPhase.Relations);
-      osmdb.doneFirstPhaseRelations();
-
-      parsePhase(parser, OsmParserPhase.Ways);
-      osmdb.doneSecondPhaseWays();
-
-      parsePhase(parser, OsmParserPhase.Nodes);
-      osmdb.doneThirdPhaseNodes();
+      if (singlePass) {
+        readInSinglePass(osmdb, parser, reader);
+      } else {
+        readInThreePasses(osmdb, parser, reader);
+      }
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      executor.shutdownNow();
     }
   }
 
@@ -81,9 +120,18 @@ public class OsmProvider {
       .of(OsmProvider.class)
       .addObj("source", source)
       .addBool("cacheDataInMem", cacheDataInMem)
+      .addBool("singlePass", singlePass)
       .toString();
   }
 
+  /**
+   * The bytes read and an upper bound of the peak heap used in each phase of the last
+   * {@link #readOSM(OsmDatabase)}.
+   */
+  public List<OsmPhaseStatistics> phaseStatistics() {
+    return List.copyOf(phaseStatistics);
+  }
+
   public void checkInputs() {
     if (!source.exists()) {
       throw new RuntimeException("Can't read OSM path: " + source.path());
@@ -97,22 +145,94 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OpenStreetMapParser parser, OsmParserPhase phase) throws IOException {
-    parser.setPhase(phase);
-    BlockInputStream in = null;
-    try {
-      in = new BlockInputStream(createInputStream(phase), parser);
-      in.process();
-    } finally {
-      // Close
-      try {
-        if (in != null) {
-          in.close();
-        }
-      } catch (Exception e) {
-        LOG.error(e.getMessage(), e);
+  private void readInThreePasses(
+    OsmDatabase osmdb,
+    OpenStreetMapParser parser,
+    ParallelBlockReader reader
+  ) throws IOException {
+    phaseStatistics.clear();
+
+    startPhase();
+    parser.setPhase(OsmParserPhase.Relations);
+    long bytesRead = parsePhase(reader, OsmParserPhase.Relations);
+    osmdb.doneFirstPhaseRelations();
+    endPhase(OsmParserPhase.Relations, bytesRead);
+
+    startPhase();
+    parser.setPhase(OsmParserPhase.Ways);
+    bytesRead = parsePhase(reader, OsmParserPhase.Ways);
+    osmdb.doneSecondPhaseWays();
+    endPhase(OsmParserPhase.Ways, bytesRead);
+
+    startPhase();
+    parser.setPhase(OsmParserPhase.Nodes);
+    bytesRead = parsePhase(reader, OsmParserPhase.Nodes);
+    osmdb.doneThirdPhaseNodes();
+    endPhase(OsmParserPhase.Nodes, bytesRead);
+  }
+
+  private void readInSinglePass(
+    OsmDatabase osmdb,
+    OpenStreetMapParser parser,
+    ParallelBlockReader reader
+  ) throws IOException {
+    phaseStatistics.clear();
+
+    try (var spillStore = OsmSpillStore.create()) {
+      startPhase();
+      parser.setSinglePass(spillStore);
+      long bytesRead = parsePhase(reader, OsmParserPhase.SinglePass);
+      osmdb.doneFirstPhaseRelations();
+      endPhase(OsmParserPhase.SinglePass, bytesRead);
+
+      startPhase();
+      long waysSize = spillStore.waysSize();
+      spillStore.readWays(this, in -> track(OsmParserPhase.Ways, waysSize, in), osmdb::addWay);
+      osmdb.doneSecondPhaseWays();
+      endPhase(OsmParserPhase.Ways, waysSize);
+
+      startPhase();
+      long nodesSize = spillStore.nodesSize();
+      spillStore.readNodes(this, in -> track(OsmParserPhase.Nodes, nodesSize, in), osmdb::addNode);
+      osmdb.doneThirdPhaseNodes();
+      endPhase(OsmParserPhase.Nodes, nodesSize);
+    }
+  }
+
+  /**
+   * @return the number of bytes read
+   */
+  private long parsePhase(ParallelBlockReader reader, OsmParserPhase phase) throws IOException {
+    try (var countingInputStream = new CountingInputStream(createInputStream(phase))) {
+      reader.read(countingInputStream);
+      return countingInputStream.getCount();
+    }
+  }
+
+  private static void startPhase() {
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        pool.resetPeakUsage();
+      }
+    }
+  }
+
+  /**
+   * Record the statistics for the phase. The peak heap used is the sum of the peak usage of each
+   * heap memory pool, since the start of the phase. The pools do not peak at the same time, so the
+   * sum is an upper bound of the heap used. The peaks are reset for the whole JVM, so anything else
+   * running at the same time is included.
+   */
+  private void endPhase(OsmParserPhase phase, long bytesRead) {
+    long peakHeapUsed = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+        peakHeapUsed += pool.getPeakUsage().getUsed();
       }
     }
+    var statistics = new OsmPhaseStatistics(phase.name(), bytesRead, peakHeapUsed);
+    LOG.info("OSM {}", statistics);
+    phaseStatistics.add(statistics);
   }
 
   private InputStream createInputStream(OsmParserPhase phase) {
@@ -0,0 +1,264 @@
+package org.opentripplanner.openstreetmap;
+
+import gnu.trove.list.TLongList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import org.opentripplanner.openstreetmap.model.OSMNode;
+import org.opentripplanner.openstreetmap.model.OSMWay;
+import org.opentripplanner.openstreetmap.model.OSMWithTags;
+
+/**
+ * Temporary files used to read the OSM data in a single pass. The ways and nodes can not be
+ * filtered before all relations and ways are read, so they are written to disk while the PBF file
+ * is parsed, and read back sequentially when the relations and ways are known.
+ * <p>
+ * The files are compact: ids and node references are delta encoded as variable length integers,
+ * and the tag keys and values are written as indexes into a string table kept in memory. The
+ * strings are already shared by the parser, so the table adds little to the heap. The node
+ * coordinates are delta encoded as fixed-point values, like in the PBF file. The parser computes
+ * the coordinates from whole nanodegrees, so they are read back without any loss of precision.
+ * <p>
+ * The files are deleted when the store is closed.
+ */
+class OsmSpillStore implements Closeable {
+
+  /** One nanodegree, the same factor as used by the PBF parser. */
+  private static final double NANO = .000000001;
+  private static final int GRANULARITY = 100;
+
+  private final Path waysFile;
+  private final Path nodesFile;
+  private final DataOutputStream ways;
+  private final DataOutputStream nodes;
+
+  private final List<String> strings = new ArrayList<>();
+  private final Map<String, Integer> stringIndex = new HashMap<>();
+
+  private long nWays = 0;
+  private long nNodes = 0;
+  private long lastWayId = 0;
+  private long lastNodeId = 0;
+  private long lastLat = 0;
+  private long lastLon = 0;
+
+  private OsmSpillStore(Path waysFile, Path nodesFile) throws IOException {
+    this.waysFile = waysFile;
+    this.nodesFile = nodesFile;
+    this.ways = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(waysFile)));
+    this.nodes = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(nodesFile)));
+  }
+
+  static OsmSpillStore create() throws IOException {
+    return new OsmSpillStore(
+      Files.createTempFile("otp-osm-", ".ways"),
+      Files.createTempFile("otp-osm-", ".nodes")
+    );
+  }
+
+  void writeWay(OSMWay way) {
+    try {
+      writeVarLong(ways, way.getId() - lastWayId);
+      lastWayId = way.getId();
+      writeTags(ways, way);
+
+      TLongList refs = way.getNodeRefs();
+      writeVarLong(ways, refs.size());
+      long lastRef = 0;
+      for (int i = 0; i < refs.size(); i++) {
+        writeVarLong(ways, refs.get(i) - lastRef);
+        lastRef = refs.get(i);
+      }
+      ++nWays;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write OSM way to " + waysFile, e);
+    }
+  }
+
+  void writeNode(OSMNode node) {
+    try {
+      writeVarLong(nodes, node.getId() - lastNodeId);
+      lastNodeId = node.getId();
+      lastLat = writeCoordinate(nodes, node.lat, lastLat);
+      lastLon = writeCoordinate(nodes, node.lon, lastLon);
+      writeTags(nodes, node);
+      ++nNodes;
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to write OSM node to " + nodesFile, e);
+    }
+  }
+
+  /**
+   * Read the ways back, in the same order as they were written. This must be called after all
+   * ways and nodes are written.
+   *
+   * @param wrap Used to wrap the input stream, for example to track the progress.
+   */
+  void readWays(OsmProvider provider, UnaryOperator<InputStream> wrap, Consumer<OSMWay> consumer)
+    throws IOException {
+    ways.flush();
+    try (var in = open(waysFile, wrap)) {
+      long id = 0;
+      for (long n = 0; n < nWays; ++n) {
+        OSMWay way = new OSMWay();
+        id += readVarLong(in);
+        way.setId(id);
+        way.setOsmProvider(provider);
+        readTags(in, way);
+
+        long nRefs = readVarLong(in);
+        long ref = 0;
+        for (long i = 0; i < nRefs; ++i) {
+          ref += readVarLong(in);
+          way.addNodeRef(ref);
+        }
+        consumer.accept(way);
+      }
+    }
+  }
+
+  /**
+   * Read the nodes back, in the same order as they were written. This must be called after all
+   * ways and nodes are written.
+   *
+   * @param wrap Used to wrap the input stream, for example to track the progress.
+   */
+  void readNodes(OsmProvider provider, UnaryOperator<InputStream> wrap, Consumer<OSMNode> consumer)
+    throws IOException {
+    nodes.flush();
+    try (var in = open(nodesFile, wrap)) {
+      long id = 0;
+      long lat = 0;
+      long lon = 0;
+      for (long n = 0; n < nNodes; ++n) {
+        OSMNode node = new OSMNode();
+        id += readVarLong(in);
+        node.setId(id);
+        node.setOsmProvider(provider);
+        lat += readCoordinateDelta(in);
+        lon += readCoordinateDelta(in);
+        node.lat = lat * NANO;
+        node.lon = lon * NANO;
+        readTags(in, node);
+        consumer.accept(node);
+      }
+    }
+  }
+
+  long waysSize() throws IOException {
+    ways.flush();
+    return Files.size(waysFile);
+  }
+
+  long nodesSize() throws IOException {
+    nodes.flush();
+    return Files.size(nodesFile);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      ways.close();
+      nodes.close();
+    } finally {
+      Files.deleteIfExists(waysFile);
+      Files.deleteIfExists(nodesFile);
+    }
+  }
+
+  private static DataInputStream open(Path file, UnaryOperator<InputStream> wrap)
+    throws IOException {
+    return new DataInputStream(
+      new BufferedInputStream(wrap.apply(Files.newInputStream(file)), 1 << 16)
+    );
+  }
+
+  private void writeTags(DataOutputStream out, OSMWithTags entity) throws IOException {
+    var tags = entity.getTags();
+    writeVarLong(out, tags.size());
+    for (var tag : tags.entrySet()) {
+      writeVarLong(out, stringIndex(tag.getKey()));
+      writeVarLong(out, stringIndex(tag.getValue()));
+    }
+  }
+
+  private void readTags(DataInputStream in, OSMWithTags entity) throws IOException {
+    long nTags = readVarLong(in);
+    for (long i = 0; i < nTags; ++i) {
+      String key = strings.get((int) readVarLong(in));
+      String value = strings.get((int) readVarLong(in));
+      entity.addTag(key, value);
+    }
+  }
+
+  private int stringIndex(String value) {
+    return stringIndex.computeIfAbsent(
+      value,
+      it -> {
+        strings.add(it);
+        return strings.size() - 1;
+      }
+    );
+  }
+
+  /**
+   * Write the delta from the previous coordinate, in nanodegrees. The PBF files use a granularity
+   * of 100 nanodegrees by default, so the delta is written in units of 100 nanodegrees when
+   * possible. The lowest bit tells which unit is used.
+   *
+   * @return the coordinate in nanodegrees
+   */
+  private static long writeCoordinate(DataOutputStream out, double degrees, long last)
+    throws IOException {
+    long value = Math.round(degrees / NANO);
+    long delta = value - last;
+    if (delta % GRANULARITY == 0) {
+      writeVarLong(out, (delta / GRANULARITY) << 1);
+    } else {
+      writeVarLong(out, (delta << 1) | 1);
+    }
+    return value;
+  }
+
+  private static long readCoordinateDelta(DataInputStream in) throws IOException {
+    long v = readVarLong(in);
+    return (v & 1) == 0 ? (v >> 1) * GRANULARITY : v >> 1;
+  }
+
+  /**
+   * Write a signed value using zig-zag encoding and 7 bits per byte, small values (deltas) use
+   * only one or two bytes.
+   */
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    long v = (value << 1) ^ (value >> 63);
+    while ((v & ~0x7FL) != 0) {
+      out.writeByte((int) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    out.writeByte((int) v);
+  }
+
+  private static long readVarLong(DataInputStream in) throws IOException {
+    long v = 0;
+    int shift = 0;
+    int b;
+    do {
+      b = in.readUnsignedByte();
+      v |= (long) (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return (v >>> 1) ^ -(v & 1);
+  }
+}
@@ -0,0 +1,147 @@
+package org.opentripplanner.openstreetmap;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+import org.opentripplanner.graph_builder.module.osm.OsmDatabase;
+
+/**
+ * Read a PBF file and decode its data blocks in parallel, then hand the decoded blocks over to the
+ * parser in file order. The reading thread only splits the file into blobs, each blob is inflated
+ * and parsed into a protobuf block on a decoder thread. This is the expensive part of reading the
+ * file. The parser and the {@link OsmDatabase} it writes to are not thread-safe, so all parsing is
+ * done on the reading thread, in the same order as the blocks appear in the file.
+ * <p>
+ * The number of blocks decoded ahead of the parser is limited, to keep the memory used by
+ * decoded blocks waiting to be parsed bounded.
+ * <p>
+ * See the <a href="https://wiki.openstreetmap.org/wiki/PBF_Format">PBF format</a> for the file
+ * layout: each blob is a 4-byte big-endian header length, a {@code BlobHeader} and a {@code Blob}
+ * of {@code BlobHeader.datasize} bytes.
+ */
+class ParallelBlockReader {
+
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
+  /** The maximum sizes allowed by the PBF format */
+  private static final int MAX_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final OpenStreetMapParser parser;
+  private final ExecutorService executor;
+  private final int maxBlocksAhead;
+  private final Deque<Future<Osmformat.PrimitiveBlock>> blocks = new ArrayDeque<>();
+
+  ParallelBlockReader(OpenStreetMapParser parser, ExecutorService executor, int maxBlocksAhead) {
+    this.parser = parser;
+    this.executor = executor;
+    this.maxBlocksAhead = maxBlocksAhead;
+  }
+
+  /**
+   * Read all blocks in the given stream, and pass them to the parser. The stream is not closed.
+   */
+  void read(InputStream inputStream) throws IOException {
+    var in = new DataInputStream(inputStream);
+    try {
+      Fileformat.BlobHeader header;
+      while ((header = readHeader(in)) != null) {
+        byte[] blob = readBytes(in, header.getDatasize(), MAX_BLOB_SIZE);
+
+        if (OSM_DATA.equals(header.getType())) {
+          blocks.add(executor.submit(() -> Osmformat.PrimitiveBlock.parseFrom(inflate(blob))));
+          while (blocks.size() > maxBlocksAhead) {
+            parseNext();
+          }
+        } else if (OSM_HEADER.equals(header.getType())) {
+          // Header blocks are rare and cheap, parse them in order with the data blocks
+          parseAll();
+          parser.parse(Osmformat.HeaderBlock.parseFrom(inflate(blob)));
+        }
+        // Other block types are not used, and are skipped
+      }
+      parseAll();
+      parser.complete();
+    } finally {
+      blocks.forEach(it -> it.cancel(true));
+      blocks.clear();
+    }
+  }
+
+  /**
+   * @return the next blob header, or {@code null} at the end of the file
+   */
+  private static Fileformat.BlobHeader readHeader(DataInputStream in) throws IOException {
+    int size;
+    try {
+      size = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    return Fileformat.BlobHeader.parseFrom(readBytes(in, size, MAX_HEADER_SIZE));
+  }
+
+  private static byte[] readBytes(DataInputStream in, int size, int maxSize) throws IOException {
+    if (size < 0 || size > maxSize) {
+      throw new IOException("Invalid PBF block size: " + size);
+    }
+    byte[] bytes = new byte[size];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  /**
+   * Parse the blob and inflate its content if it is compressed.
+   */
+  private static byte[] inflate(byte[] data) throws IOException {
+    var blob = Fileformat.Blob.parseFrom(data);
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF blob compression");
+    }
+    byte[] raw = new byte[blob.getRawSize()];
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      int n = inflater.inflate(raw);
+      if (n != raw.length || !inflater.finished()) {
+        throw new IOException("Unexpected size of inflated PBF blob: " + n);
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Unable to inflate PBF blob", e);
+    } finally {
+      inflater.end();
+    }
+    return raw;
+  }
+
+  private void parseAll() {
+    while (!blocks.isEmpty()) {
+      parseNext();
+    }
+  }
+
+  private void parseNext() {
+    try {
+      parser.parse(blocks.removeFirst().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while reading OSM data", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Unable to decode OSM data block", e.getCause());
+    }
+  }
+}
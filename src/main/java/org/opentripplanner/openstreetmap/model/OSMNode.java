@@ -78,4 +78,24 @@ public class OSMNode extends OSMWithTags {
   public String url() {
     return String.format("https://www.openstreetmap.org/node/%d", getId());
   }
+
+  /**
+   * Nodes are equal if they have the same id. The OSM database may create more than one instance
+   * for the same node, if the nodes are kept in a compact store.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return id == ((OSMNode) o).id;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
 }
@@ -1,5 +1,8 @@
 package org.opentripplanner.raptor;
 
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
@@ -8,7 +11,10 @@ import org.opentripplanner.raptor.configure.RaptorConfig;
 import org.opentripplanner.raptor.service.DefaultStopArrivals;
 import org.opentripplanner.raptor.service.HeuristicSearchTask;
 import org.opentripplanner.raptor.service.RangeRaptorDynamicSearch;
+import org.opentripplanner.raptor.service.RaptorBatchSearch;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.tripbased.TripBasedSearch;
+import org.opentripplanner.raptor.tripbased.TripBasedTransitData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,6 +56,52 @@ public class RaptorService<T extends RaptorTripSchedule> {
     return response;
   }
 
+  /**
+   * Route the request using the Trip-Based search if it supports the request, or else Range
+   * Raptor, see {@link TripBasedSearch}. The trip transfers must be created from transit data with
+   * the same routes, transfers and slack as the given transit data. They are only requested if the
+   * Trip-Based search supports the request, and the supplier may return {@code null} if they are
+   * not ready. Range Raptor is then used.
+   * <p>
+   * The Trip-Based search is experimental, and not used by the OTP routing.
+   */
+  public RaptorResponse<T> route(
+    RaptorRequest<T> request,
+    RaptorTransitDataProvider<T> transitData,
+    Supplier<TripBasedTransitData<T>> tripBasedTransitData
+  ) {
+    if (!TripBasedSearch.isSupported(request)) {
+      return route(request, transitData);
+    }
+    var data = tripBasedTransitData.get();
+    if (data == null) {
+      return route(request, transitData);
+    }
+    LOG.debug("Original request (Trip-Based search): {}", request);
+    return new TripBasedSearch<>(
+      data,
+      transitData,
+      request,
+      config.tuningParameters()
+    )
+      .route();
+  }
+
+  /**
+   * Route a batch of requests using the same transit data, for example one request for each
+   * origin in a travel-time matrix. Only profiles using a standard worker (not multi-criteria)
+   * are supported. The requests are routed in parallel if the Raptor thread pool is enabled, and
+   * the responses are passed to the consumer in the same order as the requests, as soon as they
+   * are ready. See {@link RaptorBatchSearch}.
+   */
+  public void routeBatch(
+    List<RaptorRequest<T>> requests,
+    RaptorTransitDataProvider<T> transitData,
+    Consumer<RaptorResponse<T>> consumer
+  ) {
+    new RaptorBatchSearch<>(config, transitData).route(requests, consumer);
+  }
+
   /**
    * TODO Add back the possibility to compare heuristics using a test - like the SpeedTest,
    *      but maybe better to make a separate test.
@@ -0,0 +1,35 @@
+package org.opentripplanner.raptor.api.debug;
+
+/**
+ * The work done in one Range Raptor round, see {@link RaptorSearchStatistics}.
+ *
+ * @param round                 The Raptor round, round 1 is the first transit round.
+ * @param routesScanned         The number of routes(patterns) scanned.
+ * @param tripsBoarded          The number of trip searches which found a trip to board. In a
+ *                              multi-criteria search a trip may be boarded from many arrivals.
+ * @param stopsReachedByTransit The number of stops reached by transit in the round.
+ * @param transfersRelaxed      The number of transfers followed from the stops reached by transit.
+ * @param arrivalsRejected      The number of stop arrivals rejected by the pareto set at the stop.
+ */
+public record RaptorRoundStatistics(
+  int round,
+  int routesScanned,
+  int tripsBoarded,
+  int stopsReachedByTransit,
+  int transfersRelaxed,
+  int arrivalsRejected
+) {
+  /**
+   * Add the counts of the other round to the counts of this round.
+   */
+  public RaptorRoundStatistics plus(RaptorRoundStatistics other) {
+    return new RaptorRoundStatistics(
+      round,
+      routesScanned + other.routesScanned,
+      tripsBoarded + other.tripsBoarded,
+      stopsReachedByTransit + other.stopsReachedByTransit,
+      transfersRelaxed + other.transfersRelaxed,
+      arrivalsRejected + other.arrivalsRejected
+    );
+  }
+}
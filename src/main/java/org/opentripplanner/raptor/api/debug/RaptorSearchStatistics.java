@@ -0,0 +1,42 @@
+package org.opentripplanner.raptor.api.debug;
+
+/**
+ * Implement this interface and pass it into Raptor to collect statistics for each round and each
+ * iteration of a search. Like the {@link RaptorTimers} this makes Raptor independent of the
+ * monitoring system used.
+ * <p>
+ * Collecting statistics is opt-in. If the {@link #NOOP} instance is used, Raptor does not count
+ * anything, and the JIT compiler removes the instrumentation.
+ */
+public interface RaptorSearchStatistics {
+  /**
+   * This is used if no statistics are requested, and it does nothing.
+   */
+  RaptorSearchStatistics NOOP = new RaptorSearchStatistics() {
+    @Override
+    public void roundComplete(RaptorRoundStatistics round) {}
+
+    @Override
+    public void iterationComplete(long durationNanos) {}
+
+    @Override
+    public RaptorSearchStatistics withNamePrefix(String namePrefix) {
+      return this;
+    }
+  };
+
+  /**
+   * Called when a Range Raptor round is complete, with the counts for the round.
+   */
+  void roundComplete(RaptorRoundStatistics round);
+
+  /**
+   * Called when a Range Raptor iteration(minute) is complete, with the time it took.
+   */
+  void iterationComplete(long durationNanos);
+
+  /**
+   * Create a new instance with a new name prefix. Useful when creating a new request for heuristic.
+   */
+  RaptorSearchStatistics withNamePrefix(String namePrefix);
+}
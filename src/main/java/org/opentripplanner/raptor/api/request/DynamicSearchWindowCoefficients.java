@@ -83,4 +83,17 @@ public interface DynamicSearchWindowCoefficients {
   default int stepMinutes() {
     return 10;
   }
+
+  /**
+   * The target for the 95th percentile of the main Range Raptor search duration. If set, the
+   * upper limit of the dynamic search window is adjusted to meet the target, using the time per
+   * Range Raptor iteration observed in recent searches. The limit is kept between
+   * {@link #minWindow()} and {@link #maxWindow()}. A shorter search window does not cause any
+   * results to be lost, the client need to page to the next window to see them.
+   * <p>
+   * The default is {@link Duration#ZERO}, which turns the adjustment off.
+   */
+  default Duration latencyTarget() {
+    return Duration.ZERO;
+  }
 }
@@ -5,6 +5,7 @@ import java.util.Collections;
 import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.SearchDirection;
@@ -28,6 +29,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
   private final MultiCriteriaRequest<T> multiCriteria;
   private final DebugRequest debug;
   private final RaptorTimers performanceTimers;
+  private final RaptorSearchStatistics searchStatistics;
 
   private RaptorRequest() {
     searchParams = SearchParams.defaults();
@@ -36,6 +38,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     optimizations = Collections.emptySet();
     multiCriteria = MultiCriteriaRequest.<T>of().build();
     performanceTimers = RaptorTimers.NOOP;
+    searchStatistics = RaptorSearchStatistics.NOOP;
     debug = DebugRequest.defaults();
     alias = RaptorRequestBuilder.generateRequestAlias(profile, searchDirection, optimizations);
   }
@@ -48,6 +51,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     this.optimizations = Set.copyOf(builder.optimizations());
     this.multiCriteria = builder.multiCriteria();
     this.performanceTimers = builder.performanceTimers();
+    this.searchStatistics = builder.searchStatistics();
     this.debug = builder.debug().build();
     verify();
   }
@@ -145,6 +149,14 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
     return performanceTimers;
   }
 
+  /**
+   * Collect statistics for each round and iteration of the search. This is optional, by default
+   * no statistics are collected.
+   */
+  public RaptorSearchStatistics searchStatistics() {
+    return searchStatistics;
+  }
+
   /**
    * Specify what to debug in the debug request.
    * <p/>
@@ -188,6 +200,7 @@ public class RaptorRequest<T extends RaptorTripSchedule> {
       .addObj("debug", debug, defaults.debug())
       .addObj("searchParams", searchParams)
       .addBoolIfTrue("withPerformanceTimers", performanceTimers != RaptorTimers.NOOP)
+      .addBoolIfTrue("withSearchStatistics", searchStatistics != RaptorSearchStatistics.NOOP)
       .toString();
   }
 
@@ -25,6 +25,11 @@ public interface RaptorTuningParameters {
     return 0;
   }
 
+  /** see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig} **/
+  default int searchWindowSplitCount() {
+    return 1;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
@@ -6,6 +6,7 @@ import java.util.function.IntPredicate;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.concurrent.OtpRequestThreadFactory;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
@@ -19,7 +20,10 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
+import org.opentripplanner.raptor.rangeraptor.transit.SearchWindowLatencyController;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 /**
  * This class is responsible for creating a new search and holding application scoped Raptor state.
@@ -33,6 +37,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   private final ExecutorService threadPool;
   private final RaptorTuningParameters tuningParameters;
+  private final SearchWindowLatencyController searchWindowLatencyController;
 
   /** The service is not final, because it depends on the request. */
   private PassThroughPointsService passThroughPointsService = null;
@@ -40,6 +45,11 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   public RaptorConfig(RaptorTuningParameters tuningParameters) {
     this.tuningParameters = tuningParameters;
     this.threadPool = createNewThreadPool(tuningParameters.searchThreadPoolSize());
+    this.searchWindowLatencyController =
+      new SearchWindowLatencyController(
+        tuningParameters.dynamicSearchWindowCoefficients(),
+        tuningParameters.iterationDepartureStepInSeconds()
+      );
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -74,6 +84,19 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       );
   }
 
+  /**
+   * Create the comparator used by the multi-criteria worker to keep the pareto optimal paths at
+   * the destination.
+   */
+  public ParetoComparator<RaptorPath<T>> createMcPathParetoComparator(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request
+  ) {
+    final SearchContext<T> context = context(transitData, request);
+    return new McRangeRaptorConfig<>(context, passThroughPointsService)
+      .createPathParetoComparator();
+  }
+
   public RaptorWorker<T> createHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -92,10 +115,27 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return new StdRangeRaptorConfig<>(context).createHeuristics(results);
   }
 
+  /**
+   * Create heuristics for destination pruning from the precomputed lower bounds, instead of
+   * running a reverse heuristic search.
+   */
+  public Heuristics createLowerBoundHeuristics(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    RaptorTravelDurationLowerBounds lowerBounds
+  ) {
+    var context = context(transitData, request);
+    return StdRangeRaptorConfig.createLowerBoundHeuristics(context, lowerBounds);
+  }
+
   public boolean isMultiThreaded() {
     return threadPool != null;
   }
 
+  public RaptorTuningParameters tuningParameters() {
+    return tuningParameters;
+  }
+
   public ExecutorService threadPool() {
     return threadPool;
   }
@@ -107,7 +147,14 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   public RaptorSearchWindowCalculator searchWindowCalculator() {
-    return new RaptorSearchWindowCalculator(tuningParameters.dynamicSearchWindowCoefficients());
+    return new RaptorSearchWindowCalculator(
+      tuningParameters.dynamicSearchWindowCoefficients(),
+      searchWindowLatencyController.maxWindow()
+    );
+  }
+
+  public SearchWindowLatencyController searchWindowLatencyController() {
+    return searchWindowLatencyController;
   }
 
   /* private factory methods */
@@ -131,6 +178,7 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       ctx.calculator(),
       ctx.createLifeCyclePublisher(),
       ctx.performanceTimers(),
+      ctx.workerStatistics(),
       ctx.useConstrainedTransfers()
     );
   }
@@ -12,6 +12,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerState;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoundProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SlackProvider;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStatistics;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.raptor.rangeraptor.transit.AccessPaths;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
@@ -79,6 +80,8 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
 
   private final RaptorTimers timers;
 
+  private final WorkerStatistics statistics;
+
   private final AccessPaths accessPaths;
 
   private final LifeCycleEventPublisher lifeCycle;
@@ -99,6 +102,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
     RaptorTransitCalculator<T> calculator,
     LifeCycleEventPublisher lifeCyclePublisher,
     RaptorTimers timers,
+    WorkerStatistics statistics,
     boolean enableTransferConstraints
   ) {
     this.transitWorker = transitWorker;
@@ -107,6 +111,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
     this.slackProvider = slackProvider;
     this.calculator = calculator;
     this.timers = timers;
+    this.statistics = statistics;
     this.accessPaths = accessPaths;
     this.minNumberOfRounds = accessPaths.calculateMaxNumberOfRides();
     this.enableTransferConstraints = enableTransferConstraints;
@@ -194,6 +199,7 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
       while (routeIndexIterator.hasNext()) {
         var routeIndex = routeIndexIterator.next();
         var route = transitData.getRouteForIndex(routeIndex);
+        statistics.routeScanned();
         var pattern = route.pattern();
         var txSearch = enableTransferConstraints
           ? calculator.transferConstraintsSearch(transitData, routeIndex)
@@ -251,9 +257,13 @@ public final class DefaultRangeRaptorWorker<T extends RaptorTripSchedule>
 
       while (it.hasNext()) {
         final int fromStop = it.next();
+        statistics.stopReachedByTransit();
         // no need to consider loop transfers, since we don't mark patterns here any more
         // loop transfers are already included by virtue of those stops having been reached
-        state.transferToStops(fromStop, calculator.getTransfers(transitData, fromStop));
+        state.transferToStops(
+          fromStop,
+          statistics.countTransfers(calculator.getTransfers(transitData, fromStop))
+        );
       }
 
       lifeCycle.transfersForRoundComplete();
@@ -7,6 +7,7 @@ import java.util.Map;
 import java.util.function.IntPredicate;
 import java.util.function.ToIntFunction;
 import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
 import org.opentripplanner.raptor.api.debug.RaptorTimers;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -19,10 +20,12 @@ import org.opentripplanner.raptor.api.request.RaptorProfile;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.rangeraptor.debug.CountingWorkerStatistics;
 import org.opentripplanner.raptor.rangeraptor.debug.DebugHandlerFactory;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoundProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SlackProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStatistics;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleEventPublisher;
 import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
 import org.opentripplanner.raptor.rangeraptor.support.TimeBasedBoardingSupport;
@@ -62,6 +65,7 @@ public class SearchContext<T extends RaptorTripSchedule> {
   private final EgressPaths egressPaths;
   private final AccessPaths accessPaths;
   private final LifeCycleSubscriptions lifeCycleSubscriptions = new LifeCycleSubscriptions();
+  private final WorkerStatistics workerStatistics;
 
   /** Lazy initialized */
   private RaptorCostCalculator<T> costCalculator = null;
@@ -89,6 +93,7 @@ public class SearchContext<T extends RaptorTripSchedule> {
         lifeCycle()
       );
     this.debugFactory = new DebugHandlerFactory<>(debugRequest(request), lifeCycle());
+    this.workerStatistics = createWorkerStatistics(request, roundTracker, lifeCycle());
   }
 
   public AccessPaths accessPaths() {
@@ -166,6 +171,10 @@ public class SearchContext<T extends RaptorTripSchedule> {
     return request.performanceTimers();
   }
 
+  public WorkerStatistics workerStatistics() {
+    return workerStatistics;
+  }
+
   /** Number of stops in transit graph. */
   public int nStops() {
     return transit.numberOfStops();
@@ -214,7 +223,8 @@ public class SearchContext<T extends RaptorTripSchedule> {
       slackProvider(),
       calculator(),
       roundProvider(),
-      lifeCycle()
+      lifeCycle(),
+      workerStatistics()
     );
   }
 
@@ -307,4 +317,15 @@ public class SearchContext<T extends RaptorTripSchedule> {
     var paths = forward ? params.egressPaths() : params.accessPaths();
     return EgressPaths.create(paths, request.profile());
   }
+
+  private static WorkerStatistics createWorkerStatistics(
+    RaptorRequest<?> request,
+    RoundProvider roundProvider,
+    WorkerLifeCycle lifeCycle
+  ) {
+    var statistics = request.searchStatistics();
+    return statistics == RaptorSearchStatistics.NOOP
+      ? WorkerStatistics.NOOP
+      : new CountingWorkerStatistics(statistics, roundProvider, lifeCycle);
+  }
 }
@@ -0,0 +1,107 @@
+package org.opentripplanner.raptor.rangeraptor.debug;
+
+import java.util.Iterator;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RoundProvider;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStatistics;
+
+/**
+ * Count the work done in each round, and report it to the {@link RaptorSearchStatistics} when the
+ * round is complete. The iteration time is measured using the worker life cycle events.
+ * <p>
+ * This class is not thread-safe, there is one instance for each worker.
+ */
+public final class CountingWorkerStatistics implements WorkerStatistics {
+
+  private final RaptorSearchStatistics statistics;
+  private final RoundProvider roundProvider;
+
+  private int routesScanned;
+  private int tripsBoarded;
+  private int stopsReachedByTransit;
+  private int transfersRelaxed;
+  private int arrivalsRejected;
+  private long iterationStartTime;
+
+  public CountingWorkerStatistics(
+    RaptorSearchStatistics statistics,
+    RoundProvider roundProvider,
+    WorkerLifeCycle lifeCycle
+  ) {
+    this.statistics = statistics;
+    this.roundProvider = roundProvider;
+
+    lifeCycle.onSetupIteration(ignore -> setupIteration());
+    lifeCycle.onRoundComplete(ignore -> roundComplete());
+    lifeCycle.onIterationComplete(this::iterationComplete);
+  }
+
+  @Override
+  public void routeScanned() {
+    ++routesScanned;
+  }
+
+  @Override
+  public void tripBoarded() {
+    ++tripsBoarded;
+  }
+
+  @Override
+  public void stopReachedByTransit() {
+    ++stopsReachedByTransit;
+  }
+
+  @Override
+  public <E> Iterator<E> countTransfers(Iterator<E> transfers) {
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return transfers.hasNext();
+      }
+
+      @Override
+      public E next() {
+        ++transfersRelaxed;
+        return transfers.next();
+      }
+    };
+  }
+
+  @Override
+  public void arrivalRejected() {
+    ++arrivalsRejected;
+  }
+
+  private void setupIteration() {
+    clearCounters();
+    iterationStartTime = System.nanoTime();
+  }
+
+  private void roundComplete() {
+    statistics.roundComplete(
+      new RaptorRoundStatistics(
+        roundProvider.round(),
+        routesScanned,
+        tripsBoarded,
+        stopsReachedByTransit,
+        transfersRelaxed,
+        arrivalsRejected
+      )
+    );
+    clearCounters();
+  }
+
+  private void iterationComplete() {
+    statistics.iterationComplete(System.nanoTime() - iterationStartTime);
+  }
+
+  private void clearCounters() {
+    routesScanned = 0;
+    tripsBoarded = 0;
+    stopsReachedByTransit = 0;
+    transfersRelaxed = 0;
+    arrivalsRejected = 0;
+  }
+}
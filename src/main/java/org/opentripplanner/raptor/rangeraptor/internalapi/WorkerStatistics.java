@@ -0,0 +1,45 @@
+package org.opentripplanner.raptor.rangeraptor.internalapi;
+
+import java.util.Iterator;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
+
+/**
+ * Count the work done by the worker in each round. The counts are reported to the
+ * {@link RaptorSearchStatistics} when the round is complete.
+ * <p>
+ * If no statistics are requested the {@link #NOOP} instance is used. When it is the only
+ * implementation in use, the JIT compiler inlines the empty methods, so there is no overhead.
+ */
+public interface WorkerStatistics {
+  WorkerStatistics NOOP = new WorkerStatistics() {
+    @Override
+    public void routeScanned() {}
+
+    @Override
+    public void tripBoarded() {}
+
+    @Override
+    public void stopReachedByTransit() {}
+
+    @Override
+    public <E> Iterator<E> countTransfers(Iterator<E> transfers) {
+      return transfers;
+    }
+
+    @Override
+    public void arrivalRejected() {}
+  };
+
+  void routeScanned();
+
+  void tripBoarded();
+
+  void stopReachedByTransit();
+
+  /**
+   * Count the transfers returned by the given iterator, as they are iterated over.
+   */
+  <E> Iterator<E> countTransfers(Iterator<E> transfers);
+
+  void arrivalRejected();
+}
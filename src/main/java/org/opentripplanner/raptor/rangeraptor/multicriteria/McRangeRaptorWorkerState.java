@@ -136,6 +136,18 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
 
     final int c1 = calculateC1(ride, alightStop, alightTime, alightSlack);
 
+    if (
+      arrivals.isDominated(
+        alightStop,
+        stopArrivalTime,
+        ride.prevArrival().paretoRoundTransitArrival(),
+        c1,
+        true
+      )
+    ) {
+      return;
+    }
+
     var transitState = stopArrivalFactory.createTransitStopArrival(
       ride,
       alightStop,
@@ -175,9 +187,22 @@ public final class McRangeRaptorWorkerState<T extends RaptorTripSchedule>
     for (McStopArrival<T> it : fromArrivals) {
       int arrivalTime = it.arrivalTime() + transferTimeInSeconds;
 
-      if (!exceedsTimeLimit(arrivalTime)) {
-        arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
+      if (exceedsTimeLimit(arrivalTime)) {
+        continue;
+      }
+      int c1 = it.c1() + transfer.generalizedCost();
+      if (
+        arrivals.isDominated(
+          transfer.stop(),
+          arrivalTime,
+          it.paretoRoundTransferArrival(),
+          c1,
+          false
+        )
+      ) {
+        continue;
       }
+      arrivalsCache.add(stopArrivalFactory.createTransferStopArrival(it, transfer, arrivalTime));
     }
   }
 
@@ -11,6 +11,7 @@ import java.util.stream.Stream;
 import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.rangeraptor.debug.DebugHandlerFactory;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStatistics;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
 import org.opentripplanner.raptor.rangeraptor.path.DestinationArrivalPaths;
@@ -34,10 +35,16 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
   private final ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory;
   private final DebugHandlerFactory<T> debugHandlerFactory;
   private final DebugStopArrivalsStatistics debugStats;
+  private final boolean rejectDominatedArrivals;
+  private final WorkerStatistics statistics;
 
   /**
    * Set the time at a transit index iff it is optimal. This sets both the best time and the
    * transfer time
+   *
+   * @param rejectDominatedArrivals Enable {@link #isDominated(int, int, int, int, boolean)}. This
+   *                                must only be enabled if the comparators do not relax c1 or
+   *                                include c2, and if no stop arrivals are debugged.
    */
   public McStopArrivals(
     int nStops,
@@ -45,9 +52,13 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     AccessPaths accessPaths,
     DestinationArrivalPaths<T> paths,
     ArrivalParetoSetComparatorFactory<McStopArrival<T>> comparatorFactory,
-    DebugHandlerFactory<T> debugHandlerFactory
+    DebugHandlerFactory<T> debugHandlerFactory,
+    boolean rejectDominatedArrivals,
+    WorkerStatistics statistics
   ) {
     this.comparatorFactory = comparatorFactory;
+    this.rejectDominatedArrivals = rejectDominatedArrivals;
+    this.statistics = statistics;
     //noinspection unchecked
     this.arrivals = (StopArrivalParetoSet<T>[]) new StopArrivalParetoSet[nStops];
     this.touchedStops = new BitSet(nStops);
@@ -92,10 +103,30 @@ public final class McStopArrivals<T extends RaptorTripSchedule> {
     return new BitSetIterator(touchedStops);
   }
 
+  /**
+   * Return {@code true} if an arrival with the given values is dominated by an arrival already at
+   * the stop. The new arrival would be rejected when added, so there is no need to create it. Most
+   * arrivals are rejected, so this saves a lot of short-lived objects. Always returns
+   * {@code false} if not enabled.
+   */
+  boolean isDominated(int stop, int arrivalTime, int paretoRound, int c1, boolean arrivedOnBoard) {
+    if (!rejectDominatedArrivals) {
+      return false;
+    }
+    StopArrivalParetoSet<T> it = arrivals[stop];
+    if (it != null && it.isDominated(arrivalTime, paretoRound, c1, arrivedOnBoard)) {
+      statistics.arrivalRejected();
+      return true;
+    }
+    return false;
+  }
+
   void addStopArrival(McStopArrival<T> arrival) {
     boolean added = findOrCreateSet(arrival.stop()).add(arrival);
     if (added) {
       touchedStops.set(arrival.stop());
+    } else {
+      statistics.arrivalRejected();
     }
   }
 
@@ -30,6 +30,19 @@ class StopArrivalParetoSet<T extends RaptorTripSchedule>
     super(comparator, listener);
   }
 
+  /**
+   * Return {@code true} if an element in this set dominates an arrival with the given values.
+   * See {@link McStopArrival#dominates(int, int, int, boolean)}.
+   */
+  boolean isDominated(int arrivalTime, int paretoRound, int c1, boolean arrivedOnBoard) {
+    for (int i = 0; i < size(); ++i) {
+      if (get(i).dominates(arrivalTime, paretoRound, c1, arrivedOnBoard)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Create a stop arrivals pareto set and attach an optional {@code paretoSetEventListener}
    * (debug handler).
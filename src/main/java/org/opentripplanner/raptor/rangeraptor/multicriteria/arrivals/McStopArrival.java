@@ -1,5 +1,7 @@
 package org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals;
 
+import static org.opentripplanner.raptor.api.model.PathLegType.TRANSIT;
+
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.api.model.RelaxFunction;
 import org.opentripplanner.raptor.api.view.ArrivalView;
@@ -85,6 +87,20 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     return paretoRound;
   }
 
+  /**
+   * The pareto-round of a transit arrival boarding a trip at this stop arrival.
+   */
+  public final int paretoRoundTransitArrival() {
+    return paretoRound + (arrivedBy(TRANSIT) ? 2 : 1);
+  }
+
+  /**
+   * The pareto-round of a transfer arrival starting at this stop arrival.
+   */
+  public final int paretoRoundTransferArrival() {
+    return paretoRound + 1;
+  }
+
   @Override
   public final int arrivalTime() {
     return arrivalTime;
@@ -129,6 +145,27 @@ public abstract class McStopArrival<T extends RaptorTripSchedule> implements Arr
     return previous.stop;
   }
 
+  /**
+   * Return {@code true} if this arrival dominates an arrival with the given values at the same
+   * stop. The arrival-time, pareto-round and c1 of this arrival must be less or equal, and at
+   * least one of them must be less. In addition, an arrival on-board is never dominated by an
+   * arrival on foot.
+   * <p>
+   * This is stricter than the comparators without relaxed c1 and c2, and it is transitive. Hence,
+   * an arrival dominated by an element in a stop-arrival set is rejected if it is added to the set
+   * later - as long as the set is not cleared. This is used to avoid creating arrivals which are
+   * rejected anyway.
+   */
+  public final boolean dominates(int arrivalTime, int paretoRound, int c1, boolean arrivedOnBoard) {
+    if (arrivedOnBoard && !arrivedOnBoard()) {
+      return false;
+    }
+    if (this.arrivalTime > arrivalTime || this.paretoRound > paretoRound || this.c1 > c1) {
+      return false;
+    }
+    return this.arrivalTime < arrivalTime || this.paretoRound < paretoRound || this.c1 < c1;
+  }
+
   /**
    * Compare arrivalTime, paretoRound and c1.
    */
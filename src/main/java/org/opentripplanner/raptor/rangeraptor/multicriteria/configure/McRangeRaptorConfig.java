@@ -5,6 +5,7 @@ import java.util.function.BiFunction;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.MultiCriteriaRequest;
 import org.opentripplanner.raptor.api.request.RaptorTransitPriorityGroupCalculator;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -80,6 +81,14 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return createWorker.apply(state, createTransitWorkerStrategy(state));
   }
 
+  /**
+   * Create the comparator used to keep the pareto optimal paths at the destination. This can be
+   * used to merge the paths of several workers.
+   */
+  public ParetoComparator<RaptorPath<T>> createPathParetoComparator() {
+    return pathConfig.createPathParetoComparator(true, includeC2() ? dominanceFunctionC2() : null);
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createTransitWorkerStrategy(McRangeRaptorWorkerState<T> state) {
@@ -135,7 +144,11 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
       context.accessPaths(),
       createDestinationArrivalPaths(),
       createFactoryParetoComparator(),
-      context.debugFactory()
+      context.debugFactory(),
+      mcRequest().relaxC1().isNormal() &&
+      dominanceFunctionC2() == null &&
+      !context.debugFactory().isDebugStopArrival(),
+      context.workerStatistics()
     );
   }
 
@@ -58,9 +58,11 @@ public class PathConfig<T extends RaptorTripSchedule> {
     );
   }
 
-  /* private members */
-
-  private ParetoComparator<RaptorPath<T>> createPathParetoComparator(
+  /**
+   * Create the comparator used by the {@link DestinationArrivalPaths} to keep the pareto optimal
+   * paths, see {@link #createDestArrivalPaths(boolean, DominanceFunction)} for the parameters.
+   */
+  public ParetoComparator<RaptorPath<T>> createPathParetoComparator(
     boolean includeC1,
     final DominanceFunction c2Comp
   ) {
@@ -74,6 +76,8 @@ public class PathConfig<T extends RaptorTripSchedule> {
     );
   }
 
+  /* private members */
+
   private PathMapper<T> createPathMapper(boolean includeCost) {
     return createPathMapper(
       ctx.profile(),
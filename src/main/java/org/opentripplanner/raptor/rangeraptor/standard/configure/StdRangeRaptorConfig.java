@@ -25,6 +25,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.besttimes.SimpleBestNumbe
 import org.opentripplanner.raptor.rangeraptor.standard.besttimes.UnknownPathFactory;
 import org.opentripplanner.raptor.rangeraptor.standard.debug.DebugStopArrivalsState;
 import org.opentripplanner.raptor.rangeraptor.standard.heuristics.HeuristicsAdapter;
+import org.opentripplanner.raptor.rangeraptor.standard.heuristics.LowerBoundHeuristics;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.ArrivedAtDestinationCheck;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.BestNumberOfTransfers;
 import org.opentripplanner.raptor.rangeraptor.standard.internalapi.StopArrivalsState;
@@ -32,6 +33,7 @@ import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.StdStopArriv
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.StdStopArrivalsState;
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.path.EgressArrivalToPathAdapter;
 import org.opentripplanner.raptor.rangeraptor.standard.stoparrivals.view.StopsCursor;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
 
 /**
  * The responsibility of this class is to wire different standard range raptor worker configurations
@@ -83,6 +85,22 @@ public class StdRangeRaptorConfig<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * Create heuristics from precomputed lower bounds, see {@link LowerBoundHeuristics}. This does
+   * not create a worker, so the context may have any profile.
+   */
+  public static Heuristics createLowerBoundHeuristics(
+    SearchContext<?> ctx,
+    RaptorTravelDurationLowerBounds lowerBounds
+  ) {
+    return new LowerBoundHeuristics(
+      lowerBounds,
+      ctx.searchParams().accessPaths(),
+      ctx.egressPaths().listAll(),
+      ctx.costCalculator()
+    );
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createWorkerStrategy() {
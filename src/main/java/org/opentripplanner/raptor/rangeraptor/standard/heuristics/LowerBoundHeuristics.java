@@ -0,0 +1,122 @@
+package org.opentripplanner.raptor.rangeraptor.standard.heuristics;
+
+import java.util.Collection;
+import org.opentripplanner.framework.lang.IntUtils;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.rangeraptor.internalapi.HeuristicAtStop;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.spi.RaptorCostCalculator;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
+
+/**
+ * Play the {@link Heuristics} role of a reverse heuristic search, using the precomputed
+ * {@link RaptorTravelDurationLowerBounds} instead of searching. The bounds do not include the
+ * number of transfers, so the min number of transfers is zero for all stops reached.
+ * <p>
+ * This can only be used for destination pruning in a forward search. The min wait time is not
+ * known, so it can not be used to calculate the search window.
+ */
+public class LowerBoundHeuristics implements Heuristics {
+
+  private static final int UNREACHED = RaptorConstants.UNREACHED_HIGH;
+
+  private final int[] minTravelDuration;
+  private final RaptorCostCalculator<?> costCalculator;
+  private final int bestOverallJourneyTravelDuration;
+
+  public LowerBoundHeuristics(
+    RaptorTravelDurationLowerBounds lowerBounds,
+    Collection<RaptorAccessEgress> accessPaths,
+    Collection<RaptorAccessEgress> egressPaths,
+    RaptorCostCalculator<?> costCalculator
+  ) {
+    this.minTravelDuration = lowerBounds.minTravelDurationToDestination(egressPaths);
+    this.costCalculator = costCalculator;
+
+    int best = UNREACHED;
+    for (RaptorAccessEgress it : accessPaths) {
+      if (reached(it.stop())) {
+        best = Math.min(best, it.durationInSeconds() + minTravelDuration[it.stop()]);
+      }
+    }
+    this.bestOverallJourneyTravelDuration = best;
+  }
+
+  @Override
+  public HeuristicAtStop createHeuristicAtStop(int stop) {
+    return reached(stop)
+      ? new HeuristicAtStop(minTravelDuration[stop], 0, bestGeneralizedCost(stop))
+      : HeuristicAtStop.UNREACHED;
+  }
+
+  @Override
+  public int[] bestTravelDurationToIntArray(int unreached) {
+    int[] a = IntUtils.intArray(size(), unreached);
+    for (int i = 0; i < a.length; i++) {
+      if (reached(i)) {
+        a[i] = minTravelDuration[i];
+      }
+    }
+    return a;
+  }
+
+  @Override
+  public int[] bestNumOfTransfersToIntArray(int unreached) {
+    int[] a = IntUtils.intArray(size(), unreached);
+    for (int i = 0; i < a.length; i++) {
+      if (reached(i)) {
+        a[i] = 0;
+      }
+    }
+    return a;
+  }
+
+  @Override
+  public int[] bestGeneralizedCostToIntArray(int unreached) {
+    int[] a = IntUtils.intArray(size(), unreached);
+    for (int i = 0; i < a.length; i++) {
+      if (reached(i)) {
+        a[i] = bestGeneralizedCost(i);
+      }
+    }
+    return a;
+  }
+
+  @Override
+  public int size() {
+    return minTravelDuration.length;
+  }
+
+  @Override
+  public int bestOverallJourneyTravelDuration() {
+    return bestOverallJourneyTravelDuration;
+  }
+
+  @Override
+  public int bestOverallJourneyNumOfTransfers() {
+    return 0;
+  }
+
+  @Override
+  public int minWaitTimeForJourneysReachingDestination() {
+    return 0;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(LowerBoundHeuristics.class)
+      .addDurationSec("bestOverallJourneyTravelDuration", bestOverallJourneyTravelDuration)
+      .toString();
+  }
+
+  private boolean reached(int stop) {
+    return minTravelDuration[stop] != UNREACHED;
+  }
+
+  private int bestGeneralizedCost(int stop) {
+    return costCalculator.calculateMinCost(minTravelDuration[stop], 0);
+  }
+}
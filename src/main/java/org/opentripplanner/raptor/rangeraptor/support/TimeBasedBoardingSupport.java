@@ -8,6 +8,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.RoundProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RoutingStrategy;
 import org.opentripplanner.raptor.rangeraptor.internalapi.SlackProvider;
 import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerLifeCycle;
+import org.opentripplanner.raptor.rangeraptor.internalapi.WorkerStatistics;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorTransitCalculator;
 import org.opentripplanner.raptor.spi.RaptorBoardOrAlightEvent;
 import org.opentripplanner.raptor.spi.RaptorConstrainedBoardingSearch;
@@ -25,6 +26,7 @@ public final class TimeBasedBoardingSupport<T extends RaptorTripSchedule> {
   private final RaptorTransitCalculator<T> calculator;
   private final RoundProvider roundProvider;
   private final boolean hasTimeDependentAccess;
+  private final WorkerStatistics statistics;
   private boolean inFirstIteration = true;
   private RaptorTimeTable<T> timeTable;
   private RaptorTripScheduleSearch<T> tripSearch;
@@ -34,9 +36,11 @@ public final class TimeBasedBoardingSupport<T extends RaptorTripSchedule> {
     SlackProvider slackProvider,
     RaptorTransitCalculator<T> calculator,
     RoundProvider roundProvider,
-    WorkerLifeCycle subscriptions
+    WorkerLifeCycle subscriptions,
+    WorkerStatistics statistics
   ) {
     this.hasTimeDependentAccess = hasTimeDependentAccess;
+    this.statistics = statistics;
     this.slackProvider = slackProvider;
     this.calculator = calculator;
     this.roundProvider = roundProvider;
@@ -68,7 +72,7 @@ public final class TimeBasedBoardingSupport<T extends RaptorTripSchedule> {
     int onTripIndex
   ) {
     int earliestBoardTime = earliestBoardTime(prevArrivalTime, boardSlack);
-    return tripSearch.search(earliestBoardTime, stopPos, onTripIndex);
+    return countBoarding(tripSearch.search(earliestBoardTime, stopPos, onTripIndex));
   }
 
   /**
@@ -103,16 +107,25 @@ public final class TimeBasedBoardingSupport<T extends RaptorTripSchedule> {
 
     int earliestBoardTime = earliestBoardTime(prevArrivalTime, boardSlack);
 
-    return txSearch.find(
-      timeTable,
-      slackProvider.transferSlack(),
-      prevTransitStopArrival.trip(),
-      prevTransitStopArrival.stop(),
-      prevTransitArrivalTime,
-      earliestBoardTime
+    return countBoarding(
+      txSearch.find(
+        timeTable,
+        slackProvider.transferSlack(),
+        prevTransitStopArrival.trip(),
+        prevTransitStopArrival.stop(),
+        prevTransitArrivalTime,
+        earliestBoardTime
+      )
     );
   }
 
+  private RaptorBoardOrAlightEvent<T> countBoarding(RaptorBoardOrAlightEvent<T> boarding) {
+    if (!boarding.empty()) {
+      statistics.tripBoarded();
+    }
+    return boarding;
+  }
+
   /**
    * Add board-slack(forward-search) or alight-slack(reverse-search)
    */
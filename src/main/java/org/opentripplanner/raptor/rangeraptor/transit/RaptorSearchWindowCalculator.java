@@ -36,10 +36,18 @@ public class RaptorSearchWindowCalculator {
   private SearchParams params;
 
   public RaptorSearchWindowCalculator(DynamicSearchWindowCoefficients c) {
+    this(c, c.maxWindow());
+  }
+
+  /**
+   * @param maxSearchWindow the upper bound for the search window, this replace the
+   *                        {@link DynamicSearchWindowCoefficients#maxWindow()}.
+   */
+  public RaptorSearchWindowCalculator(DynamicSearchWindowCoefficients c, Duration maxSearchWindow) {
     this.minTransitTimeCoefficient = c.minTransitTimeCoefficient();
     this.minWaitTimeCoefficient = c.minWaitTimeCoefficient();
     this.minSearchWindow = c.minWindow();
-    this.maxSearchWindow = c.maxWindow();
+    this.maxSearchWindow = maxSearchWindow;
     this.stepSeconds = c.stepMinutes() * 60;
   }
 
@@ -0,0 +1,115 @@
+package org.opentripplanner.raptor.rangeraptor.transit;
+
+import java.time.Duration;
+import java.util.Arrays;
+import org.opentripplanner.raptor.api.request.DynamicSearchWindowCoefficients;
+
+/**
+ * Adjust the upper limit of the dynamic search window to meet the
+ * {@link DynamicSearchWindowCoefficients#latencyTarget()}.
+ * <p>
+ * The duration of the main Range Raptor search is roughly the number of iterations times the
+ * average time per iteration. The time per iteration depend on the size of the network reached,
+ * so it changes with the region and time-of-day of the searches. The controller keep the time per
+ * iteration of the last {@value #N_SAMPLES} searches, and every {@value #ADJUST_EVERY_N_SAMPLES}
+ * searches it sets the limit to the number of iterations which can be performed within the target
+ * at the 95th percentile time per iteration. The limit is rounded down to the search window
+ * {@link DynamicSearchWindowCoefficients#stepMinutes()}, and kept between the min and max window.
+ * <p>
+ * This class is thread-safe, there is one instance for each application.
+ */
+public class SearchWindowLatencyController {
+
+  private static final int N_SAMPLES = 200;
+  private static final int ADJUST_EVERY_N_SAMPLES = 20;
+  private static final double PERCENTILE = 0.95;
+
+  private final long latencyTargetNanos;
+  private final int minWindowSeconds;
+  private final int maxWindowSeconds;
+  private final int stepSeconds;
+  private final int iterationStepSeconds;
+
+  /** Ring buffer with the time per iteration of the last searches in nanoseconds. */
+  private final long[] samples = new long[N_SAMPLES];
+  private int nSamples = 0;
+  private int nSamplesSinceLastAdjustment = 0;
+
+  private volatile int windowLimitSeconds;
+  private volatile long numberOfAdjustments = 0;
+
+  public SearchWindowLatencyController(
+    DynamicSearchWindowCoefficients c,
+    int iterationStepSeconds
+  ) {
+    this.latencyTargetNanos = c.latencyTarget().toNanos();
+    this.minWindowSeconds = (int) c.minWindow().toSeconds();
+    this.maxWindowSeconds = (int) c.maxWindow().toSeconds();
+    this.stepSeconds = c.stepMinutes() * 60;
+    this.iterationStepSeconds = iterationStepSeconds;
+    this.windowLimitSeconds = maxWindowSeconds;
+  }
+
+  public boolean isEnabled() {
+    return latencyTargetNanos > 0;
+  }
+
+  /**
+   * The current upper limit for the dynamic search window. This is the configured max window if
+   * the controller is not enabled.
+   */
+  public Duration maxWindow() {
+    return Duration.ofSeconds(windowLimitSeconds);
+  }
+
+  /**
+   * The number of times the search window limit is changed.
+   */
+  public long numberOfAdjustments() {
+    return numberOfAdjustments;
+  }
+
+  /**
+   * Record the duration of a Range Raptor search with the given search window. Searching one
+   * iteration only is not recorded.
+   */
+  public void recordSearch(int searchWindowSeconds, long durationNanos) {
+    if (!isEnabled() || searchWindowSeconds <= 0) {
+      return;
+    }
+    int iterations = searchWindowSeconds / iterationStepSeconds + 1;
+    addSample(durationNanos / iterations);
+  }
+
+  private synchronized void addSample(long nanosPerIteration) {
+    samples[nSamples % N_SAMPLES] = nanosPerIteration;
+    ++nSamples;
+    ++nSamplesSinceLastAdjustment;
+
+    if (nSamplesSinceLastAdjustment < ADJUST_EVERY_N_SAMPLES) {
+      return;
+    }
+    nSamplesSinceLastAdjustment = 0;
+
+    int newLimit = calculateWindowLimit(percentileNanosPerIteration());
+    if (newLimit != windowLimitSeconds) {
+      windowLimitSeconds = newLimit;
+      ++numberOfAdjustments;
+    }
+  }
+
+  private long percentileNanosPerIteration() {
+    long[] sorted = Arrays.copyOf(samples, Math.min(nSamples, N_SAMPLES));
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(PERCENTILE * sorted.length) - 1;
+    return sorted[index];
+  }
+
+  private int calculateWindowLimit(long nanosPerIteration) {
+    long iterations = latencyTargetNanos / Math.max(1, nanosPerIteration);
+    long window = (iterations - 1) * iterationStepSeconds;
+    // Round down to the search window step
+    window = (window / stepSeconds) * stepSeconds;
+    return (int) Math.max(minWindowSeconds, Math.min(maxWindowSeconds, window));
+  }
+}
@@ -142,6 +142,9 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       builder.performanceTimers(
         request.performanceTimers().withNamePrefix(builder.generateAlias())
       );
+      builder.searchStatistics(
+        request.searchStatistics().withNamePrefix(builder.generateAlias())
+      );
 
       heuristicRequest = builder.build();
       search = config.createHeuristicSearch(transitData, heuristicRequest);
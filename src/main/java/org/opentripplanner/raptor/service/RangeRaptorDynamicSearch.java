@@ -23,6 +23,7 @@ import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
 import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,7 +31,9 @@ import org.slf4j.LoggerFactory;
  * This search helps the {@link RaptorService} to configure
  * heuristics and set dynamic search parameters like EDT, LAT and raptor-search-window.
  * <p>
- * If possible the forward and reverse heuristics will be run in parallel.
+ * If possible the forward and reverse heuristics will be run in parallel. The search-window of
+ * the main multi-criteria search may also be split in parts searched in parallel, see
+ * {@link SplitSearchWindowSearch}.
  * <p>
  * Depending on which optimization is enabled and which search parameters are set a forward and/or a
  * reverse "single-iteration" raptor search is performed and heuristics are collected. This is used
@@ -48,6 +51,13 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
   private final HeuristicSearchTask<T> fwdHeuristics;
   private final HeuristicSearchTask<T> revHeuristics;
 
+  /**
+   * Used instead of the reverse heuristics for destination pruning, if the reverse heuristic
+   * search is not needed for anything else.
+   */
+  @Nullable
+  private final RaptorTravelDurationLowerBounds lowerBounds;
+
   public RangeRaptorDynamicSearch(
     RaptorConfig<T> config,
     RaptorTransitDataProvider<T> transitData,
@@ -61,6 +71,9 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
 
     this.fwdHeuristics = new HeuristicSearchTask<>(FORWARD, "Forward", config, transitData);
     this.revHeuristics = new HeuristicSearchTask<>(REVERSE, "Reverse", config, transitData);
+    this.lowerBounds = useLowerBoundsForDestinationPruning(originalRequest)
+      ? transitData.travelDurationLowerBounds()
+      : null;
   }
 
   public RaptorResponse<T> route() {
@@ -97,6 +110,9 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
       return null;
     }
     LOG.debug("RangeRaptor - Destination pruning enabled.");
+    if (lowerBounds != null) {
+      return config.createLowerBoundHeuristics(transitData, originalRequest, lowerBounds);
+    }
     return revHeuristics.result();
   }
 
@@ -105,6 +121,10 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
    * search parameters. This is done for Standard and Multi-criteria profiles only.
    */
   private void enableHeuristicSearchBasedOnOptimizationsAndSearchParameters() {
+    // The precomputed lower bounds replace the heuristic search
+    if (lowerBounds != null) {
+      return;
+    }
     // We delegate this to a static method to be able to write unit test on this logic
     resolveHeuristicToRunBasedOnOptimizationsAndSearchParameters(
       originalRequest,
@@ -128,8 +148,43 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     fwdHeuristics.debugCompareResult(revHeuristics);
   }
 
+  /**
+   * Run the main search, and record the duration for the
+   * {@link org.opentripplanner.raptor.rangeraptor.transit.SearchWindowLatencyController}.
+   */
   private RaptorResponse<T> createAndRunDynamicRRWorker(RaptorRequest<T> request) {
+    var controller = config.searchWindowLatencyController();
+    if (!controller.isEnabled()) {
+      return createAndRunMainWorker(request);
+    }
+    long start = System.nanoTime();
+    var response = createAndRunMainWorker(request);
+    controller.recordSearch(
+      request.searchParams().searchWindowInSeconds(),
+      System.nanoTime() - start
+    );
+    return response;
+  }
+
+  private RaptorResponse<T> createAndRunMainWorker(RaptorRequest<T> request) {
     LOG.debug("Main request: {}", request);
+
+    if (SplitSearchWindowSearch.isSplitEnabled(config, request)) {
+      var result = new SplitSearchWindowSearch<>(
+        config,
+        transitData,
+        request,
+        getDestinationHeuristics()
+      )
+        .route();
+      return new RaptorResponse<>(
+        result.paths(),
+        new DefaultStopArrivals(result.earliestPartResult()),
+        originalRequest,
+        request
+      );
+    }
+
     RaptorWorker<T> raptorWorker;
 
     // Create worker
@@ -151,6 +206,22 @@ public class RangeRaptorDynamicSearch<T extends RaptorTripSchedule> {
     );
   }
 
+  /**
+   * The reverse heuristic search is only needed for destination pruning in a forward
+   * multi-criteria search if the earliest-departure-time and the search-window is set. This is
+   * the case when paging.
+   */
+  private static boolean useLowerBoundsForDestinationPruning(RaptorRequest<?> request) {
+    SearchParams s = request.searchParams();
+    return (
+      request.profile().is(MULTI_CRITERIA) &&
+      request.searchDirection().isForward() &&
+      request.useDestinationPruning() &&
+      s.isEarliestDepartureTimeSet() &&
+      s.isSearchWindowSet()
+    );
+  }
+
   private boolean isItPossibleToRunHeuristicsInParallel() {
     SearchParams s = originalRequest.searchParams();
     return (
@@ -0,0 +1,105 @@
+package org.opentripplanner.raptor.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Route a batch of requests using the same transit data, for example one request for each origin
+ * in a travel-time matrix. Each request is routed with a standard worker, no heuristics or dynamic
+ * search parameters are calculated. So, only the profiles using a standard worker are supported.
+ * <p>
+ * If the Raptor thread pool is enabled, the searches run in parallel. To limit the memory used, at
+ * most two searches for each thread are started before the first response is consumed. The
+ * workers are created in the calling thread, and the responses are passed to the consumer in the
+ * calling thread in the same order as the requests.
+ */
+public class RaptorBatchSearch<T extends RaptorTripSchedule> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(RaptorBatchSearch.class);
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+
+  public RaptorBatchSearch(RaptorConfig<T> config, RaptorTransitDataProvider<T> transitData) {
+    this.config = config;
+    this.transitData = transitData;
+  }
+
+  public void route(List<RaptorRequest<T>> requests, Consumer<RaptorResponse<T>> consumer) {
+    for (RaptorRequest<T> request : requests) {
+      if (request.isDynamicSearch()) {
+        throw new IllegalArgumentException(
+          "The batch search does not support the " + request.profile() + " profile."
+        );
+      }
+    }
+    if (config.isMultiThreaded()) {
+      routeInParallel(requests, consumer);
+    } else {
+      for (RaptorRequest<T> request : requests) {
+        consumer.accept(route(request, createWorker(request)));
+      }
+    }
+  }
+
+  private void routeInParallel(
+    List<RaptorRequest<T>> requests,
+    Consumer<RaptorResponse<T>> consumer
+  ) {
+    int maxSearchesStarted = 2 * config.tuningParameters().searchThreadPoolSize();
+    Deque<Future<RaptorResponse<T>>> started = new ArrayDeque<>();
+    try {
+      for (RaptorRequest<T> request : requests) {
+        if (started.size() == maxSearchesStarted) {
+          consumer.accept(started.removeFirst().get());
+        }
+        var worker = createWorker(request);
+        started.addLast(config.threadPool().submit(() -> route(request, worker)));
+      }
+      while (!started.isEmpty()) {
+        consumer.accept(started.removeFirst().get());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      LOG.error(e.getMessage(), e);
+      throw new IllegalStateException(
+        "Failed to run batch search in parallel. Details: " + e.getMessage()
+      );
+    } finally {
+      // Cancel the searches not consumed, if the search is interrupted or the consumer fails.
+      // This also propagates the interruption to the running tasks.
+      started.forEach(it -> it.cancel(true));
+    }
+  }
+
+  /**
+   * The config is not thread safe, so the workers must be created in the calling thread.
+   */
+  private RaptorWorker<T> createWorker(RaptorRequest<T> request) {
+    return config.createStdWorker(transitData, request);
+  }
+
+  private static <T extends RaptorTripSchedule> RaptorResponse<T> route(
+    RaptorRequest<T> request,
+    RaptorWorker<T> worker
+  ) {
+    var result = worker.route();
+    var arrivals = new DefaultStopArrivals(result);
+    return new RaptorResponse<>(result.extractPaths(), arrivals, request, request);
+  }
+}
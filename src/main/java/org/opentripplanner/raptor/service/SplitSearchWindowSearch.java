@@ -0,0 +1,189 @@
+package org.opentripplanner.raptor.service;
+
+import static org.opentripplanner.raptor.api.request.RaptorProfile.MULTI_CRITERIA;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParamsBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.rangeraptor.internalapi.Heuristics;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorWorkerResult;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Split the search-window of a forward multi-criteria search in parts, and search the parts in
+ * parallel with one worker for each part. The latest parts are searched in the Raptor thread pool,
+ * and the earliest part is searched in the calling thread. The paths found are merged into one
+ * pareto set using the same comparator as the destination arrivals of a worker. This drops the
+ * paths dominated by paths found in the other parts.
+ * <p>
+ * The parts end at the same iteration departure times as the iterations of one Range Raptor
+ * search, so the same iterations are performed. But, the stop arrivals of the later iterations
+ * are not kept to prune the earlier iterations across parts, so more work is done in total than
+ * in one search.
+ * <p>
+ * The stop arrivals of the earliest part are returned with the result. In a forward search the
+ * earliest departures reach the stops first.
+ */
+class SplitSearchWindowSearch<T extends RaptorTripSchedule> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SplitSearchWindowSearch.class);
+
+  /** The search-window is not split in parts shorter than this. */
+  static final int MIN_PART_SECONDS = 30 * 60;
+
+  private final RaptorConfig<T> config;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final RaptorRequest<T> request;
+
+  @Nullable
+  private final Heuristics heuristics;
+
+  SplitSearchWindowSearch(
+    RaptorConfig<T> config,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    @Nullable Heuristics heuristics
+  ) {
+    this.config = config;
+    this.transitData = transitData;
+    this.request = request;
+    this.heuristics = heuristics;
+  }
+
+  /**
+   * Return {@code true} if the search-window of the given request should be split in parts. The
+   * search-window must be set.
+   */
+  static boolean isSplitEnabled(RaptorConfig<?> config, RaptorRequest<?> request) {
+    return (
+      config.isMultiThreaded() &&
+      request.runInParallel() &&
+      request.profile().is(MULTI_CRITERIA) &&
+      request.searchDirection().isForward() &&
+      numberOfParts(
+        config.tuningParameters().searchWindowSplitCount(),
+        request.searchParams().searchWindowInSeconds()
+      ) >
+      1
+    );
+  }
+
+  /**
+   * Split the search-window in the requested number of parts, but not in parts shorter than
+   * {@link #MIN_PART_SECONDS}.
+   */
+  static int numberOfParts(int splitCount, int searchWindowSeconds) {
+    return Math.max(1, Math.min(splitCount, searchWindowSeconds / MIN_PART_SECONDS));
+  }
+
+  /**
+   * Create the search-params of each part, the latest part first. All parts, except the earliest
+   * part, have a length witch is a multiple of the iteration step. The parts are counted from the
+   * end of the search-window, so the iterations are the same as for one search.
+   */
+  static List<Part> splitSearchWindow(
+    int earliestDepartureTime,
+    int searchWindowSeconds,
+    int splitCount,
+    int iterationStep
+  ) {
+    int nParts = numberOfParts(splitCount, searchWindowSeconds);
+    int steps = (searchWindowSeconds + iterationStep - 1) / iterationStep;
+    int partLength = ((steps + nParts - 1) / nParts) * iterationStep;
+    int end = earliestDepartureTime + searchWindowSeconds;
+
+    var parts = new ArrayList<Part>();
+    while (end - partLength > earliestDepartureTime) {
+      parts.add(new Part(end - partLength, partLength, false));
+      end -= partLength;
+    }
+    parts.add(new Part(earliestDepartureTime, end - earliestDepartureTime, true));
+    return parts;
+  }
+
+  SplitSearchWindowResult<T> route() {
+    var parts = splitSearchWindow(
+      request.searchParams().earliestDepartureTime(),
+      request.searchParams().searchWindowInSeconds(),
+      config.tuningParameters().searchWindowSplitCount(),
+      config.tuningParameters().iterationDepartureStepInSeconds()
+    );
+    LOG.debug("Split search-window in {} parts: {}", parts.size(), parts);
+
+    // The workers must be created in this thread, the config is not thread safe
+    var workers = new ArrayList<RaptorWorker<T>>();
+    for (Part part : parts) {
+      workers.add(config.createMcWorker(transitData, part.request(request), heuristics));
+    }
+    var pathComparator = config.createMcPathParetoComparator(transitData, request);
+
+    // The earliest part is the last worker, it runs in this thread
+    var futures = new ArrayList<Future<RaptorWorkerResult<T>>>();
+    try {
+      for (int i = 0; i < workers.size() - 1; ++i) {
+        futures.add(config.threadPool().submit(workers.get(i)::route));
+      }
+      var earliestPartResult = workers.get(workers.size() - 1).route();
+
+      var paths = new ParetoSet<RaptorPath<T>>(pathComparator);
+      for (Future<RaptorWorkerResult<T>> it : futures) {
+        paths.addAll(it.get().extractPaths());
+      }
+      paths.addAll(earliestPartResult.extractPaths());
+
+      return new SplitSearchWindowResult<>(List.copyOf(paths), earliestPartResult);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      futures.forEach(it -> it.cancel(true));
+      throw new OTPRequestTimeoutException();
+    } catch (ExecutionException e) {
+      futures.forEach(it -> it.cancel(true));
+      LOG.error(e.getMessage() + ". Request: " + request, e);
+      throw new IllegalStateException(
+        "Failed to search the split search-window in parallel. Details: " + e.getMessage()
+      );
+    }
+  }
+
+  /**
+   * A part of the search-window.
+   *
+   * @param includeAccessSlack only the earliest part includes the search-window-access-slack,
+   *                           the slack is added before the earliest-departure-time.
+   */
+  record Part(int earliestDepartureTime, int searchWindowSeconds, boolean includeAccessSlack) {
+    <T extends RaptorTripSchedule> RaptorRequest<T> request(RaptorRequest<T> request) {
+      SearchParamsBuilder<T> builder = request
+        .mutate()
+        .searchParams()
+        .earliestDepartureTime(earliestDepartureTime)
+        .searchWindowInSeconds(searchWindowSeconds);
+      if (!includeAccessSlack) {
+        builder.searchWindowAccessSlack(Duration.ZERO);
+      }
+      return builder.build();
+    }
+  }
+
+  /**
+   * The merged paths and the result of the earliest part.
+   */
+  record SplitSearchWindowResult<T extends RaptorTripSchedule>(
+    List<RaptorPath<T>> paths,
+    RaptorWorkerResult<T> earliestPartResult
+  ) {}
+}
@@ -2,6 +2,7 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
 import org.opentripplanner.raptor.api.model.RaptorTripPattern;
@@ -150,4 +151,14 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    * REVERSE search.
    */
   RaptorConstrainedBoardingSearch<T> transferConstraintsReverseSearch(int routeIndex);
+
+  /**
+   * Precomputed lower bounds for the travel duration between stops. If available, Raptor use them
+   * for destination pruning in multi-criteria searches where the reverse heuristic search is only
+   * needed for this. Return {@code null} if not available.
+   */
+  @Nullable
+  default RaptorTravelDurationLowerBounds travelDurationLowerBounds() {
+    return null;
+  }
 }
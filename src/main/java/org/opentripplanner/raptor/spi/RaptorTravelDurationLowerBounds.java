@@ -0,0 +1,20 @@
+package org.opentripplanner.raptor.spi;
+
+import java.util.Collection;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+
+/**
+ * Precomputed lower bounds for the travel duration between stops. The bounds do not depend on the
+ * time of day, so they are weaker than the heuristics found by a Raptor search, but they can be
+ * used without searching. Raptor use them to prune the multi-criteria search, instead of running
+ * the reverse heuristic search.
+ */
+public interface RaptorTravelDurationLowerBounds {
+  /**
+   * Return a lower bound for the travel duration from each stop to the destination, the duration
+   * of the egress is included. The array is indexed by stop. Stops which can not reach any of the
+   * egress stops are set to {@link RaptorConstants#UNREACHED_HIGH}.
+   */
+  int[] minTravelDurationToDestination(Collection<RaptorAccessEgress> egressPaths);
+}
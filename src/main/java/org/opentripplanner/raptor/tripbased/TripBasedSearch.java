@@ -0,0 +1,505 @@
+package org.opentripplanner.raptor.tripbased;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.api.response.StopArrivals;
+import org.opentripplanner.raptor.path.PathBuilder;
+import org.opentripplanner.raptor.rangeraptor.path.PathParetoSetComparators;
+import org.opentripplanner.raptor.spi.BoardAndAlightTime;
+import org.opentripplanner.raptor.spi.IntIterator;
+import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+import org.opentripplanner.raptor.util.IntIterators;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Find the paths with the earliest arrival and the fewest transfers using the precomputed trip
+ * transfers in {@link TripBasedTransitData}. This is the query of "Trip-Based Public Transit
+ * Routing" by Sascha Witt (2015). Instead of scanning all routes serving the stops reached in a
+ * round, the search follows the precomputed transfers from the trip segments reached in the round
+ * before. The trip boarding searches are done once in the precomputation, not in each request.
+ * <p>
+ * Like Range Raptor, the search is done for each minute in the search-window, starting with the
+ * latest. The trip segments reached, and the best arrival time at the destination for each number
+ * of transfers, are kept between the iterations. A trip segment already reached with the same or
+ * fewer transfers departing later is not scanned again.
+ * <p>
+ * The arrival times found are the same as a Range Raptor search with the
+ * {@link RaptorProfile#STANDARD} profile, but paths with fewer transfers arriving at the same time
+ * may be found too. If more than one path arrive at the same time with the same number of
+ * transfers, the path departing latest is not always found. The search does not use the
+ * generalized-cost, so multi-criteria requests are not supported. Only the forward standard search
+ * with access and egress without rides or opening hours is supported, and not constrained
+ * transfers or pass-through points, see {@link #isSupported(RaptorRequest)}.
+ * <p>
+ * THIS IS EXPERIMENTAL, and not used by the OTP routing. The plan requests use the multi-criteria
+ * profile, and the precomputed transfers are not updated with the realtime data. The search is
+ * only used by the tests and the {@code RaptorBenchmark}.
+ */
+public final class TripBasedSearch<T extends RaptorTripSchedule> {
+
+  private static final int NOT_SET = Integer.MAX_VALUE;
+  private static final int NO_PARENT = -1;
+
+  private final TripBasedTransitData<T> data;
+  private final RaptorTransitDataProvider<T> transitData;
+  private final RaptorRequest<T> request;
+  private final RaptorSlackProvider slackProvider;
+  private final int nRounds;
+  private final int iterationStep;
+  private final List<RaptorAccessEgress> accessPaths;
+  private final TIntObjectMap<List<RaptorAccessEgress>> egressPathsByStop;
+  private final RaptorTripScheduleSearch<T>[] tripSearches;
+  private final ParetoSet<RaptorPath<T>> paths;
+
+  /** The lowest stop position each trip is boarded at, for each round. Created when needed. */
+  private final int[][] boardedStopPos;
+  /** The best arrival time at the destination for each round. */
+  private final int[] bestDestinationArrivalTime;
+  /** The last segment added for each trip, only valid if the segment is for the same trip. */
+  private final int[] tripSegment;
+  private final int[] bestTransitArrivalTime;
+  private final int[] bestArrivalTime;
+
+  /** The trip segments reached in the current iteration, in round order. */
+  private final TIntArrayList segmentTrip = new TIntArrayList();
+  private final TIntArrayList segmentBoardStopPos = new TIntArrayList();
+  private final TIntArrayList segmentEndStopPos = new TIntArrayList();
+  private final TIntArrayList segmentParent = new TIntArrayList();
+  private final TIntArrayList segmentParentAlightStopPos = new TIntArrayList();
+  private final TIntArrayList segmentStopTransfer = new TIntArrayList();
+  private final TIntArrayList segmentAccess = new TIntArrayList();
+  /** The arrival time at the stop the trip is boarded at, used to break ties like Raptor. */
+  private final TIntArrayList segmentStopArrivalTime = new TIntArrayList();
+  /** The index of the first segment reached in the round the transfers are followed into. */
+  private int nextRoundStart = 0;
+
+  /** The destination arrivals found in the current iteration. */
+  private final TIntArrayList destinationSegment = new TIntArrayList();
+  private final TIntArrayList destinationAlightStopPos = new TIntArrayList();
+  private final List<RaptorAccessEgress> destinationEgress = new ArrayList<>();
+
+  @SuppressWarnings("unchecked")
+  public TripBasedSearch(
+    TripBasedTransitData<T> data,
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    RaptorTuningParameters tuningParameters
+  ) {
+    if (!isSupported(request)) {
+      throw new IllegalArgumentException("The request is not supported by the Trip-Based search.");
+    }
+    SearchParams searchParams = request.searchParams();
+    this.data = data;
+    this.transitData = transitData;
+    this.request = request;
+    this.slackProvider = transitData.slackProvider();
+    this.nRounds =
+      1 +
+      (
+        searchParams.isMaxNumberOfTransfersSet()
+          ? searchParams.maxNumberOfTransfers()
+          : tuningParameters.maxNumberOfTransfers()
+      );
+    this.iterationStep = tuningParameters.iterationDepartureStepInSeconds();
+    this.accessPaths = List.copyOf(searchParams.accessPaths());
+    this.egressPathsByStop = new TIntObjectHashMap<>();
+    for (RaptorAccessEgress it : searchParams.egressPaths()) {
+      var list = egressPathsByStop.get(it.stop());
+      if (list == null) {
+        list = new ArrayList<>();
+        egressPathsByStop.put(it.stop(), list);
+      }
+      list.add(it);
+    }
+    this.tripSearches = new RaptorTripScheduleSearch[data.numberOfRoutes()];
+    this.paths =
+      new ParetoSet<>(
+        PathParetoSetComparators.paretoComparator(
+          false,
+          searchParams.timetable(),
+          false,
+          SearchDirection.FORWARD,
+          RelaxFunction.NORMAL,
+          null
+        )
+      );
+    this.boardedStopPos = new int[nRounds][];
+    this.bestDestinationArrivalTime = new int[nRounds];
+    Arrays.fill(
+      bestDestinationArrivalTime,
+      searchParams.isLatestArrivalTimeSet() ? searchParams.latestArrivalTime() + 1 : NOT_SET
+    );
+    this.tripSegment = new int[data.numberOfTrips()];
+    this.bestTransitArrivalTime = new int[data.numberOfStops()];
+    this.bestArrivalTime = new int[data.numberOfStops()];
+    Arrays.fill(bestTransitArrivalTime, NOT_SET);
+    Arrays.fill(bestArrivalTime, NOT_SET);
+  }
+
+  /**
+   * Return TRUE if the Trip-Based search supports the request. The other requests should be
+   * routed with Range Raptor.
+   */
+  public static boolean isSupported(RaptorRequest<?> request) {
+    var searchParams = request.searchParams();
+    return (
+      request.searchDirection().isForward() &&
+      request.profile().is(RaptorProfile.STANDARD) &&
+      searchParams.isEarliestDepartureTimeSet() &&
+      searchParams.isSearchWindowSet() &&
+      !searchParams.preferLateArrival() &&
+      !searchParams.constrainedTransfers() &&
+      request.multiCriteria().passThroughPoints().isEmpty() &&
+      searchParams.accessPaths().stream().noneMatch(TripBasedSearch::hasRidesOrOpeningHours) &&
+      searchParams.egressPaths().stream().noneMatch(TripBasedSearch::hasRidesOrOpeningHours)
+    );
+  }
+
+  public RaptorResponse<T> route() {
+    SearchParams searchParams = request.searchParams();
+    int edt = searchParams.routerEarliestDepartureTime();
+    int searchWindow = searchParams.routerSearchWindowInSeconds();
+
+    IntIterator departureTimes = searchWindow <= iterationStep
+      ? IntIterators.singleValueIterator(edt)
+      : IntIterators.intDecIterator(edt + searchWindow, edt, iterationStep);
+
+    while (departureTimes.hasNext()) {
+      runIteration(departureTimes.next());
+    }
+    var arrivals = new TripBasedStopArrivals(bestArrivalTime, bestTransitArrivalTime);
+    return new RaptorResponse<>(List.copyOf(paths), arrivals, request, request);
+  }
+
+  private void runIteration(int departureTime) {
+    clearIteration();
+    boardAtAccessStops(departureTime);
+
+    int roundStart = 0;
+    for (int round = 0; round < nRounds && roundStart < segmentTrip.size(); ++round) {
+      int roundEnd = segmentTrip.size();
+      nextRoundStart = roundEnd;
+      for (int segment = roundStart; segment < roundEnd; ++segment) {
+        scanSegment(segment, round);
+      }
+      roundStart = roundEnd;
+    }
+
+    for (int i = 0; i < destinationSegment.size(); ++i) {
+      paths.add(mapToPath(departureTime, i));
+    }
+  }
+
+  private void boardAtAccessStops(int departureTime) {
+    for (int a = 0; a < accessPaths.size(); ++a) {
+      var access = accessPaths.get(a);
+      int stop = access.stop();
+      int arrivalTime = departureTime + access.durationInSeconds();
+      bestArrivalTime[stop] = Math.min(bestArrivalTime[stop], arrivalTime);
+
+      for (int rs = data.firstRouteStopAt(stop); rs < data.endRouteStopAt(stop); ++rs) {
+        int route = data.routeStopRoute(rs);
+        int stopPos = data.routeStopPos(rs);
+        var pattern = data.route(route).pattern();
+
+        if (
+          stopPos == pattern.numberOfStopsInPattern() - 1 ||
+          !pattern.boardingPossibleAt(stopPos)
+        ) {
+          continue;
+        }
+        int earliestBoardTime = arrivalTime + slackProvider.boardSlack(pattern.slackIndex());
+        var boarding = tripSearch(route).search(earliestBoardTime, stopPos);
+        if (!boarding.empty()) {
+          int trip = data.firstTripInRoute(route) + boarding.tripIndex();
+          reachTrip(
+            trip,
+            stopPos,
+            arrivalTime,
+            0,
+            NO_PARENT,
+            NO_PARENT,
+            TripBasedTransitData.SAME_STOP,
+            a
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Alight at each stop of the trip segment, check the egress paths and follow the transfers to
+   * the trips reached in the next round.
+   */
+  private void scanSegment(int segment, int round) {
+    int trip = segmentTrip.getQuick(segment);
+    int end = segmentEndStopPos.getQuick(segment);
+    var schedule = data.tripSchedule(trip);
+    var pattern = schedule.pattern();
+    int alightSlack = slackProvider.alightSlack(pattern.slackIndex());
+    int bestDestinationTime = bestDestinationArrivalTime(round);
+
+    for (int i = segmentBoardStopPos.getQuick(segment) + 1; i < end; ++i) {
+      int arrivalTime = schedule.arrival(i) + alightSlack;
+
+      // Later stops can not give a better arrival at the destination
+      if (arrivalTime >= bestDestinationTime) {
+        return;
+      }
+      if (!pattern.alightingPossibleAt(i)) {
+        continue;
+      }
+      int stop = pattern.stopIndex(i);
+      bestTransitArrivalTime[stop] = Math.min(bestTransitArrivalTime[stop], arrivalTime);
+      bestArrivalTime[stop] = Math.min(bestArrivalTime[stop], arrivalTime);
+
+      var egressPaths = egressPathsByStop.get(stop);
+      if (egressPaths != null) {
+        for (RaptorAccessEgress egress : egressPaths) {
+          int destinationTime = arrivalTime + egress.durationInSeconds();
+          if (destinationTime < bestDestinationTime) {
+            bestDestinationTime = destinationTime;
+            bestDestinationArrivalTime[round] = destinationTime;
+            destinationSegment.add(segment);
+            destinationAlightStopPos.add(i);
+            destinationEgress.add(egress);
+          }
+        }
+      }
+
+      if (round + 1 < nRounds) {
+        for (int t = data.firstTransfer(trip, i); t < data.endTransfer(trip, i); ++t) {
+          int stopTransfer = data.transferStopTransfer(t);
+          int timeAtStop = stopTransfer == TripBasedTransitData.SAME_STOP
+            ? arrivalTime
+            : arrivalTime + data.stopTransfer(stopTransfer).durationInSeconds();
+          reachTrip(
+            data.transferToTrip(t),
+            data.transferToStopPos(t),
+            timeAtStop,
+            round + 1,
+            segment,
+            i,
+            stopTransfer,
+            NO_PARENT
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Add a segment for the trip boarded at the given stop position, if the trip is not already
+   * boarded at the same or an earlier stop position with the same or fewer transfers. The trip
+   * segment ends where the trip was boarded before.
+   * <p>
+   * If the trip is already reached in the same round, the segment is not scanned yet. Then the
+   * segments are merged like Raptor does it: the trip is boarded at the first stop position, and
+   * at the stop with the earliest arrival if the stop position is the same. The arrival times are
+   * the same, but the path found departs later.
+   */
+  private void reachTrip(
+    int trip,
+    int boardStopPos,
+    int stopArrivalTime,
+    int round,
+    int parent,
+    int parentAlightStopPos,
+    int stopTransfer,
+    int access
+  ) {
+    int boardedBefore = NOT_SET;
+    for (int r = 0; r <= round; ++r) {
+      if (boardedStopPos[r] != null) {
+        boardedBefore = Math.min(boardedBefore, boardedStopPos[r][trip]);
+      }
+    }
+    int sameRound = sameRoundSegment(trip, boardedBefore);
+
+    if (boardedBefore < boardStopPos) {
+      return;
+    }
+    if (boardedBefore == boardStopPos) {
+      if (sameRound != NO_PARENT && stopArrivalTime < segmentStopArrivalTime.getQuick(sameRound)) {
+        segmentParent.setQuick(sameRound, parent);
+        segmentParentAlightStopPos.setQuick(sameRound, parentAlightStopPos);
+        segmentStopTransfer.setQuick(sameRound, stopTransfer);
+        segmentAccess.setQuick(sameRound, access);
+        segmentStopArrivalTime.setQuick(sameRound, stopArrivalTime);
+      }
+      return;
+    }
+    int route = data.routeOfTrip(trip);
+    int end = boardedBefore == NOT_SET
+      ? data.route(route).pattern().numberOfStopsInPattern()
+      : boardedBefore + 1;
+
+    if (sameRound != NO_PARENT) {
+      end = segmentEndStopPos.getQuick(sameRound);
+      segmentEndStopPos.setQuick(sameRound, boardedBefore + 1);
+    }
+    tripSegment[trip] = segmentTrip.size();
+
+    segmentTrip.add(trip);
+    segmentBoardStopPos.add(boardStopPos);
+    segmentEndStopPos.add(end);
+    segmentParent.add(parent);
+    segmentParentAlightStopPos.add(parentAlightStopPos);
+    segmentStopTransfer.add(stopTransfer);
+    segmentAccess.add(access);
+    segmentStopArrivalTime.add(stopArrivalTime);
+
+    // The later trips in a FIFO route can not arrive earlier, so they are reached too
+    int[] boarded = boardedStopPos(round);
+    if (data.isFifo(route)) {
+      int lastTrip = data.firstTripInRoute(route + 1);
+      for (int u = trip; u < lastTrip && boarded[u] > boardStopPos; ++u) {
+        boarded[u] = boardStopPos;
+      }
+    } else {
+      boarded[trip] = Math.min(boarded[trip], boardStopPos);
+    }
+  }
+
+  /**
+   * Return the segment boarding the trip at the given stop position in the round reached by the
+   * transfers followed, or {@link #NO_PARENT} if the trip is not reached in the round.
+   */
+  private int sameRoundSegment(int trip, int boardStopPos) {
+    int segment = tripSegment[trip];
+    return (
+        segment >= nextRoundStart &&
+        segment < segmentTrip.size() &&
+        segmentTrip.getQuick(segment) == trip &&
+        segmentBoardStopPos.getQuick(segment) == boardStopPos
+      )
+      ? segment
+      : NO_PARENT;
+  }
+
+  private RaptorPath<T> mapToPath(int departureTime, int destination) {
+    var segments = new TIntArrayList();
+    var alightStopPositions = new TIntArrayList();
+    int segment = destinationSegment.getQuick(destination);
+    int alightStopPos = destinationAlightStopPos.getQuick(destination);
+
+    while (segment != NO_PARENT) {
+      segments.insert(0, segment);
+      alightStopPositions.insert(0, alightStopPos);
+      alightStopPos = segmentParentAlightStopPos.getQuick(segment);
+      segment = segmentParent.getQuick(segment);
+    }
+
+    var pathBuilder = PathBuilder.<T>tailPathBuilder(
+      slackProvider,
+      departureTime,
+      null,
+      transitData.stopNameResolver(),
+      null
+    );
+    pathBuilder.access(accessPaths.get(segmentAccess.getQuick(segments.getQuick(0))));
+
+    for (int i = 0; i < segments.size(); ++i) {
+      int s = segments.getQuick(i);
+      if (i > 0) {
+        int stopTransfer = segmentStopTransfer.getQuick(s);
+        if (stopTransfer != TripBasedTransitData.SAME_STOP) {
+          var transfer = data.stopTransfer(stopTransfer);
+          pathBuilder.transfer(transfer, transfer.stop());
+        }
+      }
+      var trip = data.tripSchedule(segmentTrip.getQuick(s));
+      pathBuilder.transit(
+        trip,
+        new BoardAndAlightTime(
+          trip,
+          segmentBoardStopPos.getQuick(s),
+          alightStopPositions.getQuick(i)
+        )
+      );
+    }
+    pathBuilder.egress(destinationEgress.get(destination));
+    return pathBuilder.build();
+  }
+
+  private int bestDestinationArrivalTime(int round) {
+    int best = NOT_SET;
+    for (int r = 0; r <= round; ++r) {
+      best = Math.min(best, bestDestinationArrivalTime[r]);
+    }
+    return best;
+  }
+
+  private int[] boardedStopPos(int round) {
+    if (boardedStopPos[round] == null) {
+      boardedStopPos[round] = new int[data.numberOfTrips()];
+      Arrays.fill(boardedStopPos[round], NOT_SET);
+    }
+    return boardedStopPos[round];
+  }
+
+  private RaptorTripScheduleSearch<T> tripSearch(int route) {
+    if (tripSearches[route] == null) {
+      tripSearches[route] = data.route(route).timetable().tripSearch(SearchDirection.FORWARD);
+    }
+    return tripSearches[route];
+  }
+
+  private void clearIteration() {
+    segmentTrip.resetQuick();
+    segmentBoardStopPos.resetQuick();
+    segmentEndStopPos.resetQuick();
+    segmentParent.resetQuick();
+    segmentParentAlightStopPos.resetQuick();
+    segmentStopTransfer.resetQuick();
+    segmentAccess.resetQuick();
+    segmentStopArrivalTime.resetQuick();
+    nextRoundStart = 0;
+    destinationSegment.resetQuick();
+    destinationAlightStopPos.resetQuick();
+    destinationEgress.clear();
+  }
+
+  private static boolean hasRidesOrOpeningHours(RaptorAccessEgress it) {
+    return it.hasRides() || it.hasOpeningHours();
+  }
+
+  private record TripBasedStopArrivals(int[] bestArrivalTime, int[] bestTransitArrivalTime)
+    implements StopArrivals {
+    @Override
+    public boolean reached(int stopIndex) {
+      return bestArrivalTime[stopIndex] != NOT_SET;
+    }
+
+    @Override
+    public int bestArrivalTime(int stopIndex) {
+      return bestArrivalTime[stopIndex];
+    }
+
+    @Override
+    public boolean reachedByTransit(int stopIndex) {
+      return bestTransitArrivalTime[stopIndex] != NOT_SET;
+    }
+
+    @Override
+    public int bestTransitArrivalTime(int stopIndex) {
+      return bestTransitArrivalTime[stopIndex];
+    }
+  }
+}
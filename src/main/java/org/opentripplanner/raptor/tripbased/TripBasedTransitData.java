@@ -0,0 +1,492 @@
+package org.opentripplanner.raptor.tripbased;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.raptor.api.model.RaptorTripPattern;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorRoute;
+import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.raptor.spi.RaptorTimeTable;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+import org.opentripplanner.raptor.util.IntIterators;
+
+/**
+ * The routes and the precomputed transfers between trips used by the {@link TripBasedSearch}.
+ * This is an implementation of the preprocessing in "Trip-Based Public Transit Routing" by Sascha
+ * Witt (2015).
+ * <p>
+ * A transfer from trip {@code t} at stop position {@code i} to trip {@code u} at stop position
+ * {@code j} is created if {@code u} is the first trip of its route which can be boarded at
+ * {@code j} after alighting from {@code t} at {@code i}, and walking to the stop at {@code j} or
+ * staying at the same stop. The slack is applied the same way as in Raptor. Transfers which do not
+ * give an earlier arrival at any stop than staying on {@code t}, or than another transfer from
+ * {@code t} at the same or a later stop position, are removed. So, the number of transfers stored
+ * is much smaller than the number of possible transfers.
+ * <p>
+ * The transfers depend on the routes, the transfers between stops and the slack of the transit
+ * data used to create them. An instance can be shared by all searches using transit data with the
+ * same routes, transfers and slack. The instance is immutable and thread-safe.
+ * <p>
+ * The stop-to-stop transfers are kept, and returned in the paths. So, the transit data must NOT
+ * return flyweight {@link RaptorTransfer} objects.
+ */
+public final class TripBasedTransitData<T extends RaptorTripSchedule> {
+
+  private static final int NOT_SET = Integer.MAX_VALUE;
+
+  /** Used as transfer reference when a transfer is at the same stop, no walking is needed. */
+  static final int SAME_STOP = -1;
+
+  private final int numberOfStops;
+
+  private final List<RaptorRoute<T>> routes;
+
+  /** The trip index of the first trip in each route. The total number of trips is last. */
+  private final int[] firstTripInRoute;
+
+  /** The route index for each trip. */
+  private final int[] routeOfTrip;
+
+  /** Routes where a trip never arrive or depart before an earlier trip, at any stop. */
+  private final BitSet fifoRoutes;
+
+  /** For each stop, the index of the first route-stop in the stop route arrays. */
+  private final int[] firstRouteAtStop;
+  private final int[] stopRouteIndex;
+  private final int[] stopRouteStopPos;
+
+  /** The index of the first trip-stop for each trip, trip-stops are indexed in stop order. */
+  private final int[] firstTripStop;
+
+  /** For each trip-stop, the index of the first transfer. The total number of transfers is last. */
+  private final int[] firstTransfer;
+  private final int[] transferToTrip;
+  private final int[] transferToStopPos;
+  private final int[] transferStopTransfer;
+
+  private final RaptorTransfer[] stopTransfers;
+
+  private TripBasedTransitData(Builder<T> builder) {
+    this.numberOfStops = builder.numberOfStops;
+    this.routes = List.copyOf(builder.routes);
+    this.firstTripInRoute = builder.firstTripInRoute;
+    this.routeOfTrip = builder.routeOfTrip;
+    this.fifoRoutes = builder.fifoRoutes;
+    this.firstRouteAtStop = builder.firstRouteAtStop;
+    this.stopRouteIndex = builder.stopRouteIndex;
+    this.stopRouteStopPos = builder.stopRouteStopPos;
+    this.firstTripStop = builder.firstTripStop;
+    this.firstTransfer = builder.firstTransfer.toArray();
+    this.transferToTrip = builder.transferToTrip.toArray();
+    this.transferToStopPos = builder.transferToStopPos.toArray();
+    this.transferStopTransfer = builder.transferStopTransfer.toArray();
+    this.stopTransfers = builder.stopTransfers.toArray(RaptorTransfer[]::new);
+  }
+
+  /**
+   * Compute the trip transfers for all routes in the given transit data. This is expensive, the
+   * result should be cached and reused, see the class documentation.
+   */
+  public static <T extends RaptorTripSchedule> TripBasedTransitData<T> create(
+    RaptorTransitDataProvider<T> transitData
+  ) {
+    return new TripBasedTransitData<>(new Builder<>(transitData).build());
+  }
+
+  int numberOfStops() {
+    return numberOfStops;
+  }
+
+  int numberOfRoutes() {
+    return routes.size();
+  }
+
+  int numberOfTrips() {
+    return routeOfTrip.length;
+  }
+
+  RaptorRoute<T> route(int routeIndex) {
+    return routes.get(routeIndex);
+  }
+
+  int routeOfTrip(int trip) {
+    return routeOfTrip[trip];
+  }
+
+  int firstTripInRoute(int routeIndex) {
+    return firstTripInRoute[routeIndex];
+  }
+
+  T tripSchedule(int trip) {
+    int route = routeOfTrip[trip];
+    return routes.get(route).timetable().getTripSchedule(trip - firstTripInRoute[route]);
+  }
+
+  /**
+   * Return TRUE if no trip in the route arrive or depart before an earlier trip, at any stop. If
+   * a trip in a FIFO route is reached at a stop position, the later trips are reached too.
+   */
+  boolean isFifo(int routeIndex) {
+    return fifoRoutes.get(routeIndex);
+  }
+
+  int firstRouteStopAt(int stop) {
+    return firstRouteAtStop[stop];
+  }
+
+  int endRouteStopAt(int stop) {
+    return firstRouteAtStop[stop + 1];
+  }
+
+  int routeStopRoute(int routeStop) {
+    return stopRouteIndex[routeStop];
+  }
+
+  int routeStopPos(int routeStop) {
+    return stopRouteStopPos[routeStop];
+  }
+
+  int firstTransfer(int trip, int stopPos) {
+    return firstTransfer[firstTripStop[trip] + stopPos];
+  }
+
+  int endTransfer(int trip, int stopPos) {
+    return firstTransfer[firstTripStop[trip] + stopPos + 1];
+  }
+
+  int transferToTrip(int transfer) {
+    return transferToTrip[transfer];
+  }
+
+  int transferToStopPos(int transfer) {
+    return transferToStopPos[transfer];
+  }
+
+  /**
+   * The index of the stop-to-stop transfer used, or {@link #SAME_STOP} if the transfer is at the
+   * same stop.
+   */
+  int transferStopTransfer(int transfer) {
+    return transferStopTransfer[transfer];
+  }
+
+  RaptorTransfer stopTransfer(int index) {
+    return stopTransfers[index];
+  }
+
+  public int numberOfTransfers() {
+    return transferToTrip.length;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(TripBasedTransitData.class)
+      .addNum("stops", numberOfStops)
+      .addNum("routes", routes.size())
+      .addNum("trips", numberOfTrips())
+      .addNum("transfers", numberOfTransfers())
+      .toString();
+  }
+
+  private static final class Builder<T extends RaptorTripSchedule> {
+
+    private final RaptorTransitDataProvider<T> transitData;
+    private final RaptorSlackProvider slackProvider;
+    private final int numberOfStops;
+    private final List<RaptorRoute<T>> routes = new ArrayList<>();
+    private final List<RaptorTripScheduleSearch<T>> tripSearches = new ArrayList<>();
+    private final List<List<RaptorTransfer>> transfersFromStop = new ArrayList<>();
+
+    private int[] firstTripInRoute;
+    private int[] routeOfTrip;
+    private BitSet fifoRoutes;
+    private int[] firstRouteAtStop;
+    private int[] stopRouteIndex;
+    private int[] stopRouteStopPos;
+    private int[] firstTripStop;
+
+    private final TIntArrayList firstTransfer = new TIntArrayList();
+    private final TIntArrayList transferToTrip = new TIntArrayList();
+    private final TIntArrayList transferToStopPos = new TIntArrayList();
+    private final TIntArrayList transferStopTransfer = new TIntArrayList();
+    private final List<RaptorTransfer> stopTransfers = new ArrayList<>();
+    private final Map<RaptorTransfer, Integer> stopTransferIndex = new IdentityHashMap<>();
+
+    /** The earliest arrival at each stop, by transit or walking from a stop reached by transit */
+    private final int[] earliestArrival;
+    /** The earliest arrival at each stop by transit, egress is only possible after transit */
+    private final int[] earliestTransitArrival;
+    private final TIntArrayList touchedStops = new TIntArrayList();
+
+    private Builder(RaptorTransitDataProvider<T> transitData) {
+      this.transitData = transitData;
+      this.slackProvider = transitData.slackProvider();
+      this.numberOfStops = transitData.numberOfStops();
+      this.earliestArrival = new int[numberOfStops];
+      this.earliestTransitArrival = new int[numberOfStops];
+      Arrays.fill(earliestArrival, NOT_SET);
+      Arrays.fill(earliestTransitArrival, NOT_SET);
+    }
+
+    private Builder<T> build() {
+      var it = transitData.routeIndexIterator(IntIterators.intIncIterator(0, numberOfStops));
+      while (it.hasNext()) {
+        var route = transitData.getRouteForIndex(it.next());
+        routes.add(route);
+        tripSearches.add(route.timetable().tripSearch(SearchDirection.FORWARD));
+      }
+      for (int stop = 0; stop < numberOfStops; ++stop) {
+        var transfers = new ArrayList<RaptorTransfer>();
+        transitData.getTransfersFromStop(stop).forEachRemaining(transfers::add);
+        transfersFromStop.add(transfers);
+      }
+      indexTrips();
+      indexRoutesByStop();
+
+      for (int route = 0; route < routes.size(); ++route) {
+        var timetable = routes.get(route).timetable();
+        for (int i = 0; i < timetable.numberOfTripSchedules(); ++i) {
+          createTransfersFromTrip(route, i);
+        }
+      }
+      firstTransfer.add(transferToTrip.size());
+      return this;
+    }
+
+    private void indexTrips() {
+      firstTripInRoute = new int[routes.size() + 1];
+      fifoRoutes = new BitSet(routes.size());
+      int nTrips = 0;
+      int nTripStops = 0;
+      for (int route = 0; route < routes.size(); ++route) {
+        firstTripInRoute[route] = nTrips;
+        var timetable = routes.get(route).timetable();
+        nTrips += timetable.numberOfTripSchedules();
+        nTripStops +=
+          timetable.numberOfTripSchedules() * routes.get(route).pattern().numberOfStopsInPattern();
+        if (isFifo(routes.get(route))) {
+          fifoRoutes.set(route);
+        }
+      }
+      firstTripInRoute[routes.size()] = nTrips;
+
+      routeOfTrip = new int[nTrips];
+      firstTripStop = new int[nTrips];
+      int tripStop = 0;
+      for (int route = 0; route < routes.size(); ++route) {
+        int nStops = routes.get(route).pattern().numberOfStopsInPattern();
+        for (int trip = firstTripInRoute[route]; trip < firstTripInRoute[route + 1]; ++trip) {
+          routeOfTrip[trip] = route;
+          firstTripStop[trip] = tripStop;
+          tripStop += nStops;
+        }
+      }
+      firstTransfer.ensureCapacity(nTripStops + 1);
+    }
+
+    private void indexRoutesByStop() {
+      firstRouteAtStop = new int[numberOfStops + 1];
+      for (RaptorRoute<T> route : routes) {
+        var pattern = route.pattern();
+        for (int pos = 0; pos < pattern.numberOfStopsInPattern(); ++pos) {
+          ++firstRouteAtStop[pattern.stopIndex(pos) + 1];
+        }
+      }
+      for (int stop = 0; stop < numberOfStops; ++stop) {
+        firstRouteAtStop[stop + 1] += firstRouteAtStop[stop];
+      }
+      stopRouteIndex = new int[firstRouteAtStop[numberOfStops]];
+      stopRouteStopPos = new int[stopRouteIndex.length];
+      int[] next = Arrays.copyOf(firstRouteAtStop, numberOfStops);
+      for (int route = 0; route < routes.size(); ++route) {
+        var pattern = routes.get(route).pattern();
+        for (int pos = 0; pos < pattern.numberOfStopsInPattern(); ++pos) {
+          int i = next[pattern.stopIndex(pos)]++;
+          stopRouteIndex[i] = route;
+          stopRouteStopPos[i] = pos;
+        }
+      }
+    }
+
+    /**
+     * Find the transfers from each stop position of the trip, starting with the last. The
+     * transfers which do not improve the arrival time at any stop, compared with staying on the
+     * trip or the transfers found so far, are dropped.
+     */
+    private void createTransfersFromTrip(int route, int tripIndex) {
+      var pattern = routes.get(route).pattern();
+      var trip = routes.get(route).timetable().getTripSchedule(tripIndex);
+      int nStops = pattern.numberOfStopsInPattern();
+      int alightSlack = slackProvider.alightSlack(pattern.slackIndex());
+      var transfersByStopPos = new TIntArrayList[nStops];
+
+      for (int i = nStops - 1; i > 0; --i) {
+        if (!pattern.alightingPossibleAt(i)) {
+          continue;
+        }
+        int stop = pattern.stopIndex(i);
+        int arrivalTime = trip.arrival(i) + alightSlack;
+        improveArrivals(stop, arrivalTime);
+
+        transfersByStopPos[i] = new TIntArrayList();
+        findTransfers(route, tripIndex, i, stop, arrivalTime, SAME_STOP, transfersByStopPos[i]);
+        for (RaptorTransfer it : transfersFromStop.get(stop)) {
+          int timeAtStop = arrivalTime + it.durationInSeconds();
+          int stopTransfer = stopTransferIndex(it);
+          findTransfers(
+            route,
+            tripIndex,
+            i,
+            it.stop(),
+            timeAtStop,
+            stopTransfer,
+            transfersByStopPos[i]
+          );
+        }
+      }
+      for (int i = 0; i < nStops; ++i) {
+        firstTransfer.add(transferToTrip.size());
+        var transfers = transfersByStopPos[i];
+        if (transfers != null) {
+          for (int k = 0; k < transfers.size(); k += 3) {
+            transferToTrip.add(transfers.getQuick(k));
+            transferToStopPos.add(transfers.getQuick(k + 1));
+            transferStopTransfer.add(transfers.getQuick(k + 2));
+          }
+        }
+      }
+      resetArrivals();
+    }
+
+    /**
+     * Find the first trip of each route which can be boarded at the given stop, and add the
+     * transfer to the result if it improves the arrival time at any stop.
+     */
+    private void findTransfers(
+      int fromRoute,
+      int fromTripIndex,
+      int fromStopPos,
+      int toStop,
+      int timeAtStop,
+      int stopTransfer,
+      TIntArrayList result
+    ) {
+      int earliestBoardTime = timeAtStop + slackProvider.transferSlack();
+
+      for (int rs = firstRouteAtStop[toStop]; rs < firstRouteAtStop[toStop + 1]; ++rs) {
+        int route = stopRouteIndex[rs];
+        int stopPos = stopRouteStopPos[rs];
+        var pattern = routes.get(route).pattern();
+
+        if (
+          stopPos == pattern.numberOfStopsInPattern() - 1 ||
+          !pattern.boardingPossibleAt(stopPos)
+        ) {
+          continue;
+        }
+        int boardSlack = slackProvider.boardSlack(pattern.slackIndex());
+        var boarding = tripSearches.get(route).search(earliestBoardTime + boardSlack, stopPos);
+        if (boarding.empty()) {
+          continue;
+        }
+        int tripIndex = boarding.tripIndex();
+
+        // Staying on the same trip, or boarding a later trip of the same route at a later stop,
+        // is never better than staying on the trip
+        if (route == fromRoute && tripIndex >= fromTripIndex && stopPos >= fromStopPos) {
+          continue;
+        }
+        if (improvesArrivals(route, boarding.trip(), stopPos)) {
+          result.add(firstTripInRoute[route] + tripIndex);
+          result.add(stopPos);
+          result.add(stopTransfer);
+        }
+      }
+    }
+
+    private boolean improvesArrivals(int route, T trip, int boardStopPos) {
+      var pattern = routes.get(route).pattern();
+      int alightSlack = slackProvider.alightSlack(pattern.slackIndex());
+      boolean improved = false;
+      for (int i = boardStopPos + 1; i < pattern.numberOfStopsInPattern(); ++i) {
+        if (pattern.alightingPossibleAt(i)) {
+          improved |= improveArrivals(pattern.stopIndex(i), trip.arrival(i) + alightSlack);
+        }
+      }
+      return improved;
+    }
+
+    /**
+     * Update the earliest arrival at the given stop reached by transit, and at the stops reached
+     * by walking from it.
+     */
+    private boolean improveArrivals(int stop, int arrivalTime) {
+      boolean improved = false;
+      if (arrivalTime < earliestTransitArrival[stop]) {
+        earliestTransitArrival[stop] = arrivalTime;
+        improved = true;
+      }
+      improved |= improveArrival(stop, arrivalTime);
+
+      for (RaptorTransfer it : transfersFromStop.get(stop)) {
+        improved |= improveArrival(it.stop(), arrivalTime + it.durationInSeconds());
+      }
+      return improved;
+    }
+
+    private boolean improveArrival(int stop, int arrivalTime) {
+      if (arrivalTime < earliestArrival[stop]) {
+        if (earliestArrival[stop] == NOT_SET) {
+          touchedStops.add(stop);
+        }
+        earliestArrival[stop] = arrivalTime;
+        return true;
+      }
+      return false;
+    }
+
+    private void resetArrivals() {
+      for (int i = 0; i < touchedStops.size(); ++i) {
+        int stop = touchedStops.getQuick(i);
+        earliestArrival[stop] = NOT_SET;
+        earliestTransitArrival[stop] = NOT_SET;
+      }
+      touchedStops.resetQuick();
+    }
+
+    private int stopTransferIndex(RaptorTransfer transfer) {
+      return stopTransferIndex.computeIfAbsent(
+        transfer,
+        it -> {
+          stopTransfers.add(it);
+          return stopTransfers.size() - 1;
+        }
+      );
+    }
+
+    private boolean isFifo(RaptorRoute<T> route) {
+      RaptorTimeTable<T> timetable = route.timetable();
+      RaptorTripPattern pattern = route.pattern();
+      for (int i = 1; i < timetable.numberOfTripSchedules(); ++i) {
+        var prev = timetable.getTripSchedule(i - 1);
+        var trip = timetable.getTripSchedule(i);
+        for (int pos = 0; pos < pattern.numberOfStopsInPattern(); ++pos) {
+          if (trip.arrival(pos) < prev.arrival(pos) || trip.departure(pos) < prev.departure(pos)) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.plan.Itinerary;
@@ -18,6 +19,8 @@ import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.response.RaptorResponse;
 import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.performance.PerformanceStatisticsForRaptor;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.performance.SearchWindowMetrics;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressPenaltyDecorator;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressRouter;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressType;
@@ -39,6 +42,7 @@ import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 
@@ -133,10 +137,33 @@ public class TransitRouter {
 
     // Route transit
     var raptorService = new RaptorService<>(serverContext.raptorConfig());
-    var transitResponse = raptorService.route(raptorRequest, requestTransitDataProvider);
+    Supplier<RaptorResponse<TripSchedule>> routeTransit = () ->
+      raptorService.route(raptorRequest, requestTransitDataProvider);
+
+    var transitResponse = OTPFeature.RaptorResultCache.isOn()
+      ? transitLayer
+        .getResponseCache()
+        .route(
+          requestTransitDataProvider,
+          raptorRequest,
+          request.from(),
+          request.to(),
+          routeTransit,
+          serverContext.meterRegistry()
+        )
+      : routeTransit.get();
+
+    SearchWindowMetrics.record(
+      transitResponse.requestUsed().searchParams(),
+      serverContext.raptorConfig().searchWindowLatencyController(),
+      serverContext.meterRegistry()
+    );
 
     checkIfTransitConnectionExists(transitResponse);
 
+    if (raptorRequest.searchStatistics() instanceof PerformanceStatisticsForRaptor statistics) {
+      debugTimingAggregator.raptorSearchStatistics(statistics.toDebugOutput());
+    }
     debugTimingAggregator.finishedRaptorSearch();
 
     Collection<RaptorPath<TripSchedule>> paths = transitResponse.paths();
@@ -241,16 +268,33 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
-    var nearbyStops = AccessEgressRouter.streetSearch(
-      accessRequest,
-      temporaryVerticesContainer,
-      serverContext.transitService(),
-      streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      type.isEgress(),
-      durationLimit,
-      stopCountLimit
-    );
+    var dataOverlayContext = serverContext.dataOverlayContext(accessRequest);
+    Supplier<Collection<NearbyStop>> streetSearch = () ->
+      AccessEgressRouter.streetSearch(
+        accessRequest,
+        temporaryVerticesContainer,
+        serverContext.transitService(),
+        streetRequest,
+        dataOverlayContext,
+        type.isEgress(),
+        durationLimit,
+        stopCountLimit
+      );
+
+    var cache = serverContext.accessEgressCache();
+    var nearbyStops = cache == null || dataOverlayContext != null
+      ? streetSearch.get()
+      : cache.get(
+        accessRequest,
+        streetRequest,
+        type.isEgress(),
+        durationLimit,
+        stopCountLimit,
+        type.isEgress()
+          ? temporaryVerticesContainer.getToVertices()
+          : temporaryVerticesContainer.getFromVertices(),
+        streetSearch
+      );
 
     List<DefaultAccessEgress> results = new ArrayList<>(
       AccessEgressMapper.mapNearbyStops(nearbyStops, type.isEgress())
@@ -0,0 +1,130 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.performance;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.opentripplanner.api.resource.RaptorStatisticsOutput;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
+import org.opentripplanner.routing.api.request.RoutingTag;
+import org.opentripplanner.routing.framework.MicrometerUtils;
+
+/**
+ * Record the Raptor round statistics in Micrometer, tagged with the round, and sum them up for
+ * the debug output of the request:
+ * <ul>
+ *   <li>{@code raptor.[prefix].round.routes} - Routes scanned</li>
+ *   <li>{@code raptor.[prefix].round.boardings} - Trips boarded</li>
+ *   <li>{@code raptor.[prefix].round.stops} - Stops reached by transit</li>
+ *   <li>{@code raptor.[prefix].round.transfers} - Transfers relaxed</li>
+ *   <li>{@code raptor.[prefix].round.rejected} - Stop arrivals rejected by the pareto sets</li>
+ *   <li>{@code raptor.[prefix].iteration} - The time used by each iteration(minute)</li>
+ * </ul>
+ * A new instance must be used for each search. The parts of a search with a split search-window
+ * run at the same time and report to the same instance, so the methods are synchronized.
+ */
+public class PerformanceStatisticsForRaptor implements RaptorSearchStatistics {
+
+  private final String namePrefix;
+  private final Collection<RoutingTag> routingTags;
+  private final MeterRegistry registry;
+  private final List<Tag> tags;
+  private final Timer iterationTimer;
+
+  /** The meters for each round, by round */
+  private final List<RoundMeters> roundMeters = new ArrayList<>();
+
+  /** The sum of all iterations, by round */
+  private final List<RaptorRoundStatistics> rounds = new ArrayList<>();
+
+  private int iterations = 0;
+  private long iterationTime = 0;
+
+  public PerformanceStatisticsForRaptor(
+    String namePrefix,
+    Collection<RoutingTag> routingTags,
+    MeterRegistry registry
+  ) {
+    this.namePrefix = namePrefix;
+    this.routingTags = routingTags;
+    this.registry = registry;
+    this.tags = MicrometerUtils.mapTimingTags(routingTags);
+    this.iterationTimer =
+      Timer.builder("raptor." + namePrefix + ".iteration").tags(tags).register(registry);
+  }
+
+  @Override
+  public synchronized void roundComplete(RaptorRoundStatistics round) {
+    roundMeters(round.round()).record(round);
+
+    int index = round.round() - 1;
+    if (index < rounds.size()) {
+      rounds.set(index, rounds.get(index).plus(round));
+    } else {
+      rounds.add(round);
+    }
+  }
+
+  @Override
+  public synchronized void iterationComplete(long durationNanos) {
+    iterationTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    ++iterations;
+    iterationTime += durationNanos;
+  }
+
+  @Override
+  public RaptorSearchStatistics withNamePrefix(String namePrefix) {
+    return new PerformanceStatisticsForRaptor(namePrefix, routingTags, registry);
+  }
+
+  public synchronized RaptorStatisticsOutput toDebugOutput() {
+    return new RaptorStatisticsOutput(iterations, iterationTime, List.copyOf(rounds));
+  }
+
+  private RoundMeters roundMeters(int round) {
+    // Rounds are completed in order, starting with round 1
+    while (roundMeters.size() < round) {
+      roundMeters.add(new RoundMeters(roundMeters.size() + 1));
+    }
+    return roundMeters.get(round - 1);
+  }
+
+  private class RoundMeters {
+
+    private final DistributionSummary routes;
+    private final DistributionSummary boardings;
+    private final DistributionSummary stops;
+    private final DistributionSummary transfers;
+    private final DistributionSummary rejected;
+
+    private RoundMeters(int round) {
+      var roundTags = new ArrayList<>(tags);
+      roundTags.add(Tag.of("round", Integer.toString(round)));
+      this.routes = summary("routes", roundTags);
+      this.boardings = summary("boardings", roundTags);
+      this.stops = summary("stops", roundTags);
+      this.transfers = summary("transfers", roundTags);
+      this.rejected = summary("rejected", roundTags);
+    }
+
+    private void record(RaptorRoundStatistics round) {
+      routes.record(round.routesScanned());
+      boardings.record(round.tripsBoarded());
+      stops.record(round.stopsReachedByTransit());
+      transfers.record(round.transfersRelaxed());
+      rejected.record(round.arrivalsRejected());
+    }
+
+    private DistributionSummary summary(String name, List<Tag> roundTags) {
+      return DistributionSummary
+        .builder("raptor." + namePrefix + ".round." + name)
+        .tags(roundTags)
+        .register(registry);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.performance;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.opentripplanner.raptor.api.request.SearchParams;
+import org.opentripplanner.raptor.rangeraptor.transit.SearchWindowLatencyController;
+
+/**
+ * Record the search-window used by the transit searches, and the state of the
+ * {@link SearchWindowLatencyController}:
+ * <ul>
+ *   <li>{@code raptor.search.window} - The search-window used in seconds.</li>
+ *   <li>{@code raptor.search.window.limit} - The current upper limit for the dynamic
+ *   search-window in seconds.</li>
+ *   <li>{@code raptor.search.window.adjustments} - The number of times the limit is changed.</li>
+ * </ul>
+ */
+public class SearchWindowMetrics {
+
+  private SearchWindowMetrics() {}
+
+  public static void record(
+    SearchParams searchParamsUsed,
+    SearchWindowLatencyController controller,
+    MeterRegistry registry
+  ) {
+    DistributionSummary
+      .builder("raptor.search.window")
+      .description("The search-window used by the transit searches")
+      .baseUnit("seconds")
+      .register(registry)
+      .record(searchParamsUsed.searchWindowInSeconds());
+
+    if (controller.isEnabled()) {
+      // Registering an existing meter returns the registered one, so this is only done once
+      Gauge
+        .builder("raptor.search.window.limit", controller, c -> c.maxWindow().toSeconds())
+        .description("The upper limit for the dynamic search-window")
+        .baseUnit("seconds")
+        .register(registry);
+      FunctionCounter
+        .builder(
+          "raptor.search.window.adjustments",
+          controller,
+          SearchWindowLatencyController::numberOfAdjustments
+        )
+        .description("The number of times the dynamic search-window limit is changed")
+        .register(registry);
+    }
+  }
+}
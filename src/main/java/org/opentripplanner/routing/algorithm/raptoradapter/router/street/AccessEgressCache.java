@@ -0,0 +1,258 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.VehicleRentalPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.api.request.request.filter.VehicleParkingFilterRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Cache the result of the access and egress street searches, so requests from the same place
+ * with the same street preferences can skip the search. This is common when the same origin is
+ * searched again with a different time, transit filters or search window, and for paging.
+ * <p>
+ * The origin is the location in the request, with the coordinate rounded to a grid of
+ * {@link #GRID_CELL_DEGREES}. The key also includes the mode, the street preferences and the
+ * limits of the search. Preferences which only affect transit are not part of the key.
+ * <p>
+ * The states of a search refer to the request which did the search, and to its temporary vertices
+ * and edges at the origin. So the states are not cached, only the paths to the stops found after
+ * the temporary edges, see {@link StreetPathTree}. A request using the cache traverses the paths
+ * again, starting with its own temporary vertices. If a path can not be traversed again, the
+ * search is done again.
+ * <p>
+ * Searches which depend on realtime vehicle rental or parking data are removed from the cache
+ * when the rental or parking updaters apply a new update, see {@link #invalidateRentalModes()}
+ * and {@link #invalidateParkingModes()}.
+ */
+public class AccessEgressCache {
+
+  /** The size of the grid used to match the origin coordinate, about one meter. */
+  private static final double GRID_CELL_DEGREES = 0.00001;
+
+  /**
+   * Each entry keeps the paths to all stops found, so the number of entries is kept low. The
+   * entries expire to limit the memory used by searches which are not repeated.
+   */
+  private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+  private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+  private final Cache<CacheKey, StreetPathTree> cache;
+
+  public AccessEgressCache() {
+    this(DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRE_AFTER_WRITE);
+  }
+
+  public AccessEgressCache(int maximumSize, Duration expireAfterWrite) {
+    this.cache =
+      CacheBuilder
+        .newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(expireAfterWrite)
+        .recordStats()
+        .build();
+  }
+
+  public Cache<?, ?> getCache() {
+    return cache;
+  }
+
+  /**
+   * Return the stops found by traversing the cached paths of the search again, or perform the
+   * search and cache the paths found. The parameters are the same as for
+   * {@link AccessEgressRouter#streetSearch}.
+   *
+   * @param originVertices The vertices of the request to search from, or to if searching from the
+   *                       target.
+   */
+  public Collection<NearbyStop> get(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean fromTarget,
+    Duration durationLimit,
+    int maxStopCount,
+    Set<Vertex> originVertices,
+    Supplier<Collection<NearbyStop>> streetSearch
+  ) {
+    if (!isCacheable(request, streetRequest, fromTarget)) {
+      return streetSearch.get();
+    }
+    var key = CacheKey.of(request, streetRequest, fromTarget, durationLimit, maxStopCount);
+    var paths = cache.getIfPresent(key);
+    if (paths != null) {
+      var result = paths.traverse(
+        originVertices,
+        streetSearchRequest(request, streetRequest, fromTarget)
+      );
+      if (result != null) {
+        return result;
+      }
+    }
+    // Two requests for the same key at the same time may both do the search, this is better
+    // than blocking the second request until the first is done.
+    var result = streetSearch.get();
+    paths = StreetPathTree.of(result);
+    if (paths != null) {
+      cache.put(key, paths);
+    }
+    return result;
+  }
+
+  /** Remove all searches which may use vehicle rental, after the rental data is updated. */
+  public void invalidateRentalModes() {
+    invalidate(StreetMode::includesRenting);
+  }
+
+  /** Remove all searches which may use vehicle parking, after the parking data is updated. */
+  public void invalidateParkingModes() {
+    invalidate(StreetMode::includesParking);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private void invalidate(Predicate<StreetMode> mode) {
+    cache.asMap().keySet().removeIf(key -> mode.test(key.mode()));
+  }
+
+  /** Create the request of the street search, like the {@code StreetSearchBuilder} does. */
+  private static StreetSearchRequest streetSearchRequest(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean fromTarget
+  ) {
+    var streetSearchRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(streetRequest.mode())
+      .withArriveBy(fromTarget)
+      .build();
+    var preferences = streetSearchRequest.preferences().street();
+    streetSearchRequest.setIntersectionTraversalCalculator(
+      IntersectionTraversalCalculator.create(
+        preferences.intersectionTraversalModel(),
+        preferences.drivingDirection()
+      )
+    );
+    return streetSearchRequest;
+  }
+
+  /**
+   * The search can not be cached if it depends on the transit filters of the request, which is
+   * the case when the vehicle to stop heuristics are used.
+   */
+  private static boolean isCacheable(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    boolean fromTarget
+  ) {
+    var location = fromTarget ? request.to() : request.from();
+    return (
+      streetRequest.mode() != StreetMode.NOT_SET &&
+      location != null &&
+      location.isSpecified() &&
+      OTPFeature.VehicleToStopHeuristics.isOff()
+    );
+  }
+
+  /**
+   * The parts of a request which may change the result of an access or egress search.
+   *
+   * @param time The request time is only used for parking, because of the opening hours. It is
+   *             rounded to the minute.
+   */
+  record CacheKey(
+    boolean fromTarget,
+    @Nullable String label,
+    @Nullable FeedScopedId stopId,
+    long latCell,
+    long lonCell,
+    StreetMode mode,
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    CarPreferences car,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences,
+    VehicleRentalPreferences rental,
+    Set<String> allowedRentalNetworks,
+    Set<String> bannedRentalNetworks,
+    boolean allowArrivingInRentedVehicleAtDestination,
+    @Nullable VehicleParkingFilterRequest parkingFilter,
+    @Nullable VehicleParkingFilterRequest preferredParking,
+    int unpreferredParkingCost,
+    boolean useParkingAvailabilityInformation,
+    Duration durationLimit,
+    int maxStopCount,
+    @Nullable Instant time
+  ) {
+    static CacheKey of(
+      RouteRequest request,
+      StreetRequest streetRequest,
+      boolean fromTarget,
+      Duration durationLimit,
+      int maxStopCount
+    ) {
+      GenericLocation location = fromTarget ? request.to() : request.from();
+      StreetMode mode = streetRequest.mode();
+      var preferences = request.preferences();
+      var rental = request.journey().rental();
+      var parking = request.journey().parking();
+      boolean renting = mode.includesRenting();
+      boolean parkingMode = mode.includesParking();
+
+      return new CacheKey(
+        fromTarget,
+        location.label,
+        location.stopId,
+        cell(location.lat),
+        cell(location.lng),
+        mode,
+        request.wheelchair(),
+        preferences.walk(),
+        preferences.bike(),
+        preferences.car(),
+        preferences.street(),
+        request.wheelchair() ? preferences.wheelchair() : WheelchairPreferences.DEFAULT,
+        renting ? preferences.rental() : VehicleRentalPreferences.DEFAULT,
+        renting ? Set.copyOf(rental.allowedNetworks()) : Set.of(),
+        renting ? Set.copyOf(rental.bannedNetworks()) : Set.of(),
+        renting && rental.allowArrivingInRentedVehicleAtDestination(),
+        parkingMode ? parking.filter() : null,
+        parkingMode ? parking.preferred() : null,
+        parkingMode ? parking.unpreferredCost() : 0,
+        parkingMode && parking.useAvailabilityInformation(),
+        durationLimit,
+        maxStopCount,
+        parkingMode ? request.dateTime().truncatedTo(ChronoUnit.MINUTES) : null
+      );
+    }
+
+    private static long cell(@Nullable Double degrees) {
+      return degrees == null ? Long.MIN_VALUE : Math.round(degrees / GRID_CELL_DEGREES);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
 import java.util.Collections;
 import java.util.List;
 import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.model.plan.Itinerary;
@@ -11,6 +12,7 @@ import org.opentripplanner.routing.algorithm.mapping.ItinerariesHelper;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.error.PathNotFoundException;
+import org.opentripplanner.routing.framework.DebugTimingAggregator;
 import org.opentripplanner.routing.impl.GraphPathFinder;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.model.edge.Edge;
@@ -20,7 +22,11 @@ import org.opentripplanner.street.search.state.State;
 
 public class DirectStreetRouter {
 
-  public static List<Itinerary> route(OtpServerRequestContext serverContext, RouteRequest request) {
+  public static List<Itinerary> route(
+    OtpServerRequestContext serverContext,
+    RouteRequest request,
+    DebugTimingAggregator debugTimingAggregator
+  ) {
     if (request.journey().direct().mode() == StreetMode.NOT_SET) {
       return Collections.emptyList();
     }
@@ -42,12 +48,18 @@ public class DirectStreetRouter {
       // we could also get a persistent router-scoped GraphPathFinder but there's no setup cost here
       GraphPathFinder gpFinder = new GraphPathFinder(
         serverContext.traverseVisitor(),
-        serverContext.dataOverlayContext(request)
-      );
-      List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
-        directRequest,
-        temporaryVertices
+        serverContext.dataOverlayContext(request),
+        OTPFeature.CarContractionHierarchy.isOn()
+          ? serverContext.graph().getCarContractionHierarchy()
+          : null,
+        OTPFeature.LandmarkHeuristic.isOn() ? serverContext.graph().getStreetLandmarks() : null
       );
+      List<GraphPath<State, Edge, Vertex>> paths;
+      try {
+        paths = gpFinder.graphPathFinderEntryPoint(directRequest, temporaryVertices);
+      } finally {
+        debugTimingAggregator.directStreetRouterVisitedStates(gpFinder.numberOfVisitedStates());
+      }
 
       // Convert the internal GraphPaths to itineraries
       final GraphPathToItineraryMapper graphPathToItineraryMapper = new GraphPathToItineraryMapper(
@@ -0,0 +1,284 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.TemporaryVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.CarPickupState;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.state.VehicleRentalState;
+import org.opentripplanner.transit.model.site.StopLocation;
+
+/**
+ * The paths of an access or egress search to the stops found, without the states of the search.
+ * The states refer to the request which did the search, and to its temporary vertices and edges.
+ * So only the edges after the temporary part of each path are kept, as a tree rooted at the first
+ * vertex of the graph reached by the paths.
+ * <p>
+ * The paths are used for a new request by traversing the edges again, starting with the temporary
+ * vertices and edges of the new request, see {@link #traverse(Set, StreetSearchRequest)}. So the
+ * states of the result refer to the new request only.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class StreetPathTree {
+
+  private static final int ROOT = -1;
+  private static final int NOT_ADDED = -2;
+
+  /** The number of states to traverse the temporary edges from the origin, before giving up. */
+  private static final int MAX_TEMPORARY_STATES = 1000;
+
+  /** The parent node of each node, or {@link #ROOT}. The parent is before the node. */
+  private final int[] parents;
+
+  /** The edge from the parent to each node, or the vertex of each root node. */
+  private final Object[] edgeOrVertex;
+
+  /** Identifies the state of each node, if an edge can be traversed in more than one way. */
+  private final Branch[] branches;
+
+  private final List<StopLocation> stops;
+
+  /** The node of each stop. */
+  private final int[] stopNodes;
+
+  private StreetPathTree(
+    int[] parents,
+    Object[] edgeOrVertex,
+    Branch[] branches,
+    List<StopLocation> stops,
+    int[] stopNodes
+  ) {
+    this.parents = parents;
+    this.edgeOrVertex = edgeOrVertex;
+    this.branches = branches;
+    this.stops = stops;
+    this.stopNodes = stopNodes;
+  }
+
+  /**
+   * Create the tree of the paths to the given stops.
+   *
+   * @return {@code null} if a path does not leave the temporary vertices of the request for good,
+   * like a path to a stop at a temporary vertex.
+   */
+  @Nullable
+  static StreetPathTree of(Collection<NearbyStop> nearbyStops) {
+    var builder = new Builder();
+    var stops = new ArrayList<StopLocation>();
+    int[] stopNodes = new int[nearbyStops.size()];
+
+    for (NearbyStop nearbyStop : nearbyStops) {
+      if (nearbyStop.state == null) {
+        return null;
+      }
+      int node = builder.add(nearbyStop.state);
+      if (node == NOT_ADDED) {
+        return null;
+      }
+      stopNodes[stops.size()] = node;
+      stops.add(nearbyStop.stop);
+    }
+    return builder.build(stops, stopNodes);
+  }
+
+  /**
+   * Traverse the paths again for a new request, from the given origin vertices of the request.
+   *
+   * @return the stops found with new states, or {@code null} if a path can not be traversed for
+   * the request. Then the search must be done again.
+   */
+  @Nullable
+  List<NearbyStop> traverse(Set<Vertex> originVertices, StreetSearchRequest request) {
+    var rootStates = statesLeavingTemporaryVertices(originVertices, request);
+    if (rootStates == null) {
+      return null;
+    }
+
+    var states = new State[parents.length];
+    for (int node = 0; node < parents.length; ++node) {
+      Collection<State> candidates;
+      if (parents[node] == ROOT) {
+        candidates = rootStates.getOrDefault((Vertex) edgeOrVertex[node], List.of());
+      } else {
+        candidates = List.of(((Edge) edgeOrVertex[node]).traverse(states[parents[node]]));
+      }
+      states[node] = branches[node].select(candidates);
+      if (states[node] == null) {
+        return null;
+      }
+    }
+
+    var result = new ArrayList<NearbyStop>(stops.size());
+    for (int i = 0; i < stops.size(); ++i) {
+      var state = states[stopNodes[i]];
+      if (state.getBackState() != null && !state.isFinal()) {
+        return null;
+      }
+      result.add(NearbyStop.nearbyStopForState(state, stops.get(i)));
+    }
+    return result;
+  }
+
+  int size() {
+    return parents.length;
+  }
+
+  /**
+   * Traverse the temporary edges from the origin vertices, until the vertices of the graph are
+   * reached. The origin vertices may be vertices of the graph, like the vertex of a stop.
+   */
+  @Nullable
+  private static Map<Vertex, List<State>> statesLeavingTemporaryVertices(
+    Set<Vertex> originVertices,
+    StreetSearchRequest request
+  ) {
+    var result = new HashMap<Vertex, List<State>>();
+    var queue = new ArrayDeque<>(State.getInitialStates(originVertices, request));
+    int nTemporaryStates = 0;
+
+    while (!queue.isEmpty()) {
+      var state = queue.poll();
+      var vertex = state.getVertex();
+      if (!(vertex instanceof TemporaryVertex)) {
+        result.computeIfAbsent(vertex, v -> new ArrayList<>()).add(state);
+        continue;
+      }
+      if (++nTemporaryStates > MAX_TEMPORARY_STATES) {
+        return null;
+      }
+      var edges = request.arriveBy() ? vertex.getIncoming() : vertex.getOutgoing();
+      for (Edge edge : edges) {
+        queue.addAll(List.of(edge.traverse(state)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The parts of a state which may differ between the states of an edge traversal, like riding or
+   * walking a bike, or renting a vehicle or not.
+   */
+  private record Branch(
+    @Nullable TraverseMode backMode,
+    boolean backWalkingBike,
+    TraverseMode currentMode,
+    @Nullable VehicleRentalState vehicleRentalState,
+    boolean vehicleParked,
+    @Nullable CarPickupState carPickupState
+  ) {
+    static Branch of(State state) {
+      return new Branch(
+        state.getBackState() == null ? null : state.getBackMode(),
+        state.isBackWalkingBike(),
+        state.currentMode(),
+        state.getVehicleRentalState(),
+        state.isVehicleParked(),
+        state.getCarPickupState()
+      );
+    }
+
+    /** Return the candidate with the lowest weight in this branch, or {@code null}. */
+    @Nullable
+    State select(Collection<State> candidates) {
+      State best = null;
+      for (State candidate : candidates) {
+        if (matches(candidate) && (best == null || candidate.getWeight() < best.getWeight())) {
+          best = candidate;
+        }
+      }
+      return best;
+    }
+
+    private boolean matches(State state) {
+      return (
+        (backMode == null || backMode == state.getBackMode()) &&
+        backWalkingBike == state.isBackWalkingBike() &&
+        currentMode == state.currentMode() &&
+        vehicleRentalState == state.getVehicleRentalState() &&
+        vehicleParked == state.isVehicleParked() &&
+        carPickupState == state.getCarPickupState()
+      );
+    }
+  }
+
+  private static final class Builder {
+
+    private final Map<State, Integer> nodeByState = new IdentityHashMap<>();
+    private final List<Integer> parents = new ArrayList<>();
+    private final List<Object> edgeOrVertex = new ArrayList<>();
+    private final List<Branch> branches = new ArrayList<>();
+
+    /**
+     * Add the path to the state, sharing the nodes already added.
+     *
+     * @return the node of the state, or {@link #NOT_ADDED} if the path can not be added
+     */
+    int add(State state) {
+      var path = new ArrayList<State>();
+      int parent = ROOT;
+
+      for (State s = state; s != null; s = s.getBackState()) {
+        var node = nodeByState.get(s);
+        if (node != null) {
+          parent = node;
+          break;
+        }
+        if (s.getVertex() instanceof TemporaryVertex) {
+          return NOT_ADDED;
+        }
+        path.add(s);
+        // The path starts at the first state after the temporary vertices at the origin
+        var back = s.getBackState();
+        if (back != null && back.getVertex() instanceof TemporaryVertex) {
+          if (!isTemporary(back)) {
+            return NOT_ADDED;
+          }
+          break;
+        }
+      }
+
+      for (int i = path.size() - 1; i >= 0; --i) {
+        State s = path.get(i);
+        nodeByState.put(s, parents.size());
+        edgeOrVertex.add(parent == ROOT ? s.getVertex() : s.getBackEdge());
+        parents.add(parent);
+        branches.add(Branch.of(s));
+        parent = parents.size() - 1;
+      }
+      return parent;
+    }
+
+    StreetPathTree build(List<StopLocation> stops, int[] stopNodes) {
+      return new StreetPathTree(
+        parents.stream().mapToInt(Integer::intValue).toArray(),
+        edgeOrVertex.toArray(),
+        branches.toArray(Branch[]::new),
+        List.copyOf(stops),
+        stopNodes
+      );
+    }
+
+    /** Return true if all the states of the path to the given state are at temporary vertices. */
+    private static boolean isTemporary(State state) {
+      for (State s = state; s != null; s = s.getBackState()) {
+        if (!(s.getVertex() instanceof TemporaryVertex)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
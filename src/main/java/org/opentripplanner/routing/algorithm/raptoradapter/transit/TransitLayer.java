@@ -1,29 +1,54 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.opentripplanner.model.Timetable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestPatternCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorResponseCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.StopModel;
 
 public class TransitLayer {
 
+  /**
+   * The pattern index is large, so only keep the most used search days and filters.
+   */
+  private static final int PATTERN_CACHE_SIZE = 5;
+
+  /**
+   * The responses only keep the paths found, so many can be kept.
+   */
+  private static final int RESPONSE_CACHE_SIZE = 1000;
+
+  /**
+   * Updating the travel duration lower bounds with realtime data visits the whole table, so it is
+   * done on a single background thread, instead of the realtime updater thread. The updates are
+   * chained, so they are done in order.
+   */
+  private static final ExecutorService LOWER_BOUNDS_UPDATER = Executors.newSingleThreadExecutor(
+    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("lower-bounds-updater").build()
+  );
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private final HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -48,14 +73,34 @@ public class TransitLayer {
 
   private final int[] stopBoardAlightCosts;
 
+  /**
+   * The patterns depend on the trip patterns running on each date, so each instance has its own
+   * cache. A copy, like a new realtime transit layer, starts with an empty cache.
+   */
+  private final RaptorRequestPatternCache patternCache;
+
+  /**
+   * The transit search results depend on the trip patterns, so like the pattern cache each instance
+   * has its own cache.
+   */
+  private final RaptorResponseCache responseCache;
+
+  /**
+   * Built in the background from the planned transit data, and shared with all copies until the
+   * copy is updated with realtime data, see {@link #updateTravelDurationLowerBounds(Collection)}.
+   */
+  @Nullable
+  private CompletableFuture<TravelDurationLowerBoundTable> travelDurationLowerBounds;
+
   /**
    * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
    * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * keys and their values in the map. The values are immutable, and an update shares all unchanged
+   * parts with the previous value, see {@link TripPatternsRunningOnDate}.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
-      transitLayer.tripPatternsRunningOnDate,
+      new HashMap<>(transitLayer.tripPatternsRunningOnDate),
       transitLayer.transfersByStopIndex,
       transitLayer.transferService,
       transitLayer.stopModel,
@@ -65,6 +110,7 @@ public class TransitLayer {
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightCosts
     );
+    this.travelDurationLowerBounds = transitLayer.travelDurationLowerBounds;
   }
 
   public TransitLayer(
@@ -78,7 +124,31 @@ public class TransitLayer {
     TransferIndexGenerator transferIndexGenerator,
     int[] stopBoardAlightCosts
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      mapTripPatternsRunningOnDate(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      stopModel,
+      transitDataZoneId,
+      transferCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightCosts
+    );
+  }
+
+  private TransitLayer(
+    HashMap<LocalDate, TripPatternsRunningOnDate> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    StopModel stopModel,
+    ZoneId transitDataZoneId,
+    RaptorRequestTransferCache transferCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    int[] stopBoardAlightCosts
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.stopModel = stopModel;
@@ -87,6 +157,8 @@ public class TransitLayer {
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightCosts = stopBoardAlightCosts;
+    this.patternCache = new RaptorRequestPatternCache(PATTERN_CACHE_SIZE);
+    this.responseCache = new RaptorResponseCache(RESPONSE_CACHE_SIZE);
   }
 
   @Nullable
@@ -95,7 +167,8 @@ public class TransitLayer {
   }
 
   public Collection<TripPatternForDate> getTripPatternsForDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    Collection<TripPatternForDate> tripPatterns = tripPatternsRunningOnDate.get(date);
+    return tripPatterns != null ? tripPatterns : List.of();
   }
 
   /**
@@ -112,14 +185,8 @@ public class TransitLayer {
     return stopModel.stopIndexSize();
   }
 
-  public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
-  }
-
   public List<TripPatternForDate> getTripPatternsStartingOnDateCopy(LocalDate date) {
-    List<TripPatternForDate> tripPatternsRunningOnDate = getTripPatternsRunningOnDateCopy(date);
-    return tripPatternsRunningOnDate
+    return getTripPatternsForDate(date)
       .stream()
       .filter(t -> t.getLocalDate().equals(date))
       .collect(Collectors.toList());
@@ -137,6 +204,14 @@ public class TransitLayer {
     return transferCache;
   }
 
+  public RaptorRequestPatternCache getPatternCache() {
+    return patternCache;
+  }
+
+  public RaptorResponseCache getResponseCache() {
+    return responseCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -151,17 +226,65 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * Return the travel duration lower bounds, or {@code null} if they are not built yet or the
+   * {@link org.opentripplanner.framework.application.OTPFeature#PrecomputedHeuristics} is off.
+   */
+  @Nullable
+  public TravelDurationLowerBoundTable getTravelDurationLowerBounds() {
+    var it = travelDurationLowerBounds;
+    return it != null && it.isDone() && !it.isCompletedExceptionally() ? it.join() : null;
+  }
+
+  /**
+   * Set the travel duration lower bounds being built. This must be done before the transit layer
+   * is copied.
+   */
+  public void setTravelDurationLowerBounds(
+    CompletableFuture<TravelDurationLowerBoundTable> travelDurationLowerBounds
+  ) {
+    this.travelDurationLowerBounds = travelDurationLowerBounds;
+  }
+
+  /**
+   * Update the travel duration lower bounds of this copy with the updated realtime timetables, see
+   * {@link TravelDurationLowerBoundTable#withTimetables(Collection)}. The update is done in the
+   * background, and the lower bounds are not used until it is done. If the lower bounds are not
+   * built yet, they are updated when they are built.
+   */
+  public void updateTravelDurationLowerBounds(Collection<Timetable> updatedTimetables) {
+    if (travelDurationLowerBounds != null) {
+      travelDurationLowerBounds =
+        travelDurationLowerBounds.thenApplyAsync(
+          it -> it == null ? null : it.withTimetables(updatedTimetables),
+          LOWER_BOUNDS_UPDATER
+        );
+    }
+  }
+
+  /**
+   * Remove and add TripPatternForDates for a single date. The TripPatternForDates for the date are
+   * replaced with an updated copy, this is an atomic operation according to the HashMap
+   * implementation. Dates without any TripPatternForDates are not updated.
    */
-  public void replaceTripPatternsForDate(
+  public void updateTripPatternsForDate(
     LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+    Collection<TripPatternForDate> remove,
+    Collection<TripPatternForDate> add
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    this.tripPatternsRunningOnDate.computeIfPresent(date, (d, it) -> it.update(remove, add));
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
     this.constrainedTransfers = constrainedTransfers;
   }
+
+  private static HashMap<LocalDate, TripPatternsRunningOnDate> mapTripPatternsRunningOnDate(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var result = new HashMap<LocalDate, TripPatternsRunningOnDate>();
+    tripPatternsRunningOnDate.forEach((date, tripPatterns) ->
+      result.put(date, TripPatternsRunningOnDate.of(tripPatterns))
+    );
+    return result;
+  }
 }
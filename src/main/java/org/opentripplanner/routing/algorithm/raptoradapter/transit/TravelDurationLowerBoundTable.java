@@ -0,0 +1,511 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.framework.lang.IntUtils;
+import org.opentripplanner.framework.time.DurationUtils;
+import org.opentripplanner.model.Timetable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.StopModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A table with lower bounds for the travel duration between clusters of stops. The stops are
+ * clustered by a grid, the grid cells are made bigger until there are at most
+ * {@link #MAX_CLUSTERS} clusters. The lower bound between two clusters is the shortest duration
+ * from any stop in the first to any stop in the second cluster, in a graph where:
+ * <ul>
+ *   <li>Riding from one stop to the next in a pattern takes the shortest duration of all trips in
+ *   the pattern, not including the dwell time.</li>
+ *   <li>A transfer takes the distance divided by {@link #MAX_TRANSFER_SPEED}.</li>
+ *   <li>Waiting, slack and the number of transfers is ignored.</li>
+ * </ul>
+ * The table is computed with one search for each cluster, so it is built in the background, see
+ * {@link TransitLayer#getTravelDurationLowerBounds()}.
+ * <p>
+ * The table is computed from the planned timetables. Realtime updates may add patterns, or make a
+ * trip faster than planned, so the table is updated with the realtime timetables, see
+ * {@link #withTimetables(Collection)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public class TravelDurationLowerBoundTable implements RaptorTravelDurationLowerBounds {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TravelDurationLowerBoundTable.class);
+
+  private static final int UNREACHED = RaptorConstants.UNREACHED_HIGH;
+  private static final int NO_CLUSTER = -1;
+
+  /** The table size is the number of clusters squared, 2000 clusters use 16 MB */
+  static final int MAX_CLUSTERS = 2000;
+
+  /** About 500 meters */
+  private static final double INITIAL_CELL_SIZE_DEGREES = 0.005;
+
+  /**
+   * The transfer duration depends on the request, so the fastest possible speed (m/s) is used.
+   * This is faster than cycling for most people.
+   */
+  private static final double MAX_TRANSFER_SPEED = 10.0;
+
+  private final int[] clusterByStop;
+  private final int nClusters;
+
+  /** The min duration from cluster {@code i} to cluster {@code j} is at index {@code i*n+j} */
+  private final int[] minDuration;
+
+  /** The shortest duration of the pattern hops between two stops, see {@link #hopKey(int, int)} */
+  private final TLongIntHashMap hopDurations;
+
+  private TravelDurationLowerBoundTable(
+    int[] clusterByStop,
+    int nClusters,
+    int[] minDuration,
+    TLongIntHashMap hopDurations
+  ) {
+    this.clusterByStop = clusterByStop;
+    this.nClusters = nClusters;
+    this.minDuration = minDuration;
+    this.hopDurations = hopDurations;
+  }
+
+  public static TravelDurationLowerBoundTable create(
+    StopModel stopModel,
+    Collection<TripPattern> patterns,
+    List<List<Transfer>> transfersByStopIndex
+  ) {
+    long start = System.currentTimeMillis();
+    int nStops = stopModel.stopIndexSize();
+    var graph = new StopGraph(nStops);
+
+    for (TripPattern pattern : patterns) {
+      forEachHop(pattern, pattern.getScheduledTimetable(), graph::addHop);
+    }
+    for (int from = 0; from < transfersByStopIndex.size(); ++from) {
+      for (Transfer transfer : transfersByStopIndex.get(from)) {
+        int duration = (int) (transfer.getDistanceMeters() / MAX_TRANSFER_SPEED);
+        graph.add(from, transfer.getToStop(), duration);
+      }
+    }
+
+    var coordinates = new WgsCoordinate[nStops];
+    for (int i = 0; i < nStops; ++i) {
+      var stop = stopModel.stopByIndex(i);
+      coordinates[i] = stop == null ? null : stop.getCoordinate();
+    }
+
+    var table = create(coordinates, graph);
+    LOG.info(
+      "Travel duration lower bounds for {} stop clusters computed in {}.",
+      table.nClusters,
+      DurationUtils.msToSecondsStr(System.currentTimeMillis() - start)
+    );
+    return table;
+  }
+
+  static TravelDurationLowerBoundTable create(WgsCoordinate[] coordinates, StopGraph graph) {
+    int[] clusterByStop = clusterStops(coordinates);
+    int nClusters = Arrays.stream(clusterByStop).max().orElse(NO_CLUSTER) + 1;
+
+    var stopsByCluster = new TIntArrayList[nClusters];
+    for (int c = 0; c < nClusters; ++c) {
+      stopsByCluster[c] = new TIntArrayList();
+    }
+    for (int stop = 0; stop < clusterByStop.length; ++stop) {
+      if (clusterByStop[stop] != NO_CLUSTER) {
+        stopsByCluster[clusterByStop[stop]].add(stop);
+      }
+    }
+
+    var minDuration = new int[nClusters * nClusters];
+    graph.index();
+
+    IntStream
+      .range(0, nClusters)
+      .parallel()
+      .forEach(from -> {
+        int[] durations = graph.shortestDurations(stopsByCluster[from].toArray());
+        int offset = from * nClusters;
+        Arrays.fill(minDuration, offset, offset + nClusters, UNREACHED);
+        for (int stop = 0; stop < durations.length; ++stop) {
+          int to = clusterByStop[stop];
+          if (to != NO_CLUSTER && durations[stop] < minDuration[offset + to]) {
+            minDuration[offset + to] = durations[stop];
+          }
+        }
+      });
+
+    return new TravelDurationLowerBoundTable(
+      clusterByStop,
+      nClusters,
+      minDuration,
+      graph.hopDurations
+    );
+  }
+
+  /**
+   * Return a table which is also a lower bound when the given realtime timetables are used. The
+   * hops which are faster than the planned hops between the same stops are added to a copy of the
+   * table, using the bounds to the cluster of the first stop and from the cluster of the second
+   * stop. The result is a lower bound, but it may be lower than if the table was computed again.
+   * Trips removed by realtime updates can not make the travel faster, so they are ignored.
+   * <p>
+   * Adding a hop updates the whole table, so the faster hops are first reduced to the fastest hop
+   * between each pair of clusters. Many realtime hops are between the same clusters, like the hops
+   * of trips catching up with a delay.
+   *
+   * @return this table if there are no faster hops, or {@code null} if a faster hop is at a stop
+   * without a cluster.
+   */
+  @Nullable
+  public TravelDurationLowerBoundTable withTimetables(Collection<Timetable> timetables) {
+    var hops = new TLongIntHashMap(16, 0.5f, 0, UNREACHED);
+    for (Timetable timetable : timetables) {
+      forEachHop(
+        timetable.getPattern(),
+        timetable,
+        (from, to, duration) -> {
+          long key = hopKey(from, to);
+          if (duration < hops.get(key)) {
+            hops.put(key, duration);
+          }
+        }
+      );
+    }
+    return withHops(hops);
+  }
+
+  /** See {@link #withTimetables(Collection)}, the hops are indexed by {@link #hopKey(int, int)}. */
+  @Nullable
+  TravelDurationLowerBoundTable withHops(TLongIntMap hops) {
+    TLongIntHashMap newHopDurations = null;
+    // The fastest new hop between each pair of clusters, indexed like the hops
+    var clusterHops = new TLongIntHashMap(16, 0.5f, 0, UNREACHED);
+
+    for (var it = hops.iterator(); it.hasNext();) {
+      it.advance();
+      if (it.value() >= hopDurations.get(it.key())) {
+        continue;
+      }
+      int from = cluster((int) (it.key() >>> 32));
+      int to = cluster((int) it.key());
+      if (from == NO_CLUSTER || to == NO_CLUSTER) {
+        LOG.warn("A realtime trip serves a stop without a cluster, the lower bounds are not used.");
+        return null;
+      }
+      if (newHopDurations == null) {
+        newHopDurations = new TLongIntHashMap(hopDurations);
+      }
+      newHopDurations.put(it.key(), it.value());
+
+      long clusterKey = hopKey(from, to);
+      if (it.value() < clusterHops.get(clusterKey)) {
+        clusterHops.put(clusterKey, it.value());
+      }
+    }
+    if (newHopDurations == null) {
+      return this;
+    }
+
+    int[] durations = minDuration.clone();
+    for (var it = clusterHops.iterator(); it.hasNext();) {
+      it.advance();
+      addHop(durations, (int) (it.key() >>> 32), (int) it.key(), it.value());
+    }
+    return new TravelDurationLowerBoundTable(clusterByStop, nClusters, durations, newHopDurations);
+  }
+
+  @Override
+  public int[] minTravelDurationToDestination(Collection<RaptorAccessEgress> egressPaths) {
+    int[] egressDurationByCluster = IntUtils.intArray(nClusters, UNREACHED);
+    var egressClusters = new TIntArrayList();
+
+    for (RaptorAccessEgress egress : egressPaths) {
+      int c = cluster(egress.stop());
+      // Nothing is known about stops without a cluster, so no stop can be pruned
+      if (c == NO_CLUSTER) {
+        return new int[clusterByStop.length];
+      }
+      if (egressDurationByCluster[c] == UNREACHED) {
+        egressClusters.add(c);
+      }
+      egressDurationByCluster[c] =
+        Math.min(egressDurationByCluster[c], egress.durationInSeconds());
+    }
+
+    int[] durationByCluster = new int[nClusters];
+    for (int from = 0; from < nClusters; ++from) {
+      int best = UNREACHED;
+      int offset = from * nClusters;
+      for (int i = 0; i < egressClusters.size(); ++i) {
+        int to = egressClusters.get(i);
+        int d = minDuration[offset + to];
+        if (d != UNREACHED) {
+          best = Math.min(best, d + egressDurationByCluster[to]);
+        }
+      }
+      durationByCluster[from] = best;
+    }
+
+    int[] result = new int[clusterByStop.length];
+    for (int stop = 0; stop < result.length; ++stop) {
+      int c = clusterByStop[stop];
+      result[stop] = c == NO_CLUSTER ? 0 : durationByCluster[c];
+    }
+    return result;
+  }
+
+  int numberOfClusters() {
+    return nClusters;
+  }
+
+  private int cluster(int stop) {
+    return stop < clusterByStop.length ? clusterByStop[stop] : NO_CLUSTER;
+  }
+
+  /**
+   * A path from cluster {@code i} to cluster {@code j} using the hop is no faster than the bound
+   * from {@code i} to {@code from}, plus the hop, plus the bound from {@code to} to {@code j}.
+   */
+  private void addHop(int[] durations, int from, int to, int duration) {
+    int[] toFrom = new int[nClusters];
+    for (int i = 0; i < nClusters; ++i) {
+      toFrom[i] = durations[i * nClusters + from];
+    }
+    // Only the clusters reached from the end of the hop can get a lower bound
+    var reached = new TIntArrayList();
+    int[] fromTo = Arrays.copyOfRange(durations, to * nClusters, (to + 1) * nClusters);
+    for (int j = 0; j < nClusters; ++j) {
+      if (fromTo[j] != UNREACHED) {
+        reached.add(j);
+      }
+    }
+
+    for (int i = 0; i < nClusters; ++i) {
+      if (toFrom[i] == UNREACHED) {
+        continue;
+      }
+      int offset = i * nClusters;
+      int d = toFrom[i] + duration;
+      for (int k = 0; k < reached.size(); ++k) {
+        int j = reached.getQuick(k);
+        if (d + fromTo[j] < durations[offset + j]) {
+          durations[offset + j] = d + fromTo[j];
+        }
+      }
+    }
+  }
+
+  private static long hopKey(int fromStop, int toStop) {
+    return ((long) fromStop << 32) | (toStop & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Call the consumer with the shortest duration between each pair of consecutive stops in the
+   * timetable, not including the dwell time.
+   */
+  private static void forEachHop(TripPattern pattern, Timetable timetable, HopConsumer consumer) {
+    int nStops = pattern.numberOfStops();
+
+    for (int pos = 0; pos < nStops - 1; ++pos) {
+      int min = UNREACHED;
+      for (TripTimes tripTimes : timetable.getTripTimes()) {
+        min = Math.min(min, tripTimes.getArrivalTime(pos + 1) - tripTimes.getDepartureTime(pos));
+      }
+      for (var frequency : timetable.getFrequencyEntries()) {
+        var tripTimes = frequency.tripTimes;
+        min = Math.min(min, tripTimes.getArrivalTime(pos + 1) - tripTimes.getDepartureTime(pos));
+      }
+      if (min != UNREACHED) {
+        consumer.accept(
+          pattern.getStop(pos).getIndex(),
+          pattern.getStop(pos + 1).getIndex(),
+          Math.max(0, min)
+        );
+      }
+    }
+  }
+
+  /**
+   * Put the stops in the cells of a grid. The cell size is doubled until there are no more than
+   * {@link #MAX_CLUSTERS} cells with stops.
+   */
+  private static int[] clusterStops(WgsCoordinate[] coordinates) {
+    double cellSize = INITIAL_CELL_SIZE_DEGREES;
+    while (true) {
+      var clusterByCell = new TLongIntHashMap();
+      int[] clusterByStop = IntUtils.intArray(coordinates.length, NO_CLUSTER);
+
+      for (int stop = 0; stop < coordinates.length; ++stop) {
+        var c = coordinates[stop];
+        if (c == null) {
+          continue;
+        }
+        long cell =
+          ((long) Math.floor(c.latitude() / cellSize) << 32) |
+          ((long) Math.floor(c.longitude() / cellSize) & 0xFFFFFFFFL);
+        clusterByStop[stop] = clusterByCell.adjustOrPutValue(cell, 0, clusterByCell.size());
+      }
+      if (clusterByCell.size() <= MAX_CLUSTERS) {
+        return clusterByStop;
+      }
+      cellSize *= 2;
+    }
+  }
+
+  @FunctionalInterface
+  private interface HopConsumer {
+    void accept(int fromStop, int toStop, int duration);
+  }
+
+  /**
+   * A graph with the stops as nodes. The edges are added first, then the graph is indexed before
+   * it is searched.
+   */
+  static final class StopGraph {
+
+    private final int nStops;
+    private final TIntArrayList fromStops = new TIntArrayList();
+    private final TIntArrayList toStops = new TIntArrayList();
+    private final TIntArrayList durations = new TIntArrayList();
+    private final TLongIntHashMap hopDurations = new TLongIntHashMap(16, 0.5f, 0, UNREACHED);
+
+    /** The edges from stop {@code i} are at index {@code edgeIndex[i]} to {@code edgeIndex[i+1]} */
+    @Nullable
+    private int[] edgeIndex;
+
+    private int[] edgeToStop;
+    private int[] edgeDuration;
+
+    StopGraph(int nStops) {
+      this.nStops = nStops;
+    }
+
+    void add(int fromStop, int toStop, int duration) {
+      fromStops.add(fromStop);
+      toStops.add(toStop);
+      durations.add(duration);
+    }
+
+    /** Add a hop between two consecutive stops in a pattern. */
+    void addHop(int fromStop, int toStop, int duration) {
+      add(fromStop, toStop, duration);
+      long key = hopKey(fromStop, toStop);
+      if (duration < hopDurations.get(key)) {
+        hopDurations.put(key, duration);
+      }
+    }
+
+    private void index() {
+      int nEdges = fromStops.size();
+      edgeIndex = new int[nStops + 1];
+      for (int i = 0; i < nEdges; ++i) {
+        ++edgeIndex[fromStops.get(i) + 1];
+      }
+      for (int i = 0; i < nStops; ++i) {
+        edgeIndex[i + 1] += edgeIndex[i];
+      }
+      edgeToStop = new int[nEdges];
+      edgeDuration = new int[nEdges];
+      int[] next = Arrays.copyOf(edgeIndex, nStops);
+      for (int i = 0; i < nEdges; ++i) {
+        int e = next[fromStops.get(i)]++;
+        edgeToStop[e] = toStops.get(i);
+        edgeDuration[e] = durations.get(i);
+      }
+    }
+
+    /**
+     * Dijkstra search from all the given stops, returns the shortest duration to each stop.
+     */
+    private int[] shortestDurations(int[] sources) {
+      int[] best = IntUtils.intArray(nStops, UNREACHED);
+      var queue = new LongHeap();
+      for (int stop : sources) {
+        best[stop] = 0;
+        queue.add(0, stop);
+      }
+      while (!queue.isEmpty()) {
+        long head = queue.poll();
+        int duration = (int) (head >>> 32);
+        int stop = (int) head;
+        if (duration > best[stop]) {
+          continue;
+        }
+        for (int e = edgeIndex[stop]; e < edgeIndex[stop + 1]; ++e) {
+          int to = edgeToStop[e];
+          int d = duration + edgeDuration[e];
+          if (d < best[to]) {
+            best[to] = d;
+            queue.add(d, to);
+          }
+        }
+      }
+      return best;
+    }
+  }
+
+  /**
+   * A binary min-heap of (duration, stop) pairs encoded in a long, to avoid boxing.
+   */
+  private static final class LongHeap {
+
+    private long[] values = new long[64];
+    private int size = 0;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void add(int duration, int stop) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      long v = ((long) duration << 32) | (stop & 0xFFFFFFFFL);
+      int i = size++;
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (values[parent] <= v) {
+          break;
+        }
+        values[i] = values[parent];
+        i = parent;
+      }
+      values[i] = v;
+    }
+
+    long poll() {
+      long head = values[0];
+      long last = values[--size];
+      int i = 0;
+      while (true) {
+        int child = 2 * i + 1;
+        if (child >= size) {
+          break;
+        }
+        if (child + 1 < size && values[child + 1] < values[child]) {
+          ++child;
+        }
+        if (values[child] >= last) {
+          break;
+        }
+        values[i] = values[child];
+        i = child;
+      }
+      values[i] = last;
+      return head;
+    }
+  }
+}
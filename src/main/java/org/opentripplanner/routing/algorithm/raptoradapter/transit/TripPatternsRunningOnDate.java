@@ -0,0 +1,174 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of the {@link TripPatternForDate}s running on one date. The trip patterns are
+ * stored in chunks by pattern index. An update returns a new instance which shares all chunks
+ * without changed trip patterns with this instance, so a realtime update only copies the few
+ * chunks it touches instead of all trip patterns running on the date.
+ * <p>
+ * Two trip patterns for date are the same if they are equal, like in a hash set.
+ */
+public class TripPatternsRunningOnDate extends AbstractCollection<TripPatternForDate> {
+
+  private static final int CHUNK_SIZE_BITS = 6;
+
+  private static final TripPatternForDate[][] NO_CHUNKS = new TripPatternForDate[0][];
+
+  private static final TripPatternsRunningOnDate EMPTY = new TripPatternsRunningOnDate(
+    NO_CHUNKS,
+    0
+  );
+
+  /** The trip patterns by pattern index / chunk size. Empty chunks are {@code null}. */
+  private final TripPatternForDate[][] chunks;
+  private final int size;
+
+  private TripPatternsRunningOnDate(TripPatternForDate[][] chunks, int size) {
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  public static TripPatternsRunningOnDate of(Collection<TripPatternForDate> tripPatterns) {
+    var distinct = new LinkedHashSet<>(tripPatterns);
+    if (distinct.isEmpty()) {
+      return EMPTY;
+    }
+    int[] chunkSizes = new int[1];
+    for (TripPatternForDate it : distinct) {
+      int c = chunkIndex(it);
+      if (c >= chunkSizes.length) {
+        chunkSizes = Arrays.copyOf(chunkSizes, Math.max(c + 1, 2 * chunkSizes.length));
+      }
+      ++chunkSizes[c];
+    }
+    var chunks = new TripPatternForDate[chunkSizes.length][];
+    int[] filled = new int[chunkSizes.length];
+    for (TripPatternForDate it : distinct) {
+      int c = chunkIndex(it);
+      if (chunks[c] == null) {
+        chunks[c] = new TripPatternForDate[chunkSizes[c]];
+      }
+      chunks[c][filled[c]++] = it;
+    }
+    return new TripPatternsRunningOnDate(chunks, distinct.size());
+  }
+
+  /**
+   * Remove and then add the given trip patterns. Trip patterns which are not in this set are not
+   * removed, and trip patterns which are in the set are not added again.
+   *
+   * @return a new set, sharing all unchanged chunks with this set.
+   */
+  public TripPatternsRunningOnDate update(
+    Collection<TripPatternForDate> remove,
+    Collection<TripPatternForDate> add
+  ) {
+    if (remove.isEmpty() && add.isEmpty()) {
+      return this;
+    }
+    int numberOfChunks = chunks.length;
+    for (TripPatternForDate it : add) {
+      numberOfChunks = Math.max(numberOfChunks, chunkIndex(it) + 1);
+    }
+    var result = Arrays.copyOf(chunks, numberOfChunks);
+    int resultSize = size;
+
+    for (TripPatternForDate it : remove) {
+      int c = chunkIndex(it);
+      int index = c < result.length ? indexOf(result[c], it) : -1;
+      if (index >= 0) {
+        result[c] = without(result[c], index);
+        --resultSize;
+      }
+    }
+    for (TripPatternForDate it : add) {
+      int c = chunkIndex(it);
+      if (indexOf(result[c], it) < 0) {
+        result[c] = with(result[c], it);
+        ++resultSize;
+      }
+    }
+    return new TripPatternsRunningOnDate(result, resultSize);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    if (!(o instanceof TripPatternForDate tripPattern)) {
+      return false;
+    }
+    int c = chunkIndex(tripPattern);
+    return c < chunks.length && indexOf(chunks[c], tripPattern) >= 0;
+  }
+
+  @Override
+  public Iterator<TripPatternForDate> iterator() {
+    return new Iterator<>() {
+      private int chunk = 0;
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        while (chunk < chunks.length && (chunks[chunk] == null || index >= chunks[chunk].length)) {
+          ++chunk;
+          index = 0;
+        }
+        return chunk < chunks.length;
+      }
+
+      @Override
+      public TripPatternForDate next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return chunks[chunk][index++];
+      }
+    };
+  }
+
+  private static int chunkIndex(TripPatternForDate tripPattern) {
+    return tripPattern.getTripPattern().patternIndex() >> CHUNK_SIZE_BITS;
+  }
+
+  private static int indexOf(TripPatternForDate[] chunk, TripPatternForDate tripPattern) {
+    if (chunk == null) {
+      return -1;
+    }
+    for (int i = 0; i < chunk.length; ++i) {
+      if (chunk[i] == tripPattern || chunk[i].equals(tripPattern)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static TripPatternForDate[] with(TripPatternForDate[] chunk, TripPatternForDate it) {
+    if (chunk == null) {
+      return new TripPatternForDate[] { it };
+    }
+    var result = Arrays.copyOf(chunk, chunk.length + 1);
+    result[chunk.length] = it;
+    return result;
+  }
+
+  private static TripPatternForDate[] without(TripPatternForDate[] chunk, int index) {
+    if (chunk.length == 1) {
+      return null;
+    }
+    var result = new TripPatternForDate[chunk.length - 1];
+    System.arraycopy(chunk, 0, result, 0, index);
+    System.arraycopy(chunk, index + 1, result, index, chunk.length - index - 1);
+    return result;
+  }
+}
@@ -14,6 +14,7 @@ import org.opentripplanner.raptor.api.request.Optimization;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
 import org.opentripplanner.raptor.rangeraptor.SystemErrDebugLogger;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.performance.PerformanceStatisticsForRaptor;
 import org.opentripplanner.routing.algorithm.raptoradapter.router.performance.PerformanceTimersForRaptor;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -165,6 +166,15 @@ public class RaptorRequestMapper {
         meterRegistry
       )
     );
+    if (OTPFeature.RaptorSearchStatistics.isOn()) {
+      builder.searchStatistics(
+        new PerformanceStatisticsForRaptor(
+          builder.generateAlias(),
+          preferences.system().tags(),
+          meterRegistry
+        )
+      );
+    }
 
     return builder.build();
   }
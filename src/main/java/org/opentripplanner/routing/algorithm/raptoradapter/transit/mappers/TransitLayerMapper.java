@@ -12,12 +12,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TravelDurationLowerBoundTable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
@@ -94,7 +96,7 @@ public class TransitLayerMapper {
 
     LOG.info("Mapping complete.");
 
-    return new TransitLayer(
+    var transitLayer = new TransitLayer(
       tripPatternsByStopByDate,
       transferByStopIndex,
       transitModel.getTransferService(),
@@ -105,6 +107,32 @@ public class TransitLayerMapper {
       transferIndexGenerator,
       createStopTransferCosts(stopModel, tuningParameters)
     );
+
+    if (OTPFeature.PrecomputedHeuristics.isOn()) {
+      transitLayer.setTravelDurationLowerBounds(
+        buildLowerBoundsInBackground(stopModel, allTripPatterns, transferByStopIndex)
+      );
+    }
+    return transitLayer;
+  }
+
+  /**
+   * The lower bounds are only used to speed up the search, so routing starts without them.
+   */
+  private static CompletableFuture<TravelDurationLowerBoundTable> buildLowerBoundsInBackground(
+    StopModel stopModel,
+    Collection<TripPattern> allTripPatterns,
+    List<List<Transfer>> transferByStopIndex
+  ) {
+    return CompletableFuture
+      .supplyAsync(() ->
+        TravelDurationLowerBoundTable.create(stopModel, allTripPatterns, transferByStopIndex)
+      )
+      .whenComplete((it, e) -> {
+        if (e != null) {
+          LOG.error("Failed to compute the travel duration lower bounds.", e);
+        }
+      });
   }
 
   /**
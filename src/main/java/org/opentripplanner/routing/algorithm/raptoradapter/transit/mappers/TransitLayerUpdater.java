@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
@@ -51,8 +52,6 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(
     TransitModel transitModel,
     Map<LocalDate, TIntSet> serviceCodesRunningForDate
@@ -157,13 +156,10 @@ public class TransitLayerUpdater {
     // Now loop through all running period dates of old and new TripPatternsForDate and update
     // the tripPatternsByRunningPeriodDate accordingly
     for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
-
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
+      // Only the TripPatternForDates removed and added are passed on to the transit layer, which
+      // shares the unchanged ones with the previous transit layer.
+      List<TripPatternForDate> removedForDate = new ArrayList<>();
+      List<TripPatternForDate> addedForDate = new ArrayList<>();
 
       for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
         .asMap()
@@ -172,7 +168,7 @@ public class TransitLayerUpdater {
           // Remove old TripPatternForDate for this date if it was valid on this date
           if (oldTripPatternForDate != null) {
             if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
+              removedForDate.add(oldTripPatternForDate);
             }
           }
         }
@@ -194,7 +190,7 @@ public class TransitLayerUpdater {
               .orElse(false);
 
             if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
+              removedForDate.add(tripPatternForDate);
             }
           } else {
             LOG.warn("Could not fetch timetable for {}", pattern);
@@ -209,19 +205,22 @@ public class TransitLayerUpdater {
           // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
           if (newTripPatternForDate != null) {
             if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
+              addedForDate.add(newTripPatternForDate);
             }
           }
         }
       }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+      realtimeTransitLayer.updateTripPatternsForDate(date, removedForDate, addedForDate);
     }
 
     if (transferIndexGenerator != null) {
       realtimeTransitLayer.setConstrainedTransfers(transferIndexGenerator.generateTransfers());
     }
 
+    // The lower bounds are computed from the planned timetables
+    realtimeTransitLayer.updateTravelDurationLowerBounds(updatedTimetables);
+
     // Switch out the reference with the updated realtimeTransitLayer. This is synchronized to
     // guarantee that the reference is set after all the fields have been updated.
     transitModel.setRealtimeTransitLayer(realtimeTransitLayer);
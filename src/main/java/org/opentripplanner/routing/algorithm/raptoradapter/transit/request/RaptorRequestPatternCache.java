@@ -0,0 +1,63 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache the trip patterns filtered and merged for the search days of a request, see
+ * {@link RaptorRoutingRequestTransitDataCreator}. The patterns only depend on the transit layer,
+ * the search days and the {@link TransitDataProviderFilter}, so requests on the same day with the
+ * same filter can share them. Most requests use the default filter.
+ * <p>
+ * There is one cache for each transit layer. A new realtime transit layer starts with an empty
+ * cache, so the cache is dropped when the realtime data is updated.
+ */
+public class RaptorRequestPatternCache {
+
+  private final Cache<CacheKey, PatternIndex> cache;
+
+  public RaptorRequestPatternCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  PatternIndex get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    Supplier<PatternIndex> create
+  ) {
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      // Requests for the same key wait for the first to create the patterns
+      return cache.get(key, create::get);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from pattern cache", e);
+    }
+  }
+
+  /**
+   * The filter must implement equals and hashCode, or else the patterns are only reused for the
+   * same filter instance.
+   */
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+
+  /**
+   * The trip patterns by pattern index, and the index of the active patterns by stop index.
+   */
+  record PatternIndex(List<TripPatternForDates> patternIndex, List<int[]> patternsPerStop) {}
+}
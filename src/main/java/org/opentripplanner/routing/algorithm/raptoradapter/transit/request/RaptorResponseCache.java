@@ -0,0 +1,224 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.MultiCriteriaRequest;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.spi.RaptorSlackProvider;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.GeneralizedCostParameters;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Cache the Raptor responses for identical transit searches, enabled with the
+ * {@link OTPFeature#RaptorResultCache} feature. Two searches are identical if the Raptor requests,
+ * the transit data and the origin and destination are the same, see {@link CacheKey}. A search
+ * repeated by another client, or when paging back to a page already seen, is then only routed
+ * once.
+ * <p>
+ * There is one cache for each transit layer. A new realtime transit layer starts with an empty
+ * cache, so the cache is dropped when the realtime data is updated.
+ * <p>
+ * The number of cache hits and misses are counted in the {@code raptor.response.cache} metric.
+ */
+public class RaptorResponseCache {
+
+  private static final String METRIC_NAME = "raptor.response.cache";
+
+  private final Cache<CacheKey, RaptorResponse<TripSchedule>> cache;
+
+  public RaptorResponseCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Return the cached response for the search, or route the search and cache the response.
+   * Identical searches wait for the first to finish. The stop arrivals are not cached, so
+   * {@link RaptorResponse#getArrivals()} returns {@code null} for the cached response.
+   * <p>
+   * Searches with debugging enabled, or with access or egress with opening hours, are routed
+   * without using the cache.
+   */
+  public RaptorResponse<TripSchedule> route(
+    RaptorRoutingRequestTransitData transitData,
+    RaptorRequest<TripSchedule> request,
+    GenericLocation from,
+    GenericLocation to,
+    Supplier<RaptorResponse<TripSchedule>> route,
+    MeterRegistry meterRegistry
+  ) {
+    return route(transitData.cacheKey(), request, from, to, route, meterRegistry);
+  }
+
+  RaptorResponse<TripSchedule> route(
+    TransitDataKey transitData,
+    RaptorRequest<TripSchedule> request,
+    GenericLocation from,
+    GenericLocation to,
+    Supplier<RaptorResponse<TripSchedule>> route,
+    MeterRegistry meterRegistry
+  ) {
+    var key = CacheKey.of(transitData, request, from, to);
+    if (key == null) {
+      return route.get();
+    }
+    var miss = new AtomicBoolean(false);
+    try {
+      var response = cache.get(
+        key,
+        () -> {
+          miss.set(true);
+          var it = route.get();
+          return new RaptorResponse<>(it.paths(), null, it.requestOriginal(), it.requestUsed());
+        }
+      );
+      count(meterRegistry, miss.get() ? "miss" : "hit");
+      return response;
+    } catch (UncheckedExecutionException e) {
+      // Routing errors are thrown as they are, and are not cached
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from response cache", e);
+    }
+  }
+
+  private static void count(MeterRegistry meterRegistry, String result) {
+    Counter
+      .builder(METRIC_NAME)
+      .description("Raptor response cache hits and misses")
+      .tag("result", result)
+      .register(meterRegistry)
+      .increment();
+  }
+
+  /**
+   * The request parameters the transit data of a search is created from. The transfer index is
+   * compared by identity, the transfer cache returns the same index for requests with the same
+   * transfer parameters.
+   */
+  record TransitDataKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    RaptorTransferIndex transferIndex,
+    RaptorSlackProvider slackProvider,
+    GeneralizedCostParameters costParameters
+  ) {}
+
+  /**
+   * The access and egress are compared by stop, duration, cost and rides. The street part of the
+   * paths returned is the one of the first search, so the origin and destination are part of the
+   * key too.
+   */
+  private record CacheKey(
+    TransitDataKey transitData,
+    RaptorProfile profile,
+    SearchDirection searchDirection,
+    Set<Optimization> optimizations,
+    int earliestDepartureTime,
+    int latestArrivalTime,
+    int searchWindowInSeconds,
+    boolean preferLateArrival,
+    int numberOfAdditionalTransfers,
+    int maxNumberOfTransfers,
+    boolean timetable,
+    boolean constrainedTransfers,
+    List<AccessEgressKey> access,
+    List<AccessEgressKey> egress,
+    MultiCriteriaRequest<TripSchedule> multiCriteria,
+    Place from,
+    Place to
+  ) {
+    @Nullable
+    private static CacheKey of(
+      TransitDataKey transitData,
+      RaptorRequest<TripSchedule> request,
+      GenericLocation from,
+      GenericLocation to
+    ) {
+      var searchParams = request.searchParams();
+      if (
+        !request.debug().stops().isEmpty() ||
+        !request.debug().path().isEmpty() ||
+        searchParams.accessPaths().stream().anyMatch(RaptorAccessEgress::hasOpeningHours) ||
+        searchParams.egressPaths().stream().anyMatch(RaptorAccessEgress::hasOpeningHours)
+      ) {
+        return null;
+      }
+      return new CacheKey(
+        transitData,
+        request.profile(),
+        request.searchDirection(),
+        Set.copyOf(request.optimizations()),
+        searchParams.earliestDepartureTime(),
+        searchParams.latestArrivalTime(),
+        searchParams.searchWindowInSeconds(),
+        searchParams.preferLateArrival(),
+        searchParams.numberOfAdditionalTransfers(),
+        searchParams.maxNumberOfTransfers(),
+        searchParams.timetable(),
+        searchParams.constrainedTransfers(),
+        AccessEgressKey.of(searchParams.accessPaths()),
+        AccessEgressKey.of(searchParams.egressPaths()),
+        request.multiCriteria(),
+        Place.of(from),
+        Place.of(to)
+      );
+    }
+  }
+
+  private record AccessEgressKey(
+    int stop,
+    int durationInSeconds,
+    int generalizedCost,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    private static List<AccessEgressKey> of(Collection<RaptorAccessEgress> paths) {
+      return paths
+        .stream()
+        .map(it ->
+          new AccessEgressKey(
+            it.stop(),
+            it.durationInSeconds(),
+            it.generalizedCost(),
+            it.numberOfRides(),
+            it.stopReachedOnBoard()
+          )
+        )
+        .toList();
+    }
+  }
+
+  /**
+   * The label is part of the key, since the access and egress paths of the cached response are
+   * named from it.
+   */
+  private record Place(String label, Double lat, Double lng, FeedScopedId stopId) {
+    private static Place of(GenericLocation location) {
+      return new Place(location.label, location.lat, location.lng, location.stopId);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import java.time.ZonedDateTime;
 import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.Supplier;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -19,6 +20,7 @@ import org.opentripplanner.raptor.spi.RaptorPathConstrainedTransferSearch;
 import org.opentripplanner.raptor.spi.RaptorRoute;
 import org.opentripplanner.raptor.spi.RaptorSlackProvider;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
 import org.opentripplanner.raptor.util.BitSetIterator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.SlackProvider;
@@ -27,6 +29,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedBoardingSearch;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.CostCalculatorFactory;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.GeneralizedCostParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers.GeneralizedCostParametersMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
@@ -61,6 +64,14 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final ZonedDateTime transitSearchTimeZero;
 
+  private final int additionalPastSearchDays;
+
+  private final int additionalFutureSearchDays;
+
+  private final TransitDataProviderFilter filter;
+
+  private final GeneralizedCostParameters costParameters;
+
   private final RaptorCostCalculator<TripSchedule> generalizedCostCalculator;
 
   private final RaptorSlackProvider slackProvider;
@@ -80,6 +91,9 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.transferService = transitLayer.getTransferService();
     this.transitLayer = transitLayer;
     this.transitSearchTimeZero = transitSearchTimeZero;
+    this.additionalPastSearchDays = additionalPastSearchDays;
+    this.additionalFutureSearchDays = additionalFutureSearchDays;
+    this.filter = filter;
 
     // Delegate to the creator to construct the needed data structures. The code is messy so
     // it is nice to NOT have it in the class. It isolate this code to only be available at
@@ -88,21 +102,38 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       transitLayer,
       transitSearchTimeZero
     );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    Supplier<RaptorRequestPatternCache.PatternIndex> createPatternIndex = () -> {
+      List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter
+      );
+      return new RaptorRequestPatternCache.PatternIndex(
+        transitDataCreator.createPatternIndex(tripPatterns),
+        transitDataCreator.createTripPatternsPerStop(tripPatterns)
+      );
+    };
+    var patterns = OTPFeature.RaptorPatternCache.isOn()
+      ? transitLayer
+        .getPatternCache()
+        .get(
+          transitSearchTimeZero,
+          additionalPastSearchDays,
+          additionalFutureSearchDays,
+          filter,
+          createPatternIndex
+        )
+      : createPatternIndex.get();
+    this.patternIndex = patterns.patternIndex();
+    this.activeTripPatternsPerStop = patterns.patternsPerStop();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
-    var mcCostParams = GeneralizedCostParametersMapper.map(request, patternIndex);
+    this.costParameters = GeneralizedCostParametersMapper.map(request, patternIndex);
 
     this.generalizedCostCalculator =
       CostCalculatorFactory.createCostCalculator(
-        mcCostParams,
+        costParameters,
         transitLayer.getStopBoardAlightCosts()
       );
 
@@ -126,6 +157,21 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
       );
   }
 
+  /**
+   * The parameters this transit data is created from, see {@link RaptorResponseCache}.
+   */
+  RaptorResponseCache.TransitDataKey cacheKey() {
+    return new RaptorResponseCache.TransitDataKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter,
+      transferIndex,
+      slackProvider,
+      costParameters
+    );
+  }
+
   @Override
   public Iterator<RaptorTransfer> getTransfersFromStop(int stopIndex) {
     return transferIndex.getForwardTransfers(stopIndex).iterator();
@@ -241,4 +287,10 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  @Nullable
+  @Override
+  public RaptorTravelDurationLowerBounds travelDurationLowerBounds() {
+    return transitLayer.getTravelDurationLowerBounds();
+  }
 }
@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -179,4 +181,40 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     }
     return result;
   }
+
+  /**
+   * Two filters are equal if they filter the transit data in the same way. The wheelchair
+   * preferences are only compared if wheelchair is enabled.
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RouteRequestTransitDataProviderFilter that = (RouteRequestTransitDataProviderFilter) o;
+    return (
+      requireBikesAllowed == that.requireBikesAllowed &&
+      wheelchairEnabled == that.wheelchairEnabled &&
+      (!wheelchairEnabled || wheelchairPreferences.equals(that.wheelchairPreferences)) &&
+      includePlannedCancellations == that.includePlannedCancellations &&
+      includeRealtimeCancellations == that.includeRealtimeCancellations &&
+      bannedTrips.equals(that.bannedTrips) &&
+      Arrays.equals(filters, that.filters)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      requireBikesAllowed,
+      wheelchairEnabled,
+      includePlannedCancellations,
+      includeRealtimeCancellations,
+      bannedTrips,
+      Arrays.hashCode(filters)
+    );
+  }
 }
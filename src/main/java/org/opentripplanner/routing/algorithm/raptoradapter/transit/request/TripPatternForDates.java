@@ -41,17 +41,18 @@ public class TripPatternForDates
   private final boolean isFrequencyBased;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The trips are stored first
+   * The arrival times in a [nStops][numberOfTripSchedules] sized array. The trips are stored first
    * by the stop position and then by trip index, so with stops 1 and 2, and trips A and B, the
-   * order is [1A, 1B, 2A, 2B]
+   * order is [[1A, 1B], [2A, 2B]]. The arrival times at a stop position is one contiguous array,
+   * which the trip search can use directly.
    */
-  private final int[] arrivalTimes;
+  private final int[][] arrivalTimes;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The order is the same as in
-   * arrivalTimes.
+   * The departure times in a [nStops][numberOfTripSchedules] sized array. The order is the same
+   * as in arrivalTimes.
    */
-  private final int[] departureTimes;
+  private final int[][] departureTimes;
 
   private final Accessibility[] wheelchairBoardings;
 
@@ -87,16 +88,16 @@ public class TripPatternForDates
     wheelchairBoardings = new Accessibility[numberOfTripSchedules];
 
     final int nStops = tripPattern.numberOfStopsInPattern();
-    this.arrivalTimes = new int[nStops * numberOfTripSchedules];
-    this.departureTimes = new int[nStops * numberOfTripSchedules];
+    this.arrivalTimes = new int[nStops][numberOfTripSchedules];
+    this.departureTimes = new int[nStops][numberOfTripSchedules];
     int i = 0;
     for (int d = 0; d < this.tripPatternForDates.length; d++) {
       int offset = this.offsets[d];
       for (var trip : this.tripPatternForDates[d].tripTimes()) {
         wheelchairBoardings[i] = trip.getWheelchairAccessibility();
         for (int s = 0; s < nStops; s++) {
-          this.arrivalTimes[s * numberOfTripSchedules + i] = trip.getArrivalTime(s) + offset;
-          this.departureTimes[s * numberOfTripSchedules + i] = trip.getDepartureTime(s) + offset;
+          this.arrivalTimes[s][i] = trip.getArrivalTime(s) + offset;
+          this.departureTimes[s][i] = trip.getDepartureTime(s) + offset;
         }
         i++;
       }
@@ -202,25 +203,21 @@ public class TripPatternForDates
   }
 
   @Override
-  public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> arrivalTimes[base + index];
+  public int[] getArrivalTimes(int stopPositionInPattern) {
+    return arrivalTimes[stopPositionInPattern];
   }
 
   @Override
-  public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    final int base = stopPositionInPattern * numberOfTripSchedules;
-    return (int index) -> departureTimes[base + index];
+  public int[] getDepartureTimes(int stopPositionInPattern) {
+    return departureTimes[stopPositionInPattern];
   }
 
   public IntUnaryOperator getArrivalTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
+    return (int stopPositionInPattern) -> arrivalTimes[stopPositionInPattern][index];
   }
 
   public IntUnaryOperator getDepartureTimesForTrip(int index) {
-    return (int stopPositionInPattern) ->
-      departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
+    return (int stopPositionInPattern) -> departureTimes[stopPositionInPattern][index];
   }
 
   @Override
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
@@ -33,7 +32,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
   private int latestAlightTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator arrivalTimes;
+  private int[] arrivalTimes;
 
   private T candidateTrip;
   private int candidateTripIndex = RaptorConstants.NOT_FOUND;
@@ -165,7 +164,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
   @Nullable
   private RaptorBoardOrAlightEvent<T> findBoardingSearchForwardInTime(int tripIndexLowerBound) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
+      if (arrivalTimes[i] <= latestAlightTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too late. We can break out of the loop since
@@ -190,7 +189,7 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
     final int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (arrivalTimes.applyAsInt(i) <= latestAlightTime) {
+      if (arrivalTimes[i] <= latestAlightTime) {
         candidateTrip = timetable.getTripSchedule(i);
         candidateTripIndex = i;
         return this;
@@ -213,14 +212,12 @@ public final class TripScheduleAlightSearch<T extends RaptorTripSchedule>
 
     // Do a binary search to find where to start the search.
     // We IGNORE if the trip schedule is in service.
+    // The loop is written without branches, so the JIT compiler can use conditional moves.
     while (upper - lower > binarySearchThreshold) {
-      int m = (lower + upper) / 2;
-
-      if (arrivalTimes.applyAsInt(m) <= latestAlightTime) {
-        lower = m;
-      } else {
-        upper = m;
-      }
+      int m = (lower + upper) >>> 1;
+      boolean before = arrivalTimes[m] <= latestAlightTime;
+      lower = before ? m : lower;
+      upper = before ? upper : m;
     }
     return lower;
   }
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import javax.annotation.Nonnull;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.raptor.api.model.RaptorConstants;
@@ -18,7 +17,8 @@ import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
  * <p/>
  * The search use a binary search if the number of trip schedules is above a given threshold. A
  * linear search is slow when the number of schedules is very large, let say more than 300 trip
- * schedules.
+ * schedules. The departure times at the stop are read directly from the precomputed array in the
+ * timetable, see {@link TripSearchTimetable#getDepartureTimes(int)}.
  *
  * @param <T> The TripSchedule type defined by the user of the raptor API.
  */
@@ -31,7 +31,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
 
   private int earliestBoardTime;
   private int stopPositionInPattern;
-  private IntUnaryOperator departureTimes;
+  private int[] departureTimes;
 
   private T candidateTrip;
   private int candidateTripIndex = RaptorConstants.NOT_FOUND;
@@ -168,7 +168,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     int tripIndexUpperBound
   ) {
     for (int i = tripIndexUpperBound - 1; i >= 0; --i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
+      if (departureTimes[i] >= earliestBoardTime) {
         candidateTripIndex = i;
       } else {
         // this trip arrives too early. We can break out of the loop since
@@ -193,7 +193,7 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     final int tripIndexLowerBound
   ) {
     for (int i = tripIndexLowerBound; i < nTrips; ++i) {
-      if (departureTimes.applyAsInt(i) >= earliestBoardTime) {
+      if (departureTimes[i] >= earliestBoardTime) {
         candidateTrip = timetable.getTripSchedule(i);
         candidateTripIndex = i;
         return this;
@@ -214,14 +214,12 @@ public final class TripScheduleBoardSearch<T extends RaptorTripSchedule>
     int lower = 0, upper = nTrips;
 
     // Do a binary search to find where to start the search.
+    // The loop is written without branches, so the JIT compiler can use conditional moves.
     while (upper - lower > binarySearchThreshold) {
-      int m = (lower + upper) / 2;
-
-      if (departureTimes.applyAsInt(m) >= earliestBoardTime) {
-        upper = m;
-      } else {
-        lower = m;
-      }
+      int m = (lower + upper) >>> 1;
+      boolean after = departureTimes[m] >= earliestBoardTime;
+      upper = after ? m : upper;
+      lower = after ? lower : m;
     }
     return upper == nTrips ? nTrips : upper + 1;
   }
@@ -1,6 +1,5 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
-import java.util.function.IntUnaryOperator;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
 import org.opentripplanner.raptor.spi.RaptorTimeTable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
@@ -15,15 +14,16 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 public interface TripSearchTimetable<T extends RaptorTripSchedule> extends RaptorTimeTable<T> {
   /**
    * Get the arrival times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the arrival time as
-   * seconds from midnight on the search date.
+   * array is indexed by the trip index in the TimeTable and contains the arrival time as seconds
+   * from midnight on the search date. The array is precomputed and shared, do not modify it.
    */
-  IntUnaryOperator getArrivalTimes(int stopPositionInPattern);
+  int[] getArrivalTimes(int stopPositionInPattern);
 
   /**
    * Get the departure times of all trips at a specific stop index, sorted by time. The returned
-   * function takes the trip index in the TimeTable as input and returns the departure time as
-   * seconds from midnight on the search date.
+   * array is indexed by the trip index in the TimeTable and contains the departure time as
+   * seconds from midnight on the search date. The array is precomputed and shared, do not modify
+   * it.
    */
-  IntUnaryOperator getDepartureTimes(int stopPositionInPattern);
+  int[] getDepartureTimes(int stopPositionInPattern);
 }
@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.model.modes.AllowTransitModeFilter;
 import org.opentripplanner.transit.model.basic.MainAndSubMode;
@@ -94,6 +95,28 @@ public class SelectRequest implements Serializable {
     );
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SelectRequest that = (SelectRequest) o;
+    return (
+      Objects.equals(transportModes, that.transportModes) &&
+      agencies.equals(that.agencies) &&
+      groupOfRoutes.equals(that.groupOfRoutes) &&
+      Objects.equals(routes, that.routes)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(transportModes, agencies, groupOfRoutes, routes);
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder
@@ -56,6 +56,23 @@ public class VehicleParkingFilterRequest {
     return false;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    VehicleParkingFilterRequest that = (VehicleParkingFilterRequest) o;
+    return Arrays.equals(not, that.not) && Arrays.equals(select, that.select);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(not) + Arrays.hashCode(select);
+  }
+
   @Override
   public String toString() {
     return ToStringBuilder
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import org.opentripplanner.api.resource.DebugOutput;
+import org.opentripplanner.api.resource.RaptorStatisticsOutput;
 import org.opentripplanner.api.resource.TransitTimingOutput;
 import org.opentripplanner.routing.api.request.RoutingTag;
 import org.slf4j.Logger;
@@ -29,6 +30,7 @@ public class DebugTimingAggregator {
   private final Clock clock;
 
   private final Timer directStreetRouterTimer;
+  private final DistributionSummary directStreetVisitedStatesDistribution;
   private final Timer directFlexRouterTimer;
 
   private final Timer accessTimer;
@@ -51,6 +53,7 @@ public class DebugTimingAggregator {
   private final List<String> messages = new ArrayList<>();
   private Timer.Sample startedDirectStreetRouter;
   private long directStreetRouterTime;
+  private int directStreetVisitedStates;
   private Timer.Sample startedDirectFlexRouter;
   private long directFlexRouterTime;
   private Timer.Sample finishedPatternFiltering;
@@ -74,6 +77,7 @@ public class DebugTimingAggregator {
   private long filteringTime;
   private long renderingTime;
   private long requestTotalTime;
+  private RaptorStatisticsOutput raptorStatistics;
 
   /**
    * Record the time when we first began calculating a path for this request. Note that timings will
@@ -106,6 +110,11 @@ public class DebugTimingAggregator {
     accessTimer = Timer.builder("routing.access").tags(tags).register(registry);
     directFlexRouterTimer = Timer.builder("routing.directFlex").tags(tags).register(registry);
     directStreetRouterTimer = Timer.builder("routing.directStreet").tags(tags).register(registry);
+    directStreetVisitedStatesDistribution =
+      DistributionSummary
+        .builder("routing.directStreet.visitedStates")
+        .tags(tags)
+        .register(registry);
   }
 
   public DebugTimingAggregator() {
@@ -136,6 +145,12 @@ public class DebugTimingAggregator {
     directStreetRouterTime = startedDirectStreetRouter.stop(directStreetRouterTimer);
   }
 
+  /** Record the number of states visited by the direct street router search. */
+  public void directStreetRouterVisitedStates(int visitedStates) {
+    this.directStreetVisitedStates = visitedStates;
+    directStreetVisitedStatesDistribution.record(visitedStates);
+  }
+
   /** Record the time when starting the direct flex router search. */
   public void startedDirectFlexRouter() {
     startedDirectFlexRouter = Timer.start(clock);
@@ -213,6 +228,13 @@ public class DebugTimingAggregator {
     raptorSearchTime = finishedAccessEgress.stop(raptorSearchTimer);
   }
 
+  /**
+   * Record the statistics of the main raptor search, if collected.
+   */
+  public void raptorSearchStatistics(RaptorStatisticsOutput raptorStatistics) {
+    this.raptorStatistics = raptorStatistics;
+  }
+
   /**
    * Record the time when we have created internal itinerary objects from the raptor responses.
    */
@@ -239,7 +261,10 @@ public class DebugTimingAggregator {
 
     finishedRouters = Timer.start(clock);
     if (directStreetRouterTime > 0) {
-      log("├  Direct street routing", directStreetRouterTime);
+      log(
+        "├  Direct street routing (" + directStreetVisitedStates + " visited states)",
+        directStreetRouterTime
+      );
     }
     if (directFlexRouterTime > 0) {
       log("├  Direct flex routing", directFlexRouterTime);
@@ -296,7 +321,8 @@ public class DebugTimingAggregator {
         accessEgressTime,
         raptorSearchTime,
         itineraryCreationTime
-      )
+      ),
+      raptorStatistics
     );
   }
 
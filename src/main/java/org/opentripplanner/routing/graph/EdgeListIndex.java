@@ -0,0 +1,134 @@
+package org.opentripplanner.routing.graph;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * The incoming and outgoing edge lists of all vertices in compressed sparse row (CSR) form. The
+ * edge lists of the vertices are transient, so this index is serialized together with the edges.
+ * After deserialization the exact size of each edge list is known, and all lists are restored in
+ * one parallel pass - instead of adding one edge at the time, which copy the array for every edge.
+ * <p>
+ * The edges of vertex {@code v} are the edges with index
+ * {@code outgoing[outgoingOffsets[v]] ... outgoing[outgoingOffsets[v + 1] - 1]} in the edge list,
+ * and the same for the incoming edges.
+ */
+class EdgeListIndex implements Serializable {
+
+  private final Vertex[] vertices;
+  private final int[] outgoingOffsets;
+  private final int[] outgoing;
+  private final int[] incomingOffsets;
+  private final int[] incoming;
+
+  private EdgeListIndex(
+    Vertex[] vertices,
+    int[] outgoingOffsets,
+    int[] outgoing,
+    int[] incomingOffsets,
+    int[] incoming
+  ) {
+    this.vertices = vertices;
+    this.outgoingOffsets = outgoingOffsets;
+    this.outgoing = outgoing;
+    this.incomingOffsets = incomingOffsets;
+    this.incoming = incoming;
+  }
+
+  /**
+   * Create the index for the given edges. The graph vertices are indexed first; vertices
+   * referenced by an edge, but not part of the graph, are added at the end.
+   */
+  static EdgeListIndex create(Collection<Vertex> graphVertices, List<Edge> edges) {
+    List<Vertex> vertices = new ArrayList<>(graphVertices);
+    Map<Vertex, Integer> vertexIndex = new IdentityHashMap<>(vertices.size());
+    for (Vertex v : vertices) {
+      vertexIndex.put(v, vertexIndex.size());
+    }
+
+    int[] from = new int[edges.size()];
+    int[] to = new int[edges.size()];
+    for (int i = 0; i < edges.size(); ++i) {
+      from[i] = index(vertexIndex, vertices, edges.get(i).getFromVertex());
+      to[i] = index(vertexIndex, vertices, edges.get(i).getToVertex());
+    }
+
+    int[] outgoingOffsets = new int[vertices.size() + 1];
+    int[] incomingOffsets = new int[vertices.size() + 1];
+    return new EdgeListIndex(
+      vertices.toArray(Vertex[]::new),
+      outgoingOffsets,
+      sortByVertex(from, outgoingOffsets),
+      incomingOffsets,
+      sortByVertex(to, incomingOffsets)
+    );
+  }
+
+  /**
+   * Set the edge lists of all vertices. The given edges must be in the same order as when the
+   * index was created.
+   */
+  void restore(List<Edge> edges) {
+    Edge[] edgeArray = edges.toArray(Edge[]::new);
+    IntStream
+      .range(0, vertices.length)
+      .parallel()
+      .forEach(v ->
+        vertices[v].initEdgeLists(
+            edges(edgeArray, outgoing, outgoingOffsets[v], outgoingOffsets[v + 1]),
+            edges(edgeArray, incoming, incomingOffsets[v], incomingOffsets[v + 1])
+          )
+      );
+  }
+
+  int numberOfVertices() {
+    return vertices.length;
+  }
+
+  /* private methods */
+
+  private static int index(Map<Vertex, Integer> vertexIndex, List<Vertex> vertices, Vertex v) {
+    return vertexIndex.computeIfAbsent(
+      v,
+      it -> {
+        vertices.add(it);
+        return vertices.size() - 1;
+      }
+    );
+  }
+
+  /**
+   * Counting sort of the edge indexes by vertex. The {@code offsets} are filled in, and the edge
+   * indexes grouped by vertex are returned. The edge order of each vertex is kept.
+   */
+  private static int[] sortByVertex(int[] vertexOfEdge, int[] offsets) {
+    for (int v : vertexOfEdge) {
+      ++offsets[v + 1];
+    }
+    for (int v = 1; v < offsets.length; ++v) {
+      offsets[v] += offsets[v - 1];
+    }
+    int[] next = Arrays.copyOf(offsets, offsets.length - 1);
+    int[] edgeIndexes = new int[vertexOfEdge.length];
+    for (int e = 0; e < vertexOfEdge.length; ++e) {
+      edgeIndexes[next[vertexOfEdge[e]]++] = e;
+    }
+    return edgeIndexes;
+  }
+
+  private static Edge[] edges(Edge[] edges, int[] edgeIndexes, int start, int end) {
+    Edge[] result = new Edge[end - start];
+    for (int i = start; i < end; ++i) {
+      result[i - start] = edges[edgeIndexes[i]];
+    }
+    return result;
+  }
+}
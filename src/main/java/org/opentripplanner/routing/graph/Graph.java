@@ -25,8 +25,10 @@ import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
 import org.opentripplanner.routing.services.notes.StreetNotesService;
 import org.opentripplanner.routing.vehicle_parking.VehicleParkingService;
+import org.opentripplanner.street.model.ch.ContractionHierarchy;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.landmark.StreetLandmarks;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
@@ -58,6 +60,12 @@ public class Graph implements Serializable {
 
   private transient StreetIndex streetIndex;
 
+  /**
+   * The number of vertex indexes assigned, see {@link #indexVertices()}. Zero if the vertices are
+   * not indexed.
+   */
+  private transient int vertexIndexSize = 0;
+
   //ConvexHull of all the graph vertices. Generated at Graph build time.
   private Geometry convexHull = null;
 
@@ -114,6 +122,12 @@ public class Graph implements Serializable {
   public DataOverlayParameterBindings dataOverlayParameterBindings;
   private LuceneIndex luceneIndex;
 
+  /** Precomputed for car routing if the CarContractionHierarchy feature is on when building. */
+  private ContractionHierarchy carContractionHierarchy;
+
+  /** Precomputed for street routing if the LandmarkHeuristic feature is on when building. */
+  private StreetLandmarks streetLandmarks;
+
   @Inject
   public Graph(
     Deduplicator deduplicator,
@@ -147,6 +161,9 @@ public class Graph implements Serializable {
         );
       }
     }
+    if (old != v) {
+      indexNewVertex(v);
+    }
   }
 
   /**
@@ -243,6 +260,26 @@ public class Graph implements Serializable {
     }
   }
 
+  /**
+   * Assign a dense index to all vertices in the graph, see {@link Vertex#getIndex()}. Vertices added
+   * after this are given the next free index.
+   */
+  public synchronized void indexVertices() {
+    int index = 0;
+    for (Vertex v : vertices.values()) {
+      v.setIndex(index++);
+    }
+    vertexIndexSize = index;
+  }
+
+  /**
+   * The number of vertex indexes assigned. All indexed vertices have an index less than this, but
+   * removed vertices leave gaps.
+   */
+  public synchronized int vertexIndexSize() {
+    return vertexIndexSize;
+  }
+
   public int countVertices() {
     return vertices.size();
   }
@@ -272,6 +309,7 @@ public class Graph implements Serializable {
    */
   public void index(StopModel stopModel) {
     LOG.info("Index street model...");
+    indexVertices();
     streetIndex = new StreetIndex(this, stopModel);
     LOG.info("Index street model complete.");
   }
@@ -369,9 +407,33 @@ public class Graph implements Serializable {
     this.luceneIndex = luceneIndex;
   }
 
+  @Nullable
+  public ContractionHierarchy getCarContractionHierarchy() {
+    return carContractionHierarchy;
+  }
+
+  public void setCarContractionHierarchy(ContractionHierarchy carContractionHierarchy) {
+    this.carContractionHierarchy = carContractionHierarchy;
+  }
+
+  @Nullable
+  public StreetLandmarks getStreetLandmarks() {
+    return streetLandmarks;
+  }
+
+  public void setStreetLandmarks(StreetLandmarks streetLandmarks) {
+    this.streetLandmarks = streetLandmarks;
+  }
+
   private void indexIfNotIndexed(StopModel stopModel) {
     if (streetIndex == null) {
       index(stopModel);
     }
   }
+
+  private synchronized void indexNewVertex(Vertex v) {
+    if (vertexIndexSize > 0) {
+      v.setIndex(vertexIndexSize++);
+    }
+  }
 }
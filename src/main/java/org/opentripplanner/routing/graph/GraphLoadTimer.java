@@ -0,0 +1,69 @@
+package org.opentripplanner.routing.graph;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.opentripplanner.framework.time.DurationUtils;
+
+/**
+ * Measure the time spent in each phase of loading a serialized graph. The phase times are logged
+ * and published as Micrometer gauges, tagged with the phase name.
+ */
+class GraphLoadTimer {
+
+  private static final String METRIC_NAME = "graph.load.phase";
+
+  /** The gauges are registered once, and updated each time a graph is loaded. */
+  private static final Map<String, AtomicLong> GAUGES = new ConcurrentHashMap<>();
+
+  private final Map<String, Long> phases = new LinkedHashMap<>();
+  private final long startTime;
+  private long lapTime;
+
+  GraphLoadTimer() {
+    this.startTime = System.currentTimeMillis();
+    this.lapTime = startTime;
+  }
+
+  /** Record the time since the previous phase ended as the time spent in the given phase. */
+  void phaseComplete(String phase) {
+    long now = System.currentTimeMillis();
+    long timeMs = now - lapTime;
+    lapTime = now;
+    phases.merge(phase, timeMs, Long::sum);
+    gauge(phase).set(timeMs);
+  }
+
+  long totalTimeMs() {
+    return lapTime - startTime;
+  }
+
+  /** A summary like "read 4.2 seconds, edgeLists 0.31 seconds" */
+  String summary() {
+    return phases
+      .entrySet()
+      .stream()
+      .map(e -> e.getKey() + " " + DurationUtils.msToSecondsStr(e.getValue()))
+      .collect(Collectors.joining(", "));
+  }
+
+  private static AtomicLong gauge(String phase) {
+    return GAUGES.computeIfAbsent(
+      phase,
+      it -> {
+        var value = new AtomicLong();
+        TimeGauge
+          .builder(METRIC_NAME, value, TimeUnit.MILLISECONDS, AtomicLong::get)
+          .description("Time spent in each phase of the most recent graph load")
+          .tag("phase", it)
+          .register(Metrics.globalRegistry);
+        return value;
+      }
+    );
+  }
+}
@@ -13,14 +13,16 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.framework.geometry.CompactElevationProfile;
 import org.opentripplanner.framework.lang.OtpNumberFormat;
 import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.framework.time.DurationUtils;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.model.projectinfo.GraphFileHeader;
 import org.opentripplanner.model.projectinfo.OtpProjectInfo;
@@ -29,7 +31,7 @@ import org.opentripplanner.service.worldenvelope.WorldEnvelopeRepository;
 import org.opentripplanner.standalone.config.BuildConfig;
 import org.opentripplanner.standalone.config.RouterConfig;
 import org.opentripplanner.street.model.edge.Edge;
-import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.model.edge.MappedStreetGeometry;
 import org.opentripplanner.transit.model.basic.SubMode;
 import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
@@ -55,7 +57,10 @@ public class SerializedGraphObject implements Serializable {
   public final Graph graph;
   public final TransitModel transitModel;
   public final WorldEnvelopeRepository worldEnvelopeRepository;
-  private final Collection<Edge> edges;
+  private final List<Edge> edges;
+
+  /** The vertex edge lists, restored after deserialization. */
+  private final EdgeListIndex edgeListIndex;
 
   /**
    * The config JSON used to build this graph. Allows checking whether the configuration has
@@ -76,6 +81,12 @@ public class SerializedGraphObject implements Serializable {
   private final int stopLocationCounter;
   private final int routingTripPatternCounter;
 
+  /**
+   * If {@code true} the street edge geometries are written in a separate section after the
+   * serialized object, see {@link MappedStreetGeometry}.
+   */
+  private final boolean mappedStreetGeometry;
+
   public SerializedGraphObject(
     Graph graph,
     TransitModel transitModel,
@@ -85,7 +96,8 @@ public class SerializedGraphObject implements Serializable {
     DataImportIssueSummary issueSummary
   ) {
     this.graph = graph;
-    this.edges = graph.getEdges();
+    this.edges = new ArrayList<>(graph.getEdges());
+    this.edgeListIndex = EdgeListIndex.create(graph.getVertices(), edges);
     this.transitModel = transitModel;
     this.worldEnvelopeRepository = worldEnvelopeRepository;
     this.buildConfig = buildConfig;
@@ -94,6 +106,7 @@ public class SerializedGraphObject implements Serializable {
     this.allTransitSubModes = SubMode.listAllCachedSubModes();
     this.stopLocationCounter = StopLocation.indexCounter();
     this.routingTripPatternCounter = RoutingTripPattern.indexCounter();
+    this.mappedStreetGeometry = OTPFeature.MappedStreetGeometry.isOn();
   }
 
   public static void verifyTheOutputGraphIsWritableIfDataSourceExist(DataSource graphOutput) {
@@ -113,12 +126,12 @@ public class SerializedGraphObject implements Serializable {
   }
 
   public static SerializedGraphObject load(DataSource source) {
-    return load(source.asInputStream(), source.path());
+    return load(source.asInputStream(), source.path(), localUncompressedFile(source));
   }
 
   public static SerializedGraphObject load(File file) {
     try {
-      return load(new FileInputStream(file), file.getAbsolutePath());
+      return load(new FileInputStream(file), file.getAbsolutePath(), file);
     } catch (FileNotFoundException e) {
       LOG.error("Graph file not found: " + file, e);
       throw new OtpAppException(e.getMessage());
@@ -128,18 +141,11 @@ public class SerializedGraphObject implements Serializable {
   /**
    * After deserialization, the vertices will all have null outgoing and incoming edge lists because
    * those edge lists are marked transient, to prevent excessive recursion depth while serializing.
-   * This method will reconstruct all those edge lists after deserialization.
+   * This method will reconstruct all those edge lists after deserialization, using the
+   * {@link EdgeListIndex} serialized with the edges.
    */
   public void reconstructEdgeLists() {
-    for (Vertex v : graph.getVertices()) {
-      v.initEdgeLists();
-    }
-    for (Edge e : edges) {
-      Vertex fromVertex = e.getFromVertex();
-      Vertex toVertex = e.getToVertex();
-      fromVertex.addOutgoing(e);
-      toVertex.addIncoming(e);
-    }
+    edgeListIndex.restore(edges);
   }
 
   /**
@@ -155,10 +161,15 @@ public class SerializedGraphObject implements Serializable {
 
   /* private methods */
 
-  private static SerializedGraphObject load(InputStream inputStream, String sourceDescription) {
+  private static SerializedGraphObject load(
+    InputStream inputStream,
+    String sourceDescription,
+    @Nullable File localFile
+  ) {
     // TODO store version information, halt load if versions mismatch
     try (inputStream) {
       LOG.info("Reading graph from '{}'", sourceDescription);
+      var timer = new GraphLoadTimer();
       Input input = new Input(inputStream);
 
       validateGraphSerializationId(
@@ -168,17 +179,36 @@ public class SerializedGraphObject implements Serializable {
 
       Kryo kryo = KryoBuilder.create();
       SerializedGraphObject serObj = (SerializedGraphObject) kryo.readClassAndObject(input);
+      timer.phaseComplete("read");
       SubMode.deserializeSubModeCache(serObj.allTransitSubModes);
       StopLocation.initIndexCounter(serObj.stopLocationCounter);
       RoutingTripPattern.initIndexCounter(serObj.routingTripPatternCounter);
       CompactElevationProfile.setDistanceBetweenSamplesM(
         serObj.graph.getDistanceBetweenElevationSamples()
       );
+      if (serObj.mappedStreetGeometry) {
+        MappedStreetGeometry.load(input, input.total(), localFile);
+        LOG.info(
+          "Street geometries {} from '{}'",
+          localFile == null ? "read" : "memory-mapped",
+          sourceDescription
+        );
+        timer.phaseComplete("streetGeometry");
+      }
       LOG.debug("Graph read.");
       serObj.reconstructEdgeLists();
+      serObj.graph.indexVertices();
+      timer.phaseComplete("edgeLists");
       serObj.transitModel.getStopModel().reindexAfterDeserialization();
+      timer.phaseComplete("stopIndex");
       serObj.transitModel.index();
+      timer.phaseComplete("transitIndex");
       logSerializationCompleteStatus(serObj.graph, serObj.transitModel);
+      LOG.info(
+        "Graph load time {}: {}",
+        DurationUtils.msToSecondsStr(timer.totalTimeMs()),
+        timer.summary()
+      );
       return serObj;
     } catch (IOException e) {
       LOG.error("IO exception while loading graph: {}", e.getLocalizedMessage(), e);
@@ -217,6 +247,18 @@ public class SerializedGraphObject implements Serializable {
     );
   }
 
+  /**
+   * Return the file if the data source is an uncompressed file on the local file system, which
+   * can be memory-mapped.
+   */
+  @Nullable
+  private static File localUncompressedFile(DataSource source) {
+    if (!"file".equals(source.uri().getScheme()) || source.name().endsWith(".gz")) {
+      return null;
+    }
+    return new File(source.uri());
+  }
+
   private static void validateGraphSerializationId(byte[] header, String sourceName) {
     var expFileHeader = projectInfo().graphFileHeaderInfo;
     var graphFileHeader = GraphFileHeader.parse(header);
@@ -241,7 +283,22 @@ public class SerializedGraphObject implements Serializable {
     Kryo kryo = KryoBuilder.create();
     Output output = new Output(outputStream);
     output.write(OtpProjectInfo.projectInfo().graphFileHeaderInfo.header());
-    kryo.writeClassAndObject(output, this);
+    if (mappedStreetGeometry) {
+      var geometry = MappedStreetGeometry.detach(edges);
+      try {
+        kryo.writeClassAndObject(output, this);
+        geometry.write(output);
+        LOG.info("Street geometries written: {}", geometry.size());
+      } catch (IOException e) {
+        throw new KryoException(e);
+      } finally {
+        geometry.reattach();
+      }
+    } else {
+      // The graph may be loaded from a file with mapped geometries
+      MappedStreetGeometry.attachMapped(edges);
+      kryo.writeClassAndObject(output, this);
+    }
     output.close();
     LOG.info("Graph written: {}", graphName);
     // Summarize serialized classes and associated serializers to stdout:
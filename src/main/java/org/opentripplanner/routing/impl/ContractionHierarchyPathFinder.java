@@ -0,0 +1,196 @@
+package org.opentripplanner.routing.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.ch.ContractionHierarchy;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.edge.TemporaryEdge;
+import org.opentripplanner.street.model.edge.TemporaryFreeEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Find a direct car path using the {@link ContractionHierarchy} of the graph. The hierarchy only
+ * contains the permanent street network, so the temporary edges of the request are followed to
+ * find the vertices where the path enters and leaves the hierarchy.
+ * <p>
+ * The hierarchy is built with fixed weights, so the path found is traversed with the request to
+ * create the states, and to find the real time and cost. If the request can not be answered using
+ * the hierarchy, or the path can not be traversed - because of a turn restriction or a street
+ * removed from the graph after it was built - no path is returned, and the caller should do a
+ * normal street search.
+ */
+class ContractionHierarchyPathFinder {
+
+  /** The maximum number of temporary edges between the origin and the hierarchy. */
+  private static final int MAX_TEMPORARY_EDGES = 4;
+
+  private final ContractionHierarchy ch;
+
+  ContractionHierarchyPathFinder(ContractionHierarchy ch) {
+    this.ch = ch;
+  }
+
+  @Nullable
+  GraphPath<State, Edge, Vertex> findPath(RouteRequest request, Set<Vertex> from, Set<Vertex> to) {
+    if (request.journey().direct().mode() != StreetMode.CAR) {
+      return null;
+    }
+    var origins = accessToHierarchy(from, to, true);
+    var destinations = accessToHierarchy(to, from, false);
+    if (origins == null || destinations == null) {
+      return null;
+    }
+
+    var path = ch.findPath(weights(origins), weights(destinations));
+    if (path == null) {
+      return null;
+    }
+    var origin = origins.get(path.from());
+    var destination = destinations.get(path.to());
+
+    List<Edge> edges = new ArrayList<>(origin.edges());
+    edges.addAll(path.edges());
+    edges.addAll(destination.edges());
+
+    var state = traverse(request, origin.start(), destination.start(), edges);
+    if (state == null) {
+      return null;
+    }
+    var maxDuration = request.preferences().street().maxDirectDuration().valueOf(StreetMode.CAR);
+    if (state.getElapsedTimeSeconds() > maxDuration.toSeconds()) {
+      return null;
+    }
+    return new GraphPath<>(state);
+  }
+
+  /**
+   * Follow the temporary edges from the given vertices to the vertices in the hierarchy. Return
+   * {@code null} if one of the vertices on the other side of the search is reached, the path does
+   * not use the hierarchy in this case.
+   */
+  @Nullable
+  private Map<Vertex, Access> accessToHierarchy(
+    Set<Vertex> vertices,
+    Set<Vertex> otherSide,
+    boolean forward
+  ) {
+    Map<Vertex, Access> result = new HashMap<>();
+    var queue = new ArrayDeque<Access>();
+    for (Vertex v : vertices) {
+      queue.add(new Access(v, v, 0, List.of()));
+    }
+    while (!queue.isEmpty()) {
+      var access = queue.poll();
+      var vertex = access.vertex();
+      if (otherSide.contains(vertex)) {
+        return null;
+      }
+      if (ch.contains(vertex)) {
+        result.merge(vertex, access, (a, b) -> a.weight() <= b.weight() ? a : b);
+        continue;
+      }
+      if (access.edges().size() == MAX_TEMPORARY_EDGES) {
+        continue;
+      }
+      for (Edge e : forward ? vertex.getOutgoing() : vertex.getIncoming()) {
+        int weight = temporaryEdgeWeight(e);
+        if (weight >= 0) {
+          var next = forward ? e.getToVertex() : e.getFromVertex();
+          queue.add(access.extend(e, next, weight, forward));
+        }
+      }
+    }
+    return result;
+  }
+
+  /** The weight of a temporary edge, or -1 if it is not a temporary edge a car may use. */
+  private static int temporaryEdgeWeight(Edge edge) {
+    if (!(edge instanceof TemporaryEdge)) {
+      return -1;
+    }
+    if (edge instanceof TemporaryFreeEdge) {
+      return 0;
+    }
+    if (edge instanceof StreetEdge streetEdge && ContractionHierarchy.includes(streetEdge)) {
+      return ContractionHierarchy.weight(streetEdge);
+    }
+    return -1;
+  }
+
+  private static Map<Vertex, Integer> weights(Map<Vertex, Access> access) {
+    Map<Vertex, Integer> result = new HashMap<>();
+    access.forEach((v, a) -> result.put(v, a.weight()));
+    return result;
+  }
+
+  /**
+   * Traverse the edges in the direction of the search, and return the last state. The edges must
+   * still be in the graph.
+   */
+  @Nullable
+  private static State traverse(RouteRequest request, Vertex from, Vertex to, List<Edge> edges) {
+    var preferences = request.preferences().street();
+    var streetRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(StreetMode.CAR)
+      .withArriveBy(request.arriveBy())
+      .build();
+    streetRequest.setIntersectionTraversalCalculator(
+      IntersectionTraversalCalculator.create(
+        preferences.intersectionTraversalModel(),
+        preferences.drivingDirection()
+      )
+    );
+
+    if (request.arriveBy()) {
+      edges = new ArrayList<>(edges);
+      Collections.reverse(edges);
+    }
+    var state = new State(request.arriveBy() ? to : from, streetRequest);
+    for (Edge edge : edges) {
+      if (!edge.getFromVertex().getOutgoing().contains(edge)) {
+        return null;
+      }
+      var next = edge.traverse(state);
+      if (State.isEmpty(next)) {
+        return null;
+      }
+      state = next[0];
+    }
+    return state;
+  }
+
+  /**
+   * The temporary edges from a vertex of the request to a vertex in the hierarchy.
+   *
+   * @param start  the vertex of the request
+   * @param vertex the last vertex reached
+   * @param edges  the edges in driving order
+   */
+  private record Access(Vertex start, Vertex vertex, int weight, List<Edge> edges) {
+    Access extend(Edge edge, Vertex to, int edgeWeight, boolean forward) {
+      var list = new ArrayList<Edge>(edges.size() + 1);
+      if (forward) {
+        list.addAll(edges);
+        list.add(edge);
+      } else {
+        list.add(edge);
+        list.addAll(edges);
+      }
+      return new Access(start, to, weight + edgeWeight, list);
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.opentripplanner.routing.impl;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -15,13 +16,16 @@ import org.opentripplanner.framework.application.OTPRequestTimeoutException;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.preference.StreetPreferences;
 import org.opentripplanner.routing.error.PathNotFoundException;
+import org.opentripplanner.street.model.ch.ContractionHierarchy;
 import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.landmark.StreetLandmarks;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
+import org.opentripplanner.street.search.strategy.LandmarkRemainingWeightHeuristic;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,6 +60,14 @@ public class GraphPathFinder {
 
   private final DataOverlayContext dataOverlayContext;
 
+  @Nullable
+  private final ContractionHierarchy carContractionHierarchy;
+
+  @Nullable
+  private final StreetLandmarks streetLandmarks;
+
+  private int numberOfVisitedStates = 0;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null);
   }
@@ -63,9 +75,42 @@ public class GraphPathFinder {
   public GraphPathFinder(
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext
+  ) {
+    this(traverseVisitor, dataOverlayContext, null);
+  }
+
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    @Nullable ContractionHierarchy carContractionHierarchy
+  ) {
+    this(traverseVisitor, dataOverlayContext, carContractionHierarchy, null);
+  }
+
+  /**
+   * @param carContractionHierarchy if not null, it is used to find car paths when possible, see
+   *                                {@link ContractionHierarchyPathFinder}.
+   * @param streetLandmarks         if not null, it is used to estimate the remaining weight in the
+   *                                street search, see {@link LandmarkRemainingWeightHeuristic}.
+   */
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    @Nullable ContractionHierarchy carContractionHierarchy,
+    @Nullable StreetLandmarks streetLandmarks
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
+    this.carContractionHierarchy = carContractionHierarchy;
+    this.streetLandmarks = streetLandmarks;
+  }
+
+  /**
+   * The number of states visited by the street search. This is zero if the path was found without
+   * a street search, using the contraction hierarchy.
+   */
+  public int numberOfVisitedStates() {
+    return numberOfVisitedStates;
   }
 
   /**
@@ -77,11 +122,25 @@ public class GraphPathFinder {
     Set<Vertex> from,
     Set<Vertex> to
   ) {
+    // The contraction hierarchy does not know about data overlays, and can not be visualized
+    if (carContractionHierarchy != null && dataOverlayContext == null && traverseVisitor == null) {
+      var path = new ContractionHierarchyPathFinder(carContractionHierarchy)
+        .findPath(request, from, to);
+      if (path != null) {
+        LOG.debug("Path found using the car contraction hierarchy");
+        return new ArrayList<>(List.of(path));
+      }
+    }
+
     StreetPreferences preferences = request.preferences().street();
 
     StreetSearchBuilder aStar = StreetSearchBuilder
       .of()
-      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setHeuristic(
+        streetLandmarks == null
+          ? new EuclideanRemainingWeightHeuristic()
+          : new LandmarkRemainingWeightHeuristic(streetLandmarks)
+      )
       .setSkipEdgeStrategy(
         new DurationSkipEdgeStrategy(
           preferences.maxDirectDuration().valueOf(request.journey().direct().mode())
@@ -107,6 +166,7 @@ public class GraphPathFinder {
     LOG.debug("BEGIN SEARCH");
 
     List<GraphPath<State, Edge, Vertex>> paths = aStar.getPathsToTarget();
+    numberOfVisitedStates = aStar.numberOfVisitedStates();
 
     LOG.debug("we have {} paths", paths.size());
     LOG.debug("END SEARCH ({} msec)", System.currentTimeMillis() - searchBeginTime);
@@ -6,7 +6,11 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
@@ -17,6 +21,7 @@ import org.locationtech.jts.linearref.LocationIndexedLine;
 import org.locationtech.jts.operation.distance.DistanceOp;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.framework.geometry.HashGridSpatialIndex;
 import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.EdgeSpatialIndex;
@@ -77,6 +82,12 @@ public class VertexLinker {
   // TODO Temporary code until we refactor WalkableAreaBuilder  (#3152)
   private boolean addExtraEdgesToAreas = true;
 
+  /**
+   * The changes to the permanent index while a batch of vertices is linked, see
+   * {@link #linkVerticesPermanently}. This is null when no batch is linked.
+   */
+  private IndexChanges indexChanges = null;
+
   /**
    * Construct a new VertexLinker. NOTE: Only one VertexLinker should be active on a graph at any
    * given time.
@@ -97,6 +108,59 @@ public class VertexLinker {
     link(vertex, traverseModes, direction, Scope.PERMANENT, edgeFunction);
   }
 
+  /**
+   * Link the vertices permanently into the street graph. The result is the same as calling
+   * {@link #linkVertexPermanently} for each vertex in the given order, but the search for the
+   * street edges to link to is done in parallel.
+   * <p>
+   * Searching the spatial index and calculating the distance to each candidate edge is the
+   * expensive part of linking, while splitting the closest edges is cheap. So, the candidate edges
+   * of all vertices are found in parallel first, while the index is only read. Then the vertices
+   * are linked one by one in the given order. The edges inserted into and removed from the index
+   * by the previous splits are applied to the candidate edges of each vertex, before the closest
+   * edges are split. Each vertex is therefore linked to the same edges as if the vertices were
+   * linked sequentially.
+   *
+   * @param linked Called after each vertex is linked, in the given order.
+   */
+  public <T extends Vertex> void linkVerticesPermanently(
+    List<T> vertices,
+    Function<T, TraverseModeSet> traverseModes,
+    LinkingDirection direction,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    Consumer<T> linked
+  ) {
+    List<CandidateSearch> searches = vertices
+      .parallelStream()
+      .map(v -> searchCandidateEdges(v, traverseModes.apply(v)))
+      .toList();
+
+    indexChanges = new IndexChanges();
+    try {
+      for (int i = 0; i < vertices.size(); ++i) {
+        T vertex = vertices.get(i);
+        TraverseModeSet modes = traverseModes.apply(vertex);
+        CandidateSearch search = searches.get(i);
+        link(
+          vertex,
+          modes,
+          direction,
+          Scope.PERMANENT,
+          edgeFunction,
+          radiusMeters -> {
+            var candidates = search.candidateEdges(radiusMeters);
+            return candidates == null
+              ? findCandidateEdges(vertex, modes, Scope.PERMANENT, radiusMeters)
+              : updateCandidateEdges(vertex, modes, radiusMeters, candidates);
+          }
+        );
+        linked.accept(vertex);
+      }
+    } finally {
+      indexChanges = null;
+    }
+  }
+
   public DisposableEdgeCollection linkVertexForRealTime(
     Vertex vertex,
     TraverseModeSet traverseModes,
@@ -119,6 +183,9 @@ public class VertexLinker {
     // Edges without geometry will not have been added to the index in the first place
     if (edge.getGeometry() != null) {
       edgeSpatialIndex.remove(edge.getGeometry().getEnvelopeInternal(), edge, scope);
+      if (indexChanges != null && scope == Scope.PERMANENT) {
+        indexChanges.removed.add(edge);
+      }
     }
   }
 
@@ -178,6 +245,27 @@ public class VertexLinker {
     LinkingDirection direction,
     Scope scope,
     BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction
+  ) {
+    return link(
+      vertex,
+      traverseModes,
+      direction,
+      scope,
+      edgeFunction,
+      radiusMeters -> findCandidateEdges(vertex, traverseModes, scope, radiusMeters)
+    );
+  }
+
+  /**
+   * @param candidateSearch Find the candidate edges within the given radius in meters.
+   */
+  private DisposableEdgeCollection link(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    LinkingDirection direction,
+    Scope scope,
+    BiFunction<Vertex, StreetVertex, List<Edge>> edgeFunction,
+    IntFunction<List<DistanceTo<StreetEdge>>> candidateSearch
   ) {
     DisposableEdgeCollection tempEdges = (scope != Scope.PERMANENT)
       ? new DisposableEdgeCollection(graph, scope)
@@ -189,7 +277,7 @@ public class VertexLinker {
         traverseModes,
         direction,
         scope,
-        INITIAL_SEARCH_RADIUS_METERS,
+        candidateSearch.apply(INITIAL_SEARCH_RADIUS_METERS),
         tempEdges
       );
       if (streetVertices.isEmpty()) {
@@ -199,7 +287,7 @@ public class VertexLinker {
             traverseModes,
             direction,
             scope,
-            MAX_SEARCH_RADIUS_METERS,
+            candidateSearch.apply(MAX_SEARCH_RADIUS_METERS),
             tempEdges
           );
       }
@@ -227,36 +315,14 @@ public class VertexLinker {
     TraverseModeSet traverseModes,
     LinkingDirection direction,
     Scope scope,
-    int radiusMeters,
+    List<DistanceTo<StreetEdge>> candidateEdges,
     DisposableEdgeCollection tempEdges
   ) {
-    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
-
-    Envelope env = new Envelope(vertex.getCoordinate());
-
-    // Perform a simple local equirectangular projection, so distances are expressed in degrees latitude.
-    final double xscale = Math.cos(vertex.getLat() * Math.PI / 180);
-
-    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
-    env.expandBy(radiusDeg / xscale, radiusDeg);
-
-    // Perform several transformations at once on the edges returned by the index. Only consider
-    // street edges traversable by at least one of the given modes and are still present in the
-    // graph. Calculate a distance to each of those edges, and keep only the ones within the search
-    // radius.
-    List<DistanceTo<StreetEdge>> candidateEdges = edgeSpatialIndex
-      .query(env, scope)
-      .filter(StreetEdge.class::isInstance)
-      .map(StreetEdge.class::cast)
-      .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
-      .map(e -> new DistanceTo<>(e, distance(vertex, e, xscale)))
-      .filter(ead -> ead.distanceDegreesLat < radiusDeg)
-      .toList();
-
     if (candidateEdges.isEmpty()) {
       return Set.of();
     }
 
+    final double xscale = xScale(vertex);
     Set<DistanceTo<StreetEdge>> closestEdges = getClosestEdgesPerMode(
       traverseModes,
       candidateEdges
@@ -269,6 +335,112 @@ public class VertexLinker {
       .collect(Collectors.toSet());
   }
 
+  /**
+   * Find the street edges within the radius, traversable by at least one of the given modes.
+   */
+  private List<DistanceTo<StreetEdge>> findCandidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    Scope scope,
+    int radiusMeters
+  ) {
+    return candidateEdges(
+      vertex,
+      traverseModes,
+      radiusMeters,
+      edgeSpatialIndex.query(searchEnvelope(vertex, radiusMeters), scope)
+    );
+  }
+
+  /**
+   * Search for the candidate edges of a vertex, first within the initial radius, and then within
+   * the max radius if no edges are found. This only reads the index, and is safe to call from
+   * many threads as long as the index is not modified.
+   */
+  private CandidateSearch searchCandidateEdges(Vertex vertex, TraverseModeSet traverseModes) {
+    var initial = findCandidateEdges(
+      vertex,
+      traverseModes,
+      Scope.PERMANENT,
+      INITIAL_SEARCH_RADIUS_METERS
+    );
+    var max = initial.isEmpty()
+      ? findCandidateEdges(vertex, traverseModes, Scope.PERMANENT, MAX_SEARCH_RADIUS_METERS)
+      : null;
+    return new CandidateSearch(initial, max);
+  }
+
+  /**
+   * Apply the changes to the index since the candidate edges were found: remove the edges no
+   * longer in the index, and add the inserted edges the index would return for the search
+   * envelope.
+   */
+  private List<DistanceTo<StreetEdge>> updateCandidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    int radiusMeters,
+    List<DistanceTo<StreetEdge>> candidateEdges
+  ) {
+    // Each permanent split removes the original edge, so nothing is inserted either
+    if (indexChanges.removed.isEmpty()) {
+      return candidateEdges;
+    }
+    Set<Edge> removed = indexChanges.removed;
+    Stream<Edge> inserted = indexChanges.inserted
+      .query(searchEnvelope(vertex, radiusMeters))
+      .stream()
+      .filter(e -> !removed.contains(e));
+
+    return Stream
+      .concat(
+        candidateEdges.stream().filter(ce -> !removed.contains(ce.item)),
+        candidateEdges(vertex, traverseModes, radiusMeters, inserted).stream()
+      )
+      .toList();
+  }
+
+  /**
+   * Perform several transformations at once on the edges returned by the index. Only consider
+   * street edges traversable by at least one of the given modes and are still present in the
+   * graph. Calculate a distance to each of those edges, and keep only the ones within the search
+   * radius.
+   */
+  private static List<DistanceTo<StreetEdge>> candidateEdges(
+    Vertex vertex,
+    TraverseModeSet traverseModes,
+    int radiusMeters,
+    Stream<Edge> edges
+  ) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+    final double xscale = xScale(vertex);
+
+    return edges
+      .filter(StreetEdge.class::isInstance)
+      .map(StreetEdge.class::cast)
+      .filter(e -> e.canTraverse(traverseModes) && e.isReachableFromGraph())
+      .map(e -> new DistanceTo<>(e, distance(vertex, e, xscale)))
+      .filter(ead -> ead.distanceDegreesLat < radiusDeg)
+      .toList();
+  }
+
+  private static Envelope searchEnvelope(Vertex vertex, int radiusMeters) {
+    final double radiusDeg = SphericalDistanceLibrary.metersToDegrees(radiusMeters);
+
+    Envelope env = new Envelope(vertex.getCoordinate());
+
+    // Expand more in the longitude direction than the latitude direction to account for converging meridians.
+    env.expandBy(radiusDeg / xScale(vertex), radiusDeg);
+    return env;
+  }
+
+  /**
+   * Perform a simple local equirectangular projection, so distances are expressed in degrees
+   * latitude.
+   */
+  private static double xScale(Vertex vertex) {
+    return Math.cos(vertex.getLat() * Math.PI / 180);
+  }
+
   /**
    * We need to get the closest edges per mode to be sure that we are linking to edges traversable
    * by all the specified modes. We use a set here to avoid duplicates in the case that edges are
@@ -436,10 +608,10 @@ public class VertexLinker {
     if (scope == Scope.REALTIME || scope == Scope.PERMANENT) {
       // update indices of new edges
       if (newEdges.head() != null) {
-        edgeSpatialIndex.insert(newEdges.head().getGeometry(), newEdges.head(), scope);
+        insertEdgeIntoIndex(newEdges.head(), scope);
       }
       if (newEdges.tail() != null) {
-        edgeSpatialIndex.insert(newEdges.tail().getGeometry(), newEdges.tail(), scope);
+        insertEdgeIntoIndex(newEdges.tail(), scope);
       }
 
       if (scope == Scope.PERMANENT) {
@@ -456,6 +628,13 @@ public class VertexLinker {
     return v;
   }
 
+  private void insertEdgeIntoIndex(StreetEdge edge, Scope scope) {
+    edgeSpatialIndex.insert(edge.getGeometry(), edge, scope);
+    if (indexChanges != null && scope == Scope.PERMANENT) {
+      indexChanges.inserted.insert(edge.getGeometry(), edge);
+    }
+  }
+
   private SplitterVertex splitVertex(
     StreetEdge originalEdge,
     Scope scope,
@@ -485,6 +664,31 @@ public class VertexLinker {
     return v;
   }
 
+  /**
+   * The candidate edges within the initial radius, and within the max radius if there are none
+   * within the initial radius.
+   */
+  private record CandidateSearch(
+    List<DistanceTo<StreetEdge>> initial,
+    List<DistanceTo<StreetEdge>> max
+  ) {
+    /** Return the candidate edges within the radius, or null if they were not searched for. */
+    List<DistanceTo<StreetEdge>> candidateEdges(int radiusMeters) {
+      return radiusMeters == INITIAL_SEARCH_RADIUS_METERS ? initial : max;
+    }
+  }
+
+  /**
+   * The edges inserted into and removed from the permanent index. The inserted edges are indexed
+   * with the same grid as the permanent index, so a query returns the same inserted edges as a
+   * query on the permanent index.
+   */
+  private static class IndexChanges {
+
+    final HashGridSpatialIndex<Edge> inserted = new HashGridSpatialIndex<>();
+    final Set<Edge> removed = new HashSet<>();
+  }
+
   private static class DistanceTo<T> {
 
     T item;
@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.api;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
 import java.util.Locale;
+import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.dataoverlay.routing.DataOverlayContext;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
@@ -11,6 +12,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -94,6 +96,13 @@ public interface OtpServerRequestContext {
 
   MeterRegistry meterRegistry();
 
+  /**
+   * The access/egress street search cache shared by all requests, {@code null} if the
+   * AccessEgressCache feature is off.
+   */
+  @Nullable
+  AccessEgressCache accessEgressCache();
+
   /** Inspector/debug services */
   TileRendererManager tileRendererManager();
 
@@ -5,6 +5,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.MissingNode;
@@ -145,6 +146,12 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean osmCacheDataInMem;
 
+  public final boolean osmCompactNodeStore;
+
+  public final boolean osmSinglePass;
+
+  public final boolean parallelStopLinking;
+
   /** See {@link IslandPruningConfig}. */
   public final IslandPruningConfig islandPruning;
 
@@ -336,6 +343,54 @@ all of the elevation values in the street edges.
       """
         )
         .asBoolean(false);
+    osmCompactNodeStore =
+      root
+        .of("osmCompactNodeStore")
+        .since(V2_5)
+        .summary("If the coordinates of OSM nodes without tags should be stored off-heap.")
+        .description(
+          """
+      Most of the OSM nodes used by ways and areas are plain nodes without any tags. Set this to
+      `true` to store the coordinates of these nodes outside the Java heap, instead of keeping one
+      object for each node. This reduces the heap needed to build graphs from large OSM extracts,
+      at the cost of creating a new node object each time a plain node is looked up.
+      """
+        )
+        .asBoolean(false);
+    osmSinglePass =
+      root
+        .of("osmSinglePass")
+        .since(V2_5)
+        .summary("If OSM data should be read in a single pass, using temporary files.")
+        .description(
+          """
+      Instead of streaming the OSM data 3 times, read it once. The relations are processed while
+      reading, while the ways and nodes are written to compact temporary files in the system
+      temporary directory, and read back sequentially when the relations and ways are known. This
+      avoids both reading the source 3 times and caching the entire file in memory, the
+      `osmCacheDataInMem` parameter is not used in this mode. The bytes read and the peak heap
+      used in each phase are included in the build report. The peak heap is the sum of the peaks
+      of each heap memory pool, which may happen at different times, so it is an upper bound.
+      """
+        )
+        .asBoolean(false);
+    parallelStopLinking =
+      root
+        .of("parallelStopLinking")
+        .since(V2_5)
+        .summary(
+          "Link transit stops, entrances and vehicle parking to the street network in parallel."
+        )
+        .description(
+          """
+      Finding the street edges closest to each stop is done in parallel, before the edges are
+      split. The stops are then linked one by one, in the same order as when linking sequentially,
+      so the resulting graph is the same. Vehicle parking entrances are linked in the same way.
+      Vehicle rental stations are not linked when the graph is built, they are linked by the
+      vehicle rental updaters.
+      """
+        )
+        .asBoolean(false);
     platformEntriesLinking =
       root
         .of("platformEntriesLinking")
@@ -5,6 +5,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_1;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
 
 import java.time.Duration;
 import java.util.List;
@@ -26,6 +27,7 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final int searchWindowSplitCount;
   private final int transferCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
@@ -111,6 +113,24 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(dft.searchThreadPoolSize());
+    this.searchWindowSplitCount =
+      c
+        .of("searchWindowSplitCount")
+        .since(V2_5)
+        .summary("Split the search-window of a multi-criteria search in parts searched in parallel.")
+        .description(
+          """
+Each part of the search-window is searched by a separate Range Raptor worker, and the paths found
+are merged into one pareto set when all parts are done. The parts run in the thread pool
+configured with `searchThreadPoolSize`, so this has no effect unless it is set. Like the parallel
+heuristic searches, the split is only done for searches with the `PARALLEL` Raptor optimization
+enabled. The parts are at least 30 minutes long, so a short search-window is split in fewer parts.
+The stop arrivals of the later parts are not used to prune the earlier parts, so the total work
+done is larger than for one search, but the response time is lower. If 1, the search-window is not
+split.
+"""
+        )
+        .asInt(dft.searchWindowSplitCount());
     // Dynamic Search Window
     this.stopTransferCost =
       c
@@ -223,6 +243,11 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowSplitCount() {
+    return searchWindowSplitCount;
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -260,6 +285,7 @@ for more info."
     private final Duration minWindow;
     private final Duration maxWindow;
     private final int stepMinutes;
+    private final Duration latencyTarget;
 
     public DynamicSearchWindowConfig(String parameterName, NodeAdapter root) {
       var dsWin = root
@@ -361,6 +387,24 @@ coefficient.
 """
           )
           .asInt(dsWinDft.stepMinutes());
+      this.latencyTarget =
+        dsWin
+          .of("latencyTarget")
+          .since(V2_5)
+          .summary("Adjust the upper limit of the search-window to meet this search time.")
+          .description(
+            """
+The target for the 95th percentile of the main Raptor search time. If set, OTP keeps track of the
+time spent per Raptor iteration (one minute of the search-window) in the recent searches, and
+adjusts the upper limit for the dynamic search-window so a search is performed within the target.
+The limit is kept between `minWindow` and `maxWindow`. Set this to zero to turn the adjustment
+off.
+
+The search-window used is returned with the paging cursors, so no results are lost when the
+search-window is reduced - the client will find them on the next page.
+"""
+          )
+          .asDuration(dsWinDft.latencyTarget());
     }
 
     @Override
@@ -387,5 +431,10 @@ coefficient.
     public int stepMinutes() {
       return stepMinutes;
     }
+
+    @Override
+    public Duration latencyTarget() {
+      return latencyTarget;
+    }
   }
 }
@@ -152,7 +152,8 @@ public class ConstructApplication {
       vehiclePositionRepository(),
       vehicleRentalRepository(),
       transitModel(),
-      routerConfig().updaterConfig()
+      routerConfig().updaterConfig(),
+      factory.accessEgressCache()
     );
 
     initEllipsoidToGeoidDifference();
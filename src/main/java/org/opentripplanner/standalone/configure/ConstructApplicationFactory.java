@@ -7,6 +7,7 @@ import javax.annotation.Nullable;
 import org.opentripplanner.ext.ridehailing.configure.RideHailingServicesModule;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueSummary;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionRepository;
@@ -62,6 +63,9 @@ public interface ConstructApplicationFactory {
   @Nullable
   GraphVisualizer graphVisualizer();
 
+  @Nullable
+  AccessEgressCache accessEgressCache();
+
   TransitService transitService();
   OtpServerRequestContext createServerContext();
 
@@ -3,11 +3,14 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
+import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionService;
@@ -32,6 +35,7 @@ public class ConstructApplicationModule {
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
     List<RideHailingService> rideHailingServices,
+    @Nullable AccessEgressCache accessEgressCache,
     @Nullable TraverseVisitor<?, ?> traverseVisitor
   ) {
     return DefaultServerRequestContext.create(
@@ -47,10 +51,22 @@ public class ConstructApplicationModule {
       vehicleRentalService,
       routerConfig.flexConfig(),
       rideHailingServices,
+      accessEgressCache,
       traverseVisitor
     );
   }
 
+  /**
+   * The cache is shared by all requests, it is only created if the AccessEgressCache feature is
+   * on.
+   */
+  @Provides
+  @Singleton
+  @Nullable
+  AccessEgressCache accessEgressCache() {
+    return OTPFeature.AccessEgressCache.isOn() ? new AccessEgressCache() : null;
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
@@ -10,6 +10,7 @@ import org.opentripplanner.ext.vectortiles.VectorTilesResource;
 import org.opentripplanner.inspector.raster.TileRendererManager;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -43,6 +44,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final WorldEnvelopeService worldEnvelopeService;
   private final VehiclePositionService vehiclePositionService;
   private final VehicleRentalService vehicleRentalService;
+  private final AccessEgressCache accessEgressCache;
 
   /**
    * Make sure all mutable components are copied/cloned before calling this constructor.
@@ -60,6 +62,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     VehiclePositionService vehiclePositionService,
     VehicleRentalService vehicleRentalService,
     List<RideHailingService> rideHailingServices,
+    AccessEgressCache accessEgressCache,
     TraverseVisitor traverseVisitor,
     FlexConfig flexConfig
   ) {
@@ -77,6 +80,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.worldEnvelopeService = worldEnvelopeService;
     this.vehiclePositionService = vehiclePositionService;
     this.rideHailingServices = rideHailingServices;
+    this.accessEgressCache = accessEgressCache;
   }
 
   /**
@@ -95,6 +99,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     VehicleRentalService vehicleRentalService,
     FlexConfig flexConfig,
     List<RideHailingService> rideHailingServices,
+    @Nullable AccessEgressCache accessEgressCache,
     @Nullable TraverseVisitor traverseVisitor
   ) {
     return new DefaultServerRequestContext(
@@ -110,6 +115,7 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       vehiclePositionService,
       vehicleRentalService,
       rideHailingServices,
+      accessEgressCache,
       traverseVisitor,
       flexConfig
     );
@@ -187,6 +193,12 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return meterRegistry;
   }
 
+  @Nullable
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
+
   @Override
   public TileRendererManager tileRendererManager() {
     return tileRendererManager;
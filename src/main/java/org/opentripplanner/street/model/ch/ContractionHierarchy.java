@@ -0,0 +1,246 @@
+package org.opentripplanner.street.model.ch;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * A contraction hierarchy of the street network for driving. The hierarchy is built by the graph
+ * builder using a fixed weight for each street edge: the time it takes to drive it at the speed
+ * limit of the street, see {@link #weight(StreetEdge)}. Turn costs, turn restrictions and request
+ * preferences are not part of the weight, so the path found is not guaranteed to be the best path
+ * for a given request. The caller is expected to traverse the path with the request to find the
+ * real time and cost, and to check that it is possible to drive it at all.
+ * <p>
+ * The nodes are numbered by their rank in the hierarchy, so each node only has arcs to nodes with
+ * a higher number in the upward graph and from nodes with a higher number in the downward graph.
+ * An arc is either one of the original street edges, or a shortcut made of two other arcs.
+ * <p>
+ * The hierarchy is stored in the graph, and is not updated when the street network is changed
+ * after the graph is built. The edges in a path may therefore be removed from the graph, the
+ * caller should check this.
+ */
+public class ContractionHierarchy implements Serializable {
+
+  static final int INFINITY = Integer.MAX_VALUE;
+
+  /** The vertex of each node, indexed by the node rank. */
+  private final Vertex[] vertices;
+
+  /** The arcs from each node to nodes of higher rank, in compressed sparse row format. */
+  private final int[] upOffsets;
+  private final int[] upNodes;
+  private final int[] upWeights;
+  private final int[] upArcs;
+
+  /** The arcs to each node from nodes of higher rank, in compressed sparse row format. */
+  private final int[] downOffsets;
+  private final int[] downNodes;
+  private final int[] downWeights;
+  private final int[] downArcs;
+
+  /** The original street edges, the first arcs. */
+  private final StreetEdge[] edges;
+
+  /** The two arcs of each shortcut, indexed by the arc minus the number of edges. */
+  private final int[] shortcutFirst;
+  private final int[] shortcutSecond;
+
+  /**
+   * The node of each vertex index, see {@link Vertex#getIndex()}. This is created when it is
+   * needed, since the vertex index is not serialized.
+   */
+  private transient volatile int[] nodeByVertexIndex;
+
+  ContractionHierarchy(
+    Vertex[] vertices,
+    int[] upOffsets,
+    int[] upNodes,
+    int[] upWeights,
+    int[] upArcs,
+    int[] downOffsets,
+    int[] downNodes,
+    int[] downWeights,
+    int[] downArcs,
+    StreetEdge[] edges,
+    int[] shortcutFirst,
+    int[] shortcutSecond
+  ) {
+    this.vertices = vertices;
+    this.upOffsets = upOffsets;
+    this.upNodes = upNodes;
+    this.upWeights = upWeights;
+    this.upArcs = upArcs;
+    this.downOffsets = downOffsets;
+    this.downNodes = downNodes;
+    this.downWeights = downWeights;
+    this.downArcs = downArcs;
+    this.edges = edges;
+    this.shortcutFirst = shortcutFirst;
+    this.shortcutSecond = shortcutSecond;
+  }
+
+  /**
+   * Return {@code true} if the edge is part of the hierarchy. Streets which cars are not allowed to
+   * drive through are left out, a path starting or ending inside such an area is found by the
+   * normal street search.
+   */
+  public static boolean includes(StreetEdge edge) {
+    return (
+      edge.canTraverse(TraverseMode.CAR) &&
+      edge.getCarSpeed() > 0 &&
+      !edge.isMotorVehicleNoThruTraffic()
+    );
+  }
+
+  /** The fixed weight of an edge: the time in milliseconds to drive it. */
+  public static int weight(StreetEdge edge) {
+    return (int) Math.round(1000.0 * edge.getDistanceMeters() / edge.getCarSpeed());
+  }
+
+  public int numberOfNodes() {
+    return vertices.length;
+  }
+
+  public int numberOfShortcuts() {
+    return shortcutFirst.length;
+  }
+
+  /** Return {@code true} if the vertex is a node in the hierarchy. */
+  public boolean contains(Vertex vertex) {
+    return node(vertex) >= 0;
+  }
+
+  /**
+   * Find the fastest path between the given vertices, using the fixed weights of the hierarchy.
+   * The origins and destinations are given with the weight of getting to or from them, in
+   * milliseconds. Vertices which are not part of the hierarchy are ignored.
+   *
+   * @return the path, or {@code null} if no path is found
+   */
+  @Nullable
+  public Path findPath(Map<Vertex, Integer> origins, Map<Vertex, Integer> destinations) {
+    var search = new ContractionHierarchySearch(this);
+    origins.forEach((v, weight) -> search.addOrigin(node(v), weight));
+    destinations.forEach((v, weight) -> search.addDestination(node(v), weight));
+    return search.run();
+  }
+
+  int node(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      return -1;
+    }
+    int[] nodes = nodeByVertexIndex();
+    if (index >= nodes.length) {
+      return -1;
+    }
+    int node = nodes[index];
+    return node >= 0 && vertices[node] == vertex ? node : -1;
+  }
+
+  Vertex vertex(int node) {
+    return vertices[node];
+  }
+
+  int upBegin(int node) {
+    return upOffsets[node];
+  }
+
+  int upEnd(int node) {
+    return upOffsets[node + 1];
+  }
+
+  int upNode(int i) {
+    return upNodes[i];
+  }
+
+  int upWeight(int i) {
+    return upWeights[i];
+  }
+
+  int upArc(int i) {
+    return upArcs[i];
+  }
+
+  int downBegin(int node) {
+    return downOffsets[node];
+  }
+
+  int downEnd(int node) {
+    return downOffsets[node + 1];
+  }
+
+  int downNode(int i) {
+    return downNodes[i];
+  }
+
+  int downWeight(int i) {
+    return downWeights[i];
+  }
+
+  int downArc(int i) {
+    return downArcs[i];
+  }
+
+  /** Add the street edges of the given arc to the result, in driving order. */
+  void unpack(int arc, List<StreetEdge> result) {
+    var stack = new ArrayDeque<Integer>();
+    stack.push(arc);
+    while (!stack.isEmpty()) {
+      int a = stack.pop();
+      if (a < edges.length) {
+        result.add(edges[a]);
+      } else {
+        stack.push(shortcutSecond[a - edges.length]);
+        stack.push(shortcutFirst[a - edges.length]);
+      }
+    }
+  }
+
+  private int[] nodeByVertexIndex() {
+    int[] nodes = nodeByVertexIndex;
+    if (nodes == null) {
+      synchronized (this) {
+        nodes = nodeByVertexIndex;
+        if (nodes == null) {
+          nodes = createNodeByVertexIndex();
+          nodeByVertexIndex = nodes;
+        }
+      }
+    }
+    return nodes;
+  }
+
+  private int[] createNodeByVertexIndex() {
+    int size = 0;
+    for (Vertex v : vertices) {
+      size = Math.max(size, v.getIndex() + 1);
+    }
+    int[] nodes = new int[size];
+    Arrays.fill(nodes, -1);
+    for (int node = 0; node < vertices.length; ++node) {
+      int index = vertices[node].getIndex();
+      if (index >= 0) {
+        nodes[index] = node;
+      }
+    }
+    return nodes;
+  }
+
+  /**
+   * A path found in the hierarchy.
+   *
+   * @param from   the origin vertex the path starts at
+   * @param to     the destination vertex the path ends at
+   * @param edges  the street edges of the path, in driving order
+   * @param weight the weight of the path, including the weight of the origin and destination
+   */
+  public record Path(Vertex from, Vertex to, List<StreetEdge> edges, int weight) {}
+}
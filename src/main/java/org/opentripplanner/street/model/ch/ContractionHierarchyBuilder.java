@@ -0,0 +1,342 @@
+package org.opentripplanner.street.model.ch;
+
+import static org.opentripplanner.street.model.ch.ContractionHierarchy.INFINITY;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.collection.IntHeap;
+import org.opentripplanner.framework.logging.ProgressTracker;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build a {@link ContractionHierarchy} from a set of street edges. The nodes are contracted one by
+ * one, in the order given by the number of shortcuts needed to contract them and the number of
+ * neighbours already contracted. The order is updated lazily: the priority of a node is
+ * recalculated when it is the next node to contract.
+ * <p>
+ * When a node is contracted, a shortcut is added between each pair of neighbours unless a witness
+ * search finds another path which is as short as the path through the node. The witness search
+ * is limited, so some shortcuts which are not needed are added. This does not affect the paths
+ * found, only the size of the hierarchy.
+ */
+public class ContractionHierarchyBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyBuilder.class);
+
+  /** The maximum number of nodes settled by a witness search. */
+  private static final int WITNESS_SEARCH_LIMIT = 500;
+
+  private final Map<Vertex, Integer> nodeByVertex = new IdentityHashMap<>();
+  private final List<Vertex> vertices = new ArrayList<>();
+  private final List<StreetEdge> edges = new ArrayList<>();
+
+  private Arcs[] outgoing;
+  private Arcs[] incoming;
+  private int[] deletedNeighbours;
+  private final TIntArrayList shortcutFirst = new TIntArrayList();
+  private final TIntArrayList shortcutSecond = new TIntArrayList();
+
+  private int[] witnessWeights;
+  private final TIntArrayList witnessTouched = new TIntArrayList();
+  private final IntHeap witnessHeap = new IntHeap(64);
+
+  /** Add an edge to the hierarchy, see {@link ContractionHierarchy#includes(StreetEdge)}. */
+  public ContractionHierarchyBuilder addEdge(StreetEdge edge) {
+    node(edge.getFromVertex());
+    node(edge.getToVertex());
+    edges.add(edge);
+    return this;
+  }
+
+  public ContractionHierarchy build() {
+    int n = vertices.size();
+    outgoing = new Arcs[n];
+    incoming = new Arcs[n];
+    for (int v = 0; v < n; ++v) {
+      outgoing[v] = new Arcs();
+      incoming[v] = new Arcs();
+    }
+    deletedNeighbours = new int[n];
+    witnessWeights = new int[n];
+    Arrays.fill(witnessWeights, INFINITY);
+
+    for (int id = 0; id < edges.size(); ++id) {
+      var edge = edges.get(id);
+      int from = nodeByVertex.get(edge.getFromVertex());
+      int to = nodeByVertex.get(edge.getToVertex());
+      if (from != to) {
+        addArc(from, to, ContractionHierarchy.weight(edge), id);
+      }
+    }
+
+    int[] rank = contractAll(n);
+    return createHierarchy(rank);
+  }
+
+  private int[] contractAll(int n) {
+    var progress = ProgressTracker.track("Contract street nodes for car routing", 100_000, n);
+    LOG.info(progress.startMessage());
+
+    var queue = new IntHeap(n);
+    for (int v = 0; v < n; ++v) {
+      queue.insert(v, priority(v));
+    }
+
+    int[] rank = new int[n];
+    int nextRank = 0;
+    while (!queue.isEmpty()) {
+      int v = queue.removeMin();
+      int priority = priority(v);
+      if (!queue.isEmpty() && priority > queue.minKey()) {
+        queue.insert(v, priority);
+        continue;
+      }
+      contract(v);
+      rank[v] = nextRank++;
+      progress.step(m -> LOG.info(m));
+    }
+    LOG.info(progress.completeMessage());
+    return rank;
+  }
+
+  /**
+   * The edge difference - the number of shortcuts added minus the number of arcs removed - plus the
+   * number of contracted neighbours. The last term spreads the contraction evenly over the graph.
+   */
+  private int priority(int v) {
+    int arcs = outgoing[v].size + incoming[v].size;
+    return shortcuts(v, false) - arcs + deletedNeighbours[v];
+  }
+
+  private void contract(int v) {
+    shortcuts(v, true);
+    var in = incoming[v];
+    for (int i = 0; i < in.size; ++i) {
+      int u = in.node(i);
+      outgoing[u].remove(v);
+      ++deletedNeighbours[u];
+    }
+    var out = outgoing[v];
+    for (int i = 0; i < out.size; ++i) {
+      int x = out.node(i);
+      incoming[x].remove(v);
+      ++deletedNeighbours[x];
+    }
+  }
+
+  /**
+   * Find the shortcuts needed to contract the given node. If {@code add} is {@code true}, the
+   * shortcuts are added to the graph, if not they are only counted.
+   */
+  private int shortcuts(int v, boolean add) {
+    int count = 0;
+    var in = incoming[v];
+    var out = outgoing[v];
+    for (int i = 0; i < in.size; ++i) {
+      int u = in.node(i);
+      int inWeight = in.weight(i);
+
+      int maxWeight = -1;
+      for (int j = 0; j < out.size; ++j) {
+        if (out.node(j) != u) {
+          maxWeight = Math.max(maxWeight, inWeight + out.weight(j));
+        }
+      }
+      if (maxWeight < 0) {
+        continue;
+      }
+      witnessSearch(u, v, maxWeight);
+
+      for (int j = 0; j < out.size; ++j) {
+        int x = out.node(j);
+        int weight = inWeight + out.weight(j);
+        if (x == u || witnessWeights[x] <= weight) {
+          continue;
+        }
+        if (add) {
+          int arc = edges.size() + shortcutFirst.size();
+          shortcutFirst.add(in.arc(i));
+          shortcutSecond.add(out.arc(j));
+          addArc(u, x, weight, arc);
+        }
+        ++count;
+      }
+      clearWitnessSearch();
+    }
+    return count;
+  }
+
+  /** Find the weights from the source to nodes within the max weight, without passing via. */
+  private void witnessSearch(int source, int via, int maxWeight) {
+    witnessWeights[source] = 0;
+    witnessTouched.add(source);
+    witnessHeap.insert(source, 0);
+
+    int settled = 0;
+    while (!witnessHeap.isEmpty() && settled < WITNESS_SEARCH_LIMIT) {
+      int weight = witnessHeap.minKey();
+      if (weight > maxWeight) {
+        break;
+      }
+      int node = witnessHeap.removeMin();
+      if (weight > witnessWeights[node]) {
+        continue;
+      }
+      ++settled;
+      var out = outgoing[node];
+      for (int i = 0; i < out.size; ++i) {
+        int x = out.node(i);
+        int w = weight + out.weight(i);
+        if (x != via && w < witnessWeights[x]) {
+          if (witnessWeights[x] == INFINITY) {
+            witnessTouched.add(x);
+          }
+          witnessWeights[x] = w;
+          witnessHeap.insert(x, w);
+        }
+      }
+    }
+  }
+
+  private void clearWitnessSearch() {
+    for (int i = 0; i < witnessTouched.size(); ++i) {
+      witnessWeights[witnessTouched.get(i)] = INFINITY;
+    }
+    witnessTouched.resetQuick();
+    witnessHeap.clear();
+  }
+
+  /** Add an arc, or lower the weight of the existing arc between the two nodes. */
+  private void addArc(int from, int to, int weight, int arc) {
+    int i = outgoing[from].indexOf(to);
+    if (i < 0) {
+      outgoing[from].add(to, weight, arc);
+      incoming[to].add(from, weight, arc);
+    } else if (weight < outgoing[from].weight(i)) {
+      outgoing[from].set(i, weight, arc);
+      incoming[to].set(incoming[to].indexOf(from), weight, arc);
+    }
+  }
+
+  private ContractionHierarchy createHierarchy(int[] rank) {
+    int n = rank.length;
+    var chVertices = new Vertex[n];
+    var upOffsets = new int[n + 1];
+    var downOffsets = new int[n + 1];
+    for (int v = 0; v < n; ++v) {
+      chVertices[rank[v]] = vertices.get(v);
+      upOffsets[rank[v] + 1] = outgoing[v].size;
+      downOffsets[rank[v] + 1] = incoming[v].size;
+    }
+    for (int r = 0; r < n; ++r) {
+      upOffsets[r + 1] += upOffsets[r];
+      downOffsets[r + 1] += downOffsets[r];
+    }
+
+    var upNodes = new int[upOffsets[n]];
+    var upWeights = new int[upOffsets[n]];
+    var upArcs = new int[upOffsets[n]];
+    var downNodes = new int[downOffsets[n]];
+    var downWeights = new int[downOffsets[n]];
+    var downArcs = new int[downOffsets[n]];
+
+    for (int v = 0; v < n; ++v) {
+      var out = outgoing[v];
+      for (int i = 0, pos = upOffsets[rank[v]]; i < out.size; ++i, ++pos) {
+        upNodes[pos] = rank[out.node(i)];
+        upWeights[pos] = out.weight(i);
+        upArcs[pos] = out.arc(i);
+      }
+      var in = incoming[v];
+      for (int i = 0, pos = downOffsets[rank[v]]; i < in.size; ++i, ++pos) {
+        downNodes[pos] = rank[in.node(i)];
+        downWeights[pos] = in.weight(i);
+        downArcs[pos] = in.arc(i);
+      }
+    }
+
+    return new ContractionHierarchy(
+      chVertices,
+      upOffsets,
+      upNodes,
+      upWeights,
+      upArcs,
+      downOffsets,
+      downNodes,
+      downWeights,
+      downArcs,
+      edges.toArray(StreetEdge[]::new),
+      shortcutFirst.toArray(),
+      shortcutSecond.toArray()
+    );
+  }
+
+  private void node(Vertex vertex) {
+    nodeByVertex.computeIfAbsent(
+      vertex,
+      v -> {
+        vertices.add(v);
+        return vertices.size() - 1;
+      }
+    );
+  }
+
+  /**
+   * The arcs to or from a node, as (node, weight, arc) triples in a single array to keep the
+   * memory overhead per node low.
+   */
+  private static class Arcs {
+
+    private int[] data = new int[3 * 4];
+    private int size = 0;
+
+    int node(int i) {
+      return data[3 * i];
+    }
+
+    int weight(int i) {
+      return data[3 * i + 1];
+    }
+
+    int arc(int i) {
+      return data[3 * i + 2];
+    }
+
+    int indexOf(int node) {
+      for (int i = 0; i < size; ++i) {
+        if (data[3 * i] == node) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    void add(int node, int weight, int arc) {
+      if (3 * size == data.length) {
+        data = Arrays.copyOf(data, 2 * data.length);
+      }
+      data[3 * size] = node;
+      set(size++, weight, arc);
+    }
+
+    void set(int i, int weight, int arc) {
+      data[3 * i + 1] = weight;
+      data[3 * i + 2] = arc;
+    }
+
+    void remove(int node) {
+      int i = indexOf(node);
+      if (i >= 0) {
+        --size;
+        System.arraycopy(data, 3 * size, data, 3 * i, 3);
+      }
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package org.opentripplanner.street.model.ch;
+
+import static org.opentripplanner.street.model.ch.ContractionHierarchy.INFINITY;
+
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.collection.IntHeap;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+/**
+ * A bidirectional Dijkstra search in a {@link ContractionHierarchy}. The forward search only
+ * follows arcs up the hierarchy from the origins, and the backward search only follows arcs up
+ * the hierarchy towards the destinations. The searches are small, so the labels are kept in hash
+ * maps and not in arrays the size of the graph.
+ */
+class ContractionHierarchySearch {
+
+  private final ContractionHierarchy ch;
+  private final Direction forward = new Direction();
+  private final Direction backward = new Direction();
+
+  private int bestWeight = INFINITY;
+  private int meetingNode = -1;
+
+  ContractionHierarchySearch(ContractionHierarchy ch) {
+    this.ch = ch;
+  }
+
+  void addOrigin(int node, int weight) {
+    forward.addStart(node, weight);
+  }
+
+  void addDestination(int node, int weight) {
+    backward.addStart(node, weight);
+  }
+
+  @Nullable
+  ContractionHierarchy.Path run() {
+    while (true) {
+      boolean doForward = forward.hasNext(bestWeight);
+      boolean doBackward = backward.hasNext(bestWeight);
+      if (doForward && (!doBackward || forward.heap.minKey() <= backward.heap.minKey())) {
+        stepForward();
+      } else if (doBackward) {
+        stepBackward();
+      } else {
+        break;
+      }
+    }
+    return meetingNode < 0 ? null : path();
+  }
+
+  private void stepForward() {
+    int node = forward.heap.removeMin();
+    int weight = forward.weight(node);
+    if (!forward.settle(node)) {
+      return;
+    }
+    meet(node, weight, backward.weight(node));
+    for (int i = ch.upBegin(node); i < ch.upEnd(node); ++i) {
+      forward.relax(node, ch.upNode(i), weight + ch.upWeight(i), ch.upArc(i));
+    }
+  }
+
+  private void stepBackward() {
+    int node = backward.heap.removeMin();
+    int weight = backward.weight(node);
+    if (!backward.settle(node)) {
+      return;
+    }
+    meet(node, forward.weight(node), weight);
+    for (int i = ch.downBegin(node); i < ch.downEnd(node); ++i) {
+      backward.relax(node, ch.downNode(i), weight + ch.downWeight(i), ch.downArc(i));
+    }
+  }
+
+  private void meet(int node, int forwardWeight, int backwardWeight) {
+    if (forwardWeight == INFINITY || backwardWeight == INFINITY) {
+      return;
+    }
+    int weight = forwardWeight + backwardWeight;
+    if (weight < bestWeight) {
+      bestWeight = weight;
+      meetingNode = node;
+    }
+  }
+
+  private ContractionHierarchy.Path path() {
+    // The arcs from the origin to the meeting node, in reverse order
+    var arcs = new ArrayList<Integer>();
+    int from = meetingNode;
+    while (forward.parent.containsKey(from)) {
+      arcs.add(forward.arc.get(from));
+      from = forward.parent.get(from);
+    }
+    List<StreetEdge> edges = new ArrayList<>();
+    for (int i = arcs.size() - 1; i >= 0; --i) {
+      ch.unpack(arcs.get(i), edges);
+    }
+
+    // The arcs from the meeting node to the destination are in order
+    int to = meetingNode;
+    while (backward.parent.containsKey(to)) {
+      ch.unpack(backward.arc.get(to), edges);
+      to = backward.parent.get(to);
+    }
+    return new ContractionHierarchy.Path(ch.vertex(from), ch.vertex(to), edges, bestWeight);
+  }
+
+  private static class Direction {
+
+    private final TIntIntHashMap weights = new TIntIntHashMap(64, 0.5f, -1, INFINITY);
+    private final TIntIntHashMap parent = new TIntIntHashMap();
+    private final TIntIntHashMap arc = new TIntIntHashMap();
+    private final TIntHashSet settled = new TIntHashSet();
+    private final IntHeap heap = new IntHeap(64);
+
+    void addStart(int node, int weight) {
+      if (node >= 0 && weight < weight(node)) {
+        weights.put(node, weight);
+        heap.insert(node, weight);
+      }
+    }
+
+    boolean hasNext(int bestWeight) {
+      return !heap.isEmpty() && heap.minKey() < bestWeight;
+    }
+
+    int weight(int node) {
+      return weights.get(node);
+    }
+
+    /** Return {@code false} if the node is already settled. */
+    boolean settle(int node) {
+      return settled.add(node);
+    }
+
+    void relax(int from, int to, int weight, int arcId) {
+      if (weight < weight(to)) {
+        weights.put(to, weight);
+        parent.put(to, from);
+        arc.put(to, arcId);
+        heap.insert(to, weight);
+      }
+    }
+  }
+}
@@ -0,0 +1,278 @@
+package org.opentripplanner.street.model.edge;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import org.opentripplanner.framework.application.OtpAppException;
+
+/**
+ * The compacted geometries of all {@link StreetEdge}s can be stored in a flat, indexed section
+ * appended to the graph file after the Kryo serialized object graph. When the graph is loaded from
+ * a local file the section is memory-mapped, and each geometry is read lazily from the mapped
+ * region when {@link StreetEdge#getGeometry()} is called. This avoids deserializing one
+ * {@code byte[]} per edge, keeps the geometries off-heap, and allows several OTP instances on the
+ * same host to share them through the OS page cache. If the graph is not a local file (cloud
+ * storage or gzip compressed) the section is read into memory instead.
+ * <p>
+ * The layout of the section is:
+ * <pre>
+ * MAGIC (8 bytes) | n: int | offsets: long[n + 1] | data: byte[offsets[n]]
+ * </pre>
+ * The offsets are relative to the start of the data block, and geometry {@code i} is stored in
+ * the range {@code [offsets[i], offsets[i+1])}. All numbers are big-endian.
+ * <p>
+ * There is only one graph loaded at the time, so the mapped section is kept in a static field -
+ * just like the other global state restored when a graph is loaded. See
+ * {@link org.opentripplanner.routing.graph.SerializedGraphObject}.
+ */
+public final class MappedStreetGeometry {
+
+  private static final byte[] MAGIC = "OTPGEOM1".getBytes(StandardCharsets.ISO_8859_1);
+
+  /** Must be a multiple of 8, so a long offset never span two chunks */
+  private static final int CHUNK_SIZE = 1 << 30;
+
+  private static MappedStreetGeometry current = null;
+
+  private final int size;
+  private final Region offsets;
+  private final Region data;
+
+  private MappedStreetGeometry(int size, Region offsets, Region data) {
+    this.size = size;
+    this.offsets = offsets;
+    this.data = data;
+  }
+
+  /**
+   * Remove the compacted geometry from all street edges in the given collection and replace it with
+   * an index into the geometry section. Call {@link Detached#write(OutputStream)} to write the
+   * section after the graph is serialized, and then {@link Detached#reattach()} to put the
+   * geometries back into the edges.
+   */
+  public static Detached detach(Collection<Edge> edges) {
+    var detached = new Detached();
+    for (Edge edge : edges) {
+      if (edge instanceof StreetEdge streetEdge) {
+        detached.add(streetEdge);
+      }
+    }
+    return detached;
+  }
+
+  /**
+   * Read the geometries of edges loaded from a mapped section back into the edges. This must be
+   * done before a graph loaded with a mapped section is saved without one, otherwise the saved
+   * edges refer to a section which does not exist. Forward and back edges keep sharing the same
+   * geometry instance.
+   */
+  public static void attachMapped(Collection<Edge> edges) {
+    Map<Integer, byte[]> geometryByIndex = new HashMap<>();
+    for (Edge edge : edges) {
+      if (edge instanceof StreetEdge streetEdge && streetEdge.mappedGeometryIndex() >= 0) {
+        int index = streetEdge.mappedGeometryIndex();
+        byte[] geometry = geometryByIndex.computeIfAbsent(index, MappedStreetGeometry::get);
+        streetEdge.attachGeometry(geometry);
+      }
+    }
+  }
+
+  /**
+   * Read the geometry section from the given input and make it available to the street edges. The
+   * {@code input} must be positioned at the beginning of the section, at absolute position
+   * {@code position} in the graph file. If the graph file is a local file the section is
+   * memory-mapped, if not the section is read into memory.
+   *
+   * @param localFile the uncompressed graph file on the local file system, {@code null} if not
+   *                  available.
+   */
+  public static void load(InputStream input, long position, @Nullable File localFile)
+    throws IOException {
+    byte[] magic = input.readNBytes(MAGIC.length);
+    if (!Arrays.equals(MAGIC, magic)) {
+      throw new OtpAppException("The street geometry section of the graph file is corrupt.");
+    }
+    int n = ByteBuffer.wrap(input.readNBytes(Integer.BYTES)).getInt();
+    long offsetsPos = position + MAGIC.length + Integer.BYTES;
+    long offsetsLength = Long.BYTES * (n + 1L);
+
+    if (localFile != null) {
+      try (var channel = FileChannel.open(localFile.toPath(), StandardOpenOption.READ)) {
+        var offsets = Region.map(channel, offsetsPos, offsetsLength);
+        var data = Region.map(channel, offsetsPos + offsetsLength, offsets.getLong(Long.BYTES * n));
+        current = new MappedStreetGeometry(n, offsets, data);
+      }
+    } else {
+      var offsets = Region.read(input, offsetsLength);
+      var data = Region.read(input, offsets.getLong(Long.BYTES * n));
+      current = new MappedStreetGeometry(n, offsets, data);
+    }
+  }
+
+  /** Drop the currently loaded section, used by tests. */
+  static void unload() {
+    current = null;
+  }
+
+  /** The number of geometries in the currently loaded section. */
+  public static int size() {
+    return current == null ? 0 : current.size;
+  }
+
+  /**
+   * Return a copy of the compacted geometry with the given index. This is called by street edges
+   * whose geometry is stored in the mapped section.
+   */
+  static byte[] get(int index) {
+    if (current == null) {
+      throw new IllegalStateException("No street geometry section loaded.");
+    }
+    return current.read(index);
+  }
+
+  private byte[] read(int index) {
+    long start = offsets.getLong((long) Long.BYTES * index);
+    long end = offsets.getLong((long) Long.BYTES * (index + 1));
+    byte[] geometry = new byte[(int) (end - start)];
+    data.get(start, geometry);
+    return geometry;
+  }
+
+  /**
+   * The geometries detached from the street edges of a graph before it is serialized.
+   */
+  public static class Detached {
+
+    private final List<StreetEdge> edges = new ArrayList<>();
+    private final List<byte[]> geometries = new ArrayList<>();
+
+    /** Forward and back edges share the same geometry instance, keep the sharing in the file. */
+    private final Map<byte[], Integer> indexByGeometry = new IdentityHashMap<>();
+
+    /** Edges of a graph loaded with a mapped section share geometry by index. */
+    private final Map<Integer, Integer> indexByMappedIndex = new HashMap<>();
+
+    private Detached() {}
+
+    private void add(StreetEdge edge) {
+      int mappedIndex = edge.mappedGeometryIndex();
+      byte[] geometry = mappedIndex < 0 ? edge.compactGeometry() : null;
+      Integer index = mappedIndex < 0
+        ? indexByGeometry.get(geometry)
+        : indexByMappedIndex.get(mappedIndex);
+
+      if (index == null) {
+        if (geometry == null) {
+          geometry = edge.compactGeometry();
+        }
+        index = geometries.size();
+        geometries.add(geometry);
+        if (mappedIndex < 0) {
+          indexByGeometry.put(geometry, index);
+        } else {
+          indexByMappedIndex.put(mappedIndex, index);
+        }
+      }
+      edge.detachGeometry(index);
+      edges.add(edge);
+    }
+
+    /** The number of unique geometries detached */
+    public int size() {
+      return geometries.size();
+    }
+
+    /**
+     * Write the geometry section to the given output. The output is flushed, but not closed.
+     */
+    public void write(OutputStream output) throws IOException {
+      var out = new DataOutputStream(output);
+      out.write(MAGIC);
+      out.writeInt(geometries.size());
+      long offset = 0;
+      out.writeLong(offset);
+      for (byte[] geometry : geometries) {
+        offset += geometry.length;
+        out.writeLong(offset);
+      }
+      for (byte[] geometry : geometries) {
+        out.write(geometry);
+      }
+      out.flush();
+    }
+
+    /** Put the geometries back into the street edges. */
+    public void reattach() {
+      for (StreetEdge edge : edges) {
+        edge.attachGeometry(geometries.get(edge.mappedGeometryIndex()));
+      }
+    }
+  }
+
+  /**
+   * A read-only byte region split into chunks, since a single {@link ByteBuffer} is limited to
+   * 2 GB. Only absolute reads are used, so the region is safe to read from many threads.
+   */
+  private record Region(ByteBuffer[] chunks) {
+    static Region map(FileChannel channel, long position, long length) throws IOException {
+      var chunks = new ByteBuffer[numberOfChunks(length)];
+      for (int i = 0; i < chunks.length; ++i) {
+        long offset = (long) i * CHUNK_SIZE;
+        chunks[i] =
+          channel.map(
+            FileChannel.MapMode.READ_ONLY,
+            position + offset,
+            Math.min(CHUNK_SIZE, length - offset)
+          );
+      }
+      return new Region(chunks);
+    }
+
+    static Region read(InputStream input, long length) throws IOException {
+      var chunks = new ByteBuffer[numberOfChunks(length)];
+      for (int i = 0; i < chunks.length; ++i) {
+        int chunkLength = (int) Math.min(CHUNK_SIZE, length - (long) i * CHUNK_SIZE);
+        byte[] bytes = input.readNBytes(chunkLength);
+        if (bytes.length != chunkLength) {
+          throw new OtpAppException("The street geometry section of the graph file is truncated.");
+        }
+        chunks[i] = ByteBuffer.wrap(bytes);
+      }
+      return new Region(chunks);
+    }
+
+    long getLong(long pos) {
+      return chunks[(int) (pos / CHUNK_SIZE)].getLong((int) (pos % CHUNK_SIZE));
+    }
+
+    void get(long pos, byte[] dst) {
+      int done = 0;
+      while (done < dst.length) {
+        long p = pos + done;
+        var chunk = chunks[(int) (p / CHUNK_SIZE)];
+        int index = (int) (p % CHUNK_SIZE);
+        int length = Math.min(dst.length - done, chunk.capacity() - index);
+        chunk.get(index, dst, done, length);
+        done += length;
+      }
+    }
+
+    private static int numberOfChunks(long length) {
+      return (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+  }
+}
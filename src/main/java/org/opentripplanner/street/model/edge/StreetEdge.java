@@ -8,8 +8,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.opentripplanner.framework.geometry.CompactLineStringUtils;
@@ -94,6 +96,12 @@ public class StreetEdge
 
   private byte[] compactGeometry;
 
+  /**
+   * The index of the geometry in the {@link MappedStreetGeometry} section of the graph file, or
+   * {@code -1} if the geometry is kept in {@link #compactGeometry}.
+   */
+  private int mappedGeometryIndex = -1;
+
   private I18NString name;
 
   private StreetTraversalPermission permission;
@@ -365,20 +373,8 @@ public class StreetEdge
           s0.getRequest().arriveBy()
         );
       }
-    }
-    // If we are biking, or walking with a bike check if we may continue by biking or by walking
-    else if (s0.currentMode() == TraverseMode.BICYCLE) {
-      if (canTraverse(TraverseMode.BICYCLE)) {
-        editor = doTraverse(s0, TraverseMode.BICYCLE, false);
-      } else if (canTraverse(TraverseMode.WALK)) {
-        editor = doTraverse(s0, TraverseMode.WALK, true);
-      } else {
-        return State.empty();
-      }
-    } else if (canTraverse(s0.currentMode())) {
-      editor = doTraverse(s0, s0.currentMode(), false);
     } else {
-      editor = null;
+      editor = traverseInCurrentMode(s0);
     }
 
     State state = editor != null ? editor.makeState() : null;
@@ -436,6 +432,24 @@ public class StreetEdge
     return State.ofNullable(state);
   }
 
+  /**
+   * Without rental or car pickup the traversal results in at most one state, so we skip the array
+   * allocation. This is the case for most searches.
+   */
+  @Override
+  public void traverse(State s0, Consumer<State> result) {
+    var mode = s0.getRequest().mode();
+    if (mode.includesRenting() || mode.includesPickup()) {
+      super.traverse(s0, result);
+      return;
+    }
+    StateEditor editor = traverseInCurrentMode(s0);
+    State state = editor != null ? editor.makeState() : null;
+    if (state != null) {
+      result.accept(state);
+    }
+  }
+
   /**
    * Gets non-localized I18NString (Used when splitting edges)
    *
@@ -459,7 +473,7 @@ public class StreetEdge
       fromv.getLat(),
       tov.getLon(),
       tov.getLat(),
-      compactGeometry,
+      compactGeometry(),
       isBack()
     );
   }
@@ -1039,6 +1053,31 @@ public class StreetEdge
     );
   }
 
+  int mappedGeometryIndex() {
+    return mappedGeometryIndex;
+  }
+
+  /**
+   * Return the compacted geometry, read it from the {@link MappedStreetGeometry} section if the
+   * edge is loaded from a graph file with mapped geometries.
+   */
+  byte[] compactGeometry() {
+    return mappedGeometryIndex < 0
+      ? compactGeometry
+      : MappedStreetGeometry.get(mappedGeometryIndex);
+  }
+
+  /** Replace the geometry with an index into the {@link MappedStreetGeometry} section. */
+  void detachGeometry(int index) {
+    this.compactGeometry = null;
+    this.mappedGeometryIndex = index;
+  }
+
+  void attachGeometry(byte[] compactGeometry) {
+    this.compactGeometry = compactGeometry;
+    this.mappedGeometryIndex = -1;
+  }
+
   private void setGeometry(LineString geometry) {
     this.compactGeometry =
       CompactLineStringUtils.compactLineString(
@@ -1057,6 +1096,24 @@ public class StreetEdge
       : getDistanceMeters();
   }
 
+  /**
+   * If we are biking, or walking with a bike check if we may continue by biking or by walking.
+   * Otherwise, continue in the current mode if possible.
+   */
+  @Nullable
+  private StateEditor traverseInCurrentMode(State s0) {
+    if (s0.currentMode() == TraverseMode.BICYCLE) {
+      if (canTraverse(TraverseMode.BICYCLE)) {
+        return doTraverse(s0, TraverseMode.BICYCLE, false);
+      } else if (canTraverse(TraverseMode.WALK)) {
+        return doTraverse(s0, TraverseMode.WALK, true);
+      }
+    } else if (canTraverse(s0.currentMode())) {
+      return doTraverse(s0, s0.currentMode(), false);
+    }
+    return null;
+  }
+
   /**
    * return a StateEditor rather than a State so that we can make parking/mode switch modifications
    * for kiss-and-ride.
@@ -0,0 +1,248 @@
+package org.opentripplanner.street.model.landmark;
+
+import gnu.trove.list.array.TIntArrayList;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * The shortest street distances to and from a small set of landmark vertices, for one traverse
+ * mode. The distances give a lower bound on the distance between two vertices using the triangle
+ * inequality: for any landmark L, the distance from v to t is at least {@code d(L,t) - d(L,v)} and
+ * {@code d(v,L) - d(t,L)}. This is often much closer to the real distance than the straight line
+ * distance, when the streets must go around water or mountains.
+ * <p>
+ * The distances are stored as 16 bit values in units of {@link #UNIT_METERS}, rounded down. To
+ * keep the bound a lower bound, one unit is subtracted from it. The largest value means that the
+ * distance is at least that long, or that the vertex can not be reached at all.
+ * <p>
+ * The table is built by the graph builder, and is not updated when the street network is changed
+ * after the graph is built. Vertices added later are not in the table, no bound is given for them.
+ */
+public class LandmarkTable implements Serializable {
+
+  /** The length of a distance unit in meters. */
+  static final int UNIT_METERS = 50;
+
+  /** The distance is at least this number of units, or the vertex can not be reached. */
+  static final int MAX_UNITS = Character.MAX_VALUE;
+
+  /** The maximum number of vertices visited to find the vertices in the table around a target. */
+  private static final int MAX_TARGET_SEARCH = 32;
+
+  private final TraverseMode mode;
+
+  private final Vertex[] landmarks;
+
+  /** The vertex of each slot in the table. */
+  private final Vertex[] vertices;
+
+  /** The distance from each landmark to each vertex, indexed by slot * landmarks + landmark. */
+  private final char[] fromLandmark;
+
+  /** The distance from each vertex to each landmark, indexed by slot * landmarks + landmark. */
+  private final char[] toLandmark;
+
+  /**
+   * The slot of each vertex index, see {@link Vertex#getIndex()}. This is created when it is
+   * needed, since the vertex index is not serialized.
+   */
+  private transient volatile int[] slotByVertexIndex;
+
+  LandmarkTable(
+    TraverseMode mode,
+    Vertex[] landmarks,
+    Vertex[] vertices,
+    char[] fromLandmark,
+    char[] toLandmark
+  ) {
+    this.mode = mode;
+    this.landmarks = landmarks;
+    this.vertices = vertices;
+    this.fromLandmark = fromLandmark;
+    this.toLandmark = toLandmark;
+  }
+
+  public TraverseMode mode() {
+    return mode;
+  }
+
+  public List<Vertex> landmarks() {
+    return Collections.unmodifiableList(Arrays.asList(landmarks));
+  }
+
+  public int numberOfVertices() {
+    return vertices.length;
+  }
+
+  public boolean contains(Vertex vertex) {
+    return slot(vertex) >= 0;
+  }
+
+  /**
+   * Create a lower bound on the distance between the given target vertices and any other vertex.
+   * The targets may be temporary vertices, the vertices in the table next to them are used.
+   *
+   * @param reverse if {@code false} the bound is on the distance to the targets, if {@code true}
+   *                on the distance from the targets. This is used in arrive-by searches.
+   * @return {@code null} if no bound can be given for the targets.
+   */
+  @Nullable
+  public DistanceBound distanceBound(Set<Vertex> targets, boolean reverse) {
+    if (landmarks.length == 0) {
+      return null;
+    }
+    int[] slots = targetSlots(targets, reverse);
+    if (slots == null) {
+      return null;
+    }
+
+    int n = landmarks.length;
+    int[] targetFrom = new int[n];
+    int[] targetTo = new int[n];
+    for (int l = 0; l < n; ++l) {
+      // Use the lowest value where it is the positive term of the bound, and the highest where it
+      // is the negative term.
+      targetFrom[l] = reverse ? 0 : MAX_UNITS;
+      targetTo[l] = reverse ? MAX_UNITS : 0;
+      for (int slot : slots) {
+        int from = fromLandmark[slot * n + l];
+        int to = toLandmark[slot * n + l];
+        targetFrom[l] = reverse ? Math.max(targetFrom[l], from) : Math.min(targetFrom[l], from);
+        targetTo[l] = reverse ? Math.min(targetTo[l], to) : Math.max(targetTo[l], to);
+      }
+    }
+    return new DistanceBound(reverse, targetFrom, targetTo);
+  }
+
+  /**
+   * Find the vertices in the table which every path to (or from, if reverse) the targets passes
+   * through last (or first). The targets are often temporary vertices, so this follows the edges
+   * from them until vertices in the table are found.
+   */
+  @Nullable
+  private int[] targetSlots(Set<Vertex> targets, boolean reverse) {
+    var slots = new TIntArrayList();
+    var visited = new HashSet<>(targets);
+    var queue = new ArrayDeque<>(targets);
+    while (!queue.isEmpty()) {
+      var vertex = queue.poll();
+      int slot = slot(vertex);
+      if (slot >= 0) {
+        slots.add(slot);
+        continue;
+      }
+      for (Edge e : reverse ? vertex.getOutgoing() : vertex.getIncoming()) {
+        var next = reverse ? e.getToVertex() : e.getFromVertex();
+        if (visited.add(next)) {
+          if (visited.size() > MAX_TARGET_SEARCH) {
+            return null;
+          }
+          queue.add(next);
+        }
+      }
+    }
+    return slots.isEmpty() ? null : slots.toArray();
+  }
+
+  private int slot(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index < 0) {
+      return -1;
+    }
+    int[] slots = slotByVertexIndex();
+    if (index >= slots.length) {
+      return -1;
+    }
+    int slot = slots[index];
+    return slot >= 0 && vertices[slot] == vertex ? slot : -1;
+  }
+
+  private int[] slotByVertexIndex() {
+    int[] slots = slotByVertexIndex;
+    if (slots == null) {
+      synchronized (this) {
+        slots = slotByVertexIndex;
+        if (slots == null) {
+          slots = createSlotByVertexIndex();
+          slotByVertexIndex = slots;
+        }
+      }
+    }
+    return slots;
+  }
+
+  private int[] createSlotByVertexIndex() {
+    int size = 0;
+    for (Vertex v : vertices) {
+      size = Math.max(size, v.getIndex() + 1);
+    }
+    int[] slots = new int[size];
+    Arrays.fill(slots, -1);
+    for (int slot = 0; slot < vertices.length; ++slot) {
+      int index = vertices[slot].getIndex();
+      if (index >= 0) {
+        slots[index] = slot;
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * A lower bound on the distance between a set of targets and any other vertex, see
+   * {@link #distanceBound(Set, boolean)}.
+   */
+  public class DistanceBound {
+
+    private final boolean reverse;
+    private final int[] targetFrom;
+    private final int[] targetTo;
+
+    private DistanceBound(boolean reverse, int[] targetFrom, int[] targetTo) {
+      this.reverse = reverse;
+      this.targetFrom = targetFrom;
+      this.targetTo = targetTo;
+    }
+
+    /**
+     * A lower bound in meters on the distance between the vertex and the targets, zero if the
+     * vertex is not in the table.
+     */
+    public double minDistance(Vertex vertex) {
+      int slot = slot(vertex);
+      if (slot < 0) {
+        return 0;
+      }
+      int n = targetFrom.length;
+      int best = 0;
+      for (int l = 0, i = slot * n; l < n; ++l, ++i) {
+        int from = fromLandmark[i];
+        int to = toLandmark[i];
+        if (reverse) {
+          if (targetFrom[l] != MAX_UNITS) {
+            best = Math.max(best, from - targetFrom[l]);
+          }
+          if (to != MAX_UNITS) {
+            best = Math.max(best, targetTo[l] - to);
+          }
+        } else {
+          if (from != MAX_UNITS) {
+            best = Math.max(best, targetFrom[l] - from);
+          }
+          if (targetTo[l] != MAX_UNITS) {
+            best = Math.max(best, to - targetTo[l]);
+          }
+        }
+      }
+      return best > 1 ? (best - 1) * (double) UNIT_METERS : 0;
+    }
+  }
+}
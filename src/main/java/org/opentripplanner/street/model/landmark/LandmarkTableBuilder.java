@@ -0,0 +1,241 @@
+package org.opentripplanner.street.model.landmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.opentripplanner.framework.collection.IntHeap;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+/**
+ * Build a {@link LandmarkTable} for a traverse mode. The landmarks are selected one by one: each
+ * new landmark is the vertex furthest away from the landmarks already selected. This places the
+ * landmarks at the edge of the street network, where they give the best bounds.
+ * <p>
+ * The distances are found with a search over all edges in the graph. Street edges which can not
+ * be used by the mode are skipped, all other edges are given a length of zero. This keeps the
+ * distances a lower bound even for paths using elevators, links or other special edges.
+ */
+public class LandmarkTableBuilder {
+
+  /** The distances are searched in centimeters, the resolution of the heap keys. */
+  private static final double KEYS_PER_METER = 100.0;
+
+  private final TraverseMode mode;
+  private final int numberOfLandmarks;
+
+  private final Vertex[] vertices;
+  private final Map<Vertex, Integer> nodeByVertex = new IdentityHashMap<>();
+
+  /** The slot in the table of each node, or -1 if the node is not in the table. */
+  private final int[] slotByNode;
+  private final List<Vertex> tableVertices = new ArrayList<>();
+
+  private final IntHeap heap = new IntHeap(64);
+
+  /**
+   * @param mode              only {@link TraverseMode#CAR} and {@link TraverseMode#BICYCLE} are
+   *                          supported. Bicycle distances include streets where the bike must be
+   *                          walked.
+   * @param vertices          all vertices of the graph
+   * @param numberOfLandmarks the number of landmarks to select
+   */
+  public LandmarkTableBuilder(
+    TraverseMode mode,
+    Collection<Vertex> vertices,
+    int numberOfLandmarks
+  ) {
+    if (mode != TraverseMode.CAR && mode != TraverseMode.BICYCLE) {
+      throw new IllegalArgumentException("Landmarks are not supported for mode: " + mode);
+    }
+    this.mode = mode;
+    this.numberOfLandmarks = numberOfLandmarks;
+    this.vertices = vertices.toArray(Vertex[]::new);
+    this.slotByNode = new int[this.vertices.length];
+
+    for (int node = 0; node < this.vertices.length; ++node) {
+      var vertex = this.vertices[node];
+      nodeByVertex.put(vertex, node);
+      if (hasStreet(vertex)) {
+        slotByNode[node] = tableVertices.size();
+        tableVertices.add(vertex);
+      } else {
+        slotByNode[node] = -1;
+      }
+    }
+  }
+
+  public LandmarkTable build() {
+    int slots = tableVertices.size();
+    var dist = new double[vertices.length];
+    var landmarks = new ArrayList<Vertex>();
+    var fromLandmark = new char[slots * numberOfLandmarks];
+    var toLandmark = new char[slots * numberOfLandmarks];
+
+    // The shortest distance from any selected landmark to each vertex in the table. Start with the
+    // vertex furthest away from an arbitrary vertex.
+    var minDistance = new double[slots];
+    Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+    if (slots > 0) {
+      search(node(tableVertices.get(0)), true, dist);
+      forEachSlot((slot, node) -> minDistance[slot] = dist[node]);
+    }
+    int next = furthest(minDistance);
+    Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+
+    while (next >= 0 && landmarks.size() < numberOfLandmarks) {
+      int l = landmarks.size();
+      var landmark = tableVertices.get(next);
+      landmarks.add(landmark);
+
+      search(node(landmark), true, dist);
+      forEachSlot((slot, node) -> {
+        fromLandmark[slot * numberOfLandmarks + l] = units(dist[node]);
+        minDistance[slot] = Math.min(minDistance[slot], dist[node]);
+      });
+      search(node(landmark), false, dist);
+      forEachSlot((slot, node) -> toLandmark[slot * numberOfLandmarks + l] = units(dist[node]));
+      next = furthest(minDistance);
+    }
+
+    int n = landmarks.size();
+    return new LandmarkTable(
+      mode,
+      landmarks.toArray(Vertex[]::new),
+      tableVertices.toArray(Vertex[]::new),
+      compact(fromLandmark, n),
+      compact(toLandmark, n)
+    );
+  }
+
+  /** Find the slot with the longest finite distance, or -1 if all are zero or infinite. */
+  private static int furthest(double[] distBySlot) {
+    int best = -1;
+    double bestDistance = 0;
+    for (int slot = 0; slot < distBySlot.length; ++slot) {
+      double d = distBySlot[slot];
+      if (d > bestDistance && d != Double.POSITIVE_INFINITY) {
+        best = slot;
+        bestDistance = d;
+      }
+    }
+    return best;
+  }
+
+  private void forEachSlot(SlotConsumer body) {
+    for (int node = 0; node < vertices.length; ++node) {
+      if (slotByNode[node] >= 0) {
+        body.accept(slotByNode[node], node);
+      }
+    }
+  }
+
+  /**
+   * Find the shortest distance in meters from (or to, if not forward) the source to all vertices.
+   * The heap keys are rounded, so a node is searched again if a shorter distance is found after it
+   * is removed from the heap.
+   */
+  private void search(int source, boolean forward, double[] dist) {
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    dist[source] = 0;
+    heap.clear();
+    heap.insert(source, 0);
+
+    while (!heap.isEmpty()) {
+      int key = heap.minKey();
+      int node = heap.removeMin();
+      if (key > key(dist[node])) {
+        continue;
+      }
+      var vertex = vertices[node];
+      for (Edge edge : forward ? vertex.getOutgoing() : vertex.getIncoming()) {
+        double length = length(edge);
+        if (length < 0) {
+          continue;
+        }
+        Integer next = nodeByVertex.get(forward ? edge.getToVertex() : edge.getFromVertex());
+        if (next == null) {
+          continue;
+        }
+        double d = dist[node] + length;
+        if (d < dist[next]) {
+          dist[next] = d;
+          heap.insert(next, key(d));
+        }
+      }
+    }
+  }
+
+  /**
+   * The shortest length of the edge for the mode, or -1 if it can not be used. Edges which are not
+   * street edges have no length.
+   */
+  private double length(Edge edge) {
+    if (!(edge instanceof StreetEdge street)) {
+      return 0;
+    }
+    if (mode == TraverseMode.CAR) {
+      return street.canTraverse(TraverseMode.CAR) ? street.getDistanceMeters() : -1;
+    }
+    boolean bike = street.canTraverse(TraverseMode.BICYCLE);
+    boolean walk = street.canTraverse(TraverseMode.WALK);
+    if (!bike && !walk) {
+      return -1;
+    }
+    // The effective distances are shorter than the real distance on downhill streets
+    return Math.min(
+      street.getDistanceMeters(),
+      Math.min(street.getEffectiveBikeDistance(), street.getEffectiveWalkDistance())
+    );
+  }
+
+  private boolean hasStreet(Vertex vertex) {
+    for (Edge edge : vertex.getOutgoing()) {
+      if (edge instanceof StreetEdge && length(edge) >= 0) {
+        return true;
+      }
+    }
+    for (Edge edge : vertex.getIncoming()) {
+      if (edge instanceof StreetEdge && length(edge) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int node(Vertex vertex) {
+    return nodeByVertex.get(vertex);
+  }
+
+  private static int key(double meters) {
+    return (int) Math.min(meters * KEYS_PER_METER, Integer.MAX_VALUE);
+  }
+
+  private static char units(double meters) {
+    double units = Math.floor(meters / LandmarkTable.UNIT_METERS);
+    return (char) Math.min(units, LandmarkTable.MAX_UNITS);
+  }
+
+  /** Remove the unused landmark columns, if fewer landmarks than requested were found. */
+  private char[] compact(char[] distances, int n) {
+    if (n == numberOfLandmarks) {
+      return distances;
+    }
+    int slots = tableVertices.size();
+    var result = new char[slots * n];
+    for (int slot = 0; slot < slots; ++slot) {
+      System.arraycopy(distances, slot * numberOfLandmarks, result, slot * n, n);
+    }
+    return result;
+  }
+
+  @FunctionalInterface
+  private interface SlotConsumer {
+    void accept(int slot, int node);
+  }
+}
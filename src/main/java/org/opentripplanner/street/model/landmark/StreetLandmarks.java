@@ -0,0 +1,34 @@
+package org.opentripplanner.street.model.landmark;
+
+import java.io.Serializable;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.api.request.StreetMode;
+
+/**
+ * The landmark tables of the street network, used to estimate the remaining distance in car and
+ * bicycle searches. See {@link LandmarkTable}.
+ */
+public class StreetLandmarks implements Serializable {
+
+  private final LandmarkTable car;
+  private final LandmarkTable bicycle;
+
+  public StreetLandmarks(LandmarkTable car, LandmarkTable bicycle) {
+    this.car = car;
+    this.bicycle = bicycle;
+  }
+
+  /**
+   * The table to use for a street search with the given mode, or {@code null} if the mode is not
+   * supported. Modes which change the traverse mode during the search - rental, parking and
+   * flex - are not supported.
+   */
+  @Nullable
+  public LandmarkTable forMode(StreetMode mode) {
+    return switch (mode) {
+      case CAR -> car;
+      case BIKE -> bicycle;
+      default -> null;
+    };
+  }
+}
@@ -37,6 +37,12 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private transient Edge[] outgoing = new Edge[0];
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
+  /**
+   * A dense index of the vertex in the graph, assigned when the graph is indexed. The index is
+   * transient, so it is reassigned each time the graph is loaded.
+   */
+  private transient int index = -1;
+
   /* CONSTRUCTORS */
 
   protected Vertex(double x, double y) {
@@ -66,6 +72,15 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     this.incoming = new Edge[0];
   }
 
+  /**
+   * Set the edge lists to the given arrays, without copying them. This is used to restore the edge
+   * lists after deserialization, when the complete lists are known up front.
+   */
+  public void initEdgeLists(Edge[] outgoing, Edge[] incoming) {
+    this.outgoing = outgoing;
+    this.incoming = incoming;
+  }
+
   /* EDGE UTILITY METHODS (use arrays to eliminate copy-on-write set objects) */
 
   public void addOutgoing(Edge edge) {
@@ -106,6 +121,19 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
     return Arrays.asList(incoming);
   }
 
+  @Override
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * Set the dense index of this vertex. This should only be called by the graph when the vertices
+   * are indexed.
+   */
+  public void setIndex(int index) {
+    this.index = index;
+  }
+
   public int getDegreeOut() {
     return outgoing.length;
   }
@@ -84,21 +84,28 @@ public class StreetSearchBuilder extends AStarBuilder<State, Edge, Vertex, Stree
 
   @Override
   protected void prepareInitialStates(Collection<State> initialStates) {
-    if (intersectionTraversalCalculator == null) {
-      final StreetPreferences streetPreferences = routeRequest.preferences().street();
-      intersectionTraversalCalculator =
-        IntersectionTraversalCalculator.create(
-          streetPreferences.intersectionTraversalModel(),
-          streetPreferences.drivingDirection()
-        );
-    }
-
     for (var state : initialStates) {
-      state.getRequest().setIntersectionTraversalCalculator(intersectionTraversalCalculator);
+      state.getRequest().setIntersectionTraversalCalculator(intersectionTraversalCalculator(state));
       state.getRequest().setDataOverlayContext(dataOverlayContext);
     }
   }
 
+  /**
+   * The initial states may be created from different requests, see
+   * {@link #setInitialStates(Collection)}, so unless the calculator is set, it is created from
+   * the preferences of the state's request.
+   */
+  private IntersectionTraversalCalculator intersectionTraversalCalculator(State state) {
+    if (intersectionTraversalCalculator != null) {
+      return intersectionTraversalCalculator;
+    }
+    final StreetPreferences streetPreferences = state.getRequest().preferences().street();
+    return IntersectionTraversalCalculator.create(
+      streetPreferences.intersectionTraversalModel(),
+      streetPreferences.drivingDirection()
+    );
+  }
+
   @Override
   protected void initializeHeuristic(
     RemainingWeightHeuristic<State> heuristic,
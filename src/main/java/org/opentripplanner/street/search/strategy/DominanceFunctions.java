@@ -121,6 +121,20 @@ public abstract class DominanceFunctions implements Serializable, DominanceFunct
     }
   }
 
+  /**
+   * Minimum weight for a search starting with the states of several requests, see
+   * {@link org.opentripplanner.graph_builder.module.NearbyStopFinder#findNearbyStopsForTransfers}.
+   * States of different requests are not comparable, so each request is searched as if it was
+   * searched alone.
+   */
+  public static class MinimumWeightPerRequest extends MinimumWeight {
+
+    @Override
+    public boolean betterOrEqualAndComparable(State a, State b) {
+      return a.getRequest() == b.getRequest() && super.betterOrEqualAndComparable(a, b);
+    }
+  }
+
   /**
    * This approach is more coherent in Analyst when we are extracting travel times from the optimal
    * paths. It also leads to less branching and faster response times when building large shortest
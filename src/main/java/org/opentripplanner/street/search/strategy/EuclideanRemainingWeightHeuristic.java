@@ -47,6 +47,11 @@ public class EuclideanRemainingWeightHeuristic implements RemainingWeightHeurist
     lon = target.getLon();
   }
 
+  /** The highest speed for the mode, set when the heuristic is initialized. */
+  double maxStreetSpeed() {
+    return maxStreetSpeed;
+  }
+
   /** @return The highest speed for all possible road-modes. */
   private double getStreetSpeedUpperBound(RoutingPreferences preferences, StreetMode streetMode) {
     // Assume carSpeed > bikeSpeed > walkSpeed
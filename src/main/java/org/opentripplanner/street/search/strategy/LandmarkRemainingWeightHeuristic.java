@@ -0,0 +1,49 @@
+package org.opentripplanner.street.search.strategy;
+
+import java.util.Set;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.landmark.LandmarkTable;
+import org.opentripplanner.street.model.landmark.StreetLandmarks;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * A remaining weight strategy which uses the street distance bounds of a {@link LandmarkTable}
+ * where they are longer than the straight line distance. Both distances are converted to a weight
+ * using the highest speed of the mode, see {@link EuclideanRemainingWeightHeuristic}.
+ * <p>
+ * Only plain car and bicycle searches are supported, the straight line distance is used alone for
+ * other modes and for vertices which are not in the table.
+ */
+public class LandmarkRemainingWeightHeuristic extends EuclideanRemainingWeightHeuristic {
+
+  private final StreetLandmarks landmarks;
+  private LandmarkTable.DistanceBound distanceBound;
+
+  public LandmarkRemainingWeightHeuristic(StreetLandmarks landmarks) {
+    this.landmarks = landmarks;
+  }
+
+  @Override
+  public void initialize(
+    StreetMode streetMode,
+    Set<Vertex> fromVertices,
+    Set<Vertex> toVertices,
+    boolean arriveBy,
+    RoutingPreferences preferences
+  ) {
+    super.initialize(streetMode, fromVertices, toVertices, arriveBy, preferences);
+    var table = landmarks.forMode(streetMode);
+    distanceBound = table == null ? null : table.distanceBound(toVertices, arriveBy);
+  }
+
+  @Override
+  public double estimateRemainingWeight(State s) {
+    double estimate = super.estimateRemainingWeight(s);
+    if (distanceBound == null) {
+      return estimate;
+    }
+    return Math.max(estimate, distanceBound.minDistance(s.getVertex()) / maxStreetSpeed());
+  }
+}
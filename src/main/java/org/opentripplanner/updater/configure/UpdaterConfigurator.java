@@ -2,6 +2,7 @@ package org.opentripplanner.updater.configure;
 
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
 import org.opentripplanner.ext.siri.SiriTimetableSnapshotSource;
 import org.opentripplanner.ext.siri.updater.SiriETGooglePubsubUpdater;
 import org.opentripplanner.ext.siri.updater.SiriETUpdater;
@@ -12,6 +13,7 @@ import org.opentripplanner.ext.vehiclerentalservicedirectory.VehicleRentalServic
 import org.opentripplanner.ext.vehiclerentalservicedirectory.api.VehicleRentalServiceDirectoryFetcherParameters;
 import org.opentripplanner.framework.io.OtpHttpClient;
 import org.opentripplanner.model.calendar.openinghours.OpeningHoursCalendarService;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.vehiclepositions.VehiclePositionRepository;
 import org.opentripplanner.service.vehiclerental.VehicleRentalRepository;
@@ -48,6 +50,10 @@ public class UpdaterConfigurator {
   private final UpdatersParameters updatersParameters;
   private final VehiclePositionRepository vehiclePositionRepository;
   private final VehicleRentalRepository vehicleRentalRepository;
+
+  @Nullable
+  private final AccessEgressCache accessEgressCache;
+
   private SiriTimetableSnapshotSource siriTimetableSnapshotSource = null;
   private TimetableSnapshotSource gtfsTimetableSnapshotSource = null;
 
@@ -56,13 +62,15 @@ public class UpdaterConfigurator {
     VehiclePositionRepository vehiclePositionRepository,
     VehicleRentalRepository vehicleRentalRepository,
     TransitModel transitModel,
-    UpdatersParameters updatersParameters
+    UpdatersParameters updatersParameters,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     this.graph = graph;
     this.vehiclePositionRepository = vehiclePositionRepository;
     this.vehicleRentalRepository = vehicleRentalRepository;
     this.transitModel = transitModel;
     this.updatersParameters = updatersParameters;
+    this.accessEgressCache = accessEgressCache;
   }
 
   public static void configure(
@@ -70,14 +78,16 @@ public class UpdaterConfigurator {
     VehiclePositionRepository vehiclePositionService,
     VehicleRentalRepository vehicleRentalService,
     TransitModel transitModel,
-    UpdatersParameters updatersParameters
+    UpdatersParameters updatersParameters,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     new UpdaterConfigurator(
       graph,
       vehiclePositionService,
       vehicleRentalService,
       transitModel,
-      updatersParameters
+      updatersParameters,
+      accessEgressCache
     )
       .configure();
   }
@@ -128,7 +138,8 @@ public class UpdaterConfigurator {
     return VehicleRentalServiceDirectoryFetcher.createUpdatersFromEndpoint(
       parameters,
       graph.getLinker(),
-      vehicleRentalRepository
+      vehicleRentalRepository,
+      accessEgressCache
     );
   }
 
@@ -149,7 +160,13 @@ public class UpdaterConfigurator {
           otpHttpClient
         );
         updaters.add(
-          new VehicleRentalUpdater(configItem, source, graph.getLinker(), vehicleRentalRepository)
+          new VehicleRentalUpdater(
+            configItem,
+            source,
+            graph.getLinker(),
+            vehicleRentalRepository,
+            accessEgressCache
+          )
         );
       }
     }
@@ -194,7 +211,8 @@ public class UpdaterConfigurator {
           configItem,
           source,
           graph.getLinker(),
-          graph.getVehicleParkingService()
+          graph.getVehicleParkingService(),
+          accessEgressCache
         )
       );
     }
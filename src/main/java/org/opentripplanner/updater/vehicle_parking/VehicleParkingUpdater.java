@@ -8,6 +8,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -46,11 +48,15 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
   private final VehicleParkingService vehicleParkingService;
 
+  @Nullable
+  private final AccessEgressCache accessEgressCache;
+
   public VehicleParkingUpdater(
     VehicleParkingUpdaterParameters parameters,
     DataSource<VehicleParking> source,
     VertexLinker vertexLinker,
-    VehicleParkingService vehicleParkingService
+    VehicleParkingService vehicleParkingService,
+    @Nullable AccessEgressCache accessEgressCache
   ) {
     super(parameters);
     this.source = source;
@@ -58,6 +64,7 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
     this.linker = vertexLinker;
     // Adding a vehicle parking station service needs a graph writer runnable
     this.vehicleParkingService = vehicleParkingService;
+    this.accessEgressCache = accessEgressCache;
 
     LOG.info("Creating vehicle-parking updater running every {}: {}", pollingPeriod(), source);
   }
@@ -158,6 +165,10 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
       oldVehicleParkings.removeAll(toRemove);
       oldVehicleParkings.addAll(toAdd);
+
+      if (accessEgressCache != null) {
+        accessEgressCache.invalidateParkingModes();
+      }
     }
 
     private List<DisposableEdgeCollection> linkVehicleParkingVertexToStreets(
@@ -10,8 +10,10 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import org.opentripplanner.framework.time.TimeUtils;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.linking.DisposableEdgeCollection;
 import org.opentripplanner.routing.linking.LinkingDirection;
@@ -56,11 +58,15 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
   private final VehicleRentalRepository service;
 
+  @Nullable
+  private final AccessEgressCache accessEgressCache;
+
   public VehicleRentalUpdater(
     VehicleRentalUpdaterParameters parameters,
     VehicleRentalDatasource source,
     VertexLinker vertexLinker,
-    VehicleRentalRepository repository
+    VehicleRentalRepository repository,
+    @Nullable AccessEgressCache accessEgressCache
   ) throws IllegalArgumentException {
     super(parameters);
     // Configure updater
@@ -73,6 +79,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
     // Adding a vehicle rental station service needs a graph writer runnable
     this.service = repository;
+    this.accessEgressCache = accessEgressCache;
 
     try {
       // Do any setup if needed
@@ -223,6 +230,10 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           latestModifiedEdges.size()
         );
       }
+
+      if (accessEgressCache != null) {
+        accessEgressCache.invalidateRentalModes();
+      }
     }
   }
 }
@@ -10,6 +10,8 @@ import java.util.List;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.locationtech.jts.geom.Coordinate;
 import org.opentripplanner.astar.model.GraphPath;
 import org.opentripplanner.astar.model.ShortestPathTree;
@@ -157,8 +159,13 @@ public class AStarTest {
     assertEquals("leary_20th", states.get(n + 6).getVertex().getLabelString());
   }
 
-  @Test
-  public void testForwardExtraEdges() {
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  public void testForwardExtraEdges(boolean indexedShortestPathTree) {
+    if (indexedShortestPathTree) {
+      // The temporary vertices are not indexed
+      graph.indexVertices();
+    }
     var request = new RouteRequest();
 
     request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
@@ -185,6 +192,7 @@ public class AStarTest {
       .setRequest(request)
       .setFrom(from)
       .setTo(to)
+      .setIndexedShortestPathTree(indexedShortestPathTree)
       .getShortestPathTree();
 
     GraphPath<State, Edge, Vertex> path = tree.getPath(to);
@@ -283,10 +291,43 @@ public class AStarTest {
     }
   }
 
+  @Test
+  public void testPathsToTargetReusingTheWorkspace() {
+    graph.indexVertices();
+    var request = new RouteRequest();
+    request.withPreferences(pref -> pref.withWalk(w -> w.withSpeed(1.0)));
+
+    // The second search reuse the workspace of the first, the first path must not be affected
+    var first = pathToTarget(request, "56th_24th", "leary_20th");
+    var second = pathToTarget(request, "shilshole_20th", "56th_22nd");
+    var third = pathToTarget(request, "56th_24th", "leary_20th");
+
+    assertEquals(7, first.states.size());
+    assertEquals("leary_20th", first.states.get(6).getVertex().getLabelString());
+    assertEquals("shilshole_20th", second.states.get(0).getVertex().getLabelString());
+    assertEquals(
+      "56th_22nd",
+      second.states.get(second.states.size() - 1).getVertex().getLabelString()
+    );
+    assertEquals(first.getWeight(), third.getWeight());
+  }
+
   /****
    * Private Methods
    ****/
 
+  private GraphPath<State, Edge, Vertex> pathToTarget(RouteRequest request, String from, String to) {
+    var paths = StreetSearchBuilder
+      .of()
+      .setHeuristic(new EuclideanRemainingWeightHeuristic())
+      .setRequest(request)
+      .setFrom(graph.getVertex(from))
+      .setTo(graph.getVertex(to))
+      .getPathsToTarget();
+    assertEquals(1, paths.size());
+    return paths.get(0);
+  }
+
   private Vertex vertex(String label, double lat, double lon) {
     var v = StreetModelForTest.intersectionVertex(label, lat, lon);
     graph.addVertex(v);
@@ -131,4 +131,26 @@ public class BinHeapTest {
       assertTrue(bh.empty());
     }
   }
+
+  @Test
+  public void testClear() {
+    BinHeap<Integer> bh = new BinHeap<>(20);
+    for (int i = 0; i < 1000; i++) {
+      bh.insert(i, i);
+    }
+    for (int i = 0; i < 500; i++) {
+      bh.extract_min();
+    }
+    bh.clear();
+    assertTrue(bh.empty());
+    assertNull(bh.peek_min());
+
+    // A cleared heap can be reused, and keeps the capacity
+    bh.insert(2, 2);
+    bh.insert(1, 1);
+    assertEquals(1, bh.extract_min());
+    assertEquals(2, bh.extract_min());
+    assertNull(bh.extract_min());
+    assertTrue(bh.getCapacity() >= 1000);
+  }
 }
@@ -0,0 +1,63 @@
+package org.opentripplanner.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.astar.model.BinHeap;
+
+/**
+ * Use the {@link BinHeap} like the A* street search does: extract the state with the lowest
+ * weight, and insert the states reached from it with a higher weight. The weights are random,
+ * but generated with a fixed seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinHeapBenchmark {
+
+  private static final long SEED = 42;
+  private static final int BRANCHING = 3;
+
+  /** The number of elements extracted from the heap in each search */
+  @Param({ "1000", "100000" })
+  public int numberOfElements;
+
+  private double[] weightIncrements;
+
+  @Setup
+  public void setup() {
+    var random = new Random(SEED);
+    weightIncrements = new double[numberOfElements * BRANCHING];
+    for (int i = 0; i < weightIncrements.length; ++i) {
+      weightIncrements[i] = 1.0 + 100.0 * random.nextDouble();
+    }
+  }
+
+  @Benchmark
+  public void search(Blackhole blackhole) {
+    var heap = new BinHeap<Integer>();
+    heap.insert(0, 0.0);
+    int next = 0;
+    for (int i = 0; i < numberOfElements && !heap.empty(); ++i) {
+      double weight = heap.peek_min_key();
+      blackhole.consume(heap.extract_min());
+      for (int j = 0; j < BRANCHING; ++j, ++next) {
+        heap.insert(next, weight + weightIncrements[next]);
+      }
+    }
+  }
+}
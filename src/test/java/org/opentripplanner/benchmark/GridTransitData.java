@@ -0,0 +1,121 @@
+package org.opentripplanner.benchmark;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+
+/**
+ * Create a synthetic transit network for the benchmarks. The stops are laid out in a square grid,
+ * and there is a route in each direction along every row and every column. The trips run with a
+ * fixed headway through the day, and it is possible to walk diagonally to the stops next to each
+ * stop. The network is the same every time, so the results are reproducible without any test
+ * data files.
+ */
+class GridTransitData {
+
+  static final int FIRST_DEPARTURE = TimeUtils.time("05:00");
+  static final int LAST_DEPARTURE = TimeUtils.time("23:00");
+  static final int TIME_BETWEEN_STOPS = 120;
+  static final int DWELL_TIME = 20;
+  static final int WALK_BETWEEN_STOPS = 300;
+
+  private final int size;
+
+  private GridTransitData(int size) {
+    this.size = size;
+  }
+
+  /**
+   * @param size the number of stops along each side of the grid.
+   * @param headway the time between the trips of each route in seconds.
+   */
+  static TestTransitData create(int size, int headway) {
+    return new GridTransitData(size).create(headway);
+  }
+
+  /** The stop index of the stop at the given row and column */
+  static int stop(int size, int row, int col) {
+    return row * size + col;
+  }
+
+  private TestTransitData create(int headway) {
+    var data = new TestTransitData();
+    int nTrips = (LAST_DEPARTURE - FIRST_DEPARTURE) / headway + 1;
+
+    for (int i = 0; i < size; ++i) {
+      int[] row = new int[size];
+      int[] col = new int[size];
+      for (int j = 0; j < size; ++j) {
+        row[j] = stop(size, i, j);
+        col[j] = stop(size, j, i);
+      }
+      // Shift the departures of each route, to spread the trips through the headway
+      int offset = (i * 7 * 60) % headway;
+      addRoutes(data, "R" + i, row, nTrips, headway, offset);
+      addRoutes(data, "C" + i, col, nTrips, headway, headway - offset - 1);
+    }
+
+    for (int row = 0; row < size; ++row) {
+      for (int col = 0; col < size; ++col) {
+        addDiagonalTransfers(data, row, col);
+      }
+    }
+    return data;
+  }
+
+  private void addRoutes(
+    TestTransitData data,
+    String name,
+    int[] stops,
+    int nTrips,
+    int headway,
+    int offset
+  ) {
+    data.withRoute(createRoute(name + "-1", stops, nTrips, headway, offset));
+    data.withRoute(createRoute(name + "-2", reverse(stops), nTrips, headway, offset));
+  }
+
+  private static TestRoute createRoute(
+    String name,
+    int[] stops,
+    int nTrips,
+    int headway,
+    int offset
+  ) {
+    int[] arrivals = new int[stops.length];
+    int[] departures = new int[stops.length];
+    int time = FIRST_DEPARTURE + offset;
+    for (int i = 0; i < stops.length; ++i) {
+      arrivals[i] = time;
+      departures[i] = i == 0 ? time : time + DWELL_TIME;
+      time = departures[i] + TIME_BETWEEN_STOPS;
+    }
+    return route(name, stops)
+      .withTimetable(schedule().arrivals(arrivals).departures(departures).repeat(nTrips, headway));
+  }
+
+  private void addDiagonalTransfers(TestTransitData data, int row, int col) {
+    int from = stop(size, row, col);
+    for (int dr = -1; dr <= 1; dr += 2) {
+      for (int dc = -1; dc <= 1; dc += 2) {
+        int r = row + dr;
+        int c = col + dc;
+        if (r >= 0 && r < size && c >= 0 && c < size) {
+          data.withTransfer(from, TestTransfer.transfer(stop(size, r, c), WALK_BETWEEN_STOPS));
+        }
+      }
+    }
+  }
+
+  private static int[] reverse(int[] stops) {
+    int[] result = new int[stops.length];
+    for (int i = 0; i < stops.length; ++i) {
+      result[i] = stops[stops.length - 1 - i];
+    }
+    return result;
+  }
+}
@@ -0,0 +1,110 @@
+package org.opentripplanner.benchmark;
+
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.model.plan.SortOrder;
+import org.opentripplanner.routing.algorithm.filterchain.GroupBySimilarity;
+import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilterChain;
+import org.opentripplanner.routing.algorithm.filterchain.ItineraryListFilterChainBuilder;
+import org.opentripplanner.routing.api.request.preference.ItineraryFilterPreferences;
+
+/**
+ * Filter a list of itineraries with the filters used by default for a transit search, see
+ * {@code RouteRequestToFilterChainMapper}. The itineraries are a random mix of walking, one and
+ * two bus legs, generated with a fixed seed. Many of them use the same trips, so the group by
+ * similarity filters have something to do.
+ * <p>
+ * The filter chain and the itineraries are created once per iteration. The filters flag the
+ * itineraries for deletion, so each invocation removes the flags and filters a copy of the list.
+ * This is cheap compared to the filtering, and a per-invocation setup would distort the timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItineraryListFilterChainBenchmark implements PlanTestConstants {
+
+  private static final long SEED = 42;
+  private static final int N_TRIPS = 20;
+
+  @Param({ "20", "200" })
+  public int numberOfItineraries;
+
+  private ItineraryListFilterChain filterChain;
+  private List<Itinerary> itineraries;
+
+  @Setup(Level.Iteration)
+  public void setup() {
+    var params = ItineraryFilterPreferences.DEFAULT;
+    filterChain =
+      new ItineraryListFilterChainBuilder(SortOrder.STREET_AND_ARRIVAL_TIME)
+        .addGroupBySimilarity(
+          GroupBySimilarity.createWithOneItineraryPerGroup(params.groupSimilarityKeepOne())
+        )
+        .addGroupBySimilarity(
+          GroupBySimilarity.createWithMoreThanOneItineraryPerGroup(
+            params.groupSimilarityKeepThree(),
+            3,
+            true,
+            params.groupedOtherThanSameLegsMaxCostMultiplier()
+          )
+        )
+        .withMaxNumberOfItineraries(50)
+        .withTransitGeneralizedCostLimit(params.transitGeneralizedCostLimit())
+        .withNonTransitGeneralizedCostLimit(params.nonTransitGeneralizedCostLimit())
+        .withRemoveTransitWithHigherCostThanBestOnStreetOnly(
+          params.removeTransitWithHigherCostThanBestOnStreetOnly()
+        )
+        .withRemoveTransitIfWalkingIsBetter(true)
+        .build();
+
+    var random = new Random(SEED);
+    itineraries = new ArrayList<>();
+    for (int i = 0; i < numberOfItineraries; ++i) {
+      int start = T11_00 + random.nextInt(3600);
+      int trip = random.nextInt(N_TRIPS);
+      int duration = D5m + random.nextInt(D10m);
+      var itinerary =
+        switch (random.nextInt(4)) {
+          case 0 -> newItinerary(A, start).walk(D10m + duration, E).build();
+          case 1 -> newItinerary(A).bus(trip, start, start + duration, E).build();
+          case 2 -> newItinerary(A)
+            .bus(trip, start, start + duration, C)
+            .bus(N_TRIPS + trip, start + duration + D2m, start + 2 * duration, E)
+            .build();
+          default -> newItinerary(A, start)
+            .walk(D2m, B)
+            .bus(trip, start + D2m, start + D2m + duration, D)
+            .walk(D3m, E)
+            .build();
+        };
+      itineraries.add(itinerary);
+    }
+  }
+
+  @Benchmark
+  public List<Itinerary> filter() {
+    itineraries.forEach(Itinerary::removeDeletionFlags);
+    return filterChain.filter(new ArrayList<>(itineraries));
+  }
+}
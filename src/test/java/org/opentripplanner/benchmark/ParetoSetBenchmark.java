@@ -0,0 +1,65 @@
+package org.opentripplanner.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Insert stop arrivals into a {@link ParetoSet}, with the same criteria as the multi-criteria
+ * Raptor stop arrivals: arrival time, number of transfers and generalized cost. The arrivals are
+ * random, but generated with a fixed seed. Most arrivals are dominated by the set, like in a real
+ * search, and the {@code spread} controls how many arrivals survive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParetoSetBenchmark {
+
+  private static final long SEED = 42;
+  private static final int N_ARRIVALS = 1000;
+
+  private static final ParetoComparator<Arrival> COMPARATOR = (l, r) ->
+    l.time < r.time || l.transfers < r.transfers || l.cost < r.cost;
+
+  /** The range of the random arrival times and costs */
+  @Param({ "600", "3600" })
+  public int spread;
+
+  private Arrival[] arrivals;
+
+  @Setup
+  public void setup() {
+    var random = new Random(SEED);
+    arrivals = new Arrival[N_ARRIVALS];
+    for (int i = 0; i < N_ARRIVALS; ++i) {
+      arrivals[i] =
+        new Arrival(random.nextInt(spread), random.nextInt(5), 100 * random.nextInt(spread));
+    }
+  }
+
+  @Benchmark
+  public ParetoSet<Arrival> add() {
+    var set = new ParetoSet<>(COMPARATOR);
+    for (Arrival arrival : arrivals) {
+      set.add(arrival);
+    }
+    return set;
+  }
+
+  record Arrival(int time, int transfers, int cost) {}
+}
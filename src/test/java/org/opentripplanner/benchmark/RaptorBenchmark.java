@@ -0,0 +1,94 @@
+package org.opentripplanner.benchmark;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.tripbased.TripBasedSearch;
+import org.opentripplanner.raptor.tripbased.TripBasedTransitData;
+
+/**
+ * Run a Range Raptor search across a synthetic grid network, see {@link GridTransitData}. The
+ * search goes from one corner of the grid to the opposite corner, so all Raptor rounds up to the
+ * number of transfers needed are run over most of the stops. The standard profile measures the
+ * {@code DefaultRangeRaptorWorker} with the best-time stop arrivals, and the multi-criteria
+ * profile the {@code McStopArrivals} pareto sets.
+ * <p>
+ * With {@code tripBased} the search is done with the {@link TripBasedSearch} instead. The trip
+ * transfers are precomputed in the setup, like they are cached between requests in OTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorBenchmark {
+
+  private static final int ACCESS_EGRESS_DURATION = 300;
+
+  @Param({ "STANDARD", "MULTI_CRITERIA" })
+  public RaptorProfile profile;
+
+  @Param({ "10", "30" })
+  public int gridSize;
+
+  @Param({ "PT1H" })
+  public String searchWindow;
+
+  @Param({ "false", "true" })
+  public boolean tripBased;
+
+  private TestTransitData data;
+  private TripBasedTransitData<TestTripSchedule> tripBasedData;
+  private RaptorRequest<TestTripSchedule> request;
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  @Setup
+  public void setup() {
+    data = GridTransitData.create(gridSize, 600);
+    tripBasedData = tripBased ? TripBasedTransitData.create(data) : null;
+
+    int origin = GridTransitData.stop(gridSize, 0, 0);
+    int destination = GridTransitData.stop(gridSize, gridSize - 1, gridSize - 1);
+    var builder = new RaptorRequestBuilder<TestTripSchedule>().profile(profile);
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(origin, ACCESS_EGRESS_DURATION))
+      .addEgressPaths(TestAccessEgress.walk(destination, ACCESS_EGRESS_DURATION))
+      .earliestDepartureTime(TimeUtils.time("08:00"))
+      .searchWindow(Duration.parse(searchWindow))
+      // Like the default route request, return all departures in the search window
+      .timetable(true);
+    request = builder.build();
+  }
+
+  @Benchmark
+  public Collection<RaptorPath<TestTripSchedule>> route() {
+    return tripBased
+      ? raptorService.route(request, data, () -> tripBasedData).paths()
+      : raptorService.route(request, data).paths();
+  }
+}
@@ -0,0 +1,113 @@
+package org.opentripplanner.benchmark;
+
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.model.PickDrop;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.model.plan.Itinerary;
+import org.opentripplanner.raptor._data.api.TestPathBuilder;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.routing.algorithm.mapping.RaptorPathToItineraryMapper;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.cost.DefaultCostCalculator;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.service.DefaultTransitService;
+import org.opentripplanner.transit.service.TransitModel;
+
+/**
+ * Map a Raptor path with two bus legs to an itinerary. This is done for every path found by
+ * Raptor, before the itineraries are filtered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RaptorPathToItineraryMapperBenchmark {
+
+  private static final int N_STOPS = 10;
+  private static final int START_TIME = TimeUtils.time("10:00");
+
+  private RaptorPathToItineraryMapper<TestTripSchedule> mapper;
+  private RaptorPath<TestTripSchedule> path;
+
+  @Setup
+  public void setup() {
+    var transitSearchTimeZero = LocalDate.of(2023, 5, 1).atStartOfDay(ZoneIds.OSLO);
+    mapper =
+      new RaptorPathToItineraryMapper<>(
+        new Graph(),
+        new DefaultTransitService(new TransitModel()),
+        null,
+        transitSearchTimeZero,
+        new RouteRequest()
+      );
+
+    var costCalculator = new DefaultCostCalculator<TestTripSchedule>(
+      60,
+      120,
+      0.8,
+      new double[] { 1.0 },
+      null
+    );
+    var trip1 = trip("P1", 1, START_TIME);
+    var trip2 = trip("P2", N_STOPS, START_TIME + 30 * 60);
+    path =
+      new TestPathBuilder(costCalculator)
+        .access(START_TIME - 60, 1)
+        .bus(trip1, N_STOPS)
+        .bus(trip2, 2 * N_STOPS - 1)
+        .egress(0);
+  }
+
+  @Benchmark
+  public Itinerary createItinerary() {
+    return mapper.createItinerary(path);
+  }
+
+  /** Create a trip visiting {@link #N_STOPS} stops, starting at the given stop index */
+  private static TestTripSchedule trip(String name, int firstStop, int departureTime) {
+    int[] stops = new int[N_STOPS];
+    int[] times = new int[N_STOPS];
+    var stopTimes = new ArrayList<StopTime>();
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = firstStop + i;
+      times[i] = departureTime + 120 * i;
+
+      var stopTime = new StopTime();
+      stopTime.setPickupType(PickDrop.SCHEDULED);
+      stopTime.setDropOffType(PickDrop.SCHEDULED);
+      stopTime.setStop(TransitModelForTest.stopForTest("S" + stops[i], 60.0, 10.0 + 0.01 * i));
+      stopTimes.add(stopTime);
+    }
+    var route = TransitModelForTest.route(name).build();
+    var pattern = TestTripPattern.pattern(name, stops).withRoute(route);
+    var originalPattern = TripPattern
+      .of(TransitModelForTest.id(name))
+      .withRoute(route)
+      .withStopPattern(new StopPattern(stopTimes))
+      .build();
+    return schedule(pattern, originalPattern).times(times).build();
+  }
+}
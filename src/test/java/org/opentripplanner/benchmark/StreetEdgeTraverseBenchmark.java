@@ -0,0 +1,68 @@
+package org.opentripplanner.benchmark;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * Traverse a chain of street edges with a state, like the A* street search does for every edge
+ * it explores. The edges go in a zigzag, so the turn costs are calculated too.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreetEdgeTraverseBenchmark {
+
+  private static final int N_EDGES = 1000;
+  private static final double EDGE_LENGTH = 50.0;
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  public StreetMode mode;
+
+  private final List<StreetEdge> edges = new ArrayList<>();
+  private StreetVertex origin;
+  private StreetSearchRequest request;
+
+  @Setup
+  public void setup() {
+    origin = intersectionVertex(59.9, 10.7);
+    StreetVertex from = origin;
+    for (int i = 1; i <= N_EDGES; ++i) {
+      StreetVertex to = intersectionVertex(59.9 + 0.0003 * i, 10.7 + 0.0003 * (i % 2));
+      edges.add(streetEdge(from, to, EDGE_LENGTH, StreetTraversalPermission.ALL));
+      from = to;
+    }
+    request = StreetSearchRequest.of().withMode(mode).build();
+  }
+
+  @Benchmark
+  public State traverse() {
+    var state = new State(origin, request);
+    for (StreetEdge edge : edges) {
+      state = edge.traverse(state)[0];
+    }
+    return state;
+  }
+}
@@ -0,0 +1,77 @@
+package org.opentripplanner.benchmark;
+
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.framework.time.TimeUtils;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+
+/**
+ * Search for the first trip to board in a timetable, like Raptor does for each route and stop
+ * reached in a round. The timetables below and above the binary search threshold of the
+ * {@code TripScheduleBoardSearch} use different search strategies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripScheduleBoardSearchBenchmark {
+
+  private static final long SEED = 42;
+  private static final int N_SEARCHES = 1000;
+  private static final int N_STOPS = 10;
+  private static final int FIRST_DEPARTURE = TimeUtils.time("05:00");
+
+  @Param({ "10", "50", "100", "200", "1000" })
+  public int numberOfTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> search;
+  private int[] boardTimes;
+  private int[] stopPositions;
+
+  @Setup
+  public void setup() {
+    int[] times = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      times[i] = FIRST_DEPARTURE + 120 * i;
+    }
+    // Spread the trips over 18 hours
+    int headway = 18 * 3600 / numberOfTrips;
+    var route = route("R1", new int[N_STOPS])
+      .withTimetable(schedule().times(times).repeat(numberOfTrips, headway));
+    search = route.tripSearch(SearchDirection.FORWARD);
+
+    var random = new Random(SEED);
+    boardTimes = new int[N_SEARCHES];
+    stopPositions = new int[N_SEARCHES];
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      stopPositions[i] = random.nextInt(N_STOPS);
+      boardTimes[i] = FIRST_DEPARTURE + random.nextInt(19 * 3600);
+    }
+  }
+
+  @Benchmark
+  public void search(Blackhole blackhole) {
+    for (int i = 0; i < N_SEARCHES; ++i) {
+      blackhole.consume(search.search(boardTimes[i], stopPositions[i]).tripIndex());
+    }
+  }
+}
@@ -18,10 +18,12 @@ import org.junit.jupiter.api.function.Executable;
 import org.opentripplanner.TestOtpModel;
 import org.opentripplanner.framework.tostring.ToStringBuilder;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
 import org.opentripplanner.model.PathTransfer;
 import org.opentripplanner.routing.algorithm.GraphRoutingTest;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.street.model.StreetTraversalPermission;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.StreetVertex;
@@ -31,6 +33,7 @@ import org.opentripplanner.transit.model.basic.TransitMode;
 import org.opentripplanner.transit.model.network.StopPattern;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.service.DefaultTransitService;
 
 /**
  * This creates a graph with trip patterns
@@ -190,6 +193,46 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     );
   }
 
+  @Test
+  public void testIdenticalRequestsWithPatterns() {
+    var reqWalk = new RouteRequest();
+    reqWalk.journey().transfer().setMode(StreetMode.WALK);
+    var reqWheelchair = new RouteRequest();
+    reqWheelchair.journey().transfer().setMode(StreetMode.WALK);
+    reqWheelchair.setWheelchair(true);
+
+    var otpModel = model(true);
+    var graph = otpModel.graph();
+    graph.hasStreets = true;
+    var transitModel = otpModel.transitModel();
+    var issueStore = new DefaultDataImportIssueStore();
+
+    new DirectTransferGenerator(
+      graph,
+      transitModel,
+      issueStore,
+      MAX_TRANSFER_DURATION,
+      List.of(reqWalk, reqWheelchair)
+    )
+      .buildGraph();
+
+    // The same paths are found by both requests, only distinct transfers are stored
+    assertTransfers(
+      transitModel.getAllPathTransfers(),
+      tr(S0, 100, List.of(V0, V11), S11),
+      tr(S0, 100, List.of(V0, V21), S21),
+      tr(S11, 100, List.of(V11, V21), S21)
+    );
+
+    var report = issueStore
+      .listIssues()
+      .stream()
+      .filter(it -> it.getType().equals("DirectTransfers"))
+      .toList();
+    assertEquals(1, report.size());
+    assertTrue(report.get(0).getMessage().startsWith("Created 3 transfers from 2 of 7 stops"));
+  }
+
   @Test
   public void testMultipleRequestsWithoutPatterns() {
     var reqWalk = new RouteRequest();
@@ -250,6 +293,44 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     );
   }
 
+  @Test
+  public void testRequestsSearchedTogether() {
+    var reqWalk = new RouteRequest();
+    reqWalk.journey().transfer().setMode(StreetMode.WALK);
+    var reqBike = new RouteRequest();
+    reqBike.journey().transfer().setMode(StreetMode.BIKE);
+    var reqWheelchair = new RouteRequest();
+    reqWheelchair.journey().transfer().setMode(StreetMode.WALK);
+    reqWheelchair.setWheelchair(true);
+    var transferRequests = List.of(reqWalk, reqBike, reqWheelchair);
+
+    var otpModel = model(true);
+    otpModel.graph().hasStreets = true;
+    var transitModel = otpModel.transitModel();
+    transitModel.index();
+    var finder = new NearbyStopFinder(
+      new DefaultTransitService(transitModel),
+      MAX_TRANSFER_DURATION,
+      0,
+      null,
+      true
+    );
+
+    // Each request finds the same stops, with the same paths, as when searched alone
+    for (var origin : List.of(S0, S11, S21)) {
+      for (boolean reverse : List.of(false, true)) {
+        var together = finder.findNearbyStopsForTransfers(origin, transferRequests, reverse);
+        assertEquals(transferRequests.size(), together.size());
+        for (int i = 0; i < transferRequests.size(); ++i) {
+          var request = transferRequests.get(i);
+          var streetRequest = request.journey().transfer();
+          var alone = finder.findNearbyStops(origin, request, streetRequest, reverse);
+          assertEquals(describe(alone), describe(together.get(i)));
+        }
+      }
+    }
+  }
+
   @Test
   public void testTransferOnIsolatedStations() {
     var otpModel = model(true, false, true);
@@ -273,6 +354,14 @@ class DirectTransferGeneratorTest extends GraphRoutingTest {
     assertTrue(transitModel.getAllPathTransfers().isEmpty());
   }
 
+  private static List<String> describe(Collection<NearbyStop> stops) {
+    return stops
+      .stream()
+      .map(it -> it.stop.getId() + " " + it.distance + " " + it.edges)
+      .sorted()
+      .toList();
+  }
+
   private TestOtpModel model(boolean addPatterns) {
     return model(addPatterns, false);
   }
@@ -0,0 +1,157 @@
+package org.opentripplanner.graph_builder.module;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.vehicle_parking.VehicleParking;
+import org.opentripplanner.street.model._data.StreetModelForTest;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+import org.opentripplanner.street.model.vertex.SplitterVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertexBuilder;
+import org.opentripplanner.street.model.vertex.VehicleParkingEntranceVertex;
+import org.opentripplanner.street.model.vertex.VertexFactory;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.service.StopModel;
+import org.opentripplanner.transit.service.TransitModel;
+
+class StreetLinkerModuleTest {
+
+  private static final int GRID_SIZE = 10;
+  private static final double GRID_SPACING = 0.002;
+  private static final double LAT = 59.9;
+  private static final double LON = 10.7;
+
+  @Test
+  void parallelLinkingIsIdenticalToSequentialLinking() {
+    var sequential = linkedGraph(false);
+    var parallel = linkedGraph(true);
+
+    var sequentialEdges = edges(sequential);
+    assertEquals(sequentialEdges, edges(parallel));
+
+    // Make sure the stops are linked by splitting edges, also edges already split by other stops
+    int nStops = 250 + 50 + 5;
+    var stops = sequential.getVerticesOfType(TransitStopVertex.class);
+    assertEquals(nStops, stops.size());
+    assertTrue(stops.stream().allMatch(it -> it.getDegreeOut() > 0));
+    assertTrue(sequential.getVerticesOfType(SplitterVertex.class).size() > nStops);
+
+    var parkingEntrances = sequential.getVerticesOfType(VehicleParkingEntranceVertex.class);
+    assertEquals(20, parkingEntrances.size());
+    // Linked both for walking and driving
+    assertTrue(parkingEntrances.stream().allMatch(it -> it.getDegreeOut() >= 2));
+  }
+
+  private static Graph linkedGraph(boolean parallelLinking) {
+    var deduplicator = new Deduplicator();
+    var graph = new Graph(deduplicator);
+    var transitModel = new TransitModel(new StopModel(), deduplicator);
+    var factory = new VertexFactory(graph);
+
+    var grid = new IntersectionVertex[GRID_SIZE][GRID_SIZE];
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        grid[i][j] =
+          factory.intersection(
+            "V" + i + "_" + j,
+            LON + j * GRID_SPACING,
+            LAT + i * GRID_SPACING
+          );
+        if (i > 0) {
+          StreetModelForTest.streetEdge(grid[i][j], grid[i - 1][j]);
+          StreetModelForTest.streetEdge(grid[i - 1][j], grid[i][j]);
+        }
+        if (j > 0) {
+          StreetModelForTest.streetEdge(grid[i][j], grid[i][j - 1]);
+          StreetModelForTest.streetEdge(grid[i][j - 1], grid[i][j]);
+        }
+      }
+    }
+    graph.hasStreets = true;
+
+    double size = (GRID_SIZE - 1) * GRID_SPACING;
+    var random = new Random(42);
+    for (int i = 0; i < 250; ++i) {
+      addStop(graph, "S" + i, LAT + random.nextDouble() * size, LON + random.nextDouble() * size);
+    }
+    // Many stops along the same street, each splits an edge created by the previous split
+    for (int i = 0; i < 50; ++i) {
+      addStop(graph, "L" + i, LAT + GRID_SPACING * 0.4, LON + i * size / 50 + 0.0001);
+    }
+    // Stops outside the initial search radius
+    for (int i = 0; i < 5; ++i) {
+      addStop(graph, "F" + i, LAT - 0.003, LON + i * 0.004);
+    }
+    for (int i = 0; i < 20; ++i) {
+      addParking(
+        factory,
+        "P" + i,
+        LAT + random.nextDouble() * size,
+        LON + random.nextDouble() * size
+      );
+    }
+
+    new StreetLinkerModule(
+      graph,
+      transitModel,
+      DataImportIssueStore.NOOP,
+      false,
+      parallelLinking
+    )
+      .buildGraph();
+    return graph;
+  }
+
+  private static void addStop(Graph graph, String id, double lat, double lon) {
+    var stop = TransitModelForTest.stop(id).withCoordinate(lat, lon).build();
+    graph.addVertex(new TransitStopVertexBuilder().withStop(stop).build());
+  }
+
+  private static void addParking(VertexFactory factory, String id, double lat, double lon) {
+    var parking = VehicleParking
+      .builder()
+      .id(TransitModelForTest.id(id))
+      .entrance(builder ->
+        builder
+          .entranceId(TransitModelForTest.id(id))
+          .coordinate(new WgsCoordinate(lat, lon))
+          .carAccessible(true)
+          .walkAccessible(true)
+      )
+      .build();
+    factory.vehicleParkingEntrance(parking.getEntrances().get(0));
+  }
+
+  /**
+   * The split vertices are numbered, so compare the edges by type, geometry and length.
+   */
+  private static List<String> edges(Graph graph) {
+    return graph
+      .getEdges()
+      .stream()
+      .map(StreetLinkerModuleTest::toString)
+      .sorted()
+      .toList();
+  }
+
+  private static String toString(Edge e) {
+    return (
+      e.getClass().getSimpleName() +
+      " " +
+      e.getFromVertex().getCoordinate() +
+      " -> " +
+      e.getToVertex().getCoordinate() +
+      " " +
+      e.getDistanceMeters()
+    );
+  }
+}
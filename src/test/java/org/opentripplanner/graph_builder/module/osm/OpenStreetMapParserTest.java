@@ -1,26 +1,29 @@
 package org.opentripplanner.graph_builder.module.osm;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import gnu.trove.list.TLongList;
 import java.io.File;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
+import org.opentripplanner.openstreetmap.OsmPhaseStatistics;
 import org.opentripplanner.openstreetmap.OsmProvider;
 import org.opentripplanner.openstreetmap.model.OSMNode;
 import org.opentripplanner.openstreetmap.model.OSMWay;
+import org.opentripplanner.openstreetmap.tagmapping.OsmTagMapperSource;
 
 public class OpenStreetMapParserTest {
 
   @Test
   public void testBinaryParser() {
-    File osmFile = new File(
-      URLDecoder.decode(getClass().getResource("map.osm.pbf").getPath(), StandardCharsets.UTF_8)
-    );
-    OsmProvider pr = new OsmProvider(osmFile, true);
+    OsmProvider pr = new OsmProvider(osmFile(), true);
     OsmDatabase osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
 
     pr.readOSM(osmdb);
@@ -46,4 +49,85 @@ public class OpenStreetMapParserTest {
     assertEquals("Potlatch 0.9a", wayA.getTag("created_by"));
     assertEquals("secondary", wayA.getTag("highway"));
   }
+
+  @Test
+  public void testBinaryParserWithCompactNodeStore() {
+    OsmDatabase expected = new OsmDatabase(DataImportIssueStore.NOOP);
+    new OsmProvider(osmFile(), true).readOSM(expected);
+
+    OsmDatabase osmdb = new OsmDatabase(DataImportIssueStore.NOOP, true);
+    new OsmProvider(osmFile(), true).readOSM(osmdb);
+
+    assertEquals(expected.nodeCount(), osmdb.nodeCount());
+    assertEquals(expected.wayCount(), osmdb.wayCount());
+
+    for (OSMWay way : expected.getWays()) {
+      for (long nodeId : way.getNodeRefs().toArray()) {
+        OSMNode expectedNode = expected.getNode(nodeId);
+        OSMNode node = osmdb.getNode(nodeId);
+        assertEquals(expectedNode, node);
+        assertEquals(expectedNode.lat, node.lat);
+        assertEquals(expectedNode.lon, node.lon);
+        assertEquals(expectedNode.getTags(), node.getTags());
+      }
+    }
+
+    // Tagged nodes are kept as is
+    OSMNode nodeA = osmdb.getNode(314192918L);
+    assertSame(nodeA, osmdb.getNode(314192918L));
+    assertEquals("level_crossing", nodeA.getTag("railway"));
+  }
+
+  @Test
+  public void testSinglePass() {
+    OsmProvider threePasses = new OsmProvider(osmFile(), false);
+    OsmDatabase expected = new OsmDatabase(DataImportIssueStore.NOOP);
+    threePasses.readOSM(expected);
+
+    OsmProvider singlePass = new OsmProvider(
+      new FileDataSource(osmFile(), FileType.OSM),
+      OsmTagMapperSource.DEFAULT,
+      null,
+      false,
+      true
+    );
+    OsmDatabase osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+    singlePass.readOSM(osmdb);
+
+    assertEquals(expected.nodeCount(), osmdb.nodeCount());
+    assertEquals(expected.wayCount(), osmdb.wayCount());
+
+    for (OSMWay expectedWay : expected.getWays()) {
+      OSMWay way = osmdb.getWay(expectedWay.getId());
+      assertEquals(expectedWay.getNodeRefs(), way.getNodeRefs());
+      assertEquals(expectedWay.getTags(), way.getTags());
+      assertSame(singlePass, way.getOsmProvider());
+
+      for (long nodeId : way.getNodeRefs().toArray()) {
+        OSMNode expectedNode = expected.getNode(nodeId);
+        OSMNode node = osmdb.getNode(nodeId);
+        assertEquals(expectedNode.lat, node.lat);
+        assertEquals(expectedNode.lon, node.lon);
+        assertEquals(expectedNode.getTags(), node.getTags());
+      }
+    }
+
+    // The file is read once, then the ways and nodes are read back from the temporary files
+    var phases = singlePass.phaseStatistics();
+    assertEquals(
+      List.of("SinglePass", "Ways", "Nodes"),
+      phases.stream().map(OsmPhaseStatistics::phase).toList()
+    );
+    assertEquals(osmFile().length(), phases.get(0).bytesRead());
+    assertEquals(3, threePasses.phaseStatistics().size());
+    threePasses
+      .phaseStatistics()
+      .forEach(it -> assertEquals(osmFile().length(), it.bytesRead()));
+  }
+
+  private File osmFile() {
+    return new File(
+      URLDecoder.decode(getClass().getResource("map.osm.pbf").getPath(), StandardCharsets.UTF_8)
+    );
+  }
 }
@@ -0,0 +1,81 @@
+package org.opentripplanner.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V1;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V2;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V3;
+import static org.opentripplanner.street.model._data.StreetModelForTest.V4;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import com.google.common.collect.Lists;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.Edge;
+
+class TransferPathTrieTest {
+
+  private static final Edge E12 = streetEdge(V1, V2);
+  private static final Edge E23 = streetEdge(V2, V3);
+  private static final Edge E34 = streetEdge(V3, V4);
+  private static final Edge E24 = streetEdge(V2, V4);
+
+  @Test
+  void shareCommonPrefix() {
+    var subject = new TransferPathTrie();
+
+    int a = subject.add(List.of(E12, E23, E34));
+    int b = subject.add(List.of(E12, E24));
+    int c = subject.add(List.of(E12, E23));
+    subject.compact();
+
+    // E12 and E23 are shared
+    assertEquals(4, subject.size());
+    assertEquals(List.of(E12, E23, E34), subject.path(a));
+    assertEquals(List.of(E12, E24), subject.path(b));
+    assertEquals(List.of(E12, E23), subject.path(c));
+  }
+
+  @Test
+  void identicalPathsHaveTheSameIndex() {
+    var subject = new TransferPathTrie();
+
+    int a = subject.add(List.of(E12, E23));
+    int b = subject.add(List.of(E12, E24));
+
+    assertEquals(a, subject.add(List.of(E12, E23)));
+    assertNotEquals(a, b);
+    assertEquals(3, subject.size());
+  }
+
+  @Test
+  void emptyPath() {
+    var subject = new TransferPathTrie();
+    int index = subject.add(List.of());
+    subject.compact();
+
+    assertEquals(List.of(), subject.path(index));
+  }
+
+  @Test
+  void accessPathElements() {
+    var subject = new TransferPathTrie();
+    var path = subject.path(subject.add(List.of(E12, E23, E34)));
+
+    assertEquals(3, path.size());
+    assertEquals(E12, path.get(0));
+    assertEquals(E34, path.get(2));
+    assertEquals(List.of(E34, E23, E12), Lists.reverse(path));
+    assertThrows(IndexOutOfBoundsException.class, () -> path.get(3));
+    assertThrows(UnsupportedOperationException.class, () -> path.add(E12));
+  }
+
+  @Test
+  void addAfterCompact() {
+    var subject = new TransferPathTrie();
+    subject.compact();
+
+    assertThrows(IllegalStateException.class, () -> subject.add(List.of(E12)));
+  }
+}
@@ -39,6 +39,7 @@ public class RaptorArchitectureTest {
   private static final Package RR_STANDARD = RANGE_RAPTOR.subPackage("standard");
   private static final Package RR_STD_CONFIGURE = RR_STANDARD.subPackage("configure");
   private static final Package RR_CONTEXT = RANGE_RAPTOR.subPackage("context");
+  private static final Package TRIP_BASED = RAPTOR.subPackage("tripbased");
 
   /**
    * Packages used by standard-range-raptor and multi-criteria-range-raptor.
@@ -205,6 +206,21 @@ public class RaptorArchitectureTest {
       .verify();
   }
 
+  @Test
+  void enforcePackageDependenciesInTripBased() {
+    TRIP_BASED
+      .dependsOn(
+        FRAMEWORK_UTILS,
+        GNU_TROVE,
+        RAPTOR_API,
+        RAPTOR_SPI,
+        RAPTOR_UTILS,
+        RAPTOR_PATH,
+        RR_PATH
+      )
+      .verify();
+  }
+
   @Test
   void enforcePackageDependenciesInConfigure() {
     CONFIGURE
@@ -1,6 +1,6 @@
 package org.opentripplanner.raptor._data.transit;
 
-import java.util.function.IntUnaryOperator;
+import java.util.Arrays;
 import org.opentripplanner.raptor.api.model.SearchDirection;
 import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripScheduleSearchFactory;
@@ -9,6 +9,8 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.TripS
 public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSchedule> {
 
   private final TestTripSchedule[] trips;
+  private final int[][] arrivalTimes;
+  private final int[][] departureTimes;
 
   public TestTripSearchTimetable(TestRoute route) {
     int nTrips = route.timetable().numberOfTripSchedules();
@@ -17,6 +19,10 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
     for (int i = 0; i < nTrips; ++i) {
       trips[i] = route.getTripSchedule(i);
     }
+    // Some tests use trips with fewer stops than the pattern, so the times are created when used
+    int nStops = route.pattern().numberOfStopsInPattern();
+    this.arrivalTimes = new int[nStops][];
+    this.departureTimes = new int[nStops][];
   }
 
   @Override
@@ -30,13 +36,21 @@ public class TestTripSearchTimetable implements TripSearchTimetable<TestTripSche
   }
 
   @Override
-  public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
-    return (int tripIndex) -> trips[tripIndex].arrival(stopPositionInPattern);
+  public int[] getArrivalTimes(int stopPositionInPattern) {
+    if (arrivalTimes[stopPositionInPattern] == null) {
+      arrivalTimes[stopPositionInPattern] =
+        Arrays.stream(trips).mapToInt(it -> it.arrival(stopPositionInPattern)).toArray();
+    }
+    return arrivalTimes[stopPositionInPattern];
   }
 
   @Override
-  public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
-    return (int tripIndex) -> trips[tripIndex].departure(stopPositionInPattern);
+  public int[] getDepartureTimes(int stopPositionInPattern) {
+    if (departureTimes[stopPositionInPattern] == null) {
+      departureTimes[stopPositionInPattern] =
+        Arrays.stream(trips).mapToInt(it -> it.departure(stopPositionInPattern)).toArray();
+    }
+    return departureTimes[stopPositionInPattern];
   }
 
   @Override
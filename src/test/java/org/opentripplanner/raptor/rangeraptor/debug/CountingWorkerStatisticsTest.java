@@ -0,0 +1,95 @@
+package org.opentripplanner.raptor.rangeraptor.debug;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.debug.RaptorRoundStatistics;
+import org.opentripplanner.raptor.api.debug.RaptorSearchStatistics;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class CountingWorkerStatisticsTest implements RaptorTestConstants {
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorService<TestTripSchedule> service = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+  private final Statistics statistics = new Statistics();
+
+  /**
+   * Routes R1: A - B - C and R2: D - E, with a transfer from C to D.
+   */
+  @Test
+  void countWorkDoneInEachRound() {
+    data
+      .withRoutes(
+        route("R1", STOP_A, STOP_B, STOP_C).withTimetable(schedule("00:01 00:03 00:05")),
+        route("R2", STOP_D, STOP_E).withTimetable(schedule("00:10 00:15"))
+      )
+      .withTransfer(STOP_C, transfer(STOP_D, D1m));
+
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder.profile(RaptorProfile.STANDARD).searchStatistics(statistics);
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_E, D20s))
+      .earliestDepartureTime(T00_00)
+      .latestArrivalTime(T00_30)
+      .searchOneIterationOnly()
+      .timetable(true);
+
+    var response = service.route(builder.build(), data);
+
+    assertFalse(response.paths().isEmpty());
+    assertEquals(1, statistics.iterations);
+
+    var round1 = statistics.rounds.get(0);
+    assertEquals(new RaptorRoundStatistics(1, 1, 1, 2, 1, 0), round1);
+
+    var round2 = statistics.rounds.get(1);
+    assertEquals(2, round2.round());
+    assertTrue(round2.routesScanned() >= 1, round2.toString());
+    assertEquals(1, round2.tripsBoarded(), round2.toString());
+  }
+
+  @Test
+  void noStatisticsByDefault() {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    assertEquals(RaptorSearchStatistics.NOOP, builder.searchStatistics());
+  }
+
+  private static class Statistics implements RaptorSearchStatistics {
+
+    private final List<RaptorRoundStatistics> rounds = new ArrayList<>();
+    private int iterations = 0;
+
+    @Override
+    public void roundComplete(RaptorRoundStatistics round) {
+      rounds.add(round);
+    }
+
+    @Override
+    public void iterationComplete(long durationNanos) {
+      ++iterations;
+    }
+
+    @Override
+    public RaptorSearchStatistics withNamePrefix(String namePrefix) {
+      return this;
+    }
+  }
+}
@@ -124,6 +124,26 @@ class McStopArrivalTest {
     );
   }
 
+  @Test
+  void testDominates() {
+    var subject = new A(ARRIVAL_TIME_EARLY, PARETO_ROUND_ONE, COST_100, COST_777, ARRIVED_ON_FOOT);
+
+    // Same values do not dominate
+    assertFalse(subject.dominates(ARRIVAL_TIME_EARLY, PARETO_ROUND_ONE, COST_100, ARRIVED_ON_FOOT));
+    // One value is better, others the same
+    assertTrue(subject.dominates(ARRIVAL_TIME_LATE, PARETO_ROUND_ONE, COST_100, ARRIVED_ON_FOOT));
+    assertTrue(subject.dominates(ARRIVAL_TIME_EARLY, PARETO_ROUND_TWO, COST_100, ARRIVED_ON_FOOT));
+    assertTrue(subject.dominates(ARRIVAL_TIME_EARLY, PARETO_ROUND_ONE, COST_777, ARRIVED_ON_FOOT));
+    // One value is better and one is worse
+    assertFalse(subject.dominates(ARRIVAL_TIME_LATE, PARETO_ROUND_ONE, 99, ARRIVED_ON_FOOT));
+    // An arrival on foot does not dominate an arrival on-board, but the opposite is ok
+    assertFalse(subject.dominates(ARRIVAL_TIME_LATE, PARETO_ROUND_TWO, COST_777, ARRIVED_ON_BOARD));
+    assertTrue(
+      new A(ARRIVAL_TIME_EARLY, PARETO_ROUND_ONE, COST_100, COST_777, ARRIVED_ON_BOARD)
+        .dominates(ARRIVAL_TIME_LATE, PARETO_ROUND_ONE, COST_100, ARRIVED_ON_FOOT)
+    );
+  }
+
   private static class A extends McStopArrival<TestTripSchedule> {
 
     int c2;
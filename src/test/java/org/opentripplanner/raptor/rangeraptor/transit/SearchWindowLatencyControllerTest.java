@@ -0,0 +1,101 @@
+package org.opentripplanner.raptor.rangeraptor.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.request.DynamicSearchWindowCoefficients;
+
+class SearchWindowLatencyControllerTest {
+
+  /** One hour search window, 60 iterations + 1 */
+  private static final int SW_1H = 3600;
+  private static final int ITERATIONS_1H = 61;
+  private static final long MILLIS = 1_000_000;
+
+  private static final DynamicSearchWindowCoefficients C = new DynamicSearchWindowCoefficients() {
+    @Override
+    public Duration minWindow() {
+      return Duration.ofMinutes(20);
+    }
+
+    @Override
+    public Duration maxWindow() {
+      return Duration.ofHours(3);
+    }
+
+    @Override
+    public int stepMinutes() {
+      return 10;
+    }
+
+    @Override
+    public Duration latencyTarget() {
+      return Duration.ofMillis(500);
+    }
+  };
+
+  private final SearchWindowLatencyController subject = new SearchWindowLatencyController(C, 60);
+
+  @Test
+  void disabledByDefault() {
+    var controller = new SearchWindowLatencyController(new DynamicSearchWindowCoefficients() {}, 60);
+    assertFalse(controller.isEnabled());
+
+    record(controller, 100, 10 * MILLIS);
+    assertEquals(Duration.ofHours(3), controller.maxWindow());
+    assertEquals(0, controller.numberOfAdjustments());
+  }
+
+  @Test
+  void startWithMaxWindow() {
+    assertTrue(subject.isEnabled());
+    assertEquals(Duration.ofHours(3), subject.maxWindow());
+  }
+
+  @Test
+  void shrinkAndGrowWindowToMeetTarget() {
+    // 10ms per iteration -> 50 iterations within the target -> 49 minutes -> rounded to 40
+    record(subject, 20, 10 * MILLIS);
+    assertEquals(Duration.ofMinutes(40), subject.maxWindow());
+    assertEquals(1, subject.numberOfAdjustments());
+
+    // The 95th percentile is still 10ms until most of the old samples are replaced
+    record(subject, 180, 4 * MILLIS);
+    assertEquals(Duration.ofMinutes(40), subject.maxWindow());
+
+    // 4ms per iteration -> 125 iterations -> 124 minutes -> rounded to 120
+    record(subject, 20, 4 * MILLIS);
+    assertEquals(Duration.ofMinutes(120), subject.maxWindow());
+    assertEquals(2, subject.numberOfAdjustments());
+  }
+
+  @Test
+  void keepWindowWithinMinAndMax() {
+    record(subject, 20, 100 * MILLIS);
+    assertEquals(Duration.ofMinutes(20), subject.maxWindow());
+
+    record(subject, 200, MILLIS / 10);
+    assertEquals(Duration.ofHours(3), subject.maxWindow());
+  }
+
+  @Test
+  void ignoreOneIterationSearches() {
+    for (int i = 0; i < 20; ++i) {
+      subject.recordSearch(0, 100 * MILLIS);
+    }
+    assertEquals(Duration.ofHours(3), subject.maxWindow());
+  }
+
+  private static void record(
+    SearchWindowLatencyController controller,
+    int nSearches,
+    long nanosPerIteration
+  ) {
+    for (int i = 0; i < nSearches; ++i) {
+      controller.recordSearch(SW_1H, ITERATIONS_1H * nanosPerIteration);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.framework.time.TimeUtils.hm2time;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.lang.IntUtils;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.RaptorTravelDurationLowerBounds;
+
+class RangeRaptorDynamicSearchTest implements RaptorTestConstants {
+
+  private static final int EDT = hm2time(8, 0);
+  private static final int TOO_HIGH_LOWER_BOUND = hm2time(5, 0);
+
+  private final RaptorService<TestTripSchedule> service = new RaptorService<>(
+    RaptorConfig.defaultConfigForTest()
+  );
+
+  @Test
+  void useLowerBoundsForDestinationPruningWhenPaging() {
+    var request = request(Duration.ofHours(1)).build();
+
+    var expected = service.route(request, data(null));
+    var result = service.route(request, data(0));
+
+    assertFalse(expected.paths().isEmpty());
+    assertEquals(PathUtils.pathsToString(expected), PathUtils.pathsToString(result));
+
+    // Paths are pruned when a lower bound is too high, this verifies that the lower bounds are used.
+    result = service.route(request, data(TOO_HIGH_LOWER_BOUND));
+    assertTrue(result.paths().size() < expected.paths().size(), result.paths().toString());
+  }
+
+  @Test
+  void doNotUseLowerBoundsIfTheSearchWindowIsNotSet() {
+    var request = request(null).build();
+
+    var expected = service.route(request, data(null));
+    var result = service.route(request, data(TOO_HIGH_LOWER_BOUND));
+
+    assertFalse(expected.paths().isEmpty());
+    assertEquals(PathUtils.pathsToString(expected), PathUtils.pathsToString(result));
+  }
+
+  /**
+   * @param lowerBound the lower bound for all stops, or {@code null} if there are no lower bounds
+   */
+  private static TestTransitData data(@Nullable Integer lowerBound) {
+    var data = new TestTransitData() {
+      @Override
+      public RaptorTravelDurationLowerBounds travelDurationLowerBounds() {
+        return lowerBound == null
+          ? null
+          : egressPaths -> IntUtils.intArray(numberOfStops(), lowerBound);
+      }
+    };
+    data.withRoutes(
+      route("R1", STOP_A, STOP_B, STOP_C)
+        .withTimetable(schedule("08:10 08:20 08:30"), schedule("08:40 08:50 09:00")),
+      route("R2", STOP_C, STOP_D).withTimetable(schedule("08:35 08:45"), schedule("09:05 09:15")),
+      route("R3", STOP_A, STOP_E).withTimetable(schedule("08:05 08:40"))
+    );
+    data.withTransfer(STOP_E, transfer(STOP_D, D2m));
+    return data;
+  }
+
+  private static RaptorRequestBuilder<TestTripSchedule> request(Duration searchWindow) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARETO_CHECK_AGAINST_DESTINATION);
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D1m))
+      .earliestDepartureTime(EDT)
+      .timetable(true);
+    if (searchWindow != null) {
+      builder.searchParams().searchWindow(searchWindow);
+    }
+    return builder;
+  }
+}
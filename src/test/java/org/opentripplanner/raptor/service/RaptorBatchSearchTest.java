@@ -0,0 +1,141 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+
+class RaptorBatchSearchTest implements RaptorTestConstants {
+
+  private static final int N_ORIGINS = 20;
+
+  private final TestTransitData data = new TestTransitData()
+    .withRoute(
+      route("R1", STOP_A, STOP_B, STOP_C, STOP_D)
+        .withTimetable(
+          schedule("00:02 00:04 00:06 00:08"),
+          schedule("00:12 00:14 00:16 00:18"),
+          schedule("00:22 00:24 00:26 00:28")
+        )
+    );
+
+  private final RaptorConfig<TestTripSchedule> multiThreadedConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+    }
+  );
+
+  @AfterEach
+  void shutdown() {
+    multiThreadedConfig.shutdown();
+  }
+
+  @Test
+  void routeInOneThread() {
+    assertResponsesInRequestOrder(RaptorConfig.defaultConfigForTest());
+  }
+
+  @Test
+  void routeInParallel() {
+    assertResponsesInRequestOrder(multiThreadedConfig);
+  }
+
+  @Test
+  void multiCriteriaIsNotSupported() {
+    var request = request(STOP_A, T00_00, RaptorProfile.MULTI_CRITERIA);
+    var subject = new RaptorBatchSearch<>(multiThreadedConfig, data);
+    assertThrows(IllegalArgumentException.class, () -> subject.route(List.of(request), r -> {}));
+  }
+
+  @Test
+  void consumerFailureStopsTheBatch() {
+    var requests = new ArrayList<RaptorRequest<TestTripSchedule>>();
+    for (int i = 0; i < N_ORIGINS; ++i) {
+      requests.add(request(STOP_A, i * D1m, RaptorProfile.BEST_TIME));
+    }
+    var consumed = new ArrayList<RaptorResponse<TestTripSchedule>>();
+    var subject = new RaptorBatchSearch<>(multiThreadedConfig, data);
+
+    assertThrows(
+      IllegalStateException.class,
+      () ->
+        subject.route(
+          requests,
+          r -> {
+            consumed.add(r);
+            throw new IllegalStateException("Consumer failed");
+          }
+        )
+    );
+    assertEquals(1, consumed.size());
+  }
+
+  /**
+   * Search from stop A and B every 5 minutes. The best arrival time at stop D is the arrival of
+   * the first trip departing after the origin stop is reached.
+   */
+  private void assertResponsesInRequestOrder(RaptorConfig<TestTripSchedule> config) {
+    var requests = new ArrayList<RaptorRequest<TestTripSchedule>>();
+    for (int i = 0; i < N_ORIGINS; ++i) {
+      int stop = i % 2 == 0 ? STOP_A : STOP_B;
+      requests.add(request(stop, (i / 2) * D5m, RaptorProfile.BEST_TIME));
+    }
+
+    var responses = new ArrayList<RaptorResponse<TestTripSchedule>>();
+    new RaptorBatchSearch<>(config, data).route(requests, responses::add);
+
+    assertEquals(N_ORIGINS, responses.size());
+    for (int i = 0; i < N_ORIGINS; ++i) {
+      var response = responses.get(i);
+      assertEquals(requests.get(i), response.requestUsed());
+
+      // Trips leave stop A at 00:02, 00:12 and 00:22, and stop B two minutes later
+      int departure = requests.get(i).searchParams().earliestDepartureTime();
+      int tripOffset = i % 2 == 0 ? 0 : D2m;
+      int trip = (departure + D30s - tripOffset - D2m + D10m - 1) / D10m;
+      var arrivals = response.getArrivals();
+
+      if (trip < 3) {
+        assertEquals(D8m + trip * D10m, arrivals.bestTransitArrivalTime(STOP_D), "Request " + i);
+      } else {
+        assertFalse(arrivals.reachedByTransit(STOP_D), "Request " + i);
+      }
+    }
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(
+    int stop,
+    int departureTime,
+    RaptorProfile profile
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .profile(profile)
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(stop, D30s))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D30s))
+      .earliestDepartureTime(departureTime)
+      .latestArrivalTime(T01_00)
+      .searchOneIterationOnly();
+    return builder.build();
+  }
+}
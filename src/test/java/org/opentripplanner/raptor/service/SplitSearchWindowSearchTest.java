@@ -0,0 +1,159 @@
+package org.opentripplanner.raptor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.framework.time.TimeUtils.hm2time;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripPattern.pattern;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.api.PathUtils;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestRoute;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripPattern;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.service.SplitSearchWindowSearch.Part;
+
+class SplitSearchWindowSearchTest implements RaptorTestConstants {
+
+  private static final int EDT = hm2time(8, 0);
+  private static final Duration SEARCH_WINDOW = Duration.ofHours(2);
+
+  private final RaptorConfig<TestTripSchedule> splitConfig = new RaptorConfig<>(
+    new RaptorTuningParameters() {
+      @Override
+      public int searchThreadPoolSize() {
+        return 2;
+      }
+
+      @Override
+      public int searchWindowSplitCount() {
+        return 3;
+      }
+    }
+  );
+
+  @AfterEach
+  void shutdown() {
+    splitConfig.shutdown();
+  }
+
+  @Test
+  void numberOfParts() {
+    assertEquals(1, SplitSearchWindowSearch.numberOfParts(1, 7200));
+    assertEquals(4, SplitSearchWindowSearch.numberOfParts(4, 7200));
+    assertEquals(4, SplitSearchWindowSearch.numberOfParts(8, 7200));
+    assertEquals(1, SplitSearchWindowSearch.numberOfParts(4, 3599));
+    assertEquals(1, SplitSearchWindowSearch.numberOfParts(4, 0));
+  }
+
+  @Test
+  void splitSearchWindow() {
+    assertEquals(
+      List.of(
+        new Part(EDT + 4800, 2400, false),
+        new Part(EDT + 2400, 2400, false),
+        new Part(EDT, 2400, true)
+      ),
+      SplitSearchWindowSearch.splitSearchWindow(EDT, 7200, 3, 60)
+    );
+    // The parts are a multiple of the iteration step, the earliest part gets the rest
+    assertEquals(
+      List.of(
+        new Part(EDT + 4560, 2640, false),
+        new Part(EDT + 1920, 2640, false),
+        new Part(EDT, 1920, true)
+      ),
+      SplitSearchWindowSearch.splitSearchWindow(EDT, 7200, 3, 660)
+    );
+  }
+
+  @Test
+  void isSplitEnabled() {
+    assertTrue(SplitSearchWindowSearch.isSplitEnabled(splitConfig, request(true).build()));
+    assertFalse(SplitSearchWindowSearch.isSplitEnabled(splitConfig, request(false).build()));
+    assertFalse(
+      SplitSearchWindowSearch.isSplitEnabled(
+        splitConfig,
+        request(true).profile(RaptorProfile.STANDARD).build()
+      )
+    );
+    assertFalse(
+      SplitSearchWindowSearch.isSplitEnabled(
+        RaptorConfig.defaultConfigForTest(),
+        request(true).build()
+      )
+    );
+  }
+
+  /**
+   * The split search should find the same paths as one search over the whole search-window.
+   */
+  @Test
+  void findSamePathsAsOneSearch() {
+    var data = new TestTransitData();
+    data.withRoutes(
+      frequentRoute("R1", 8, 10, STOP_A, STOP_B, STOP_C),
+      frequentRoute("R2", 10, 5, STOP_C, STOP_D),
+      frequentRoute("R3", 20, 30, STOP_A, STOP_E)
+    );
+    data.withTransfer(STOP_E, transfer(STOP_D, D2m));
+
+    RaptorRequest<TestTripSchedule> request = request(true).build();
+
+    var expected = new RaptorService<>(RaptorConfig.<TestTripSchedule>defaultConfigForTest())
+      .route(request, data);
+    var result = new RaptorService<>(splitConfig).route(request, data);
+
+    assertFalse(expected.paths().isEmpty());
+    assertEquals(PathUtils.pathsToString(expected), PathUtils.pathsToString(result));
+  }
+
+  private static RaptorRequestBuilder<TestTripSchedule> request(boolean runInParallel) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder.profile(RaptorProfile.MULTI_CRITERIA);
+    if (runInParallel) {
+      builder.enableOptimization(Optimization.PARALLEL);
+    }
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D1m))
+      .addEgressPaths(TestAccessEgress.walk(STOP_D, D1m))
+      .earliestDepartureTime(EDT)
+      .searchWindow(SEARCH_WINDOW)
+      .timetable(true);
+    return builder;
+  }
+
+  /**
+   * A route with a trip every {@code headway} minutes from 08:00 to 11:00, with the given number
+   * of minutes between each stop.
+   */
+  private static TestRoute frequentRoute(String name, int headway, int hopTime, int... stops) {
+    TestTripPattern pattern = pattern(name, stops);
+    var route = route(pattern);
+    for (int departure = EDT; departure < hm2time(11, 0); departure += headway * 60) {
+      int[] times = new int[stops.length];
+      for (int i = 0; i < stops.length; ++i) {
+        times[i] = departure + i * hopTime * 60;
+      }
+      route.withTimetable(schedule().pattern(pattern).times(times));
+    }
+    return route;
+  }
+}
@@ -0,0 +1,206 @@
+package org.opentripplanner.raptor.tripbased;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.spi.DefaultSlackProvider;
+
+class TripBasedSearchTest implements RaptorTestConstants {
+
+  private static final int N_STOPS = 40;
+  private static final int N_ROUTES = 30;
+
+  private final RaptorConfig<TestTripSchedule> config = RaptorConfig.defaultConfigForTest();
+  private final RaptorService<TestTripSchedule> raptorService = new RaptorService<>(config);
+
+  @Test
+  void transferAtSameStopAndByWalking() {
+    var data = new TestTransitData()
+      .withRoutes(
+        route("R1", STOP_A, STOP_B, STOP_C).withTimetable(schedule("0:10 0:15 0:20")),
+        route("R2", STOP_B, STOP_D).withTimetable(schedule("0:17 0:30"), schedule("0:27 0:40")),
+        route("R3", STOP_E, STOP_F).withTimetable(schedule("0:24 0:35"))
+      )
+      .withTransfer(STOP_C, TestTransfer.transfer(STOP_E, D2m));
+
+    var request = request(STOP_A, STOP_D, RaptorProfile.STANDARD, 0);
+    assertEquals(
+      "Walk 30s ~ 1 ~ BUS R1 0:10 0:15 ~ 2 ~ BUS R2 0:17 0:30 ~ 4 ~ Walk 30s [0:09:30 0:30:30 21m 1tx]",
+      routeTripBased(data, request).get(0).toString()
+    );
+
+    request = request(STOP_A, STOP_F, RaptorProfile.STANDARD, 0);
+    assertEquals(
+      "Walk 30s ~ 1 ~ BUS R1 0:10 0:20 ~ 3 ~ Walk 2m ~ 5 ~ BUS R3 0:24 0:35 ~ 6 ~ Walk 30s [0:09:30 0:35:30 26m 1tx]",
+      routeTripBased(data, request).get(0).toString()
+    );
+  }
+
+  @Test
+  void routeWithRangeRaptorIfTheTransitDataIsNotReady() {
+    var data = new TestTransitData()
+      .withRoutes(route("R1", STOP_A, STOP_B).withTimetable(schedule("0:10 0:15")));
+
+    var request = request(STOP_A, STOP_B, RaptorProfile.STANDARD, 0);
+    assertEquals(
+      raptorService.route(request, data).paths().toString(),
+      raptorService.route(request, data, () -> null).paths().toString()
+    );
+  }
+
+  @Test
+  void sameResultAsRangeRaptor() {
+    var data = randomNetwork(new Random(42));
+    data.withSlackProvider(new DefaultSlackProvider(D1m, D30s, D10s));
+    var tripBasedData = TripBasedTransitData.create(data);
+    var random = new Random(7);
+
+    for (int i = 0; i < 50; ++i) {
+      int origin = random.nextInt(N_STOPS);
+      int destination = random.nextInt(N_STOPS);
+      var request = request(origin, destination, RaptorProfile.STANDARD, 3600);
+
+      var expected = raptorService.route(request, data).paths();
+      var result = new TripBasedSearch<>(tripBasedData, data, request, config.tuningParameters())
+        .route()
+        .paths();
+
+      assertSamePaths(expected, result, "From " + origin + " to " + destination);
+    }
+  }
+
+  @Test
+  void isSupported() {
+    assertTrue(TripBasedSearch.isSupported(request(STOP_A, STOP_B, RaptorProfile.STANDARD, 0)));
+    // The generalized-cost is not used to find the paths
+    assertFalse(
+      TripBasedSearch.isSupported(request(STOP_A, STOP_B, RaptorProfile.MULTI_CRITERIA, 600))
+    );
+    assertFalse(TripBasedSearch.isSupported(request(STOP_A, STOP_B, RaptorProfile.BEST_TIME, 0)));
+
+    var builder = new RaptorRequestBuilder<TestTripSchedule>();
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(STOP_A, D30s))
+      .addEgressPaths(TestAccessEgress.flex(STOP_B, D5m))
+      .earliestDepartureTime(T00_00)
+      .searchOneIterationOnly();
+    assertFalse(TripBasedSearch.isSupported(builder.build()));
+  }
+
+  private List<RaptorPath<TestTripSchedule>> routeTripBased(
+    TestTransitData data,
+    RaptorRequest<TestTripSchedule> request
+  ) {
+    return List.copyOf(
+      raptorService.route(request, data, () -> TripBasedTransitData.create(data)).paths()
+    );
+  }
+
+  /**
+   * The paths found by Raptor and the Trip-Based search are not always the same if there is more
+   * than one path with the same arrival time and number of transfers. The departure time of the
+   * paths may differ too, because the precomputed transfers only keep one of the transfers to the
+   * same trip.
+   * <p>
+   * The standard Range Raptor only accept a stop arrival if it is better than the best arrival at
+   * the stop in all rounds. The Trip-Based search keep the best arrival for each round, so it may
+   * find more paths with fewer transfers. So we check that each path found by Raptor is also found,
+   * and that no path found is dominated by a path found by Raptor.
+   */
+  private static void assertSamePaths(
+    Collection<RaptorPath<TestTripSchedule>> expected,
+    Collection<RaptorPath<TestTripSchedule>> result,
+    String message
+  ) {
+    for (var e : expected) {
+      assertTrue(
+        result
+          .stream()
+          .anyMatch(it ->
+            it.endTime() == e.endTime() &&
+            it.numberOfTransfers() <= e.numberOfTransfers()
+          ),
+        message + ", path not found: " + e
+      );
+    }
+    for (var r : result) {
+      assertFalse(
+        expected
+          .stream()
+          .anyMatch(it ->
+            it.startTime() >= r.startTime() &&
+            it.endTime() <= r.endTime() &&
+            it.numberOfTransfers() <= r.numberOfTransfers() &&
+            (it.endTime() < r.endTime() || it.numberOfTransfers() < r.numberOfTransfers())
+          ),
+        message + ", path dominated: " + r
+      );
+    }
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(
+    int origin,
+    int destination,
+    RaptorProfile profile,
+    int searchWindow
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>().profile(profile);
+    builder
+      .searchParams()
+      .addAccessPaths(TestAccessEgress.walk(origin, D30s))
+      .addEgressPaths(TestAccessEgress.walk(destination, D30s))
+      .earliestDepartureTime(T00_00)
+      .searchWindow(Duration.ofSeconds(searchWindow))
+      .timetable(true);
+    return builder.build();
+  }
+
+  /**
+   * Create routes visiting random stops, with trips running with a random headway, and walking
+   * transfers between random stops.
+   */
+  private static TestTransitData randomNetwork(Random random) {
+    var data = new TestTransitData();
+    for (int r = 0; r < N_ROUTES; ++r) {
+      int[] stops = random.ints(0, N_STOPS).distinct().limit(3 + random.nextInt(6)).toArray();
+      int[] times = new int[stops.length];
+      int time = random.nextInt(D20m);
+      for (int i = 0; i < stops.length; ++i) {
+        times[i] = time;
+        time += D1m + random.nextInt(D5m);
+      }
+      int headway = D5m + random.nextInt(D20m);
+      data.withRoute(
+        route("R" + r, stops).withTimetable(schedule().times(times).repeat(12, headway))
+      );
+    }
+    for (int i = 0; i < N_STOPS; ++i) {
+      int from = random.nextInt(N_STOPS);
+      int to = random.nextInt(N_STOPS);
+      if (from != to) {
+        data.withTransfer(from, TestTransfer.transfer(to, D1m + random.nextInt(D5m)));
+      }
+    }
+    return data;
+  }
+}
@@ -0,0 +1,114 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+
+class AccessEgressCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(45);
+  private static final int MAX_STOP_COUNT = 500;
+
+  private final AccessEgressCache subject = new AccessEgressCache(100, Duration.ofMinutes(10));
+  private final AtomicInteger searches = new AtomicInteger();
+  private final Supplier<Collection<NearbyStop>> streetSearch = () -> {
+    searches.incrementAndGet();
+    return List.of();
+  };
+
+  @Test
+  void reuseSearchFromTheSamePlace() {
+    get(request(59.9, 10.7), StreetMode.WALK);
+    get(request(59.9, 10.7), StreetMode.WALK);
+    // Less than the grid cell size away
+    get(request(59.900001, 10.700001), StreetMode.WALK);
+    assertEquals(1, searches.get());
+    assertEquals(2, subject.getCache().stats().hitCount());
+    assertEquals(1, subject.getCache().stats().missCount());
+  }
+
+  @Test
+  void searchAgainIfTheSearchIsDifferent() {
+    get(request(59.9, 10.7), StreetMode.WALK);
+    get(request(59.91, 10.7), StreetMode.WALK);
+    get(request(59.9, 10.7), StreetMode.BIKE);
+    // Egress
+    subject.get(
+      request(59.9, 10.7),
+      new StreetRequest(StreetMode.WALK),
+      true,
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      Set.of(),
+      streetSearch
+    );
+    assertEquals(4, searches.get());
+
+    var request = request(59.9, 10.7);
+    request.withPreferences(p -> p.withWalk(w -> w.withSpeed(1.0)));
+    get(request, StreetMode.WALK);
+    assertEquals(5, searches.get());
+  }
+
+  @Test
+  void transitPreferencesAreNotPartOfTheKey() {
+    get(request(59.9, 10.7), StreetMode.WALK);
+
+    var request = request(59.9, 10.7);
+    request.setDateTime(Instant.parse("2023-05-01T14:00:00Z"));
+    request.withPreferences(p -> p.withTransfer(t -> t.withSlack(300)));
+    get(request, StreetMode.WALK);
+    assertEquals(1, searches.get());
+  }
+
+  @Test
+  void invalidateRentalModes() {
+    get(request(59.9, 10.7), StreetMode.WALK);
+    get(request(59.9, 10.7), StreetMode.BIKE_RENTAL);
+    get(request(59.9, 10.7), StreetMode.BIKE_TO_PARK);
+
+    subject.invalidateRentalModes();
+    get(request(59.9, 10.7), StreetMode.WALK);
+    get(request(59.9, 10.7), StreetMode.BIKE_RENTAL);
+    get(request(59.9, 10.7), StreetMode.BIKE_TO_PARK);
+    assertEquals(4, searches.get());
+
+    subject.invalidateParkingModes();
+    get(request(59.9, 10.7), StreetMode.WALK);
+    get(request(59.9, 10.7), StreetMode.BIKE_RENTAL);
+    get(request(59.9, 10.7), StreetMode.BIKE_TO_PARK);
+    assertEquals(5, searches.get());
+  }
+
+  private void get(RouteRequest request, StreetMode mode) {
+    subject.get(
+      request,
+      new StreetRequest(mode),
+      false,
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      Set.of(),
+      streetSearch
+    );
+  }
+
+  private static RouteRequest request(double lat, double lon) {
+    var request = new RouteRequest();
+    request.setDateTime(Instant.parse("2023-05-01T12:00:00Z"));
+    request.setFrom(new GenericLocation(lat, lon));
+    request.setTo(new GenericLocation(60.0, 10.8));
+    return request;
+  }
+}
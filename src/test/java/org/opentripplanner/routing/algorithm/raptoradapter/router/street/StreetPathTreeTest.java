@@ -0,0 +1,110 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.opentripplanner.framework.i18n.I18NString;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.TemporaryConcreteEdge;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TemporaryStreetLocation;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+class StreetPathTreeTest {
+
+  private static final RegularStop STOP_A = TransitModelForTest.stopForTest("A", 0.001, 0.001);
+  private static final RegularStop STOP_B = TransitModelForTest.stopForTest("B", 0.002, 0.002);
+
+  private final StreetVertex v1 = intersectionVertex("V1", 0.0, 0.0);
+  private final StreetVertex v2 = intersectionVertex("V2", 0.001, 0.001);
+  private final StreetVertex v3 = intersectionVertex("V3", 0.002, 0.002);
+  private final Edge e12 = streetEdge(v1, v2);
+  private final Edge e23 = streetEdge(v2, v3);
+
+  @Test
+  void traverseThePathsFromTheOriginOfANewRequest() {
+    var request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    var s1 = traverse(new State(origin("O1", v1), request), v1);
+    var s2 = e12.traverse(s1)[0];
+    var s3 = e23.traverse(s2)[0];
+
+    var subject = StreetPathTree.of(
+      List.of(NearbyStop.nearbyStopForState(s2, STOP_A), NearbyStop.nearbyStopForState(s3, STOP_B))
+    );
+    assertNotNull(subject);
+    // The temporary edge from the origin is not part of the tree
+    assertEquals(3, subject.size());
+
+    var newOrigin = origin("O2", v1);
+    var newRequest = StreetSearchRequest
+      .of()
+      .withMode(StreetMode.WALK)
+      .withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)))
+      .build();
+    var result = subject.traverse(Set.of(newOrigin), newRequest);
+
+    assertNotNull(result);
+    assertEquals(2, result.size());
+    assertSame(STOP_A, result.get(0).stop);
+    assertSame(STOP_B, result.get(1).stop);
+    for (NearbyStop it : result) {
+      assertSame(newRequest, it.state.getRequest());
+      assertSame(newOrigin, it.edges.get(0).getFromVertex());
+    }
+    assertEquals(List.of(e12, e23), result.get(1).edges.subList(1, 3));
+    // The new request walks faster
+    assertTrue(result.get(1).state.getWeight() < s3.getWeight());
+  }
+
+  @Test
+  void failToTraverseIfTheOriginDoesNotReachThePaths() {
+    var request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    var s1 = traverse(new State(origin("O1", v1), request), v1);
+    var subject = StreetPathTree.of(List.of(NearbyStop.nearbyStopForState(s1, STOP_A)));
+    assertNotNull(subject);
+
+    assertNull(subject.traverse(Set.of(origin("O2", v3)), request));
+  }
+
+  @Test
+  void pathsEndingAtATemporaryVertexAreNotKept() {
+    var request = StreetSearchRequest.of().withMode(StreetMode.WALK).build();
+    var state = new State(origin("O1", v1), request);
+
+    assertNull(StreetPathTree.of(List.of(NearbyStop.nearbyStopForState(state, STOP_A))));
+  }
+
+  private static TemporaryStreetLocation origin(String id, StreetVertex to) {
+    var origin = new TemporaryStreetLocation(
+      id,
+      new Coordinate(to.getX(), to.getY()),
+      I18NString.of(id),
+      false
+    );
+    TemporaryConcreteEdge.createTemporaryConcreteEdge(origin, to);
+    return origin;
+  }
+
+  private static State traverse(State state, StreetVertex to) {
+    for (Edge edge : state.getVertex().getOutgoing()) {
+      if (edge.getToVertex() == to) {
+        return edge.traverse(state)[0];
+      }
+    }
+    throw new IllegalArgumentException("No edge to " + to);
+  }
+}
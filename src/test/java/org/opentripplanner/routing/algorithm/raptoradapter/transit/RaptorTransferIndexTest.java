@@ -0,0 +1,56 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.site.RegularStop;
+
+class RaptorTransferIndexTest {
+
+  private static final RegularStop STOP_A = TransitModelForTest.stopForTest("A", 60.0, 10.0);
+  private static final RegularStop STOP_B = TransitModelForTest.stopForTest("B", 60.0, 10.001);
+  private static final RegularStop STOP_C = TransitModelForTest.stopForTest("C", 60.0, 10.002);
+  private static final RegularStop STOP_D = TransitModelForTest.stopForTest("D", 60.0, 10.003);
+
+  private static final int A = STOP_A.getIndex();
+  private static final int B = STOP_B.getIndex();
+  private static final int C = STOP_C.getIndex();
+  private static final int D = STOP_D.getIndex();
+
+  private static final StreetSearchRequest REQUEST = StreetSearchRequest.of().build();
+
+  @Test
+  void create() {
+    var subject = RaptorTransferIndex.create(transfers(), REQUEST);
+
+    assertEquals(List.of(B), toStops(subject.getForwardTransfers(A)));
+    assertEquals(List.of(D), toStops(subject.getForwardTransfers(C)));
+    assertEquals(List.of(A), toStops(subject.getForwardTransfers(D)));
+
+    assertEquals(List.of(D), toStops(subject.getReversedTransfers(A)));
+    assertEquals(List.of(A), toStops(subject.getReversedTransfers(B)));
+    assertEquals(List.of(C), toStops(subject.getReversedTransfers(D)));
+  }
+
+  /** Transfers A->B, C->D and D->A */
+  private static List<List<Transfer>> transfers() {
+    int size = 1 + Math.max(Math.max(A, B), Math.max(C, D));
+    var transfers = new ArrayList<List<Transfer>>();
+    for (int i = 0; i < size; ++i) {
+      transfers.add(new ArrayList<>());
+    }
+    transfers.get(A).add(new Transfer(B, 100));
+    transfers.get(C).add(new Transfer(D, 100));
+    transfers.get(D).add(new Transfer(A, 300));
+    return transfers;
+  }
+
+  private static List<Integer> toStops(List<RaptorTransfer> transfers) {
+    return transfers.stream().map(RaptorTransfer::stop).toList();
+  }
+}
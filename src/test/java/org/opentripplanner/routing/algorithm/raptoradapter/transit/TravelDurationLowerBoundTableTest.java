@@ -0,0 +1,169 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TLongIntHashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.geometry.WgsCoordinate;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorConstants;
+
+class TravelDurationLowerBoundTableTest {
+
+  private static final int UNREACHED = RaptorConstants.UNREACHED_HIGH;
+
+  /**
+   * Stop 0 and 1 are in the same cluster, stop 2 and 3 are in separate clusters and stop 4 does
+   * not have a coordinate.
+   */
+  private static final WgsCoordinate[] COORDINATES = {
+    new WgsCoordinate(59.0, 10.0),
+    new WgsCoordinate(59.0001, 10.0001),
+    new WgsCoordinate(59.1, 10.0),
+    new WgsCoordinate(60.0, 11.0),
+    null,
+  };
+
+  private final TravelDurationLowerBoundTable subject = createTable();
+
+  @Test
+  void numberOfClusters() {
+    assertEquals(3, subject.numberOfClusters());
+  }
+
+  @Test
+  void minTravelDurationToDestination() {
+    var result = subject.minTravelDurationToDestination(List.of(TestAccessEgress.walk(2, 60)));
+
+    // Stop 1 is not connected, but it is in the same cluster as stop 0
+    assertArrayEquals(new int[] { 660, 660, 60, UNREACHED, 0 }, result);
+  }
+
+  @Test
+  void minTravelDurationToDestinationUseTheFastestEgress() {
+    var result = subject.minTravelDurationToDestination(
+      List.of(TestAccessEgress.walk(2, 300), TestAccessEgress.walk(0, 60))
+    );
+
+    assertArrayEquals(new int[] { 60, 60, 300, UNREACHED, 0 }, result);
+  }
+
+  @Test
+  void noPruningIfAnEgressStopIsNotInACluster() {
+    var result = subject.minTravelDurationToDestination(
+      List.of(TestAccessEgress.walk(2, 60), TestAccessEgress.walk(4, 60))
+    );
+
+    assertArrayEquals(new int[5], result);
+  }
+
+  @Test
+  void keepTableIfNoHopIsFaster() {
+    assertSame(subject, subject.withHops(hops(0, 2, 600)));
+  }
+
+  @Test
+  void lowerTheBoundsWithAFasterHop() {
+    // A realtime trip from stop 2 to 3, and a trip faster than planned from stop 0 to 2
+    var updated = subject.withHops(hops(2, 3, 1000, 0, 2, 500));
+
+    var result = updated.minTravelDurationToDestination(List.of(TestAccessEgress.walk(3, 60)));
+    assertArrayEquals(new int[] { 1560, 1560, 1060, 60, 0 }, result);
+
+    // The table is not changed
+    assertArrayEquals(
+      new int[] { UNREACHED, UNREACHED, UNREACHED, 60, 0 },
+      subject.minTravelDurationToDestination(List.of(TestAccessEgress.walk(3, 60)))
+    );
+    // The hops are kept, so the same hops do not change the bounds again
+    assertSame(updated, updated.withHops(hops(2, 3, 1000)));
+  }
+
+  @Test
+  void noTableIfAFasterHopIsAtAStopWithoutCluster() {
+    assertNull(subject.withHops(hops(2, 4, 100)));
+  }
+
+  @Test
+  void manyFasterHopsGiveTheSameBoundsAsComputingTheTableAgain() {
+    // A grid of clusters with two stops in each cluster, connected by transfers
+    int size = 15;
+    var coordinates = new WgsCoordinate[2 * size * size];
+    for (int i = 0; i < size * size; ++i) {
+      var c = new WgsCoordinate(59.0 + 0.01 * (i / size), 10.0 + 0.01 * (i % size));
+      coordinates[2 * i] = c;
+      coordinates[2 * i + 1] = c;
+    }
+    var planned = gridGraph(coordinates.length, size, null);
+    var table = TravelDurationLowerBoundTable.create(coordinates, planned);
+    assertEquals(size * size, table.numberOfClusters());
+
+    // Faster hops between all neighbour clusters, with several hops between the same clusters
+    var hops = new TLongIntHashMap(16, 0.5f, 0, UNREACHED);
+    var expected = TravelDurationLowerBoundTable.create(
+      coordinates,
+      gridGraph(coordinates.length, size, hops)
+    );
+    assertEquals(4 * size * (size - 1), hops.size());
+
+    var updated = table.withHops(hops);
+
+    for (int stop = 0; stop < coordinates.length; stop += 7) {
+      List<RaptorAccessEgress> egress = List.of(TestAccessEgress.walk(stop, 60));
+      assertArrayEquals(
+        expected.minTravelDurationToDestination(egress),
+        updated.minTravelDurationToDestination(egress)
+      );
+    }
+  }
+
+  /**
+   * A graph with planned hops to the right and down between the first stop in each cluster. If
+   * hops are given, faster hops between the first and between the second stops are added too.
+   */
+  private static TravelDurationLowerBoundTable.StopGraph gridGraph(
+    int nStops,
+    int size,
+    TLongIntMap fasterHops
+  ) {
+    var graph = new TravelDurationLowerBoundTable.StopGraph(nStops);
+    for (int i = 0; i < size * size; ++i) {
+      graph.add(2 * i, 2 * i + 1, 0);
+      graph.add(2 * i + 1, 2 * i, 0);
+      for (int next : new int[] { i % size < size - 1 ? i + 1 : -1, i + size }) {
+        if (next < 0 || next >= size * size) {
+          continue;
+        }
+        graph.addHop(2 * i, 2 * next, 100);
+        if (fasterHops != null) {
+          graph.addHop(2 * i, 2 * next, 80);
+          graph.addHop(2 * i + 1, 2 * next + 1, 60 + i % 10);
+          fasterHops.putAll(hops(2 * i, 2 * next, 80, 2 * i + 1, 2 * next + 1, 60 + i % 10));
+        }
+      }
+    }
+    return graph;
+  }
+
+  /** Create a map of hops from triples of from stop, to stop and duration. */
+  private static TLongIntMap hops(int... values) {
+    var hops = new TLongIntHashMap();
+    for (int i = 0; i < values.length; i += 3) {
+      hops.put(((long) values[i] << 32) | values[i + 1], values[i + 2]);
+    }
+    return hops;
+  }
+
+  private static TravelDurationLowerBoundTable createTable() {
+    var graph = new TravelDurationLowerBoundTable.StopGraph(COORDINATES.length);
+    graph.addHop(0, 2, 600);
+    graph.addHop(2, 0, 700);
+    return TravelDurationLowerBoundTable.create(COORDINATES, graph);
+  }
+}
@@ -0,0 +1,106 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TransitModelForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+
+class TripPatternsRunningOnDateTest {
+
+  private static final LocalDate DATE = LocalDate.of(2023, 5, 1);
+  private static final TripTimes TRIP_TIMES = new TripTimes(
+    TransitModelForTest.trip("1").build(),
+    List.of(new StopTime()),
+    new Deduplicator()
+  );
+
+  /** More patterns than fit in one chunk */
+  private final List<TripPatternForDate> tripPatterns = createTripPatterns(150);
+
+  @Test
+  void createFromList() {
+    var list = new ArrayList<>(tripPatterns);
+    list.add(tripPatterns.get(0));
+    var subject = TripPatternsRunningOnDate.of(list);
+
+    assertEquals(tripPatterns.size(), subject.size());
+    assertEquals(Set.copyOf(tripPatterns), new HashSet<>(subject));
+    assertTrue(subject.contains(tripPatterns.get(99)));
+  }
+
+  @Test
+  void update() {
+    var original = TripPatternsRunningOnDate.of(tripPatterns.subList(0, 100));
+    var removed = tripPatterns.subList(10, 12);
+    var added = tripPatterns.subList(100, 150);
+
+    var subject = original.update(removed, added);
+
+    assertEquals(148, subject.size());
+    assertFalse(subject.contains(removed.get(0)));
+    assertTrue(subject.contains(added.get(49)));
+
+    var expected = new HashSet<>(tripPatterns);
+    removed.forEach(expected::remove);
+    assertEquals(expected, new HashSet<>(subject));
+
+    // The original is not changed
+    assertEquals(100, original.size());
+    assertTrue(original.contains(removed.get(0)));
+    assertFalse(original.contains(added.get(0)));
+  }
+
+  @Test
+  void updateWithTripPatternsAlreadyInTheSet() {
+    var original = TripPatternsRunningOnDate.of(tripPatterns.subList(0, 100));
+
+    var subject = original.update(tripPatterns.subList(120, 130), tripPatterns.subList(0, 10));
+    assertEquals(100, subject.size());
+    assertEquals(new HashSet<>(original), new HashSet<>(subject));
+
+    assertSame(original, original.update(List.of(), List.of()));
+  }
+
+  @Test
+  void removeAndAddTheSameTripPattern() {
+    var tripPattern = tripPatterns.get(5);
+    var subject = TripPatternsRunningOnDate
+      .of(tripPatterns.subList(0, 10))
+      .update(List.of(tripPattern), List.of(tripPattern));
+
+    assertEquals(10, subject.size());
+    assertTrue(subject.contains(tripPattern));
+  }
+
+  private static List<TripPatternForDate> createTripPatterns(int n) {
+    var stopTime = new StopTime();
+    stopTime.setStop(TransitModelForTest.stopForTest("TEST:STOP", 0, 0));
+    var stopPattern = new StopPattern(List.of(stopTime));
+    var route = TransitModelForTest.route("1").build();
+
+    var result = new ArrayList<TripPatternForDate>();
+    for (int i = 0; i < n; ++i) {
+      var tripPattern = TripPattern
+        .of(TransitModelForTest.id("P" + i))
+        .withRoute(route)
+        .withStopPattern(stopPattern)
+        .build()
+        .getRoutingTripPattern();
+      result.add(new TripPatternForDate(tripPattern, List.of(TRIP_TIMES), List.of(), DATE));
+    }
+    return result;
+  }
+}
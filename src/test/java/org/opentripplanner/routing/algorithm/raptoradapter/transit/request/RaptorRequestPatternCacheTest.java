@@ -0,0 +1,55 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class RaptorRequestPatternCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.parse("2023-05-01T00:00:00+02:00");
+
+  private final RaptorRequestPatternCache subject = new RaptorRequestPatternCache(5);
+  private final AtomicInteger created = new AtomicInteger();
+
+  @Test
+  void reusePatternsForEqualFilters() {
+    var first = get(TIME_ZERO, new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+    var second = get(TIME_ZERO, new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+
+    assertSame(first, second);
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  void createPatternsForOtherDaysAndFilters() {
+    var request = new RouteRequest();
+    request.setWheelchair(true);
+
+    get(TIME_ZERO, new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+    get(TIME_ZERO.plusDays(1), new RouteRequestTransitDataProviderFilter(new RouteRequest()));
+    get(TIME_ZERO, new RouteRequestTransitDataProviderFilter(request));
+
+    assertEquals(3, created.get());
+  }
+
+  private RaptorRequestPatternCache.PatternIndex get(
+    ZonedDateTime transitSearchTimeZero,
+    TransitDataProviderFilter filter
+  ) {
+    return subject.get(
+      transitSearchTimeZero,
+      1,
+      1,
+      filter,
+      () -> {
+        created.incrementAndGet();
+        return new RaptorRequestPatternCache.PatternIndex(List.of(), List.of());
+      }
+    );
+  }
+}
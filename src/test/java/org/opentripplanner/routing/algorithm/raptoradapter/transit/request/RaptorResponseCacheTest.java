@@ -0,0 +1,142 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.response.RaptorResponse;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+
+class RaptorResponseCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ZonedDateTime.parse("2023-05-01T00:00:00+02:00");
+  private static final GenericLocation FROM = new GenericLocation(60.0, 10.0);
+  private static final GenericLocation TO = new GenericLocation(60.1, 10.1);
+  private static final int EDT = 8 * 3600;
+
+  private final RaptorResponseCache subject = new RaptorResponseCache(5);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AtomicInteger routed = new AtomicInteger();
+
+  @Test
+  void reuseResponseForIdenticalSearch() {
+    var first = route(transitData(0), request(EDT, TestAccessEgress.walk(1, 60)), FROM);
+    var second = route(transitData(0), request(EDT, TestAccessEgress.walk(1, 60)), FROM);
+
+    assertSame(first, second);
+    assertEquals(1, routed.get());
+    assertEquals(1.0, count("miss"));
+    assertEquals(1.0, count("hit"));
+  }
+
+  @Test
+  void routeSearchesWhichAreNotIdentical() {
+    route(transitData(0), request(EDT, TestAccessEgress.walk(1, 60)), FROM);
+    route(transitData(1), request(EDT, TestAccessEgress.walk(1, 60)), FROM);
+    route(transitData(0), request(EDT + 60, TestAccessEgress.walk(1, 60)), FROM);
+    route(transitData(0), request(EDT, TestAccessEgress.walk(1, 90)), FROM);
+    route(transitData(0), request(EDT, TestAccessEgress.walk(1, 60)), TO);
+    route(
+      transitData(0),
+      request(EDT, TestAccessEgress.walk(1, 60)),
+      new GenericLocation("Home", null, FROM.lat, FROM.lng)
+    );
+
+    assertEquals(6, routed.get());
+    assertEquals(6.0, count("miss"));
+  }
+
+  @Test
+  void doNotCacheAccessWithOpeningHours() {
+    var access = TestAccessEgress.walk(1, 60).openingHours("8:00", "9:00");
+    var first = route(transitData(0), request(EDT, access), FROM);
+    var second = route(transitData(0), request(EDT, access), FROM);
+
+    assertNotSame(first, second);
+    assertEquals(2, routed.get());
+  }
+
+  @Test
+  void routingErrorsAreThrownAndNotCached() {
+    var request = request(EDT, TestAccessEgress.walk(1, 60));
+    var error = new IllegalStateException("No transit");
+
+    assertSame(
+      error,
+      assertThrows(
+        IllegalStateException.class,
+        () ->
+          subject.route(
+            transitData(0),
+            request,
+            FROM,
+            TO,
+            () -> {
+              throw error;
+            },
+            meterRegistry
+          )
+      )
+    );
+    route(transitData(0), request, FROM);
+    assertEquals(1, routed.get());
+  }
+
+  private RaptorResponse<TripSchedule> route(
+    RaptorResponseCache.TransitDataKey transitData,
+    RaptorRequest<TripSchedule> request,
+    GenericLocation from
+  ) {
+    return subject.route(
+      transitData,
+      request,
+      from,
+      TO,
+      () -> {
+        routed.incrementAndGet();
+        return new RaptorResponse<>(List.of(), null, request, request);
+      },
+      meterRegistry
+    );
+  }
+
+  private static RaptorResponseCache.TransitDataKey transitData(int additionalFutureSearchDays) {
+    return new RaptorResponseCache.TransitDataKey(
+      TIME_ZERO,
+      0,
+      additionalFutureSearchDays,
+      new RouteRequestTransitDataProviderFilter(new RouteRequest()),
+      null,
+      null,
+      null
+    );
+  }
+
+  private static RaptorRequest<TripSchedule> request(int edt, RaptorAccessEgress access) {
+    var builder = new RaptorRequestBuilder<TripSchedule>();
+    builder
+      .searchParams()
+      .earliestDepartureTime(edt)
+      .searchWindow(Duration.ofHours(1))
+      .addAccessPaths(access)
+      .addEgressPaths(TestAccessEgress.walk(2, 60));
+    return builder.build();
+  }
+
+  private double count(String result) {
+    return meterRegistry.get("raptor.response.cache").tag("result", result).counter().count();
+  }
+}
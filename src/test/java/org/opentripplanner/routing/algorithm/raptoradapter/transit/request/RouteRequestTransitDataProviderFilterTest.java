@@ -2,6 +2,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDate;
@@ -264,6 +265,42 @@ class RouteRequestTransitDataProviderFilterTest {
     assertFalse(valid);
   }
 
+  @Test
+  void equalFiltersForEqualRequests() {
+    var filter = new RouteRequestTransitDataProviderFilter(
+      false,
+      false,
+      DEFAULT_ACCESSIBILITY,
+      false,
+      false,
+      Set.of(),
+      filterForMode(TransitMode.BUS)
+    );
+    var sameFilter = new RouteRequestTransitDataProviderFilter(
+      false,
+      false,
+      RELAXED_ACCESSIBILITY,
+      false,
+      false,
+      Set.of(),
+      filterForMode(TransitMode.BUS)
+    );
+    var otherFilter = new RouteRequestTransitDataProviderFilter(
+      false,
+      false,
+      DEFAULT_ACCESSIBILITY,
+      false,
+      false,
+      Set.of(),
+      filterForMode(TransitMode.RAIL)
+    );
+
+    // The wheelchair preferences are only used if wheelchair is enabled
+    assertEquals(filter, sameFilter);
+    assertEquals(filter.hashCode(), sameFilter.hashCode());
+    assertNotEquals(filter, otherFilter);
+  }
+
   /**
    * Filtering trips with 2 filters: a selection by submode filter and an exclusion by agency filter.
    * A trip matches if it matches either of them.
@@ -0,0 +1,47 @@
+package org.opentripplanner.routing.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class EdgeListIndexTest {
+
+  private final StreetVertex a = intersectionVertex("A", 60.0, 10.0);
+  private final StreetVertex b = intersectionVertex("B", 60.001, 10.0);
+  private final StreetVertex c = intersectionVertex("C", 60.002, 10.0);
+
+  /** Not part of the graph, but referenced by an edge */
+  private final StreetVertex d = intersectionVertex("D", 60.003, 10.0);
+
+  @Test
+  void restoreEdgeLists() {
+    var ab = streetEdge(a, b);
+    var ba = streetEdge(b, a);
+    var bc = streetEdge(b, c);
+    var ac = streetEdge(a, c);
+    var cd = streetEdge(c, d);
+    List<Edge> edges = List.of(ab, ba, bc, ac, cd);
+
+    var index = EdgeListIndex.create(List.of(a, b, c), edges);
+    assertEquals(4, index.numberOfVertices());
+
+    for (var v : List.of(a, b, c, d)) {
+      v.initEdgeLists();
+    }
+    index.restore(edges);
+
+    assertEquals(List.of(ab, ac), List.copyOf(a.getOutgoing()));
+    assertEquals(List.of(ba), List.copyOf(a.getIncoming()));
+    assertEquals(List.of(ba, bc), List.copyOf(b.getOutgoing()));
+    assertEquals(List.of(ab), List.copyOf(b.getIncoming()));
+    assertEquals(List.of(cd), List.copyOf(c.getOutgoing()));
+    assertEquals(List.of(bc, ac), List.copyOf(c.getIncoming()));
+    assertEquals(List.of(), List.copyOf(d.getOutgoing()));
+    assertEquals(List.of(cd), List.copyOf(d.getIncoming()));
+  }
+}
@@ -0,0 +1,103 @@
+package org.opentripplanner.routing.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.graph_builder.module.ContractionHierarchyModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class ContractionHierarchyPathFinderTest {
+
+  private final Graph graph = new Graph();
+  private final StreetVertex a = vertex("A", 60.000, 10.000);
+  private final StreetVertex b = vertex("B", 60.001, 10.000);
+  private final StreetVertex c = vertex("C", 60.000, 10.001);
+  private final StreetVertex d = vertex("D", 60.001, 10.001);
+  private final StreetVertex e = vertex("E", 60.002, 10.001);
+
+  private final StreetEdge ab = street(a, b, 100);
+  private final StreetEdge bd = street(b, d, 100);
+  private final StreetEdge ac = street(a, c, 300);
+  private final StreetEdge cd = street(c, d, 300);
+  private final StreetEdge de = street(d, e, 100);
+
+  ContractionHierarchyPathFinderTest() {
+    street(b, a, 100);
+    street(d, b, 100);
+    street(c, a, 300);
+    street(d, c, 300);
+    street(e, d, 100);
+    graph.indexVertices();
+    new ContractionHierarchyModule(graph).buildGraph();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void findTheSamePathAsTheStreetSearch(boolean arriveBy) {
+    var request = request(StreetMode.CAR, arriveBy);
+
+    var expected = new GraphPathFinder(null)
+      .graphPathFinderEntryPoint(request, Set.of(a), Set.of(e));
+    var paths = new GraphPathFinder(null, null, graph.getCarContractionHierarchy())
+      .graphPathFinderEntryPoint(request, Set.of(a), Set.of(e));
+
+    assertEquals(1, paths.size());
+    var path = paths.get(0);
+    assertEquals(List.of(ab, bd, de), path.edges);
+    assertEquals(expected.get(0).edges, path.edges);
+    assertEquals(expected.get(0).getDuration(), path.getDuration());
+    assertEquals(expected.get(0).getWeight(), path.getWeight(), 0.01);
+  }
+
+  @Test
+  void onlyCarRequestsAreSupported() {
+    var finder = new ContractionHierarchyPathFinder(graph.getCarContractionHierarchy());
+    assertNotNull(finder.findPath(request(StreetMode.CAR, false), Set.of(a), Set.of(e)));
+    assertNull(finder.findPath(request(StreetMode.WALK, false), Set.of(a), Set.of(e)));
+    assertNull(finder.findPath(request(StreetMode.CAR_RENTAL, false), Set.of(a), Set.of(e)));
+  }
+
+  @Test
+  void noPathIfAnEdgeIsRemovedAfterTheHierarchyIsBuilt() {
+    var finder = new ContractionHierarchyPathFinder(graph.getCarContractionHierarchy());
+    graph.removeEdge(bd);
+    assertNull(finder.findPath(request(StreetMode.CAR, false), Set.of(a), Set.of(e)));
+
+    // The street search finds the other path
+    var paths = new GraphPathFinder(null, null, graph.getCarContractionHierarchy())
+      .graphPathFinderEntryPoint(request(StreetMode.CAR, false), Set.of(a), Set.of(e));
+    assertEquals(List.of(ac, cd, de), paths.get(0).edges);
+  }
+
+  private StreetVertex vertex(String label, double lat, double lon) {
+    var v = intersectionVertex(label, lat, lon);
+    graph.addVertex(v);
+    return v;
+  }
+
+  private static StreetEdge street(StreetVertex from, StreetVertex to, double length) {
+    return streetEdge(from, to, length, StreetTraversalPermission.ALL);
+  }
+
+  private static RouteRequest request(StreetMode mode, boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setDateTime(Instant.parse("2023-05-01T12:00:00Z"));
+    request.setArriveBy(arriveBy);
+    request.journey().direct().setMode(mode);
+    return request;
+  }
+}
@@ -0,0 +1,153 @@
+package org.opentripplanner.street.model.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+class ContractionHierarchyTest {
+
+  private static final int SIZE = 8;
+
+  private final Random random = new Random(17);
+  private final List<StreetVertex> vertices = new ArrayList<>();
+  private final List<StreetEdge> edges = new ArrayList<>();
+
+  /**
+   * Build a grid of streets with random lengths, some of them one-way or closed for cars, and
+   * compare the paths found in the hierarchy with a plain Dijkstra search.
+   */
+  @Test
+  void findsTheShortestPath() {
+    createGrid();
+    var builder = new ContractionHierarchyBuilder();
+    edges.stream().filter(ContractionHierarchy::includes).forEach(builder::addEdge);
+    var ch = builder.build();
+
+    for (var from : vertices) {
+      var expected = dijkstra(from);
+      for (var to : vertices) {
+        var path = ch.findPath(Map.of(from, 0), Map.of(to, 0));
+        if (!expected.containsKey(to)) {
+          assertNull(path);
+          continue;
+        }
+        assertNotNull(path, from + " -> " + to);
+        assertEquals(expected.get(to), path.weight(), from + " -> " + to);
+        assertEquals(from, path.from());
+        assertEquals(to, path.to());
+        assertPathIsConnected(from, to, path);
+      }
+    }
+  }
+
+  @Test
+  void usesTheWeightOfTheOriginsAndDestinations() {
+    var a = vertex("A", 0);
+    var b = vertex("B", 1);
+    var c = vertex("C", 2);
+    var d = vertex("D", 3);
+    var ab = streetEdge(a, b, 100, StreetTraversalPermission.ALL);
+    var cd = streetEdge(c, d, 100, StreetTraversalPermission.ALL);
+    var bd = streetEdge(b, d, 500, StreetTraversalPermission.ALL);
+    var ch = new ContractionHierarchyBuilder().addEdge(ab).addEdge(cd).addEdge(bd).build();
+
+    // Starting at C is faster, even if it is further away from the origin
+    var path = ch.findPath(Map.of(a, 1_000, c, 5_000), Map.of(d, 0));
+    assertNotNull(path);
+    assertEquals(c, path.from());
+    assertEquals(List.of(cd), path.edges());
+    assertEquals(5_000 + ContractionHierarchy.weight(cd), path.weight());
+
+    // Vertices not in the hierarchy are ignored
+    var e = vertex("E", 4);
+    e.setIndex(4);
+    assertFalse(ch.contains(e));
+    assertNull(ch.findPath(Map.of(e, 0), Map.of(d, 0)));
+  }
+
+  private StreetVertex vertex(String label, int index) {
+    var v = intersectionVertex(label, 60.0 + 0.001 * index, 10.0);
+    v.setIndex(index);
+    return v;
+  }
+
+  private void createGrid() {
+    for (int i = 0; i < SIZE * SIZE; ++i) {
+      var v = intersectionVertex("V" + i, 60.0 + 0.001 * (i / SIZE), 10.0 + 0.002 * (i % SIZE));
+      v.setIndex(i);
+      vertices.add(v);
+    }
+    for (int i = 0; i < SIZE * SIZE; ++i) {
+      if (i % SIZE < SIZE - 1) {
+        addStreet(vertices.get(i), vertices.get(i + 1));
+      }
+      if (i / SIZE < SIZE - 1) {
+        addStreet(vertices.get(i), vertices.get(i + SIZE));
+      }
+    }
+  }
+
+  private void addStreet(StreetVertex a, StreetVertex b) {
+    double length = 100 + random.nextInt(400);
+    var permission = random.nextInt(10) == 0
+      ? StreetTraversalPermission.PEDESTRIAN
+      : StreetTraversalPermission.ALL;
+    int oneWay = random.nextInt(6);
+    if (oneWay != 0) {
+      edges.add(streetEdge(a, b, length, permission));
+    }
+    if (oneWay != 1) {
+      edges.add(streetEdge(b, a, length, permission));
+    }
+  }
+
+  private Map<Vertex, Integer> dijkstra(Vertex from) {
+    Map<Vertex, Integer> weights = new IdentityHashMap<>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Integer>>(Map.Entry.comparingByValue());
+    queue.add(Map.entry(from, 0));
+    while (!queue.isEmpty()) {
+      var next = queue.poll();
+      if (weights.containsKey(next.getKey())) {
+        continue;
+      }
+      weights.put(next.getKey(), next.getValue());
+      for (var e : next.getKey().getOutgoingStreetEdges()) {
+        if (ContractionHierarchy.includes(e)) {
+          queue.add(Map.entry(e.getToVertex(), next.getValue() + ContractionHierarchy.weight(e)));
+        }
+      }
+    }
+    return weights;
+  }
+
+  private static void assertPathIsConnected(
+    Vertex from,
+    Vertex to,
+    ContractionHierarchy.Path path
+  ) {
+    Vertex v = from;
+    int weight = 0;
+    for (var e : path.edges()) {
+      assertEquals(v, e.getFromVertex());
+      v = e.getToVertex();
+      weight += ContractionHierarchy.weight(e);
+    }
+    assertEquals(to, v);
+    assertEquals(path.weight(), weight);
+  }
+}
@@ -0,0 +1,187 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.opentripplanner.framework.geometry.GeometryUtils;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class MappedStreetGeometryTest {
+
+  /** Some bytes in front of the section, in the graph file this is the header and Kryo output */
+  private static final byte[] PREFIX = "Some graph data in front of the section".getBytes();
+
+  private static final StreetVertex A = intersectionVertex("A", 10.0, 60.0);
+  private static final StreetVertex B = intersectionVertex("B", 10.001, 60.001);
+  private static final StreetVertex C = intersectionVertex("C", 10.0, 60.002);
+
+  @TempDir
+  File tempDir;
+
+  private StreetEdge ab;
+  private StreetEdge ba;
+  private StreetEdge bc;
+  private LineString abGeometry;
+  private LineString baGeometry;
+  private LineString bcGeometry;
+
+  @BeforeEach
+  void setup() {
+    var abLine = line(A, new Coordinate(10.0005, 60.0002), B);
+    ab = edge(A, B, abLine, false);
+    ba = edge(B, A, abLine.reverse(), true);
+    ba.shareData(ab);
+    var bcLine = line(B, new Coordinate(10.002, 60.0015), new Coordinate(10.001, 60.0018), C);
+    bc = edge(B, C, bcLine, false);
+
+    // The geometry is rounded when compacted, so we compare with the geometry of the edges
+    abGeometry = ab.getGeometry();
+    baGeometry = ba.getGeometry();
+    bcGeometry = bc.getGeometry();
+  }
+
+  @AfterEach
+  void teardown() {
+    MappedStreetGeometry.unload();
+  }
+
+  @Test
+  void detachAndReattach() {
+    var detached = MappedStreetGeometry.detach(List.of(ab, ba, bc));
+
+    // Forward and back edge share the same geometry
+    assertEquals(2, detached.size());
+    assertEquals(0, ab.mappedGeometryIndex());
+    assertEquals(0, ba.mappedGeometryIndex());
+    assertEquals(1, bc.mappedGeometryIndex());
+
+    detached.reattach();
+
+    assertEquals(-1, ab.mappedGeometryIndex());
+    assertEquals(-1, bc.mappedGeometryIndex());
+    assertEquals(abGeometry, ab.getGeometry());
+    assertEquals(baGeometry, ba.getGeometry());
+    assertEquals(bcGeometry, bc.getGeometry());
+  }
+
+  @Test
+  void memoryMappedSection() throws IOException {
+    var file = writeSection();
+    var detached = MappedStreetGeometry.detach(List.of(ab, ba, bc));
+
+    try (var in = new FileInputStream(file)) {
+      in.readNBytes(PREFIX.length);
+      MappedStreetGeometry.load(in, PREFIX.length, file);
+    }
+
+    assertEquals(2, MappedStreetGeometry.size());
+    assertEquals(abGeometry, ab.getGeometry());
+    assertEquals(baGeometry, ba.getGeometry());
+    assertEquals(bcGeometry, bc.getGeometry());
+    detached.reattach();
+  }
+
+  @Test
+  void sectionReadIntoMemory() throws IOException {
+    var file = writeSection();
+    var detached = MappedStreetGeometry.detach(List.of(ab, ba, bc));
+
+    try (var in = new ByteArrayInputStream(new FileInputStream(file).readAllBytes())) {
+      in.readNBytes(PREFIX.length);
+      MappedStreetGeometry.load(in, PREFIX.length, null);
+    }
+
+    assertEquals(abGeometry, ab.getGeometry());
+    assertEquals(bcGeometry, bc.getGeometry());
+    detached.reattach();
+  }
+
+  @Test
+  void saveGraphLoadedWithMappedGeometry() throws IOException {
+    var file = writeSection();
+    MappedStreetGeometry.detach(List.of(ab, ba, bc));
+    try (var in = new FileInputStream(file)) {
+      in.readNBytes(PREFIX.length);
+      MappedStreetGeometry.load(in, PREFIX.length, file);
+    }
+
+    // Detach again, the geometries are now read from the mapped section
+    var again = MappedStreetGeometry.detach(List.of(bc, ab, ba));
+    assertEquals(2, again.size());
+    assertEquals(0, bc.mappedGeometryIndex());
+    assertEquals(1, ab.mappedGeometryIndex());
+    again.reattach();
+
+    assertEquals(abGeometry, ab.getGeometry());
+    assertEquals(bcGeometry, bc.getGeometry());
+  }
+
+  @Test
+  void attachMappedGeometry() throws IOException {
+    var file = writeSection();
+    MappedStreetGeometry.detach(List.of(ab, ba, bc));
+    try (var in = new FileInputStream(file)) {
+      in.readNBytes(PREFIX.length);
+      MappedStreetGeometry.load(in, PREFIX.length, file);
+    }
+
+    MappedStreetGeometry.attachMapped(List.of(ab, ba, bc));
+    MappedStreetGeometry.unload();
+
+    // The geometries no longer depend on the mapped section
+    assertEquals(-1, ab.mappedGeometryIndex());
+    assertEquals(-1, ba.mappedGeometryIndex());
+    assertSame(ab.compactGeometry(), ba.compactGeometry());
+    assertEquals(abGeometry, ab.getGeometry());
+    assertEquals(baGeometry, ba.getGeometry());
+    assertEquals(bcGeometry, bc.getGeometry());
+  }
+
+  private File writeSection() throws IOException {
+    var file = new File(tempDir, "graph.obj");
+    var detached = MappedStreetGeometry.detach(List.of(ab, ba, bc));
+    try (var out = new FileOutputStream(file)) {
+      out.write(PREFIX);
+      detached.write(out);
+    }
+    detached.reattach();
+    return file;
+  }
+
+  private static StreetEdge edge(
+    StreetVertex from,
+    StreetVertex to,
+    LineString geometry,
+    boolean back
+  ) {
+    return streetEdgeBuilder(from, to, 100, StreetTraversalPermission.ALL)
+      .withGeometry(geometry)
+      .withBack(back)
+      .buildAndConnect();
+  }
+
+  private static LineString line(StreetVertex from, Object... points) {
+    var coordinates = new Coordinate[points.length + 1];
+    coordinates[0] = from.getCoordinate();
+    for (int i = 0; i < points.length; i++) {
+      coordinates[i + 1] =
+        points[i] instanceof StreetVertex v ? v.getCoordinate() : (Coordinate) points[i];
+    }
+    return GeometryUtils.getGeometryFactory().createLineString(coordinates);
+  }
+}
@@ -0,0 +1,161 @@
+package org.opentripplanner.street.model.landmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class LandmarkTableTest {
+
+  private static final int SIZE = 8;
+
+  private final Random random = new Random(31);
+  private final List<Vertex> vertices = new ArrayList<>();
+
+  /**
+   * Build a grid of streets with random lengths, some of them one-way or closed for cars, and
+   * check that the bound is never longer than the shortest path in either direction.
+   */
+  @Test
+  void distanceBoundIsNeverLongerThanTheShortestPath() {
+    createGrid();
+    var table = new LandmarkTableBuilder(TraverseMode.CAR, vertices, 4).build();
+    assertEquals(4, table.landmarks().size());
+
+    int positive = 0;
+    for (var target : vertices) {
+      var toTarget = table.distanceBound(Set.of(target), false);
+      var fromTarget = table.distanceBound(Set.of(target), true);
+      assertNotNull(toTarget);
+      assertNotNull(fromTarget);
+
+      var distancesFrom = dijkstra(target, true);
+      var distancesTo = dijkstra(target, false);
+      for (var v : vertices) {
+        double to = distancesTo.getOrDefault(v, Double.POSITIVE_INFINITY);
+        double from = distancesFrom.getOrDefault(v, Double.POSITIVE_INFINITY);
+        assertTrue(toTarget.minDistance(v) <= to, v + " -> " + target);
+        assertTrue(fromTarget.minDistance(v) <= from, target + " -> " + v);
+        if (toTarget.minDistance(v) > 0) {
+          ++positive;
+        }
+      }
+    }
+    assertTrue(positive > vertices.size() * vertices.size() / 2);
+  }
+
+  @Test
+  void distanceBoundAroundALake() {
+    // A road around a lake, from A to B. A and B are close, but the road is long.
+    var a = vertex("A", 60.0, 10.0);
+    var b = vertex("B", 60.0, 10.002);
+    var road = new ArrayList<StreetVertex>();
+    road.add(a);
+    for (int i = 1; i <= 10; ++i) {
+      road.add(vertex("N" + i, 60.0 + i * 0.001, 10.0));
+    }
+    for (int i = 10; i >= 1; --i) {
+      road.add(vertex("S" + i, 60.0 + i * 0.001, 10.002));
+    }
+    road.add(b);
+    for (int i = 1; i < road.size(); ++i) {
+      street(road.get(i - 1), road.get(i), 200);
+      street(road.get(i), road.get(i - 1), 200);
+    }
+
+    var table = new LandmarkTableBuilder(TraverseMode.CAR, vertices, 2).build();
+    var bound = table.distanceBound(Set.of(b), false);
+    assertNotNull(bound);
+
+    // The road is 21 x 200 meters, each bound may be up to two units too short
+    double length = (road.size() - 1) * 200;
+    assertTrue(bound.minDistance(a) <= length);
+    assertTrue(bound.minDistance(a) >= length - 2 * LandmarkTable.UNIT_METERS);
+
+    // The target is not in the table, it is reached from B
+    var t = intersectionVertex("T", 60.0, 10.003);
+    street(b, t, 100);
+    assertFalse(table.contains(t));
+    var temporaryBound = table.distanceBound(Set.of(t), false);
+    assertNotNull(temporaryBound);
+    assertEquals(bound.minDistance(a), temporaryBound.minDistance(a));
+    assertEquals(0, temporaryBound.minDistance(t));
+  }
+
+  private StreetVertex vertex(String label, double lat, double lon) {
+    var v = intersectionVertex(label, lat, lon);
+    v.setIndex(vertices.size());
+    vertices.add(v);
+    return v;
+  }
+
+  private void createGrid() {
+    var grid = new ArrayList<StreetVertex>();
+    for (int i = 0; i < SIZE * SIZE; ++i) {
+      grid.add(vertex("V" + i, 60.0 + 0.001 * (i / SIZE), 10.0 + 0.002 * (i % SIZE)));
+    }
+    for (int i = 0; i < SIZE * SIZE; ++i) {
+      if (i % SIZE < SIZE - 1) {
+        addStreet(grid.get(i), grid.get(i + 1));
+      }
+      if (i / SIZE < SIZE - 1) {
+        addStreet(grid.get(i), grid.get(i + SIZE));
+      }
+    }
+  }
+
+  private void addStreet(StreetVertex a, StreetVertex b) {
+    double length = 100 + random.nextInt(2000);
+    var permission = random.nextInt(10) == 0
+      ? StreetTraversalPermission.PEDESTRIAN
+      : StreetTraversalPermission.ALL;
+    int oneWay = random.nextInt(6);
+    if (oneWay != 0) {
+      streetEdge(a, b, length, permission);
+    }
+    if (oneWay != 1) {
+      streetEdge(b, a, length, permission);
+    }
+  }
+
+  private static void street(StreetVertex from, StreetVertex to, double length) {
+    streetEdge(from, to, length, StreetTraversalPermission.ALL);
+  }
+
+  private static Map<Vertex, Double> dijkstra(Vertex source, boolean forward) {
+    Map<Vertex, Double> distances = new IdentityHashMap<>();
+    var queue = new PriorityQueue<Map.Entry<Vertex, Double>>(Map.Entry.comparingByValue());
+    queue.add(Map.entry(source, 0.0));
+    while (!queue.isEmpty()) {
+      var next = queue.poll();
+      if (distances.containsKey(next.getKey())) {
+        continue;
+      }
+      distances.put(next.getKey(), next.getValue());
+      for (Edge e : forward ? next.getKey().getOutgoing() : next.getKey().getIncoming()) {
+        if (e instanceof StreetEdge street && street.canTraverse(TraverseMode.CAR)) {
+          var v = forward ? e.getToVertex() : e.getFromVertex();
+          queue.add(Map.entry(v, next.getValue() + street.getDistanceMeters()));
+        }
+      }
+    }
+    return distances;
+  }
+}
@@ -0,0 +1,117 @@
+package org.opentripplanner.street.search.strategy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.framework.geometry.SphericalDistanceLibrary;
+import org.opentripplanner.graph_builder.module.StreetLandmarkModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.impl.GraphPathFinder;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+
+class LandmarkRemainingWeightHeuristicTest {
+
+  private static final int GRID_SIZE = 6;
+
+  private final Graph graph = new Graph();
+  private final StreetVertex a = vertex("A", 60.0, 10.0);
+  private final StreetVertex b = vertex("B", 60.0, 10.002);
+
+  /**
+   * A and B are on each side of a lake, and the road between them goes around it. There is a grid
+   * of streets south of both A and B, which is close to the other side, but does not lead there.
+   * The straight line distance makes the search visit the grid before it finds the road around the
+   * lake.
+   */
+  LandmarkRemainingWeightHeuristicTest() {
+    var road = new ArrayList<StreetVertex>();
+    road.add(a);
+    for (int i = 1; i <= 10; ++i) {
+      road.add(vertex("N" + i, 60.0 + i * 0.001, 10.0));
+    }
+    for (int i = 10; i >= 1; --i) {
+      road.add(vertex("S" + i, 60.0 + i * 0.001, 10.002));
+    }
+    road.add(b);
+    for (int i = 1; i < road.size(); ++i) {
+      street(road.get(i - 1), road.get(i));
+    }
+
+    grid("G", a, 60.0, 10.0);
+    grid("H", b, 60.0, 10.002);
+
+    graph.indexVertices();
+    new StreetLandmarkModule(graph).buildGraph();
+  }
+
+  @ParameterizedTest
+  @ValueSource(booleans = { false, true })
+  void visitFewerStatesWithLandmarks(boolean arriveBy) {
+    var request = request(arriveBy);
+
+    var euclidean = new GraphPathFinder(null);
+    var expected = euclidean.graphPathFinderEntryPoint(request, Set.of(a), Set.of(b));
+
+    var landmarks = new GraphPathFinder(null, null, null, graph.getStreetLandmarks());
+    var paths = landmarks.graphPathFinderEntryPoint(request, Set.of(a), Set.of(b));
+
+    assertEquals(expected.get(0).edges, paths.get(0).edges);
+    assertEquals(expected.get(0).getWeight(), paths.get(0).getWeight(), 0.01);
+    assertTrue(
+      landmarks.numberOfVisitedStates() < euclidean.numberOfVisitedStates(),
+      landmarks.numberOfVisitedStates() + " < " + euclidean.numberOfVisitedStates()
+    );
+  }
+
+  /** Add a grid of streets south of the given position, and connect it to the vertex. */
+  private void grid(String prefix, StreetVertex connectTo, double lat, double lon) {
+    var grid = new StreetVertex[GRID_SIZE][GRID_SIZE];
+    for (int i = 0; i < GRID_SIZE; ++i) {
+      for (int j = 0; j < GRID_SIZE; ++j) {
+        grid[i][j] = vertex(prefix + i + j, lat - 0.0005 * (i + 1), lon + 0.0005 * j);
+        if (i > 0) {
+          street(grid[i - 1][j], grid[i][j]);
+        }
+        if (j > 0) {
+          street(grid[i][j - 1], grid[i][j]);
+        }
+      }
+    }
+    street(connectTo, grid[0][0]);
+  }
+
+  private StreetVertex vertex(String label, double lat, double lon) {
+    var v = intersectionVertex(label, lat, lon);
+    graph.addVertex(v);
+    return v;
+  }
+
+  private static void street(StreetVertex a, StreetVertex b) {
+    double length = SphericalDistanceLibrary.distance(a.getCoordinate(), b.getCoordinate());
+    streetEdge(a, b, length, StreetTraversalPermission.ALL);
+    streetEdge(b, a, length, StreetTraversalPermission.ALL);
+  }
+
+  private static RouteRequest request(boolean arriveBy) {
+    var request = new RouteRequest();
+    request.setDateTime(Instant.parse("2023-05-01T12:00:00Z"));
+    request.setArriveBy(arriveBy);
+    request.journey().direct().setMode(StreetMode.CAR);
+    // Use the speed of the streets, so the estimate is close to the real weight
+    request.withPreferences(preferences ->
+      preferences.withCar(car -> car.withSpeed(11.2).withReluctance(1.0))
+    );
+    return request;
+  }
+}
@@ -114,10 +114,12 @@ class ResultPrinter {
     System.err.println();
     System.err.println(header);
     int labelMaxLen = result.keySet().stream().mapToInt(it -> it.name().length()).max().orElse(20);
+    // The speed-up of each profile is compared with the first profile
+    double baseline = average(result.get(profiles[0]));
     for (SpeedTestProfile p : profiles) {
       List<Integer> v = result.get(p);
       if (v != null) {
-        printProfileResultLine(p.name(), v, labelMaxLen);
+        printProfileResultLine(p.name(), v, labelMaxLen, profiles.length > 1 ? baseline : 0d);
       }
     }
   }
@@ -200,24 +202,37 @@ class ResultPrinter {
     return " Min   Avg  Max     Count   Total";
   }
 
-  private static void printProfileResultLine(String label, List<Integer> v, int labelMaxLen) {
+  private static void printProfileResultLine(
+    String label,
+    List<Integer> v,
+    int labelMaxLen,
+    double baseline
+  ) {
     if (!v.isEmpty()) {
       String values =
         "[ " +
         v.stream().map(it -> String.format("%4d", it)).reduce((a, b) -> a + ", " + b).orElse("") +
         " ]";
-      double avg = v.stream().mapToInt(it -> it).average().orElse(0d);
+      double avg = average(v);
+      String speedUp = baseline > 0d && avg > 0d
+        ? String.format("  Speed-up: %.2f", baseline / avg)
+        : "";
 
       System.err.printf(
-        " ==> %-" + labelMaxLen + "s : %s Avg: %4.1f  (σ=%.1f)%n",
+        " ==> %-" + labelMaxLen + "s : %s Avg: %4.1f  (σ=%.1f)%s%n",
         label,
         values,
         avg,
-        IntUtils.standardDeviation(v)
+        IntUtils.standardDeviation(v),
+        speedUp
       );
     }
   }
 
+  private static double average(List<Integer> v) {
+    return v == null ? 0d : v.stream().mapToInt(it -> it).average().orElse(0d);
+  }
+
   private static String logLine(String label, String formatValue, Object... args) {
     return logLine(true, label, formatValue, args);
   }
@@ -95,7 +95,8 @@ public class SpeedTest {
       new DefaultVehiclePositionService(),
       new DefaultVehicleRentalService(),
       transitModel,
-      config.updatersConfig
+      config.updatersConfig,
+      null
     );
     if (transitModel.getUpdaterManager() != null) {
       transitModel.getUpdaterManager().startUpdaters();
@@ -115,6 +116,7 @@ public class SpeedTest {
         TestServerContext.createVehicleRentalService(),
         config.flexConfig,
         List.of(),
+        null,
         null
       );
     // Creating transitLayerForRaptor should be integrated into the TransitModel, but for now
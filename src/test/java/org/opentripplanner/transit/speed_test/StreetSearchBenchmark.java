@@ -0,0 +1,102 @@
+package org.opentripplanner.transit.speed_test;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.astar.strategy.DurationSkipEdgeStrategy;
+import org.opentripplanner.datastore.OtpDataStore;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.StreetSearchBuilder;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+/**
+ * Compare the map based and the vertex indexed shortest path tree for street searches like the
+ * ones used for access and egress. The benchmark runs a duration limited search from a fixed
+ * random sample of street vertices in one of the speed test graphs. The graph must be built first,
+ * and the speed test directory is set with the {@code otp.speedtest.dir} system property:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass="org.openjdk.jmh.Main" -Dexec.classpathScope=test \
+ *   -Dotp.speedtest.dir=test/performance/norway -Dexec.args="StreetSearchBenchmark -f 0 -prof gc"
+ * </pre>
+ * Use the {@code -prof gc} option to compare the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StreetSearchBenchmark {
+
+  private static final int N_ORIGINS = 50;
+  private static final long SEED = 42;
+
+  @Param({ "false", "true" })
+  public boolean indexedShortestPathTree;
+
+  @Param({ "BIKE", "CAR" })
+  public StreetMode mode;
+
+  @Param({ "PT20M" })
+  public String maxDuration;
+
+  private List<Vertex> origins;
+  private int nextOrigin = 0;
+
+  @Setup(Level.Trial)
+  public void loadGraph() {
+    var dir = new File(System.getProperty("otp.speedtest.dir", "test/performance/norway"));
+    var serializedGraph = SerializedGraphObject.load(OtpDataStore.graphFile(dir));
+    var graph = serializedGraph.graph;
+    graph.index(serializedGraph.transitModel.getStopModel());
+
+    List<Vertex> streetVertices = graph
+      .getVertices()
+      .stream()
+      .filter(v -> v instanceof StreetVertex && v.getDegreeOut() > 0)
+      .toList();
+    var random = new Random(SEED);
+    this.origins =
+      random
+        .ints(N_ORIGINS, 0, streetVertices.size())
+        .mapToObj(streetVertices::get)
+        .toList();
+  }
+
+  @Benchmark
+  public int streetSearch() {
+    var origin = origins.get(nextOrigin);
+    nextOrigin = (nextOrigin + 1) % origins.size();
+
+    var spt = StreetSearchBuilder
+      .of()
+      .setRequest(new RouteRequest())
+      .setStreetRequest(new StreetRequest(mode))
+      .setFrom(origin)
+      .setSkipEdgeStrategy(new DurationSkipEdgeStrategy(Duration.parse(maxDuration)))
+      .setDominanceFunction(new DominanceFunctions.MinimumWeight())
+      .setIndexedShortestPathTree(indexedShortestPathTree)
+      .getShortestPathTree();
+
+    return spt.getVertexCount();
+  }
+}
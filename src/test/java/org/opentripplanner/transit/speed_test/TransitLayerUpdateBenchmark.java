@@ -0,0 +1,112 @@
+package org.opentripplanner.transit.speed_test;
+
+import static org.opentripplanner.standalone.configure.ConstructApplication.creatTransitLayerForRaptor;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.datastore.OtpDataStore;
+import org.opentripplanner.model.TimetableSnapshot;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
+import org.opentripplanner.routing.graph.SerializedGraphObject;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.service.TransitModel;
+
+/**
+ * Measure the time and memory used to commit realtime updates to the realtime transit layer, as a
+ * function of the number of trips updated in each commit. Each commit delays the given number of
+ * random trips running on the busiest service date of one of the speed test graphs. The graph
+ * must be built first, and the speed test directory is set with the {@code otp.speedtest.dir}
+ * system property:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.mainClass="org.openjdk.jmh.Main" -Dexec.classpathScope=test \
+ *   -Dotp.speedtest.dir=test/performance/norway -Dexec.args="TransitLayerUpdateBenchmark -f 0 -prof gc"
+ * </pre>
+ * Use the {@code -prof gc} option to see the bytes allocated per commit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransitLayerUpdateBenchmark {
+
+  private static final long SEED = 42;
+  private static final int DELAY_SECONDS = 60;
+
+  @Param({ "1", "10", "100", "1000" })
+  public int numberOfUpdatedTrips;
+
+  private TransitModel transitModel;
+  private LocalDate serviceDate;
+  private final List<TripTimesInPattern> trips = new ArrayList<>();
+  private int nextTrip = 0;
+  private TimetableSnapshot buffer;
+
+  @Setup(Level.Trial)
+  public void loadGraph() {
+    var dir = new File(System.getProperty("otp.speedtest.dir", "test/performance/norway"));
+    var serializedGraph = SerializedGraphObject.load(OtpDataStore.graphFile(dir));
+    transitModel = serializedGraph.transitModel;
+    transitModel.index();
+    creatTransitLayerForRaptor(transitModel, TransitTuningParameters.FOR_TEST);
+
+    var serviceCodesRunningForDate = transitModel
+      .getTransitModelIndex()
+      .getServiceCodesRunningForDate();
+    serviceDate =
+      Collections.max(
+        serviceCodesRunningForDate.entrySet(),
+        Map.Entry.comparingByValue((a, b) -> Integer.compare(a.size(), b.size()))
+      )
+        .getKey();
+    var serviceCodes = serviceCodesRunningForDate.get(serviceDate);
+
+    for (TripPattern pattern : transitModel.getAllTripPatterns()) {
+      for (TripTimes tripTimes : pattern.getScheduledTimetable().getTripTimes()) {
+        if (serviceCodes.contains(tripTimes.getServiceCode())) {
+          trips.add(new TripTimesInPattern(pattern, tripTimes));
+        }
+      }
+    }
+    Collections.shuffle(trips, new Random(SEED));
+    buffer = new TimetableSnapshot();
+  }
+
+  @Benchmark
+  public TimetableSnapshot commit() {
+    for (int i = 0; i < numberOfUpdatedTrips; ++i) {
+      var trip = trips.get(nextTrip);
+      nextTrip = (nextTrip + 1) % trips.size();
+
+      var updated = new TripTimes(trip.tripTimes());
+      for (int stop = 0; stop < updated.getNumStops(); ++stop) {
+        updated.updateArrivalDelay(stop, DELAY_SECONDS);
+        updated.updateDepartureDelay(stop, DELAY_SECONDS);
+      }
+      buffer.update(trip.pattern(), updated, serviceDate);
+    }
+    return buffer.commit(transitModel.getTransitLayerUpdater(), true);
+  }
+
+  private record TripTimesInPattern(TripPattern pattern, TripTimes tripTimes) {}
+}
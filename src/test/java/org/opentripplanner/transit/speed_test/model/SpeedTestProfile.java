@@ -56,6 +56,14 @@ public enum SpeedTestProfile {
     RaptorProfile.MULTI_CRITERIA,
     SearchDirection.FORWARD,
     Optimization.PARETO_CHECK_AGAINST_DESTINATION
+  ),
+  multi_criteria_parallel(
+    "mp",
+    "Multi-Criteria Range Raptor with the search-window split in parts searched in parallel. " +
+    "Set the searchThreadPoolSize and searchWindowSplitCount tuning parameters to enable it.",
+    RaptorProfile.MULTI_CRITERIA,
+    SearchDirection.FORWARD,
+    Optimization.PARALLEL
   );
 
   final String shortName;
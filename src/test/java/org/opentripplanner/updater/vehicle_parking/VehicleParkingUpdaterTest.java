@@ -68,7 +68,8 @@ class VehicleParkingUpdaterTest {
         parameters,
         dataSource,
         graph.getLinker(),
-        graph.getVehicleParkingService()
+        graph.getVehicleParkingService(),
+        null
       );
   }
 
@@ -30,7 +30,8 @@ class VehicleRentalUpdaterTest {
       new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams()),
       source,
       null,
-      new DefaultVehicleRentalService()
+      new DefaultVehicleRentalService(),
+      null
     );
 
     assertFalse(updater.isPrimed());